@@ -0,0 +1,70 @@
+package com.bank.account.cache;
+
+import com.bank.account.entity.AccountDetailsEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Кэш чтения {@link AccountDetailsEntity} по техническому идентификатору.
+ * Промах загружается под блокировкой ключа: одновременные чтения одного счета дают один запрос в БД.
+ * Метрики публикуются как cache.* с тегом cache=account_details.
+ */
+@Component
+public class AccountDetailsCache {
+
+    public static final String CACHE_NAME = "account_details";
+
+    private final Cache<Long, AccountDetailsEntity> cache;
+
+    public AccountDetailsCache(MeterRegistry meterRegistry,
+                               @Value("${account.details.cache.maximum-size:100000}") long maximumSize,
+                               @Value("${account.details.cache.ttl:PT5M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * @param id     технический идентификатор счета
+     * @param loader загрузка счета при промахе, отсутствующий счет не кэшируется
+     * @return {@link AccountDetailsEntity}
+     */
+    public Optional<AccountDetailsEntity> get(Long id, Function<Long, Optional<AccountDetailsEntity>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Ожидает завершения загрузки ключа, поэтому устаревшее значение не попадет в кэш после вызова.
+     *
+     * @param id технический идентификатор счета
+     */
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * @param ids технические идентификаторы счетов
+     */
+    public void invalidateAll(Collection<Long> ids) {
+        cache.invalidateAll(ids);
+    }
+
+    /**
+     * Сбрасывает кэш после массового изменения остатков.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
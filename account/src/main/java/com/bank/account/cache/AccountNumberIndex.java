@@ -0,0 +1,52 @@
+package com.bank.account.cache;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Индекс номер счёта -> технический идентификатор банковского счета.
+ * Прогревается при старте и обновляется при создании и изменении счетов.
+ */
+@Component
+public class AccountNumberIndex {
+
+    private static final int EXPECTED_ACCOUNTS = 1 << 16;
+
+    private final LongLongMap accounts = new LongLongMap(EXPECTED_ACCOUNTS);
+
+    /**
+     * @param accountNumber номер счёта
+     * @return технический идентификатор счета или {@link LongLongMap#NO_VALUE}
+     */
+    public long find(long accountNumber) {
+        return accounts.get(accountNumber);
+    }
+
+    /**
+     * @param accountNumber номер счёта
+     * @param accountId     технический идентификатор счета
+     */
+    public void put(long accountNumber, long accountId) {
+        accounts.put(accountNumber, accountId);
+    }
+
+    /**
+     * @param accountNumber номер счёта
+     */
+    public void remove(long accountNumber) {
+        accounts.remove(accountNumber);
+    }
+
+    /**
+     * Очищает индекс перед повторным прогревом.
+     */
+    public void clear() {
+        accounts.clear();
+    }
+
+    /**
+     * @return количество проиндексированных счетов
+     */
+    public int size() {
+        return accounts.size();
+    }
+}
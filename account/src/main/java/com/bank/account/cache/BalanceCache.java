@@ -0,0 +1,246 @@
+package com.bank.account.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Кэш текущих остатков банковских счетов в копейках.
+ * Счета разбиты на полосы, у каждой полосы свой замок, поэтому операции над
+ * разными счетами почти не конкурируют, а чтение никогда не обращается к базе.
+ * Вместе с остатком хранится сумма активных холдов: доступный остаток - остаток минус холды.
+ */
+@Component
+public class BalanceCache {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public BalanceCache() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * @param accountId       технический идентификатор банковского счета
+     * @param money           остаток в копейках
+     * @param negativeBalance разрешен ли минус на счёте
+     */
+    public void put(long accountId, long money, boolean negativeBalance) {
+        final Stripe stripe = stripe(accountId);
+        final long stamp = stripe.lock.writeLock();
+        try {
+            stripe.balances.put(accountId, new Balance(money, negativeBalance));
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @param accountId технический идентификатор банковского счета
+     * @return есть ли счет в кэше
+     */
+    public boolean contains(long accountId) {
+        return get(accountId) != null;
+    }
+
+    /**
+     * @param accountId технический идентификатор банковского счета
+     * @return остаток в копейках или null, если счета нет в кэше
+     */
+    public Long getMoney(long accountId) {
+        final Balance balance = get(accountId);
+        return balance == null ? null : balance.money;
+    }
+
+    /**
+     * @param accountId технический идентификатор банковского счета
+     * @return остаток за вычетом активных холдов в копейках или null, если счета нет в кэше
+     */
+    public Long getAvailable(long accountId) {
+        final Balance balance = get(accountId);
+        return balance == null ? null : balance.money - balance.held;
+    }
+
+    /**
+     * Изменяет остаток, если после списания доступный остаток не уйдет в минус на счете без права на минус.
+     *
+     * @param accountId технический идентификатор банковского счета
+     * @param delta     изменение остатка в копейках
+     * @return false, если средств недостаточно или счета нет в кэше
+     */
+    public boolean tryApply(long accountId, long delta) {
+        return tryApply(accountId, delta, 0L);
+    }
+
+    /**
+     * Снимает холд и изменяет остаток атомарно, поэтому списание по холду не конкурирует с другими списаниями.
+     *
+     * @param accountId технический идентификатор банковского счета
+     * @param delta     изменение остатка в копейках
+     * @param released  снимаемая сумма холда в копейках
+     * @return false, если средств недостаточно или счета нет в кэше, тогда холд не снимается
+     */
+    public boolean tryApply(long accountId, long delta, long released) {
+        final Stripe stripe = stripe(accountId);
+        final long stamp = stripe.lock.writeLock();
+        try {
+            final Balance balance = stripe.balances.get(accountId);
+            if (balance == null) {
+                return false;
+            }
+            final long money = Math.addExact(balance.money, delta);
+            final long held = balance.held - released;
+            if (delta < 0 && money - held < 0 && !balance.negativeBalance) {
+                return false;
+            }
+            balance.money = money;
+            balance.held = held;
+            return true;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Резервирует сумму, если доступный остаток не уйдет в минус на счете без права на минус.
+     *
+     * @param accountId технический идентификатор банковского счета
+     * @param amount    сумма холда в копейках
+     * @return false, если средств недостаточно или счета нет в кэше
+     */
+    public boolean tryHold(long accountId, long amount) {
+        final Stripe stripe = stripe(accountId);
+        final long stamp = stripe.lock.writeLock();
+        try {
+            final Balance balance = stripe.balances.get(accountId);
+            if (balance == null) {
+                return false;
+            }
+            final long held = Math.addExact(balance.held, amount);
+            if (balance.money - held < 0 && !balance.negativeBalance) {
+                return false;
+            }
+            balance.held = held;
+            return true;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Изменяет сумму холдов без проверки, например, при снятии холда или прогреве.
+     *
+     * @param accountId технический идентификатор банковского счета
+     * @param delta     изменение суммы холдов в копейках
+     */
+    public void addHeld(long accountId, long delta) {
+        final Stripe stripe = stripe(accountId);
+        final long stamp = stripe.lock.writeLock();
+        try {
+            final Balance balance = stripe.balances.get(accountId);
+            if (balance != null) {
+                balance.held = Math.addExact(balance.held, delta);
+            }
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Изменяет остаток без проверки, например, при откате или зачислении.
+     *
+     * @param accountId технический идентификатор банковского счета
+     * @param delta     изменение остатка в копейках
+     */
+    public void add(long accountId, long delta) {
+        final Stripe stripe = stripe(accountId);
+        final long stamp = stripe.lock.writeLock();
+        try {
+            final Balance balance = stripe.balances.get(accountId);
+            if (balance != null) {
+                balance.money = Math.addExact(balance.money, delta);
+            }
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Изменяет остаток и признак минуса после прямого обновления счета.
+     *
+     * @param accountId       технический идентификатор банковского счета
+     * @param delta           изменение остатка в копейках
+     * @param negativeBalance разрешен ли минус на счёте
+     */
+    public void adjust(long accountId, long delta, boolean negativeBalance) {
+        final Stripe stripe = stripe(accountId);
+        final long stamp = stripe.lock.writeLock();
+        try {
+            final Balance balance = stripe.balances.get(accountId);
+            if (balance == null) {
+                stripe.balances.put(accountId, new Balance(delta, negativeBalance));
+            } else {
+                balance.money = Math.addExact(balance.money, delta);
+                balance.negativeBalance = negativeBalance;
+            }
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Очищает кэш перед повторным прогревом.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            final long stamp = stripe.lock.writeLock();
+            try {
+                stripe.balances.clear();
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    private Balance get(long accountId) {
+        final Stripe stripe = stripe(accountId);
+        final long stamp = stripe.lock.readLock();
+        try {
+            final Balance balance = stripe.balances.get(accountId);
+            return balance == null ? null : new Balance(balance.money, balance.held, balance.negativeBalance);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    private Stripe stripe(long accountId) {
+        final int hash = Long.hashCode(accountId);
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+        private final StampedLock lock = new StampedLock();
+        private final Map<Long, Balance> balances = new HashMap<>();
+    }
+
+    private static final class Balance {
+        private long money;
+        private long held;
+        private boolean negativeBalance;
+
+        private Balance(long money, boolean negativeBalance) {
+            this(money, 0L, negativeBalance);
+        }
+
+        private Balance(long money, long held, boolean negativeBalance) {
+            this.money = money;
+            this.held = held;
+            this.negativeBalance = negativeBalance;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.bank.account.cache;
+
+import com.bank.common.scheduling.TimingWheel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сроки активных холдов на {@link TimingWheel}.
+ * Снятые и списанные холды из колеса не удаляются: при наступлении срока они отбрасываются
+ * условным переводом в EXPIRED, который для неактивного холда ничего не меняет.
+ */
+@Component
+public class HoldExpiryWheel {
+
+    private static final int WHEEL_SIZE = 64;
+
+    private final Clock clock;
+    private final long tickMs;
+    private final TimingWheel<Long> wheel;
+
+    public HoldExpiryWheel(@Value("${account.holds.expiry-tick:PT1S}") Duration tick) {
+        this(Clock.systemUTC(), tick);
+    }
+
+    HoldExpiryWheel(Clock clock, Duration tick) {
+        this.clock = clock;
+        this.tickMs = tick.toMillis();
+        this.wheel = new TimingWheel<>(tickMs, WHEEL_SIZE, clock.millis());
+    }
+
+    /**
+     * Холд, срок которого уже наступил, снимается на следующем шаге.
+     *
+     * @param holdId    технический идентификатор холда
+     * @param expiresAt срок холда в миллисекундах
+     */
+    public void schedule(long holdId, long expiresAt) {
+        wheel.schedule(Math.max(expiresAt, clock.millis() + tickMs), holdId);
+    }
+
+    /**
+     * @return идентификаторы холдов, срок которых наступил
+     */
+    public List<Long> advance() {
+        final List<Long> expired = new ArrayList<>();
+        wheel.advance(clock.millis(), expired::add);
+        return expired;
+    }
+}
@@ -0,0 +1,198 @@
+package com.bank.account.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Хэш-таблица long -> long с открытой адресацией на примитивных массивах.
+ * Запись идет под замком, чтение оптимистичное и не выделяет память.
+ * Значения должны быть неотрицательными, отрицательное значение означает отсутствие ключа.
+ */
+public class LongLongMap {
+
+    public static final long NO_VALUE = -1L;
+
+    private static final long EMPTY = 0L;
+    private static final int MIN_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+    private long zeroValue = NO_VALUE;
+
+    public LongLongMap(int expectedSize) {
+        final int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1);
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(values, NO_VALUE);
+    }
+
+    /**
+     * @param key ключ
+     * @return значение или {@link #NO_VALUE}
+     */
+    public long get(long key) {
+        long stamp = lock.tryOptimisticRead();
+        long value = find(key);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                value = find(key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @param key   ключ
+     * @param value неотрицательное значение
+     */
+    public void put(long key, long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Значение должно быть неотрицательным: " + value);
+        }
+        final long stamp = lock.writeLock();
+        try {
+            if (key == EMPTY) {
+                if (zeroValue == NO_VALUE) {
+                    size++;
+                }
+                zeroValue = value;
+                return;
+            }
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int slot = slot(key, keys.length);
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            if (keys[slot] == EMPTY) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Удаляет ключ со сдвигом следующих элементов цепочки, без надгробий.
+     *
+     * @param key ключ
+     */
+    public void remove(long key) {
+        final long stamp = lock.writeLock();
+        try {
+            if (key == EMPTY) {
+                if (zeroValue != NO_VALUE) {
+                    size--;
+                }
+                zeroValue = NO_VALUE;
+                return;
+            }
+            final int mask = keys.length - 1;
+            int slot = slot(key, keys.length);
+            while (keys[slot] != key) {
+                if (keys[slot] == EMPTY) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            size--;
+            int next = (slot + 1) & mask;
+            while (keys[next] != EMPTY) {
+                final int home = slot(keys[next], keys.length);
+                if (((next - home) & mask) >= ((next - slot) & mask)) {
+                    keys[slot] = keys[next];
+                    values[slot] = values[next];
+                    slot = next;
+                }
+                next = (next + 1) & mask;
+            }
+            keys[slot] = EMPTY;
+            values[slot] = NO_VALUE;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return количество ключей
+     */
+    public int size() {
+        final long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Удаляет все ключи.
+     */
+    public void clear() {
+        final long stamp = lock.writeLock();
+        try {
+            Arrays.fill(keys, EMPTY);
+            Arrays.fill(values, NO_VALUE);
+            zeroValue = NO_VALUE;
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private long find(long key) {
+        if (key == EMPTY) {
+            return zeroValue;
+        }
+        final long[] currentKeys = keys;
+        final long[] currentValues = values;
+        if (currentKeys.length != currentValues.length) {
+            return NO_VALUE;
+        }
+        final int mask = currentKeys.length - 1;
+        int slot = slot(key, currentKeys.length);
+        for (int probes = 0; probes < currentKeys.length; probes++) {
+            final long current = currentKeys[slot];
+            if (current == key) {
+                return currentValues[slot];
+            }
+            if (current == EMPTY) {
+                return NO_VALUE;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_VALUE;
+    }
+
+    private void resize(int capacity) {
+        final long[] oldKeys = keys;
+        final long[] oldValues = values;
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(values, NO_VALUE);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i], capacity);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slot(long key, int capacity) {
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & (capacity - 1);
+    }
+}
@@ -0,0 +1,31 @@
+package com.bank.account.cache;
+
+import java.math.BigDecimal;
+
+/**
+ * Перевод денежных сумм в копейки и обратно. Колонка money имеет тип numeric(20, 2).
+ */
+public final class MinorUnits {
+
+    private static final int SCALE = 2;
+
+    private MinorUnits() {
+    }
+
+    /**
+     * @param money сумма в рублях
+     * @return сумма в копейках
+     * @throws ArithmeticException если у суммы больше двух знаков после запятой
+     */
+    public static long toMinor(BigDecimal money) {
+        return money.movePointRight(SCALE).longValueExact();
+    }
+
+    /**
+     * @param minor сумма в копейках
+     * @return сумма в рублях
+     */
+    public static BigDecimal toMoney(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+}
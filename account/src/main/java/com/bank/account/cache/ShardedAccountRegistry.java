@@ -0,0 +1,66 @@
+package com.bank.account.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Счета с разбитым на части остатком и количество частей у каждого.
+ */
+@Component
+public class ShardedAccountRegistry {
+
+    private final Map<Long, Integer> shardCounts = new ConcurrentHashMap<>();
+
+    /**
+     * @param accountId технический идентификатор банковского счета
+     * @param count     количество частичных остатков
+     */
+    public void register(long accountId, int count) {
+        shardCounts.put(accountId, count);
+    }
+
+    /**
+     * @param accountId технический идентификатор банковского счета
+     */
+    public void unregister(long accountId) {
+        shardCounts.remove(accountId);
+    }
+
+    /**
+     * @param counts количество частичных остатков по счетам
+     */
+    public void replaceAll(Map<Long, Integer> counts) {
+        shardCounts.clear();
+        shardCounts.putAll(counts);
+    }
+
+    /**
+     * @param accountId технический идентификатор банковского счета
+     * @return разбит ли остаток счета на части
+     */
+    public boolean isSharded(long accountId) {
+        return shardCounts.containsKey(accountId);
+    }
+
+    /**
+     * Количество частей читается один раз: счет могут исключить из реестра между проверкой и выбором.
+     *
+     * @param accountId технический идентификатор банковского счета
+     * @return случайный частичный остаток для зачисления или null, если остаток счета не разбит
+     */
+    public Integer pickShard(long accountId) {
+        final Integer count = shardCounts.get(accountId);
+        return count == null ? null : ThreadLocalRandom.current().nextInt(count);
+    }
+
+    /**
+     * @return технические идентификаторы счетов с разбитым остатком
+     */
+    public Set<Long> accounts() {
+        return Set.copyOf(shardCounts.keySet());
+    }
+}
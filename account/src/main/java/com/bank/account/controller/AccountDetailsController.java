@@ -1,10 +1,16 @@
 package com.bank.account.controller;
 
 import com.bank.account.dto.AccountDetailsDto;
+import com.bank.account.dto.AccountDetailsPageDto;
+import com.bank.account.dto.BalanceDeltaDto;
 import com.bank.account.entity.AccountDetailsEntity;
 import com.bank.account.service.AccountDetailsService;
+import com.bank.account.service.AccountExportService;
+import com.bank.account.service.BalanceShardService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,8 +19,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Контроллер для {@link AccountDetailsEntity}
@@ -25,6 +33,8 @@ import java.util.List;
 public class AccountDetailsController {
 
     private final AccountDetailsService service;
+    private final BalanceShardService shardService;
+    private final AccountExportService exportService;
 
     /**
      * @param id технический идентификатор {@link AccountDetailsEntity}
@@ -63,4 +73,91 @@ public class AccountDetailsController {
     public ResponseEntity<List<AccountDetailsDto>> readAll(@RequestParam List<Long> ids) {
         return ResponseEntity.ok(service.findAllById(ids));
     }
+
+    /**
+     * @param deltas лист {@link BalanceDeltaDto}, применяемый одной транзакцией
+     * @return {@link ResponseEntity} с количеством обновленных {@link AccountDetailsEntity}
+     */
+    @PostMapping("/postings")
+    public ResponseEntity<Integer> applyPostings(@RequestBody List<BalanceDeltaDto> deltas) {
+        return ResponseEntity.ok(service.applyPostings(deltas));
+    }
+
+    /**
+     * @param id    технический идентификатор {@link AccountDetailsEntity}
+     * @param count количество частичных остатков
+     * @return {@link ResponseEntity} без тела
+     */
+    @PostMapping("/{id}/shards")
+    public ResponseEntity<Void> enableShards(@PathVariable("id") Long id, @RequestParam int count) {
+        shardService.enable(id, count);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * @param id технический идентификатор {@link AccountDetailsEntity}
+     * @return {@link ResponseEntity} без тела
+     */
+    @DeleteMapping("/{id}/shards")
+    public ResponseEntity<Void> disableShards(@PathVariable("id") Long id) {
+        shardService.disable(id);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * @param accountNumber номер счёта {@link AccountDetailsEntity}
+     * @return {@link AccountDetailsDto}
+     */
+    @GetMapping("/by-number/{accountNumber}")
+    public AccountDetailsDto readByNumber(@PathVariable("accountNumber") Long accountNumber) {
+        return service.findByAccountNumber(accountNumber);
+    }
+
+    /**
+     * @param accountNumbers номера счетов {@link AccountDetailsEntity}
+     * @return {@link ResponseEntity} с техническими идентификаторами найденных счетов по номерам
+     */
+    @GetMapping("/by-number")
+    public ResponseEntity<Map<Long, Long>> resolveNumbers(@RequestParam List<Long> accountNumbers) {
+        return ResponseEntity.ok(service.resolveAccountNumbers(accountNumbers));
+    }
+
+    /**
+     * @param profileId технический идентификатор профиля
+     * @param afterId   id последнего счета предыдущей страницы, для первой страницы не передается
+     * @param limit     размер страницы
+     * @return {@link ResponseEntity} с {@link AccountDetailsPageDto}
+     */
+    @GetMapping("/by-profile/{profileId}")
+    public ResponseEntity<AccountDetailsPageDto> readByProfile(@PathVariable("profileId") Long profileId,
+                                                               @RequestParam(required = false) Long afterId,
+                                                               @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(service.findPageByProfile(profileId, afterId, limit));
+    }
+
+    /**
+     * @param bankDetailsId технический идентификатор реквизитов банка
+     * @param afterId       id последнего счета предыдущей страницы, для первой страницы не передается
+     * @param limit         размер страницы
+     * @return {@link ResponseEntity} с {@link AccountDetailsPageDto}
+     */
+    @GetMapping("/by-bank/{bankDetailsId}")
+    public ResponseEntity<AccountDetailsPageDto> readByBank(@PathVariable("bankDetailsId") Long bankDetailsId,
+                                                            @RequestParam(required = false) Long afterId,
+                                                            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(service.findPageByBank(bankDetailsId, afterId, limit));
+    }
+
+    /**
+     * @param bankDetailsId фильтр по реквизитам банка, необязательный
+     * @param profileId     фильтр по профилю, необязательный
+     * @return {@link ResponseEntity} с потоком {@link AccountDetailsDto} в формате NDJSON
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) Long bankDetailsId,
+                                                       @RequestParam(required = false) Long profileId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> exportService.export(bankDetailsId, profileId, out));
+    }
 }
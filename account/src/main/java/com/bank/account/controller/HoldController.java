@@ -0,0 +1,67 @@
+package com.bank.account.controller;
+
+import com.bank.account.dto.HoldDto;
+import com.bank.account.entity.AccountDetailsEntity;
+import com.bank.account.entity.HoldEntity;
+import com.bank.account.service.HoldService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+
+/**
+ * Контроллер для {@link HoldEntity}
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/holds")
+public class HoldController {
+
+    private final HoldService service;
+
+    /**
+     * @param hold холд для создания в виде {@link HoldDto}
+     * @return {@link ResponseEntity<HoldDto>}
+     */
+    @PostMapping("/create")
+    public ResponseEntity<HoldDto> create(@RequestBody HoldDto hold) {
+        return ResponseEntity.ok(service.create(hold));
+    }
+
+    /**
+     * @param id технический идентификатор {@link HoldEntity}
+     * @return {@link HoldDto}
+     */
+    @GetMapping("/{id}")
+    public HoldDto read(@PathVariable("id") Long id) {
+        return service.findById(id);
+    }
+
+    /**
+     * @param id              технический идентификатор {@link HoldEntity}
+     * @param creditAccountId технический идентификатор {@link AccountDetailsEntity} зачисления
+     * @param amount          сумма списания, по умолчанию вся сумма холда
+     * @return {@link ResponseEntity<HoldDto>}
+     */
+    @PostMapping("/{id}/capture")
+    public ResponseEntity<HoldDto> capture(@PathVariable("id") Long id, @RequestParam Long creditAccountId,
+                                           @RequestParam(required = false) BigDecimal amount) {
+        return ResponseEntity.ok(service.capture(id, creditAccountId, amount));
+    }
+
+    /**
+     * @param id технический идентификатор {@link HoldEntity}
+     * @return {@link ResponseEntity<HoldDto>}
+     */
+    @PostMapping("/{id}/release")
+    public ResponseEntity<HoldDto> release(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(service.release(id));
+    }
+}
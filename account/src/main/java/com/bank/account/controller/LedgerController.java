@@ -0,0 +1,44 @@
+package com.bank.account.controller;
+
+import com.bank.account.dto.BalanceDto;
+import com.bank.account.dto.LedgerEntryDto;
+import com.bank.account.entity.AccountDetailsEntity;
+import com.bank.account.entity.PostingEntity;
+import com.bank.account.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Контроллер для {@link PostingEntity}
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/ledger")
+public class LedgerController {
+
+    private final LedgerService service;
+
+    /**
+     * @param entry бухгалтерская запись в виде {@link LedgerEntryDto}
+     * @return {@link ResponseEntity<LedgerEntryDto>}
+     */
+    @PostMapping("/post")
+    public ResponseEntity<LedgerEntryDto> post(@RequestBody LedgerEntryDto entry) {
+        return ResponseEntity.ok(service.post(entry));
+    }
+
+    /**
+     * @param accountId технический идентификатор {@link AccountDetailsEntity}
+     * @return {@link BalanceDto}
+     */
+    @GetMapping("/balance/{accountId}")
+    public BalanceDto balance(@PathVariable("accountId") Long accountId) {
+        return service.getBalance(accountId);
+    }
+}
@@ -0,0 +1,30 @@
+package com.bank.account.dto;
+
+import com.bank.account.entity.AccountDetailsEntity;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Страница {@link AccountDetailsEntity}, упорядоченная по техническому идентификатору
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AccountDetailsPageDto implements Serializable {
+    List<AccountDetailsDto> items;
+    /**
+     * Курсор следующей страницы (id последнего счета) или null, если страница последняя
+     */
+    Long nextAfterId;
+}
@@ -0,0 +1,27 @@
+package com.bank.account.dto;
+
+import com.bank.account.entity.AccountDetailsEntity;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Изменение остатка {@link AccountDetailsEntity}, отрицательное для списания.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BalanceDeltaDto implements Serializable {
+    Long accountDetailsId;
+    BigDecimal delta;
+}
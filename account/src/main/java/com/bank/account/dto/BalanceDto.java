@@ -0,0 +1,31 @@
+package com.bank.account.dto;
+
+import com.bank.account.entity.AccountDetailsEntity;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Текущий остаток {@link AccountDetailsEntity}
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BalanceDto implements Serializable {
+    Long accountDetailsId;
+    BigDecimal money;
+    /**
+     * Остаток за вычетом активных холдов
+     */
+    BigDecimal available;
+}
@@ -0,0 +1,36 @@
+package com.bank.account.dto;
+
+import com.bank.account.entity.HoldEntity;
+import com.bank.account.entity.HoldStatus;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * DTO сущности {@link HoldEntity}
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class HoldDto implements Serializable {
+    Long id;
+    Long accountDetailsId;
+    BigDecimal amount;
+    HoldStatus status;
+    String reference;
+    /**
+     * Срок холда, по умолчанию account.holds.default-ttl от момента создания
+     */
+    Timestamp expiresAt;
+}
@@ -0,0 +1,29 @@
+package com.bank.account.dto;
+
+import com.bank.account.entity.PostingEntity;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Бухгалтерская запись: пара {@link PostingEntity} на списание и зачисление одной суммы.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class LedgerEntryDto implements Serializable {
+    String entryKey;
+    Long debitAccountId;
+    Long creditAccountId;
+    BigDecimal amount;
+}
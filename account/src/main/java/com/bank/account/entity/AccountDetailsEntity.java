@@ -42,7 +42,7 @@ public class AccountDetailsEntity {
     @Column(name = "bank_details_id")
     Long bankDetailsId;
 
-    @Column(name = "money")
+    @Column(name = "money", updatable = false)
     BigDecimal money;
 
     @Column(name = "negative_balance")
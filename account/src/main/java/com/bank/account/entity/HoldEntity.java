@@ -0,0 +1,76 @@
+package com.bank.account.entity;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Objects;
+
+/**
+ * Entity для таблицы hold.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "hold", schema = "account")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class HoldEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    Long id;
+
+    @Column(name = "account_details_id")
+    Long accountDetailsId;
+
+    @Column(name = "amount")
+    BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    HoldStatus status;
+
+    @Column(name = "reference")
+    String reference;
+
+    @Column(name = "expires_at")
+    Timestamp expiresAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final HoldEntity hold = (HoldEntity) o;
+        return Objects.equals(id, hold.id) &&
+                Objects.equals(accountDetailsId, hold.accountDetailsId) &&
+                Objects.equals(amount, hold.amount) &&
+                status == hold.status &&
+                Objects.equals(reference, hold.reference) &&
+                Objects.equals(expiresAt, hold.expiresAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, accountDetailsId, amount, status, reference, expiresAt);
+    }
+}
@@ -0,0 +1,23 @@
+package com.bank.account.entity;
+
+/**
+ * Состояние {@link HoldEntity}
+ */
+public enum HoldStatus {
+    /**
+     * Средства зарезервированы
+     */
+    ACTIVE,
+    /**
+     * Средства списаны
+     */
+    CAPTURED,
+    /**
+     * Холд снят по запросу
+     */
+    RELEASED,
+    /**
+     * Холд снят по истечении срока
+     */
+    EXPIRED
+}
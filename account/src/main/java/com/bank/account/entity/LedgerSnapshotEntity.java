@@ -0,0 +1,41 @@
+package com.bank.account.entity;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.sql.Timestamp;
+
+/**
+ * Entity для таблицы ledger_snapshot.
+ * Единственная строка хранит границу последней свертки проводок в account_details.money;
+ * какие проводки уже свернуты, показывает posting.folded.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "ledger_snapshot", schema = "account")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class LedgerSnapshotEntity {
+
+    public static final Long SNAPSHOT_ID = 1L;
+
+    @Id
+    @Column(name = "id")
+    Long id;
+
+    @Column(name = "folded_until")
+    Timestamp foldedUntil;
+
+    @Column(name = "created_at")
+    Timestamp createdAt;
+}
@@ -0,0 +1,71 @@
+package com.bank.account.entity;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Objects;
+
+/**
+ * Entity для таблицы posting.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "posting", schema = "account")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PostingEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posting_id_seq")
+    @SequenceGenerator(name = "posting_id_seq", schema = "account", sequenceName = "posting_id_seq",
+            allocationSize = 50)
+    @Column(name = "id")
+    Long id;
+
+    @Column(name = "entry_key")
+    String entryKey;
+
+    @Column(name = "account_details_id")
+    Long accountDetailsId;
+
+    @Column(name = "amount")
+    BigDecimal amount;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    Timestamp createdAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final PostingEntity posting = (PostingEntity) o;
+        return Objects.equals(id, posting.id) &&
+                Objects.equals(entryKey, posting.entryKey) &&
+                Objects.equals(accountDetailsId, posting.accountDetailsId) &&
+                Objects.equals(amount, posting.amount);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, entryKey, accountDetailsId, amount);
+    }
+}
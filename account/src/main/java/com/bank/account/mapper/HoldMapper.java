@@ -0,0 +1,27 @@
+package com.bank.account.mapper;
+
+import com.bank.account.dto.HoldDto;
+import com.bank.account.entity.HoldEntity;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper для {@link HoldEntity} и {@link HoldDto}
+ */
+@Mapper(componentModel = "spring")
+public interface HoldMapper {
+
+    /**
+     * @param hold {@link HoldDto}
+     * @return {@link HoldEntity}
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    HoldEntity toEntity(HoldDto hold);
+
+    /**
+     * @param hold {@link HoldEntity}
+     * @return {@link HoldDto}
+     */
+    HoldDto toDto(HoldEntity hold);
+}
@@ -0,0 +1,24 @@
+package com.bank.account.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Проекция остатка банковского счета для прогрева кэша остатков.
+ */
+public interface AccountBalanceView {
+
+    /**
+     * @return технический идентификатор банковского счета
+     */
+    Long getId();
+
+    /**
+     * @return остаток или сумма проводок по счету
+     */
+    BigDecimal getMoney();
+
+    /**
+     * @return разрешен ли минус на счёте
+     */
+    Boolean getNegativeBalance();
+}
@@ -1,10 +1,77 @@
 package com.bank.account.repository;
 
 import com.bank.account.entity.AccountDetailsEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * Репозиторий для {@link AccountDetailsEntity}
  */
-public interface AccountDetailsRepository extends JpaRepository<AccountDetailsEntity, Long> {
+public interface AccountDetailsRepository extends JpaRepository<AccountDetailsEntity, Long>,
+        AccountDetailsRepositoryCustom {
+
+    /**
+     * Шаг последовательности account_number_seq
+     */
+    int ACCOUNT_NUMBER_BLOCK_SIZE = 1000;
+
+    /**
+     * @return поток остатков всех банковских счетов
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select a.id as id, a.money as money, a.negativeBalance as negativeBalance from AccountDetailsEntity a")
+    Stream<AccountBalanceView> streamBalances();
+
+    /**
+     * @return поток номеров всех банковских счетов
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select a.id as id, a.accountNumber as accountNumber from AccountDetailsEntity a")
+    Stream<AccountNumberView> streamAccountNumbers();
+
+    /**
+     * @param accountNumber номер счёта
+     * @return технический идентификатор и номер счета
+     */
+    Optional<AccountNumberView> findByAccountNumber(Long accountNumber);
+
+    /**
+     * @param accountNumbers номера счетов
+     * @return технические идентификаторы и номера найденных счетов
+     */
+    List<AccountNumberView> findAllByAccountNumberIn(Collection<Long> accountNumbers);
+
+    /**
+     * @param profileId технический идентификатор профиля
+     * @param afterId   курсор: id последнего счета предыдущей страницы
+     * @param pageable  размер страницы, смещение всегда 0
+     * @return счета профиля с id больше курсора
+     */
+    List<AccountDetailsEntity> findByProfileIdAndIdGreaterThanOrderByIdAsc(Long profileId, Long afterId,
+                                                                           Pageable pageable);
+
+    /**
+     * @param bankDetailsId технический идентификатор реквизитов банка
+     * @param afterId       курсор: id последнего счета предыдущей страницы
+     * @param pageable      размер страницы, смещение всегда 0
+     * @return счета банка с id больше курсора
+     */
+    List<AccountDetailsEntity> findByBankDetailsIdAndIdGreaterThanOrderByIdAsc(Long bankDetailsId, Long afterId,
+                                                                               Pageable pageable);
+
+    /**
+     * @return первый номер счёта очередного блока из {@link #ACCOUNT_NUMBER_BLOCK_SIZE} номеров
+     */
+    @Query(value = "SELECT nextval('account.account_number_seq')", nativeQuery = true)
+    long nextAccountNumberBlock();
 }
@@ -0,0 +1,34 @@
+package com.bank.account.repository;
+
+import com.bank.account.entity.AccountDetailsEntity;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.function.Consumer;
+
+/**
+ * Пакетные операции над {@link AccountDetailsEntity} в обход контекста персистентности.
+ */
+public interface AccountDetailsRepositoryCustom {
+
+    /**
+     * Применяет изменения остатков условным UPDATE, списание не уводит в минус счет без права на минус
+     * с учетом частичных остатков и еще не свернутых проводок журнала.
+     * Строки блокируются в порядке возрастания id, поэтому параллельные пакеты не взаимоблокируются.
+     *
+     * @param deltas изменения остатков по техническим идентификаторам счетов
+     * @return идентификаторы счетов, которые не удалось обновить
+     */
+    List<Long> applyDeltas(SortedMap<Long, BigDecimal> deltas);
+
+    /**
+     * Читает счета однонаправленным курсором, не загружая таблицу в память.
+     * Должен вызываться внутри транзакции, иначе драйвер PostgreSQL не использует курсор.
+     *
+     * @param bankDetailsId фильтр по реквизитам банка или null
+     * @param profileId     фильтр по профилю или null
+     * @param consumer      обработчик очередного {@link AccountDetailsEntity}
+     */
+    void streamAll(Long bankDetailsId, Long profileId, Consumer<AccountDetailsEntity> consumer);
+}
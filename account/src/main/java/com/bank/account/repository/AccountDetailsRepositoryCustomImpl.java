@@ -0,0 +1,90 @@
+package com.bank.account.repository;
+
+import com.bank.account.entity.AccountDetailsEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.function.Consumer;
+
+/**
+ * Реализация {@link AccountDetailsRepositoryCustom} на {@link JdbcTemplate}
+ */
+public class AccountDetailsRepositoryCustomImpl implements AccountDetailsRepositoryCustom {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String APPLY_DELTA = "UPDATE account.account_details a SET money = a.money + ? " +
+            "WHERE a.id = ? AND CASE WHEN ? >= 0 OR a.negative_balance THEN TRUE " +
+            "ELSE a.money + ? + (SELECT COALESCE(SUM(b.money), 0) FROM account.balance_shard b " +
+            "WHERE b.account_details_id = a.id) + (SELECT COALESCE(SUM(p.amount), 0) FROM account.posting p " +
+            "WHERE p.account_details_id = a.id AND NOT p.folded) " +
+            "- (SELECT COALESCE(SUM(h.amount), 0) FROM account.hold h " +
+            "WHERE h.account_details_id = a.id AND h.status = 'ACTIVE') >= 0 END";
+
+    private static final String STREAM_ALL = "SELECT id, passport_id, account_number, bank_details_id, money, " +
+            "negative_balance, profile_id FROM account.account_details " +
+            "WHERE (CAST(? AS BIGINT) IS NULL OR bank_details_id = ?) " +
+            "AND (CAST(? AS BIGINT) IS NULL OR profile_id = ?) ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate cursorTemplate;
+
+    public AccountDetailsRepositoryCustomImpl(JdbcTemplate jdbcTemplate,
+                                              @Value("${account.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.cursorTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * @param deltas изменения остатков по техническим идентификаторам счетов
+     * @return идентификаторы счетов, которые не удалось обновить
+     */
+    @Override
+    public List<Long> applyDeltas(SortedMap<Long, BigDecimal> deltas) {
+        final List<Map.Entry<Long, BigDecimal>> rows = new ArrayList<>(deltas.entrySet());
+        final int[][] counts = jdbcTemplate.batchUpdate(APPLY_DELTA, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setBigDecimal(1, row.getValue());
+            ps.setLong(2, row.getKey());
+            ps.setBigDecimal(3, row.getValue());
+            ps.setBigDecimal(4, row.getValue());
+        });
+
+        final List<Long> rejected = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    rejected.add(rows.get(index).getKey());
+                }
+                index++;
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * @param bankDetailsId фильтр по реквизитам банка или null
+     * @param profileId     фильтр по профилю или null
+     * @param consumer      обработчик очередного {@link AccountDetailsEntity}
+     */
+    @Override
+    public void streamAll(Long bankDetailsId, Long profileId, Consumer<AccountDetailsEntity> consumer) {
+        cursorTemplate.query(STREAM_ALL, rs -> {
+            consumer.accept(new AccountDetailsEntity(
+                    rs.getLong("id"),
+                    rs.getLong("passport_id"),
+                    rs.getLong("account_number"),
+                    rs.getLong("bank_details_id"),
+                    rs.getBigDecimal("money"),
+                    rs.getBoolean("negative_balance"),
+                    rs.getLong("profile_id")
+            ));
+        }, bankDetailsId, bankDetailsId, profileId, profileId);
+    }
+}
@@ -0,0 +1,17 @@
+package com.bank.account.repository;
+
+/**
+ * Проекция номера банковского счета для индекса номеров.
+ */
+public interface AccountNumberView {
+
+    /**
+     * @return технический идентификатор банковского счета
+     */
+    Long getId();
+
+    /**
+     * @return номер счёта
+     */
+    Long getAccountNumber();
+}
@@ -0,0 +1,11 @@
+package com.bank.account.repository;
+
+/**
+ * Контрольная точка диапазона начисления: счета с id в (lastId, toId] еще не обработаны
+ *
+ * @param lastId   последний обработанный технический идентификатор счета
+ * @param toId     последний технический идентификатор счета диапазона
+ * @param finished диапазон завершен
+ */
+public record AccrualPartition(long lastId, long toId, boolean finished) {
+}
@@ -0,0 +1,142 @@
+package com.bank.account.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Репозиторий запусков начисления на конец дня (таблицы accrual_run и accrual_partition)
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccrualRepository {
+
+    private static final String MAX_ACCOUNT_ID = "SELECT COALESCE(MAX(id), 0) FROM account.account_details";
+
+    private static final String CREATE_RUN = "INSERT INTO account.accrual_run " +
+            "(business_date, max_account_id, partitions) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String CREATE_PARTITIONS = "INSERT INTO account.accrual_partition " +
+            "(business_date, partition_no, last_id, to_id) " +
+            "SELECT ?, n, n * ?, LEAST((n + 1) * ?, ?) FROM generate_series(0, ? - 1) n";
+
+    private static final String UNFINISHED_RUNS = "SELECT business_date FROM account.accrual_run " +
+            "WHERE finished_at IS NULL ORDER BY business_date";
+
+    private static final String PENDING_PARTITIONS = "SELECT partition_no FROM account.accrual_partition " +
+            "WHERE business_date = ? AND finished_at IS NULL ORDER BY partition_no";
+
+    private static final String LOCK_PARTITION = "SELECT last_id, to_id, finished_at IS NOT NULL " +
+            "FROM account.accrual_partition WHERE business_date = ? AND partition_no = ? FOR UPDATE";
+
+    private static final String ADVANCE_PARTITION = "UPDATE account.accrual_partition " +
+            "SET last_id = ?, accounts = accounts + ?, amount = amount + ?, " +
+            "finished_at = CASE WHEN ? THEN now() END WHERE business_date = ? AND partition_no = ?";
+
+    private static final String FINISH_RUN = "UPDATE account.accrual_run SET finished_at = now() " +
+            "WHERE business_date = ? AND finished_at IS NULL AND NOT EXISTS (SELECT 1 " +
+            "FROM account.accrual_partition p WHERE p.business_date = ? AND p.finished_at IS NULL)";
+
+    private static final String READ_BALANCES = "WITH chunk AS (SELECT id, money FROM account.account_details " +
+            "WHERE id > ? AND id <= ? ORDER BY id LIMIT ?) " +
+            "SELECT c.id, c.money " +
+            "+ COALESCE((SELECT SUM(s.money) FROM account.balance_shard s WHERE s.account_details_id = c.id), 0) " +
+            "+ COALESCE((SELECT SUM(p.amount) FROM account.posting p WHERE p.account_details_id = c.id " +
+            "AND NOT p.folded), 0) " +
+            "FROM chunk c ORDER BY c.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Фиксирует границы диапазонов по текущему последнему счету; счета, открытые позже, в запуск не входят.
+     *
+     * @param businessDate  операционный день
+     * @param partitionSize количество идентификаторов в диапазоне
+     * @return false, если запуск за этот день уже создан
+     */
+    public boolean createRun(LocalDate businessDate, long partitionSize) {
+        final Long maxId = jdbcTemplate.queryForObject(MAX_ACCOUNT_ID, Long.class);
+        final long max = maxId == null ? 0L : maxId;
+        final int partitions = (int) Math.max(1, (max + partitionSize - 1) / partitionSize);
+        final Date date = Date.valueOf(businessDate);
+        if (jdbcTemplate.update(CREATE_RUN, date, max, partitions) == 0) {
+            return false;
+        }
+        jdbcTemplate.update(CREATE_PARTITIONS, date, partitionSize, partitionSize, max, partitions);
+        return true;
+    }
+
+    /**
+     * @return операционные дни, начисление за которые не завершено
+     */
+    public List<LocalDate> findUnfinishedRuns() {
+        return jdbcTemplate.query(UNFINISHED_RUNS, (rs, rowNum) -> rs.getDate(1).toLocalDate());
+    }
+
+    /**
+     * @param businessDate операционный день
+     * @return номера незавершенных диапазонов
+     */
+    public List<Integer> findPendingPartitions(LocalDate businessDate) {
+        return jdbcTemplate.queryForList(PENDING_PARTITIONS, Integer.class, Date.valueOf(businessDate));
+    }
+
+    /**
+     * Блокирует контрольную точку до конца транзакции, поэтому один диапазон не обрабатывается дважды.
+     *
+     * @param businessDate операционный день
+     * @param partitionNo  номер диапазона
+     * @return {@link AccrualPartition}
+     */
+    public AccrualPartition lockPartition(LocalDate businessDate, int partitionNo) {
+        return jdbcTemplate.queryForObject(LOCK_PARTITION,
+                (rs, rowNum) -> new AccrualPartition(rs.getLong(1), rs.getLong(2), rs.getBoolean(3)),
+                Date.valueOf(businessDate), partitionNo);
+    }
+
+    /**
+     * @param businessDate операционный день
+     * @param partitionNo  номер диапазона
+     * @param lastId       последний обработанный технический идентификатор счета
+     * @param accounts     количество счетов с начислением в порции
+     * @param amount       сумма начислений порции
+     * @param finished     диапазон обработан полностью
+     */
+    public void advancePartition(LocalDate businessDate, int partitionNo, long lastId, int accounts,
+                                 BigDecimal amount, boolean finished) {
+        jdbcTemplate.update(ADVANCE_PARTITION, lastId, accounts, amount, finished,
+                Date.valueOf(businessDate), partitionNo);
+    }
+
+    /**
+     * @param businessDate операционный день
+     * @return true, если все диапазоны завершены и запуск закрыт этим вызовом
+     */
+    public boolean finishRun(LocalDate businessDate) {
+        final Date date = Date.valueOf(businessDate);
+        return jdbcTemplate.update(FINISH_RUN, date, date) > 0;
+    }
+
+    /**
+     * Остаток включает частичные остатки и несвернутые проводки, как и кэш остатков.
+     *
+     * @param afterId технический идентификатор, после которого читаются счета
+     * @param toId    последний технический идентификатор диапазона
+     * @param limit   размер порции
+     * @return остатки счетов порции по возрастанию id
+     */
+    public SortedMap<Long, BigDecimal> readBalances(long afterId, long toId, int limit) {
+        final SortedMap<Long, BigDecimal> balances = new TreeMap<>();
+        jdbcTemplate.query(READ_BALANCES, rs -> {
+            balances.put(rs.getLong(1), rs.getBigDecimal(2));
+        }, afterId, toId, limit);
+        return balances;
+    }
+}
@@ -0,0 +1,157 @@
+package com.bank.account.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Репозиторий частичных остатков нагруженных счетов (таблица balance_shard).
+ * Зачисления распределяются по строкам balance_shard и не блокируют строку account_details.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BalanceShardRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String CREATE_SHARDS = "INSERT INTO account.balance_shard (account_details_id, shard) " +
+            "SELECT ?, generate_series(0, ? - 1) ON CONFLICT DO NOTHING";
+
+    private static final String CREDIT_SHARD = "UPDATE account.balance_shard SET money = money + ? " +
+            "WHERE account_details_id = ? AND shard = ?";
+
+    private static final String LOCK_ACCOUNTS = "SELECT id FROM account.account_details " +
+            "WHERE id = ANY (?) ORDER BY id FOR UPDATE";
+
+    private static final String COMPACT = "WITH locked AS (SELECT account_details_id, shard, money " +
+            "FROM account.balance_shard WHERE account_details_id = ANY (?) AND money <> 0 FOR UPDATE), " +
+            "drained AS (UPDATE account.balance_shard s SET money = s.money - l.money FROM locked l " +
+            "WHERE s.account_details_id = l.account_details_id AND s.shard = l.shard) " +
+            "UPDATE account.account_details a SET money = a.money + t.total " +
+            "FROM (SELECT account_details_id, SUM(money) AS total FROM locked GROUP BY account_details_id) t " +
+            "WHERE a.id = t.account_details_id";
+
+    private static final String SUM_SHARDS = "SELECT COALESCE(SUM(money), 0) FROM account.balance_shard " +
+            "WHERE account_details_id = ?";
+
+    private static final String BY_ACCOUNT = " FROM account.balance_shard GROUP BY account_details_id";
+
+    private static final String SUM_ALL_SHARDS = "SELECT account_details_id, SUM(money)" + BY_ACCOUNT;
+
+    private static final String COUNT_SHARDS = "SELECT account_details_id, COUNT(*)" + BY_ACCOUNT;
+
+    private static final String DROP_SHARDS = "DELETE FROM account.balance_shard WHERE account_details_id = ?";
+
+    private static final String BIGINT = "bigint";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param accountId технический идентификатор банковского счета
+     * @param count     количество частичных остатков
+     */
+    public void createShards(Long accountId, int count) {
+        jdbcTemplate.update(CREATE_SHARDS, accountId, count);
+    }
+
+    /**
+     * @param credits зачисления по техническим идентификаторам счетов
+     * @param shards  выбранный частичный остаток по каждому счету
+     * @return идентификаторы счетов, у которых не нашлось выбранного частичного остатка
+     */
+    public List<Long> credit(SortedMap<Long, BigDecimal> credits, Map<Long, Integer> shards) {
+        final List<Map.Entry<Long, BigDecimal>> rows = new ArrayList<>(credits.entrySet());
+        final int[][] counts = jdbcTemplate.batchUpdate(CREDIT_SHARD, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setBigDecimal(1, row.getValue());
+            ps.setLong(2, row.getKey());
+            ps.setInt(3, shards.get(row.getKey()));
+        });
+
+        final List<Long> rejected = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    rejected.add(rows.get(index).getKey());
+                }
+                index++;
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * Блокирует строки account_details в порядке возрастания id до конца транзакции.
+     *
+     * @param accountIds технические идентификаторы банковских счетов
+     */
+    public void lockAccounts(Collection<Long> accountIds) {
+        jdbcTemplate.query(con -> {
+            final PreparedStatement ps = con.prepareStatement(LOCK_ACCOUNTS);
+            ps.setArray(1, con.createArrayOf(BIGINT, accountIds.toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    /**
+     * Переносит накопленные зачисления в account_details.money.
+     *
+     * @param accountIds технические идентификаторы банковских счетов
+     * @return количество обновленных счетов
+     */
+    public int compact(Collection<Long> accountIds) {
+        return jdbcTemplate.update(con -> {
+            final PreparedStatement ps = con.prepareStatement(COMPACT);
+            ps.setArray(1, con.createArrayOf(BIGINT, accountIds.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * @param accountId технический идентификатор банковского счета
+     * @return сумма частичных остатков счета
+     */
+    public BigDecimal sum(Long accountId) {
+        return jdbcTemplate.queryForObject(SUM_SHARDS, BigDecimal.class, accountId);
+    }
+
+    /**
+     * @return суммы частичных остатков по всем нагруженным счетам
+     */
+    public Map<Long, BigDecimal> sumAll() {
+        final Map<Long, BigDecimal> sums = new HashMap<>();
+        jdbcTemplate.query(SUM_ALL_SHARDS, rs -> {
+            sums.put(rs.getLong(1), rs.getBigDecimal(2));
+        });
+        return sums;
+    }
+
+    /**
+     * @return количество частичных остатков по всем нагруженным счетам
+     */
+    public Map<Long, Integer> countAll() {
+        final Map<Long, Integer> counts = new HashMap<>();
+        jdbcTemplate.query(COUNT_SHARDS, rs -> {
+            counts.put(rs.getLong(1), rs.getInt(2));
+        });
+        return counts;
+    }
+
+    /**
+     * Удаляет частичные остатки, вызывается после {@link #compact(Collection)} в той же транзакции.
+     *
+     * @param accountId технический идентификатор банковского счета
+     */
+    public void drop(Long accountId) {
+        jdbcTemplate.update(DROP_SHARDS, accountId);
+    }
+}
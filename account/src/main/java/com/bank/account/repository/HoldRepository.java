@@ -0,0 +1,62 @@
+package com.bank.account.repository;
+
+import com.bank.account.entity.HoldEntity;
+import com.bank.account.entity.HoldStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+/**
+ * Репозиторий для {@link HoldEntity}
+ */
+public interface HoldRepository extends JpaRepository<HoldEntity, Long> {
+
+    /**
+     * @param id технический идентификатор {@link HoldEntity}
+     * @return холд, заблокированный до конца транзакции
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from HoldEntity h where h.id = :id")
+    Optional<HoldEntity> findForUpdate(@Param("id") Long id);
+
+    /**
+     * @param status состояние холдов
+     * @return поток холдов в состоянии
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<HoldEntity> streamAllByStatus(HoldStatus status);
+
+    /**
+     * Переводит холд из активного состояния, поэтому холд снимается ровно один раз.
+     *
+     * @param id     технический идентификатор {@link HoldEntity}
+     * @param status новое состояние
+     * @return 1, если холд был активен
+     */
+    @Transactional
+    @Modifying
+    @Query("update HoldEntity h set h.status = :status where h.id = :id " +
+            "and h.status = com.bank.account.entity.HoldStatus.ACTIVE")
+    int finish(@Param("id") Long id, @Param("status") HoldStatus status);
+
+    /**
+     * @param id технический идентификатор {@link HoldEntity}
+     * @return 1, если холд был активен и его срок истек
+     */
+    @Transactional
+    @Modifying
+    @Query("update HoldEntity h set h.status = com.bank.account.entity.HoldStatus.EXPIRED where h.id = :id " +
+            "and h.status = com.bank.account.entity.HoldStatus.ACTIVE and h.expiresAt <= current_timestamp")
+    int expire(@Param("id") Long id);
+}
@@ -0,0 +1,30 @@
+package com.bank.account.repository;
+
+import com.bank.account.entity.LedgerSnapshotEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.sql.Timestamp;
+
+/**
+ * Репозиторий для {@link LedgerSnapshotEntity}
+ */
+public interface LedgerSnapshotRepository extends JpaRepository<LedgerSnapshotEntity, Long> {
+
+    /**
+     * @param id технический идентификатор {@link LedgerSnapshotEntity}
+     * @return снимок, заблокированный до конца транзакции
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from LedgerSnapshotEntity s where s.id = :id")
+    LedgerSnapshotEntity findForUpdate(@Param("id") Long id);
+
+    /**
+     * @return текущее время базы, по нему проставляется posting.created_at
+     */
+    @Query(value = "SELECT now()", nativeQuery = true)
+    Timestamp currentTime();
+}
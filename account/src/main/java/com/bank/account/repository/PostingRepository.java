@@ -0,0 +1,45 @@
+package com.bank.account.repository;
+
+import com.bank.account.entity.PostingEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Репозиторий для {@link PostingEntity}
+ */
+public interface PostingRepository extends JpaRepository<PostingEntity, Long> {
+
+    /**
+     * @param entryKey ключ бухгалтерской записи
+     * @return проводки записи
+     */
+    List<PostingEntity> findAllByEntryKey(String entryKey);
+
+    /**
+     * @return суммы несвернутых проводок по счетам
+     */
+    @Query(value = "SELECT account_details_id AS id, SUM(amount) AS money FROM account.posting " +
+            "WHERE NOT folded GROUP BY account_details_id", nativeQuery = true)
+    List<AccountBalanceView> sumUnfolded();
+
+    /**
+     * Сворачивает в остатки счетов несвернутые проводки старше to и отмечает их свернутыми в том же запросе.
+     * Отбор идет по отметке, а не по времени: проводка, зафиксированная позже с created_at раньше to,
+     * не видна этому запросу и будет свернута следующим.
+     *
+     * @param to граница нового снимка
+     * @return количество обновленных счетов
+     */
+    @Modifying
+    @Query(value = "WITH folded AS (UPDATE account.posting SET folded = TRUE " +
+            "WHERE NOT folded AND created_at < :to RETURNING account_details_id, amount) " +
+            "UPDATE account.account_details a SET money = a.money + p.delta " +
+            "FROM (SELECT account_details_id, SUM(amount) AS delta FROM folded GROUP BY account_details_id) p " +
+            "WHERE a.id = p.account_details_id", nativeQuery = true)
+    int foldIntoAccounts(@Param("to") Timestamp to);
+}
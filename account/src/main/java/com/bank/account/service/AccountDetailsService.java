@@ -1,9 +1,12 @@
 package com.bank.account.service;
 
 import com.bank.account.dto.AccountDetailsDto;
+import com.bank.account.dto.AccountDetailsPageDto;
+import com.bank.account.dto.BalanceDeltaDto;
 import com.bank.account.entity.AccountDetailsEntity;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Сервис для {@link AccountDetailsEntity} {@link AccountDetailsDto}
@@ -23,6 +26,8 @@ public interface AccountDetailsService {
     List<AccountDetailsDto> findAllById(List<Long> ids);
 
     /**
+     * Номер счёта без значения выдается генератором.
+     *
      * @param accountDetails {@link AccountDetailsDto}
      * @return {@link AccountDetailsDto}
      */
@@ -34,4 +39,40 @@ public interface AccountDetailsService {
      * @return {@link AccountDetailsDto}
      */
     AccountDetailsDto update(Long id, AccountDetailsDto accountDetails);
+
+    /**
+     * Применяет пакет изменений остатков одной транзакцией, пакет отклоняется целиком.
+     *
+     * @param deltas лист {@link BalanceDeltaDto}
+     * @return количество обновленных {@link AccountDetailsEntity}
+     */
+    int applyPostings(List<BalanceDeltaDto> deltas);
+
+    /**
+     * @param accountNumber номер счёта {@link AccountDetailsEntity}
+     * @return {@link AccountDetailsDto}
+     */
+    AccountDetailsDto findByAccountNumber(Long accountNumber);
+
+    /**
+     * @param accountNumbers номера счетов {@link AccountDetailsEntity}
+     * @return технические идентификаторы найденных счетов по номерам, ненайденные номера пропускаются
+     */
+    Map<Long, Long> resolveAccountNumbers(List<Long> accountNumbers);
+
+    /**
+     * @param profileId технический идентификатор профиля
+     * @param afterId   курсор: id последнего счета предыдущей страницы или null для первой страницы
+     * @param limit     размер страницы
+     * @return {@link AccountDetailsPageDto}
+     */
+    AccountDetailsPageDto findPageByProfile(Long profileId, Long afterId, int limit);
+
+    /**
+     * @param bankDetailsId технический идентификатор реквизитов банка
+     * @param afterId       курсор: id последнего счета предыдущей страницы или null для первой страницы
+     * @param limit         размер страницы
+     * @return {@link AccountDetailsPageDto}
+     */
+    AccountDetailsPageDto findPageByBank(Long bankDetailsId, Long afterId, int limit);
 }
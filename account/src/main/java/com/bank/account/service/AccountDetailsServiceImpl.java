@@ -1,28 +1,64 @@
 package com.bank.account.service;
 
+import com.bank.account.cache.AccountDetailsCache;
+import com.bank.account.cache.AccountNumberIndex;
+import com.bank.account.cache.BalanceCache;
+import com.bank.account.cache.LongLongMap;
+import com.bank.account.cache.MinorUnits;
+import com.bank.account.cache.ShardedAccountRegistry;
 import com.bank.account.dto.AccountDetailsDto;
+import com.bank.account.dto.AccountDetailsPageDto;
+import com.bank.account.dto.BalanceDeltaDto;
 import com.bank.account.entity.AccountDetailsEntity;
 import com.bank.account.mapper.AccountDetailsMapper;
 import com.bank.account.repository.AccountDetailsRepository;
+import com.bank.account.repository.AccountNumberView;
+import com.bank.account.repository.BalanceShardRepository;
+import com.bank.account.service.common.AccountNumberGenerator;
+import com.bank.account.service.common.AfterCommit;
+import com.bank.account.service.common.AfterRollback;
 import com.bank.account.service.common.ExceptionReturner;
+import com.bank.common.exception.ValidationException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
 /**
  * Реализация {@link AccountDetailsService}
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AccountDetailsServiceImpl implements AccountDetailsService {
 
     private static final String MESSAGE_PREFIX = "Не существующий id = ";
+    private static final String NUMBER_MESSAGE_PREFIX = "Не существующий номер счёта = ";
+    private static final int MAX_PAGE_SIZE = 1000;
     private final AccountDetailsMapper mapper;
     private final AccountDetailsRepository repository;
 
     private final ExceptionReturner exceptionReturner;
+    private final BalanceCache balanceCache;
+    private final ShardedAccountRegistry shardedAccounts;
+    private final BalanceShardRepository shardRepository;
+    private final AccountNumberIndex accountNumberIndex;
+    private final AccountDetailsCache accountDetailsCache;
+    private final AccountNumberGenerator accountNumberGenerator;
 
     /**
      * @param id технический идентификатор {@link AccountDetailsEntity}
@@ -30,9 +66,9 @@ public class AccountDetailsServiceImpl implements AccountDetailsService {
      */
     @Override
     public AccountDetailsDto findById(Long id) {
-        return mapper.toDto(repository.findById(id)
+        return withBalance(mapper.toDto(accountDetailsCache.get(id, repository::findById)
                 .orElseThrow(() -> exceptionReturner.getEntityNotFoundException(MESSAGE_PREFIX + id))
-        );
+        ));
     }
 
     /**
@@ -43,10 +79,12 @@ public class AccountDetailsServiceImpl implements AccountDetailsService {
     public List<AccountDetailsDto> findAllById(List<Long> ids) {
 
         final List<AccountDetailsEntity> accountDetailsList = ids.stream()
-                .map(id -> repository.findById(id)
+                .map(id -> accountDetailsCache.get(id, repository::findById)
                         .orElseThrow(() -> exceptionReturner.getEntityNotFoundException(MESSAGE_PREFIX + id)))
                 .toList();
-        return mapper.toDtoList(accountDetailsList);
+        final List<AccountDetailsDto> accountDetailsDtoList = mapper.toDtoList(accountDetailsList);
+        accountDetailsDtoList.forEach(this::withBalance);
+        return accountDetailsDtoList;
     }
 
     /**
@@ -57,14 +95,22 @@ public class AccountDetailsServiceImpl implements AccountDetailsService {
     @Transactional
     public AccountDetailsDto save(AccountDetailsDto accountDetailsDto) {
 
-        final AccountDetailsEntity accountDetails = repository.save(
-                mapper.toEntity(accountDetailsDto)
-        );
+        final AccountDetailsEntity newAccountDetails = mapper.toEntity(accountDetailsDto);
+        if (newAccountDetails.getAccountNumber() == null) {
+            newAccountDetails.setAccountNumber(accountNumberGenerator.next());
+        }
+        final AccountDetailsEntity accountDetails = repository.save(newAccountDetails);
+        adjustBalance(accountDetails, BigDecimal.ZERO);
+        indexAccountNumber(accountDetails, null);
+        AfterCommit.run(() -> accountDetailsCache.invalidate(accountDetails.getId()));
 
         return mapper.toDto(accountDetails);
     }
 
     /**
+     * Остаток не меняется: money в запросе игнорируется, изменения остатка идут только проводками журнала.
+     * Колонка money не входит в UPDATE, поэтому параллельные проводки и свертка не затираются.
+     *
      * @param id                технический идентификатор {@link AccountDetailsEntity}
      * @param accountDetailsDto {@link AccountDetailsDto}
      * @return {@link AccountDetailsDto}
@@ -75,12 +121,264 @@ public class AccountDetailsServiceImpl implements AccountDetailsService {
 
         final AccountDetailsEntity accountDetails = repository.findById(id)
                 .orElseThrow(() -> exceptionReturner.getEntityNotFoundException(MESSAGE_PREFIX + id));
+        final Long oldAccountNumber = accountDetails.getAccountNumber();
 
         final AccountDetailsEntity updateAccountDetails = repository.save(
                 mapper.mergeToEntity(accountDetails, accountDetailsDto)
         );
+        final boolean negativeBalance = Boolean.TRUE.equals(updateAccountDetails.getNegativeBalance());
+        AfterCommit.run(() -> balanceCache.adjust(id, 0L, negativeBalance));
+        indexAccountNumber(updateAccountDetails, oldAccountNumber);
+        AfterCommit.run(() -> accountDetailsCache.invalidate(id));
 
         return mapper.toDto(updateAccountDetails);
     }
+
+    /**
+     * Изменения сначала резервируются в {@link BalanceCache}, как проводки {@link LedgerService}:
+     * иначе пакет и проводка, еще не видимая в базе, могли бы вместе увести счет в минус.
+     * Откат транзакции возвращает резерв.
+     *
+     * @param deltas лист {@link BalanceDeltaDto}
+     * @return количество обновленных {@link AccountDetailsEntity}
+     */
+    @Override
+    @Transactional
+    public int applyPostings(List<BalanceDeltaDto> deltas) {
+        final SortedMap<Long, BigDecimal> byAccount = sumByAccount(deltas);
+        final Map<Long, Long> reserved = reserve(byAccount);
+        AfterRollback.run(() -> reserved.forEach((id, delta) -> balanceCache.add(id, -delta)));
+
+        final SortedMap<Long, BigDecimal> shardCredits = new TreeMap<>();
+        final Map<Long, Integer> shards = new HashMap<>();
+        final List<Long> shardDebits = new ArrayList<>();
+        for (Map.Entry<Long, BigDecimal> delta : byAccount.entrySet()) {
+            if (!shardedAccounts.isSharded(delta.getKey())) {
+                continue;
+            }
+            final Integer shard = delta.getValue().signum() >= 0 ? shardedAccounts.pickShard(delta.getKey()) : null;
+            if (shard != null) {
+                shardCredits.put(delta.getKey(), delta.getValue());
+                shards.put(delta.getKey(), shard);
+            } else if (delta.getValue().signum() < 0) {
+                shardDebits.add(delta.getKey());
+            }
+        }
+
+        if (!shardDebits.isEmpty()) {
+            shardRepository.lockAccounts(shardDebits);
+        }
+        final SortedMap<Long, BigDecimal> direct = new TreeMap<>(byAccount);
+        direct.keySet().removeAll(shardCredits.keySet());
+        final List<Long> rejected = new ArrayList<>(repository.applyDeltas(direct));
+        if (!shardCredits.isEmpty()) {
+            rejected.addAll(creditShards(shardCredits, shards));
+        }
+        if (!rejected.isEmpty()) {
+            throw new ValidationException("Счета не найдены или на них недостаточно средств: " + rejected);
+        }
+
+        AfterCommit.run(() -> accountDetailsCache.invalidateAll(byAccount.keySet()));
+        return byAccount.size();
+    }
+
+    /**
+     * Частичных остатков может уже не быть, если разбиение отключили в параллельной транзакции:
+     * такие зачисления проводятся прямо в account_details.
+     *
+     * @return счета, зачисление на которые не прошло
+     */
+    private List<Long> creditShards(SortedMap<Long, BigDecimal> credits, Map<Long, Integer> shards) {
+        final SortedMap<Long, BigDecimal> missed = new TreeMap<>(credits);
+        missed.keySet().retainAll(shardRepository.credit(credits, shards));
+        return missed.isEmpty() ? List.of() : repository.applyDeltas(missed);
+    }
+
+    /**
+     * Списания проверяются по доступному остатку в кэше; при любой ошибке уже сделанный резерв возвращается сразу,
+     * до регистрации компенсации отката.
+     */
+    private Map<Long, Long> reserve(SortedMap<Long, BigDecimal> byAccount) {
+        final Map<Long, Long> reserved = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<Long, BigDecimal> delta : byAccount.entrySet()) {
+                final long amount = MinorUnits.toMinor(delta.getValue());
+                if (!balanceCache.tryApply(delta.getKey(), amount)) {
+                    throw new ValidationException("Счет не найден или на нем недостаточно средств: " +
+                            delta.getKey());
+                }
+                reserved.put(delta.getKey(), amount);
+            }
+        } catch (RuntimeException e) {
+            reserved.forEach((id, applied) -> balanceCache.add(id, -applied));
+            throw e;
+        }
+        return reserved;
+    }
+
+    private static SortedMap<Long, BigDecimal> sumByAccount(List<BalanceDeltaDto> deltas) {
+        final SortedMap<Long, BigDecimal> byAccount = new TreeMap<>();
+        for (BalanceDeltaDto delta : deltas) {
+            if (delta.getAccountDetailsId() == null || delta.getDelta() == null) {
+                throw new ValidationException("Счет и сумма изменения обязательны");
+            }
+            if (delta.getDelta().signum() == 0 || delta.getDelta().stripTrailingZeros().scale() > 2) {
+                throw new ValidationException("Некорректная сумма изменения " + delta.getDelta());
+            }
+            byAccount.merge(delta.getAccountDetailsId(), delta.getDelta(), BigDecimal::add);
+        }
+        return byAccount;
+    }
+
+    /**
+     * @param accountNumber номер счёта {@link AccountDetailsEntity}
+     * @return {@link AccountDetailsDto}
+     */
+    @Override
+    public AccountDetailsDto findByAccountNumber(Long accountNumber) {
+        final long id = accountNumberIndex.find(accountNumber);
+        if (id != LongLongMap.NO_VALUE) {
+            return findById(id);
+        }
+
+        final AccountNumberView account = repository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> exceptionReturner
+                        .getEntityNotFoundException(NUMBER_MESSAGE_PREFIX + accountNumber));
+        accountNumberIndex.put(account.getAccountNumber(), account.getId());
+        return findById(account.getId());
+    }
+
+    /**
+     * @param accountNumbers номера счетов {@link AccountDetailsEntity}
+     * @return технические идентификаторы найденных счетов по номерам
+     */
+    @Override
+    public Map<Long, Long> resolveAccountNumbers(List<Long> accountNumbers) {
+        final Map<Long, Long> resolved = new LinkedHashMap<>();
+        final List<Long> misses = new ArrayList<>();
+        for (Long accountNumber : accountNumbers) {
+            final long id = accountNumberIndex.find(accountNumber);
+            if (id == LongLongMap.NO_VALUE) {
+                misses.add(accountNumber);
+            } else {
+                resolved.put(accountNumber, id);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            for (AccountNumberView account : repository.findAllByAccountNumberIn(misses)) {
+                accountNumberIndex.put(account.getAccountNumber(), account.getId());
+                resolved.put(account.getAccountNumber(), account.getId());
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * @param profileId технический идентификатор профиля
+     * @param afterId   курсор: id последнего счета предыдущей страницы или null для первой страницы
+     * @param limit     размер страницы
+     * @return {@link AccountDetailsPageDto}
+     */
+    @Override
+    public AccountDetailsPageDto findPageByProfile(Long profileId, Long afterId, int limit) {
+        return toPage(repository.findByProfileIdAndIdGreaterThanOrderByIdAsc(
+                profileId, cursor(afterId), pageRequest(limit)), limit);
+    }
+
+    /**
+     * @param bankDetailsId технический идентификатор реквизитов банка
+     * @param afterId       курсор: id последнего счета предыдущей страницы или null для первой страницы
+     * @param limit         размер страницы
+     * @return {@link AccountDetailsPageDto}
+     */
+    @Override
+    public AccountDetailsPageDto findPageByBank(Long bankDetailsId, Long afterId, int limit) {
+        return toPage(repository.findByBankDetailsIdAndIdGreaterThanOrderByIdAsc(
+                bankDetailsId, cursor(afterId), pageRequest(limit)), limit);
+    }
+
+    /**
+     * Строит индекс номеров счетов при старте.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpAccountNumbers() {
+        accountNumberIndex.clear();
+        try (Stream<AccountNumberView> accounts = repository.streamAccountNumbers()) {
+            accounts.forEach(account -> accountNumberIndex.put(account.getAccountNumber(), account.getId()));
+        }
+        log.info("Индекс номеров счетов построен, счетов {}", accountNumberIndex.size());
+    }
+
+    private static Long cursor(Long afterId) {
+        return afterId == null ? 0L : afterId;
+    }
+
+    private static PageRequest pageRequest(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(0, limit);
+    }
+
+    /**
+     * Курсор следующей страницы выдается только для полной страницы.
+     */
+    private AccountDetailsPageDto toPage(List<AccountDetailsEntity> accountDetailsList, int limit) {
+        final List<AccountDetailsDto> items = mapper.toDtoList(accountDetailsList);
+        items.forEach(this::withBalance);
+        final Long nextAfterId = accountDetailsList.size() < limit ?
+                null :
+                accountDetailsList.get(accountDetailsList.size() - 1).getId();
+        return new AccountDetailsPageDto(items, nextAfterId);
+    }
+
+    /**
+     * Подставляет текущий остаток из {@link BalanceCache}: в нем уже учтены частичные остатки и проводки журнала,
+     * еще не свернутые в money. Если счета нет в кэше, к money добавляются только частичные остатки.
+     */
+    private AccountDetailsDto withBalance(AccountDetailsDto accountDetails) {
+        if (accountDetails == null || accountDetails.getId() == null || accountDetails.getMoney() == null) {
+            return accountDetails;
+        }
+        final Long money = balanceCache.getMoney(accountDetails.getId());
+        if (money != null) {
+            accountDetails.setMoney(MinorUnits.toMoney(money));
+        } else if (shardedAccounts.isSharded(accountDetails.getId())) {
+            accountDetails.setMoney(accountDetails.getMoney().add(shardRepository.sum(accountDetails.getId())));
+        }
+        return accountDetails;
+    }
+
+    /**
+     * Обновляет индекс номеров счетов после commit.
+     */
+    private void indexAccountNumber(AccountDetailsEntity accountDetails, Long oldAccountNumber) {
+        final Long id = accountDetails.getId();
+        final Long accountNumber = accountDetails.getAccountNumber();
+        if (id == null || accountNumber == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            if (oldAccountNumber != null && !Objects.equals(oldAccountNumber, accountNumber)) {
+                accountNumberIndex.remove(oldAccountNumber);
+            }
+            accountNumberIndex.put(accountNumber, id);
+        });
+    }
+
+    /**
+     * Переносит начальный остаток нового счета в кэш остатков, не затирая несвернутые проводки.
+     */
+    private void adjustBalance(AccountDetailsEntity accountDetails, BigDecimal oldMoney) {
+        if (accountDetails.getId() == null || accountDetails.getMoney() == null || oldMoney == null) {
+            return;
+        }
+        final long id = accountDetails.getId();
+        final long delta = MinorUnits.toMinor(accountDetails.getMoney().subtract(oldMoney));
+        final boolean negativeBalance = Boolean.TRUE.equals(accountDetails.getNegativeBalance());
+        AfterCommit.run(() -> balanceCache.adjust(id, delta, negativeBalance));
+    }
 }
 
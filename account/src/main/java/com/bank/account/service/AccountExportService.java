@@ -0,0 +1,21 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.AccountDetailsDto;
+import com.bank.account.entity.AccountDetailsEntity;
+
+import java.io.OutputStream;
+
+/**
+ * Сервис потоковой выгрузки {@link AccountDetailsEntity}
+ */
+public interface AccountExportService {
+
+    /**
+     * Пишет счета в формате NDJSON: одна строка - один {@link AccountDetailsDto}.
+     *
+     * @param bankDetailsId фильтр по реквизитам банка или null
+     * @param profileId     фильтр по профилю или null
+     * @param out           поток ответа
+     */
+    void export(Long bankDetailsId, Long profileId, OutputStream out);
+}
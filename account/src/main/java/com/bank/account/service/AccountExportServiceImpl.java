@@ -0,0 +1,65 @@
+package com.bank.account.service;
+
+import com.bank.account.cache.BalanceCache;
+import com.bank.account.cache.MinorUnits;
+import com.bank.account.cache.ShardedAccountRegistry;
+import com.bank.account.dto.AccountDetailsDto;
+import com.bank.account.entity.AccountDetailsEntity;
+import com.bank.account.mapper.AccountDetailsMapper;
+import com.bank.account.repository.AccountDetailsRepository;
+import com.bank.account.repository.BalanceShardRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Реализация {@link AccountExportService}.
+ * Строки читаются курсором и сразу пишутся в ответ, память не зависит от размера таблицы.
+ * Остаток берется из {@link BalanceCache}, как в {@link AccountDetailsService#findById}, чтобы учесть
+ * несвернутые проводки журнала.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountExportServiceImpl implements AccountExportService {
+
+    private static final int LINE_SEPARATOR = '\n';
+
+    private final AccountDetailsMapper mapper;
+    private final AccountDetailsRepository repository;
+    private final ObjectMapper objectMapper;
+    private final ShardedAccountRegistry shardedAccounts;
+    private final BalanceShardRepository shardRepository;
+    private final BalanceCache balanceCache;
+
+    /**
+     * @param bankDetailsId фильтр по реквизитам банка или null
+     * @param profileId     фильтр по профилю или null
+     * @param out           поток ответа
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void export(Long bankDetailsId, Long profileId, OutputStream out) {
+        repository.streamAll(bankDetailsId, profileId, accountDetails -> write(accountDetails, out));
+    }
+
+    private void write(AccountDetailsEntity accountDetails, OutputStream out) {
+        final AccountDetailsDto accountDetailsDto = mapper.toDto(accountDetails);
+        final Long money = balanceCache.getMoney(accountDetails.getId());
+        if (money != null) {
+            accountDetailsDto.setMoney(MinorUnits.toMoney(money));
+        } else if (shardedAccounts.isSharded(accountDetails.getId())) {
+            accountDetailsDto.setMoney(accountDetailsDto.getMoney().add(shardRepository.sum(accountDetails.getId())));
+        }
+        try {
+            out.write(objectMapper.writeValueAsBytes(accountDetailsDto));
+            out.write(LINE_SEPARATOR);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
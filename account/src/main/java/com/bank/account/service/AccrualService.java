@@ -0,0 +1,28 @@
+package com.bank.account.service;
+
+import com.bank.account.entity.AccountDetailsEntity;
+
+import java.time.LocalDate;
+
+/**
+ * Начисление процентов и платы за овердрафт по всем {@link AccountDetailsEntity} на конец дня
+ */
+public interface AccrualService {
+
+    /**
+     * Начисляет за вчерашний операционный день, запускается по расписанию.
+     */
+    void endOfDay();
+
+    /**
+     * Создает запуск или продолжает незавершенный с последней контрольной точки.
+     *
+     * @param businessDate операционный день
+     */
+    void accrue(LocalDate businessDate);
+
+    /**
+     * Продолжает запуски, прерванные остановкой приложения.
+     */
+    void resume();
+}
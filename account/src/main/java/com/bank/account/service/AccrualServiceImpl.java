@@ -0,0 +1,177 @@
+package com.bank.account.service;
+
+import com.bank.account.cache.BalanceCache;
+import com.bank.account.cache.MinorUnits;
+import com.bank.account.entity.PostingEntity;
+import com.bank.account.repository.AccrualPartition;
+import com.bank.account.repository.AccrualRepository;
+import com.bank.account.repository.AccountDetailsRepository;
+import com.bank.account.repository.PostingRepository;
+import com.bank.account.service.common.AfterCommit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Реализация {@link AccrualService}.
+ * Пространство id делится на диапазоны, диапазоны обрабатываются параллельно на ограниченном пуле.
+ * Каждая порция счетов - отдельная короткая транзакция: проводки пишутся пакетно вместе с контрольной точкой,
+ * поэтому прерванный запуск продолжается с последней зафиксированной порции.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccrualServiceImpl implements AccrualService {
+
+    private static final String ENTRY_KEY_PREFIX = "accrual-";
+
+    private final AccrualRepository accrualRepository;
+    private final PostingRepository postingRepository;
+    private final AccountDetailsRepository accountDetailsRepository;
+    private final BalanceCache balanceCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${account.accrual.contra-account-id:#{null}}")
+    private Long contraAccountId;
+
+    @Value("${account.accrual.interest-rate:0}")
+    private BigDecimal interestRate;
+
+    @Value("${account.accrual.overdraft-rate:0}")
+    private BigDecimal overdraftRate;
+
+    @Value("${account.accrual.partition-size:100000}")
+    private long partitionSize;
+
+    @Value("${account.accrual.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${account.accrual.parallelism:4}")
+    private int parallelism;
+
+    @Override
+    @Scheduled(cron = "${account.accrual.cron:0 5 0 * * *}")
+    public void endOfDay() {
+        accrue(LocalDate.now().minusDays(1));
+    }
+
+    /**
+     * @param businessDate операционный день
+     */
+    @Override
+    public void accrue(LocalDate businessDate) {
+        if (contraAccountId == null || !accountDetailsRepository.existsById(contraAccountId)) {
+            log.warn("Начисление за {} пропущено: не задан или не найден счет account.accrual.contra-account-id",
+                    businessDate);
+            return;
+        }
+        if (transactionTemplate.execute(status -> accrualRepository.createRun(businessDate, partitionSize))) {
+            log.info("Начисление за {}: создан запуск", businessDate);
+        }
+
+        final List<Integer> partitions = accrualRepository.findPendingPartitions(businessDate);
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism,
+                Math.max(1, partitions.size())));
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (Integer partitionNo : partitions) {
+                futures.add(executor.submit(() -> accruePartition(businessDate, partitionNo)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Начисление за {} прервано, будет продолжено с контрольной точки", businessDate);
+            return;
+        } catch (ExecutionException e) {
+            log.error("Начисление за {} остановлено, будет продолжено с контрольной точки", businessDate,
+                    e.getCause());
+            return;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (transactionTemplate.execute(status -> accrualRepository.finishRun(businessDate))) {
+            log.info("Начисление за {} завершено, диапазонов {}", businessDate, partitions.size());
+        }
+    }
+
+    /**
+     * Запускается с задержкой после старта, чтобы кэш остатков успел прогреться.
+     */
+    @Override
+    @Scheduled(initialDelayString = "${account.accrual.resume-delay:PT1M}",
+            fixedDelayString = "${account.accrual.resume-interval:PT10M}")
+    public void resume() {
+        accrualRepository.findUnfinishedRuns().forEach(this::accrue);
+    }
+
+    private void accruePartition(LocalDate businessDate, int partitionNo) {
+        boolean finished = false;
+        while (!finished) {
+            finished = transactionTemplate.execute(status -> accrueChunk(businessDate, partitionNo));
+        }
+    }
+
+    /**
+     * @return true, если диапазон обработан полностью
+     */
+    private boolean accrueChunk(LocalDate businessDate, int partitionNo) {
+        final AccrualPartition partition = accrualRepository.lockPartition(businessDate, partitionNo);
+        if (partition.finished()) {
+            return true;
+        }
+
+        final SortedMap<Long, BigDecimal> balances = accrualRepository.readBalances(partition.lastId(),
+                partition.toId(), chunkSize);
+        final long lastId = balances.isEmpty() ? partition.toId() : balances.lastKey();
+        final boolean finished = balances.size() < chunkSize || lastId >= partition.toId();
+        final int daysInYear = businessDate.lengthOfYear();
+        final String entryKey = ENTRY_KEY_PREFIX + businessDate;
+
+        final List<PostingEntity> postings = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<Long, BigDecimal> balance : balances.entrySet()) {
+            final BigDecimal amount = accrual(balance.getValue(), daysInYear);
+            if (balance.getKey().equals(contraAccountId) || amount.signum() == 0) {
+                continue;
+            }
+            postings.add(new PostingEntity(null, entryKey, balance.getKey(), amount, null));
+            total = total.add(amount);
+        }
+        if (!postings.isEmpty()) {
+            postings.add(new PostingEntity(null, entryKey + "-" + lastId, contraAccountId, total.negate(), null));
+            postingRepository.saveAll(postings);
+        }
+        accrualRepository.advancePartition(businessDate, partitionNo, lastId,
+                Math.max(0, postings.size() - 1), total, finished);
+
+        AfterCommit.run(() -> postings.forEach(posting -> balanceCache.add(posting.getAccountDetailsId(),
+                MinorUnits.toMinor(posting.getAmount()))));
+        return finished;
+    }
+
+    /**
+     * Проценты на положительный остаток, плата за овердрафт на отрицательный, из расчета годовой ставки.
+     */
+    private BigDecimal accrual(BigDecimal balance, int daysInYear) {
+        final BigDecimal rate = balance.signum() > 0 ? interestRate : overdraftRate;
+        return balance.multiply(rate).divide(BigDecimal.valueOf(daysInYear), 2, RoundingMode.HALF_EVEN);
+    }
+}
@@ -0,0 +1,29 @@
+package com.bank.account.service;
+
+import com.bank.account.entity.AccountDetailsEntity;
+
+/**
+ * Сервис частичных остатков нагруженных {@link AccountDetailsEntity}
+ */
+public interface BalanceShardService {
+
+    /**
+     * Включает разбиение остатка: зачисления распределяются по частям и не блокируют строку счета.
+     *
+     * @param accountId технический идентификатор {@link AccountDetailsEntity}
+     * @param count     количество частичных остатков
+     */
+    void enable(Long accountId, int count);
+
+    /**
+     * Переносит частичные остатки в {@link AccountDetailsEntity#getMoney()} и выключает разбиение.
+     *
+     * @param accountId технический идентификатор {@link AccountDetailsEntity}
+     */
+    void disable(Long accountId);
+
+    /**
+     * Переносит накопленные зачисления всех нагруженных счетов в {@link AccountDetailsEntity#getMoney()}.
+     */
+    void compact();
+}
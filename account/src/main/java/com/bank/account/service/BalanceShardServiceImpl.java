@@ -0,0 +1,101 @@
+package com.bank.account.service;
+
+import com.bank.account.cache.AccountDetailsCache;
+import com.bank.account.cache.ShardedAccountRegistry;
+import com.bank.account.repository.AccountDetailsRepository;
+import com.bank.account.repository.BalanceShardRepository;
+import com.bank.account.service.common.AfterCommit;
+import com.bank.account.service.common.ExceptionReturner;
+import com.bank.common.exception.ValidationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Реализация {@link BalanceShardService}
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceShardServiceImpl implements BalanceShardService {
+
+    private static final String MESSAGE_PREFIX = "Не существующий id = ";
+    private static final int MAX_SHARDS = 256;
+
+    private final BalanceShardRepository shardRepository;
+    private final AccountDetailsRepository accountDetailsRepository;
+    private final ShardedAccountRegistry registry;
+    private final ExceptionReturner exceptionReturner;
+    private final AccountDetailsCache accountDetailsCache;
+
+    /**
+     * @param accountId технический идентификатор банковского счета
+     * @param count     количество частичных остатков
+     */
+    @Override
+    @Transactional
+    public void enable(Long accountId, int count) {
+        if (count < 2 || count > MAX_SHARDS) {
+            throw new ValidationException("Количество частичных остатков должно быть от 2 до " + MAX_SHARDS);
+        }
+        if (registry.isSharded(accountId)) {
+            throw new ValidationException("Остаток счета id = " + accountId + " уже разбит");
+        }
+        if (!accountDetailsRepository.existsById(accountId)) {
+            throw exceptionReturner.getEntityNotFoundException(MESSAGE_PREFIX + accountId);
+        }
+
+        shardRepository.createShards(accountId, count);
+        AfterCommit.run(() -> registry.register(accountId, count));
+    }
+
+    /**
+     * @param accountId технический идентификатор банковского счета
+     */
+    @Override
+    @Transactional
+    public void disable(Long accountId) {
+        if (!registry.isSharded(accountId)) {
+            throw exceptionReturner.getEntityNotFoundException("Остаток счета не разбит, id = " + accountId);
+        }
+
+        shardRepository.lockAccounts(List.of(accountId));
+        shardRepository.compact(List.of(accountId));
+        shardRepository.drop(accountId);
+        AfterCommit.run(() -> {
+            registry.unregister(accountId);
+            accountDetailsCache.invalidate(accountId);
+        });
+    }
+
+    /**
+     * Строки счетов блокируются по возрастанию id, как и при пакетном применении проводок.
+     */
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${account.balance.shards.compact-interval:PT5S}")
+    public void compact() {
+        final Set<Long> accounts = new TreeSet<>(registry.accounts());
+        if (accounts.isEmpty()) {
+            return;
+        }
+
+        shardRepository.lockAccounts(accounts);
+        shardRepository.compact(accounts);
+        AfterCommit.run(() -> accountDetailsCache.invalidateAll(accounts));
+    }
+
+    /**
+     * Загружает список нагруженных счетов при старте.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        registry.replaceAll(shardRepository.countAll());
+    }
+}
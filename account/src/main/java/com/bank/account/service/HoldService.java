@@ -0,0 +1,53 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.HoldDto;
+import com.bank.account.entity.AccountDetailsEntity;
+import com.bank.account.entity.HoldEntity;
+
+import java.math.BigDecimal;
+
+/**
+ * Сервис для {@link HoldEntity} {@link HoldDto}
+ */
+public interface HoldService {
+
+    /**
+     * Резервирует средства, если их хватает с учетом других активных холдов.
+     *
+     * @param hold {@link HoldDto}
+     * @return {@link HoldDto}
+     */
+    HoldDto create(HoldDto hold);
+
+    /**
+     * @param id технический идентификатор {@link HoldEntity}
+     * @return {@link HoldDto}
+     */
+    HoldDto findById(Long id);
+
+    /**
+     * Списывает сумму холда или ее часть, остаток холда освобождается.
+     *
+     * @param id              технический идентификатор {@link HoldEntity}
+     * @param creditAccountId технический идентификатор {@link AccountDetailsEntity} зачисления
+     * @param amount          сумма списания или null для всей суммы холда
+     * @return {@link HoldDto}
+     */
+    HoldDto capture(Long id, Long creditAccountId, BigDecimal amount);
+
+    /**
+     * @param id технический идентификатор {@link HoldEntity}
+     * @return {@link HoldDto}
+     */
+    HoldDto release(Long id);
+
+    /**
+     * Снимает холды, срок которых наступил.
+     */
+    void expireDue();
+
+    /**
+     * Загружает активные холды в кэш остатков и колесо сроков при старте.
+     */
+    void warmUp();
+}
@@ -0,0 +1,215 @@
+package com.bank.account.service;
+
+import com.bank.account.cache.BalanceCache;
+import com.bank.account.cache.HoldExpiryWheel;
+import com.bank.account.cache.MinorUnits;
+import com.bank.account.dto.HoldDto;
+import com.bank.account.dto.LedgerEntryDto;
+import com.bank.account.entity.HoldEntity;
+import com.bank.account.entity.HoldStatus;
+import com.bank.account.mapper.HoldMapper;
+import com.bank.account.repository.HoldRepository;
+import com.bank.account.service.common.ExceptionReturner;
+import com.bank.common.exception.ValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Реализация {@link HoldService}.
+ * Сумма активных холдов по счету хранится в {@link BalanceCache} рядом с остатком,
+ * сроки холдов - в {@link HoldExpiryWheel}, поэтому ни проверка доступного остатка,
+ * ни снятие просроченных холдов не обращаются к таблице hold целиком.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HoldServiceImpl implements HoldService {
+
+    private static final String MESSAGE_PREFIX = "Не существующий id = ";
+    private static final String HOLD_MESSAGE_PREFIX = "Не существующий холд id = ";
+    private static final String HOLD_PREFIX = "Холд id = ";
+    private static final String ENTRY_KEY_PREFIX = "hold-";
+
+    private final HoldRepository repository;
+    private final HoldMapper mapper;
+    private final BalanceCache balanceCache;
+    private final HoldExpiryWheel expiryWheel;
+    private final LedgerService ledgerService;
+    private final ExceptionReturner exceptionReturner;
+
+    @Value("${account.holds.default-ttl:P7D}")
+    private Duration defaultTtl;
+
+    @Value("${account.holds.max-ttl:P30D}")
+    private Duration maxTtl;
+
+    /**
+     * @param holdDto {@link HoldDto}
+     * @return {@link HoldDto}
+     */
+    @Override
+    public HoldDto create(HoldDto holdDto) {
+        final long amount = validate(holdDto);
+        final long accountId = holdDto.getAccountDetailsId();
+        final HoldEntity hold = mapper.toEntity(holdDto);
+        hold.setStatus(HoldStatus.ACTIVE);
+        hold.setExpiresAt(expiresAt(holdDto.getExpiresAt()));
+
+        if (!balanceCache.tryHold(accountId, amount)) {
+            if (!balanceCache.contains(accountId)) {
+                throw exceptionReturner.getEntityNotFoundException(MESSAGE_PREFIX + accountId);
+            }
+            throw new ValidationException("Недостаточно средств на счёте id = " + accountId);
+        }
+
+        final HoldEntity saved;
+        try {
+            saved = repository.save(hold);
+        } catch (RuntimeException e) {
+            balanceCache.addHeld(accountId, -amount);
+            throw e;
+        }
+        expiryWheel.schedule(saved.getId(), saved.getExpiresAt().getTime());
+        return mapper.toDto(saved);
+    }
+
+    /**
+     * @param id технический идентификатор {@link HoldEntity}
+     * @return {@link HoldDto}
+     */
+    @Override
+    public HoldDto findById(Long id) {
+        return mapper.toDto(repository.findById(id)
+                .orElseThrow(() -> exceptionReturner.getEntityNotFoundException(HOLD_MESSAGE_PREFIX + id)));
+    }
+
+    /**
+     * Холд блокируется до конца транзакции, поэтому одновременные списание и снятие не проходят оба.
+     *
+     * @param id              технический идентификатор {@link HoldEntity}
+     * @param creditAccountId технический идентификатор счета зачисления
+     * @param amount          сумма списания или null для всей суммы холда
+     * @return {@link HoldDto}
+     */
+    @Override
+    @Transactional
+    public HoldDto capture(Long id, Long creditAccountId, BigDecimal amount) {
+        final HoldEntity hold = repository.findForUpdate(id)
+                .orElseThrow(() -> exceptionReturner.getEntityNotFoundException(HOLD_MESSAGE_PREFIX + id));
+        requireActive(hold);
+        if (!hold.getExpiresAt().after(new Timestamp(System.currentTimeMillis()))) {
+            throw new ValidationException("Срок холда id = " + id + " истек");
+        }
+        final BigDecimal captured = amount == null ? hold.getAmount() : amount;
+        if (captured.signum() <= 0 || captured.compareTo(hold.getAmount()) > 0) {
+            throw new ValidationException("Сумма списания должна быть больше нуля и не больше суммы холда");
+        }
+
+        hold.setStatus(HoldStatus.CAPTURED);
+        ledgerService.capture(new LedgerEntryDto(ENTRY_KEY_PREFIX + id, hold.getAccountDetailsId(),
+                creditAccountId, captured), hold.getAmount());
+        return mapper.toDto(hold);
+    }
+
+    /**
+     * @param id технический идентификатор {@link HoldEntity}
+     * @return {@link HoldDto}
+     */
+    @Override
+    public HoldDto release(Long id) {
+        final HoldEntity hold = repository.findById(id)
+                .orElseThrow(() -> exceptionReturner.getEntityNotFoundException(HOLD_MESSAGE_PREFIX + id));
+        requireActive(hold);
+        if (repository.finish(id, HoldStatus.RELEASED) == 0) {
+            throw new ValidationException(HOLD_PREFIX + id + " уже не активен");
+        }
+
+        balanceCache.addHeld(hold.getAccountDetailsId(), -MinorUnits.toMinor(hold.getAmount()));
+        hold.setStatus(HoldStatus.RELEASED);
+        return mapper.toDto(hold);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${account.holds.expiry-tick:PT1S}")
+    public void expireDue() {
+        expiryWheel.advance().forEach(this::expire);
+    }
+
+    /**
+     * Выполняется после прогрева кэша остатков, который сбрасывает суммы холдов.
+     * Просроченные за время остановки холды снимаются на первом шаге колеса.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long count = 0;
+        try (Stream<HoldEntity> holds = repository.streamAllByStatus(HoldStatus.ACTIVE)) {
+            final Iterator<HoldEntity> iterator = holds.iterator();
+            while (iterator.hasNext()) {
+                final HoldEntity hold = iterator.next();
+                balanceCache.addHeld(hold.getAccountDetailsId(), MinorUnits.toMinor(hold.getAmount()));
+                expiryWheel.schedule(hold.getId(), hold.getExpiresAt().getTime());
+                count++;
+            }
+        }
+        log.info("Загружено активных холдов: {}", count);
+    }
+
+    /**
+     * Холд, уже списанный или снятый, не меняется.
+     * Колесо срабатывает с точностью до шага и может опередить срок по часам базы: тогда условный перевод
+     * в EXPIRED ничего не меняет, и активный холд снова ставится в колесо.
+     */
+    private void expire(Long id) {
+        repository.findById(id).ifPresent(hold -> {
+            if (hold.getStatus() != HoldStatus.ACTIVE) {
+                return;
+            }
+            if (repository.expire(id) > 0) {
+                balanceCache.addHeld(hold.getAccountDetailsId(), -MinorUnits.toMinor(hold.getAmount()));
+            } else {
+                expiryWheel.schedule(id, hold.getExpiresAt().getTime());
+            }
+        });
+    }
+
+    private void requireActive(HoldEntity hold) {
+        if (hold.getStatus() != HoldStatus.ACTIVE) {
+            throw new ValidationException(HOLD_PREFIX + hold.getId() + " уже не активен: " + hold.getStatus());
+        }
+    }
+
+    private long validate(HoldDto hold) {
+        if (hold.getAccountDetailsId() == null || hold.getAmount() == null) {
+            throw new ValidationException("Счет и сумма холда обязательны");
+        }
+        if (hold.getAmount().signum() <= 0) {
+            throw new ValidationException("Сумма холда должна быть больше нуля");
+        }
+        return MinorUnits.toMinor(hold.getAmount());
+    }
+
+    private Timestamp expiresAt(Timestamp requested) {
+        final long now = System.currentTimeMillis();
+        if (requested == null) {
+            return new Timestamp(now + defaultTtl.toMillis());
+        }
+        if (requested.getTime() <= now || requested.getTime() > now + maxTtl.toMillis()) {
+            throw new ValidationException("Срок холда должен быть в будущем и не дальше " + maxTtl);
+        }
+        return requested;
+    }
+}
@@ -0,0 +1,46 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.BalanceDto;
+import com.bank.account.dto.LedgerEntryDto;
+import com.bank.account.entity.AccountDetailsEntity;
+import com.bank.account.entity.PostingEntity;
+
+import java.math.BigDecimal;
+
+/**
+ * Сервис для {@link PostingEntity} {@link LedgerEntryDto}
+ */
+public interface LedgerService {
+
+    /**
+     * @param entry {@link LedgerEntryDto}
+     * @return {@link LedgerEntryDto}, повторная запись с тем же ключом возвращается без изменений
+     */
+    LedgerEntryDto post(LedgerEntryDto entry);
+
+    /**
+     * Списание по холду: холд снимается и сумма списывается атомарно, поэтому списание не конкурирует
+     * с другими списаниями за зарезервированные средства.
+     *
+     * @param entry {@link LedgerEntryDto}
+     * @param held  снимаемая сумма холда счета списания
+     * @return {@link LedgerEntryDto}
+     */
+    LedgerEntryDto capture(LedgerEntryDto entry, BigDecimal held);
+
+    /**
+     * @param accountId технический идентификатор {@link AccountDetailsEntity}
+     * @return {@link BalanceDto}
+     */
+    BalanceDto getBalance(Long accountId);
+
+    /**
+     * Сворачивает накопленные проводки в {@link AccountDetailsEntity#getMoney()} и отмечает их свернутыми.
+     */
+    void snapshot();
+
+    /**
+     * Заново строит кэш остатков из account_details.money, частичных остатков и несвернутых проводок.
+     */
+    void warmUp();
+}
@@ -0,0 +1,217 @@
+package com.bank.account.service;
+
+import com.bank.account.cache.AccountDetailsCache;
+import com.bank.account.cache.BalanceCache;
+import com.bank.account.cache.MinorUnits;
+import com.bank.account.dto.BalanceDto;
+import com.bank.account.dto.LedgerEntryDto;
+import com.bank.account.entity.LedgerSnapshotEntity;
+import com.bank.account.entity.PostingEntity;
+import com.bank.account.repository.AccountBalanceView;
+import com.bank.account.repository.AccountDetailsRepository;
+import com.bank.account.repository.BalanceShardRepository;
+import com.bank.account.repository.LedgerSnapshotRepository;
+import com.bank.account.repository.PostingRepository;
+import com.bank.account.service.common.AfterCommit;
+import com.bank.account.service.common.AfterRollback;
+import com.bank.account.service.common.ExceptionReturner;
+import com.bank.common.exception.ValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Реализация {@link LedgerService}.
+ * Запись в журнал - одна пакетная вставка пары проводок, остатки читаются только из {@link BalanceCache}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LedgerServiceImpl implements LedgerService {
+
+    private static final String MESSAGE_PREFIX = "Не существующий id = ";
+
+    private final PostingRepository postingRepository;
+    private final LedgerSnapshotRepository snapshotRepository;
+    private final AccountDetailsRepository accountDetailsRepository;
+    private final BalanceShardRepository balanceShardRepository;
+    private final BalanceCache balanceCache;
+    private final ExceptionReturner exceptionReturner;
+    private final AccountDetailsCache accountDetailsCache;
+
+    @Value("${account.ledger.snapshot-lag:PT30S}")
+    private Duration snapshotLag;
+
+    /**
+     * @param entry {@link LedgerEntryDto}
+     * @return {@link LedgerEntryDto}
+     */
+    @Override
+    public LedgerEntryDto post(LedgerEntryDto entry) {
+        return post(entry, 0L);
+    }
+
+    /**
+     * Откат в базе возвращает холд и остаток в кэш.
+     *
+     * @param entry {@link LedgerEntryDto}
+     * @param held  снимаемая сумма холда счета списания
+     * @return {@link LedgerEntryDto}
+     */
+    @Override
+    public LedgerEntryDto capture(LedgerEntryDto entry, BigDecimal held) {
+        final long released = MinorUnits.toMinor(held);
+        final LedgerEntryDto posted = post(entry, released);
+        final long amount = MinorUnits.toMinor(posted.getAmount());
+        AfterRollback.run(() -> {
+            balanceCache.add(posted.getDebitAccountId(), amount);
+            balanceCache.addHeld(posted.getDebitAccountId(), released);
+            balanceCache.add(posted.getCreditAccountId(), -amount);
+        });
+        return posted;
+    }
+
+    private LedgerEntryDto post(LedgerEntryDto entry, long released) {
+        final long amount = validate(entry);
+        final long debitId = entry.getDebitAccountId();
+        final long creditId = entry.getCreditAccountId();
+        final String entryKey = entry.getEntryKey() == null ? UUID.randomUUID().toString() : entry.getEntryKey();
+
+        if (!balanceCache.contains(creditId)) {
+            throw exceptionReturner.getEntityNotFoundException(MESSAGE_PREFIX + creditId);
+        }
+        if (!balanceCache.tryApply(debitId, -amount, released)) {
+            if (!balanceCache.contains(debitId)) {
+                throw exceptionReturner.getEntityNotFoundException(MESSAGE_PREFIX + debitId);
+            }
+            throw new ValidationException("Недостаточно средств на счёте id = " + debitId);
+        }
+        balanceCache.add(creditId, amount);
+
+        try {
+            postingRepository.saveAll(List.of(
+                    new PostingEntity(null, entryKey, debitId, entry.getAmount().negate(), null),
+                    new PostingEntity(null, entryKey, creditId, entry.getAmount(), null)
+            ));
+        } catch (RuntimeException e) {
+            balanceCache.add(debitId, amount);
+            balanceCache.addHeld(debitId, released);
+            balanceCache.add(creditId, -amount);
+            if (e instanceof DataIntegrityViolationException) {
+                return findEntry(entryKey).orElseThrow(() -> e);
+            }
+            throw e;
+        }
+
+        return new LedgerEntryDto(entryKey, debitId, creditId, entry.getAmount());
+    }
+
+    /**
+     * @param accountId технический идентификатор банковского счета
+     * @return {@link BalanceDto}
+     */
+    @Override
+    public BalanceDto getBalance(Long accountId) {
+        final Long money = balanceCache.getMoney(accountId);
+        final Long available = balanceCache.getAvailable(accountId);
+        if (money == null || available == null) {
+            throw exceptionReturner.getEntityNotFoundException(MESSAGE_PREFIX + accountId);
+        }
+        return new BalanceDto(accountId, MinorUnits.toMoney(money), MinorUnits.toMoney(available));
+    }
+
+    /**
+     * Сумма на счетах не меняется, поэтому кэш остатков после снимка не перестраивается.
+     */
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${account.ledger.snapshot-interval:PT1M}")
+    public void snapshot() {
+        final LedgerSnapshotEntity snapshot = snapshotRepository.findForUpdate(LedgerSnapshotEntity.SNAPSHOT_ID);
+        final Timestamp foldedUntil = new Timestamp(snapshotRepository.currentTime().getTime() -
+                snapshotLag.toMillis());
+        if (!foldedUntil.after(snapshot.getFoldedUntil())) {
+            return;
+        }
+
+        final int accounts = postingRepository.foldIntoAccounts(foldedUntil);
+        snapshot.setFoldedUntil(foldedUntil);
+        snapshot.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+        log.info("Снимок журнала до {}: обновлено счетов {}", foldedUntil, accounts);
+        if (accounts > 0) {
+            AfterCommit.run(accountDetailsCache::invalidateAll);
+        }
+    }
+
+    /**
+     * Вызывается при старте, пока приложение не принимает проводки.
+     * Выполняется раньше остальных прогревов: они дополняют уже построенный кэш, например, холдами.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        balanceCache.clear();
+        try (Stream<AccountBalanceView> balances = accountDetailsRepository.streamBalances()) {
+            balances.forEach(balance -> balanceCache.put(balance.getId(),
+                    MinorUnits.toMinor(balance.getMoney()), Boolean.TRUE.equals(balance.getNegativeBalance())));
+        }
+
+        balanceShardRepository.sumAll().forEach((id, money) -> balanceCache.add(id, MinorUnits.toMinor(money)));
+
+        final LedgerSnapshotEntity snapshot = snapshotRepository.getReferenceById(LedgerSnapshotEntity.SNAPSHOT_ID);
+        postingRepository.sumUnfolded()
+                .forEach(delta -> balanceCache.add(delta.getId(), MinorUnits.toMinor(delta.getMoney())));
+        log.info("Кэш остатков построен по снимку {}", snapshot.getFoldedUntil());
+    }
+
+    private long validate(LedgerEntryDto entry) {
+        if (entry.getDebitAccountId() == null || entry.getCreditAccountId() == null || entry.getAmount() == null) {
+            throw new ValidationException("Счет списания, счет зачисления и сумма обязательны");
+        }
+        if (entry.getDebitAccountId().equals(entry.getCreditAccountId())) {
+            throw new ValidationException("Счет списания и счет зачисления совпадают");
+        }
+        if (entry.getAmount().signum() <= 0 || entry.getAmount().stripTrailingZeros().scale() > 2) {
+            throw new ValidationException("Некорректная сумма проводки " + entry.getAmount());
+        }
+        return MinorUnits.toMinor(entry.getAmount());
+    }
+
+    private Optional<LedgerEntryDto> findEntry(String entryKey) {
+        final List<PostingEntity> postings = postingRepository.findAllByEntryKey(entryKey);
+        Long debitId = null;
+        Long creditId = null;
+        BigDecimal amount = null;
+        for (PostingEntity posting : postings) {
+            if (posting.getAmount().signum() < 0) {
+                debitId = posting.getAccountDetailsId();
+            } else {
+                creditId = posting.getAccountDetailsId();
+                amount = posting.getAmount();
+            }
+        }
+        if (debitId == null || creditId == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new LedgerEntryDto(entryKey, debitId, creditId, amount));
+    }
+}
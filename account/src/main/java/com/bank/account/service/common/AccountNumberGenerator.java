@@ -0,0 +1,66 @@
+package com.bank.account.service.common;
+
+import com.bank.account.repository.AccountDetailsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Генератор уникальных номеров счетов по схеме hi/lo.
+ * Блок номеров резервируется одним обращением к account_number_seq, номера блока выдаются без блокировок.
+ * Неиспользованный остаток блока теряется при остановке приложения.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountNumberGenerator {
+
+    private final AccountDetailsRepository repository;
+
+    private final AtomicReference<Block> current = new AtomicReference<>(Block.EMPTY);
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    /**
+     * @return номер счёта, не выданный ранее ни одним экземпляром приложения
+     */
+    public long next() {
+        while (true) {
+            final Block block = current.get();
+            final long number = block.next.getAndIncrement();
+            if (number < block.end) {
+                return number;
+            }
+            refill(block);
+        }
+    }
+
+    /**
+     * Блок запрашивает только один поток, остальные дожидаются его и берут номера из нового блока.
+     */
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            if (current.get() == exhausted) {
+                final long start = repository.nextAccountNumberBlock();
+                current.set(new Block(start, start + AccountDetailsRepository.ACCOUNT_NUMBER_BLOCK_SIZE));
+            }
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private static final class Block {
+
+        private static final Block EMPTY = new Block(0, 0);
+
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.bank.account.service.common;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Компенсирует изменение in-memory состояния, сделанное до фиксации транзакции, если она откатилась.
+ */
+public final class AfterRollback {
+
+    private AfterRollback() {
+    }
+
+    /**
+     * @param action действие, выполняемое после отката; без транзакции не выполняется
+     */
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package com.bank.account.cache;
+
+import com.bank.account.entity.AccountDetailsEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AccountDetailsCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AccountDetailsCache cache = new AccountDetailsCache(meterRegistry, 10, Duration.ofMinutes(1));
+
+    @Test
+    @DisplayName("повторное чтение не вызывает загрузку, инвалидация вызывает")
+    void readThroughAndInvalidateTest() {
+        final AtomicInteger loads = new AtomicInteger();
+        final AccountDetailsEntity accountDetails = new AccountDetailsEntity(1L, 2L, 3L, 4L, BigDecimal.TEN, false, 5L);
+
+        Assertions.assertEquals(Optional.of(accountDetails), cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(accountDetails);
+        }));
+        cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(accountDetails);
+        });
+        Assertions.assertEquals(1, loads.get());
+
+        cache.invalidateAll(List.of(1L));
+        cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(accountDetails);
+        });
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("отсутствующий счет не кэшируется")
+    void missingNotCachedTest() {
+        final AtomicInteger loads = new AtomicInteger();
+        cache.get(7L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        Assertions.assertTrue(cache.get(7L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }).isEmpty());
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("попадания и промахи публикуются в метриках")
+    void metricsTest() {
+        final AccountDetailsEntity accountDetails = new AccountDetailsEntity(1L, 2L, 3L, 4L, BigDecimal.TEN, false, 5L);
+        cache.get(1L, id -> Optional.of(accountDetails));
+        cache.get(1L, id -> Optional.of(accountDetails));
+
+        Assertions.assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tags("cache", AccountDetailsCache.CACHE_NAME, "result", "hit").functionCounter().count());
+        Assertions.assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tags("cache", AccountDetailsCache.CACHE_NAME, "result", "miss").functionCounter().count());
+    }
+}
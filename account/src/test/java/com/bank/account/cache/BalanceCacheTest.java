@@ -0,0 +1,56 @@
+package com.bank.account.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BalanceCacheTest {
+    private final BalanceCache balanceCache = new BalanceCache();
+
+    @Test
+    @DisplayName("списание в пределах остатка")
+    void tryApplyPositiveTest() {
+        balanceCache.put(1L, 100L, false);
+        Assertions.assertTrue(balanceCache.tryApply(1L, -100L));
+        Assertions.assertEquals(0L, balanceCache.getMoney(1L));
+    }
+
+    @Test
+    @DisplayName("списание сверх остатка без права на минус")
+    void tryApplyNegativeTest() {
+        balanceCache.put(1L, 100L, false);
+        Assertions.assertFalse(balanceCache.tryApply(1L, -101L));
+        Assertions.assertEquals(100L, balanceCache.getMoney(1L));
+    }
+
+    @Test
+    @DisplayName("списание сверх остатка с правом на минус")
+    void tryApplyNegativeBalanceTest() {
+        balanceCache.put(1L, 100L, true);
+        Assertions.assertTrue(balanceCache.tryApply(1L, -101L));
+        Assertions.assertEquals(-1L, balanceCache.getMoney(1L));
+    }
+
+    @Test
+    @DisplayName("операции по отсутствующему счету")
+    void missingAccountTest() {
+        Assertions.assertFalse(balanceCache.tryApply(1L, 1L));
+        Assertions.assertNull(balanceCache.getMoney(1L));
+        balanceCache.adjust(1L, 5L, false);
+        Assertions.assertEquals(5L, balanceCache.getMoney(1L));
+    }
+
+    @Test
+    @DisplayName("холд уменьшает доступный остаток и ограничивает списания")
+    void holdTest() {
+        balanceCache.put(1L, 100L, false);
+        Assertions.assertTrue(balanceCache.tryHold(1L, 70L));
+        Assertions.assertFalse(balanceCache.tryHold(1L, 31L));
+        Assertions.assertEquals(30L, balanceCache.getAvailable(1L));
+        Assertions.assertFalse(balanceCache.tryApply(1L, -31L));
+
+        Assertions.assertTrue(balanceCache.tryApply(1L, -50L, 70L));
+        Assertions.assertEquals(50L, balanceCache.getMoney(1L));
+        Assertions.assertEquals(50L, balanceCache.getAvailable(1L));
+    }
+}
@@ -0,0 +1,86 @@
+package com.bank.account.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+public class HoldExpiryWheelTest {
+
+    private final MutableClock clock = new MutableClock(1_000_000L);
+    private final HoldExpiryWheel wheel = new HoldExpiryWheel(clock, Duration.ofSeconds(1));
+
+    @Test
+    @DisplayName("холды снимаются по наступлении срока, в том числе с верхних уровней колеса")
+    void advanceTest() {
+        wheel.schedule(1L, clock.millis() + 5_000L);
+        wheel.schedule(2L, clock.millis() + 3_600_000L);
+        wheel.schedule(3L, clock.millis() + 7L * 24 * 3_600_000L);
+
+        clock.plus(4_000L);
+        Assertions.assertTrue(wheel.advance().isEmpty());
+        clock.plus(1_000L);
+        Assertions.assertEquals(List.of(1L), wheel.advance());
+
+        clock.plus(3_600_000L - 6_000L);
+        Assertions.assertTrue(wheel.advance().isEmpty());
+        clock.plus(1_000L);
+        Assertions.assertEquals(List.of(2L), wheel.advance());
+
+        final List<Long> expired = new ArrayList<>();
+        for (int hour = 1; hour <= 7 * 24; hour++) {
+            clock.plus(3_600_000L);
+            expired.addAll(wheel.advance());
+        }
+        Assertions.assertEquals(List.of(3L), expired);
+    }
+
+    @Test
+    @DisplayName("просроченный холд снимается на следующем шаге")
+    void pastDeadlineTest() {
+        wheel.schedule(1L, clock.millis() - 10_000L);
+        Assertions.assertTrue(wheel.advance().isEmpty());
+        clock.plus(1_000L);
+        Assertions.assertEquals(List.of(1L), wheel.advance());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private long millis;
+
+        private MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        private void plus(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.bank.account.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LongLongMapTest {
+
+    @Test
+    @DisplayName("вставка и поиск с ростом таблицы")
+    void putGetTest() {
+        LongLongMap map = new LongLongMap(4);
+        for (long key = 1; key <= 10_000; key++) {
+            map.put(key * 7919, key);
+        }
+        Assertions.assertEquals(10_000, map.size());
+        for (long key = 1; key <= 10_000; key++) {
+            Assertions.assertEquals(key, map.get(key * 7919));
+        }
+        Assertions.assertEquals(LongLongMap.NO_VALUE, map.get(13));
+    }
+
+    @Test
+    @DisplayName("нулевой ключ и перезапись значения")
+    void zeroKeyTest() {
+        LongLongMap map = new LongLongMap(4);
+        map.put(0L, 5L);
+        map.put(0L, 6L);
+        Assertions.assertEquals(6L, map.get(0L));
+        Assertions.assertEquals(1, map.size());
+        map.remove(0L);
+        Assertions.assertEquals(LongLongMap.NO_VALUE, map.get(0L));
+    }
+
+    @Test
+    @DisplayName("удаление не разрывает цепочки коллизий")
+    void removeTest() {
+        LongLongMap map = new LongLongMap(4);
+        for (long key = 1; key <= 1000; key++) {
+            map.put(key, key);
+        }
+        for (long key = 1; key <= 1000; key += 2) {
+            map.remove(key);
+        }
+        Assertions.assertEquals(500, map.size());
+        for (long key = 1; key <= 1000; key++) {
+            Assertions.assertEquals(key % 2 == 0 ? key : LongLongMap.NO_VALUE, map.get(key));
+        }
+    }
+
+    @Test
+    @DisplayName("отрицательное значение не допускается")
+    void negativeValueTest() {
+        LongLongMap map = new LongLongMap(4);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> map.put(1L, -1L));
+    }
+}
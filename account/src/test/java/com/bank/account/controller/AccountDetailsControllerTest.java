@@ -1,19 +1,31 @@
 package com.bank.account.controller;
 
 import com.bank.account.dto.AccountDetailsDto;
+import com.bank.account.dto.AccountDetailsPageDto;
+import com.bank.account.dto.BalanceDeltaDto;
 import com.bank.account.service.AccountDetailsService;
+import com.bank.account.service.AccountExportService;
+import com.bank.account.service.BalanceShardService;
+import com.bank.common.exception.ValidationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import javax.persistence.EntityNotFoundException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 @ExtendWith(MockitoExtension.class)
 public class AccountDetailsControllerTest {
@@ -23,6 +35,12 @@ public class AccountDetailsControllerTest {
     @Mock
     private AccountDetailsService accountDetailsService;
 
+    @Mock
+    private BalanceShardService balanceShardService;
+
+    @Mock
+    private AccountExportService accountExportService;
+
     @Test
     @DisplayName("чтение по id, позитивный сценарий")
     void readByIdPositiveTest() {
@@ -115,4 +133,97 @@ public class AccountDetailsControllerTest {
         Mockito.doThrow(new EntityNotFoundException()).when(accountDetailsService).findAllById(ids);
         Assertions.assertThrows(EntityNotFoundException.class, () -> accountDetailsController.readAll(ids));
     }
+
+    @Test
+    @DisplayName("Пакет изменений остатков, позитивный сценарий")
+    void applyPostingsPositiveTest() {
+        List<BalanceDeltaDto> deltas = List.of(new BalanceDeltaDto(1L, BigDecimal.TEN));
+        Mockito.doReturn(1).when(accountDetailsService).applyPostings(deltas);
+        ResponseEntity<Integer> temp = accountDetailsController.applyPostings(deltas);
+
+        Assertions.assertEquals(temp.getStatusCode(), HttpStatus.OK);
+        Assertions.assertEquals(1, temp.getBody());
+    }
+
+    @Test
+    @DisplayName("Пакет изменений остатков, негативный сценарий")
+    void applyPostingsNegativeTest() {
+        List<BalanceDeltaDto> deltas = List.of(new BalanceDeltaDto(1L, BigDecimal.TEN.negate()));
+        Mockito.doThrow(new ValidationException("")).when(accountDetailsService).applyPostings(deltas);
+        Assertions.assertThrows(ValidationException.class, () -> accountDetailsController.applyPostings(deltas));
+    }
+
+    @Test
+    @DisplayName("Включение частичных остатков, позитивный сценарий")
+    void enableShardsPositiveTest() {
+        Assertions.assertEquals(HttpStatus.OK, accountDetailsController.enableShards(1L, 8).getStatusCode());
+        Mockito.verify(balanceShardService).enable(1L, 8);
+    }
+
+    @Test
+    @DisplayName("Включение частичных остатков, негативный сценарий")
+    void enableShardsNegativeTest() {
+        Mockito.doThrow(new EntityNotFoundException()).when(balanceShardService).enable(2L, 8);
+        Assertions.assertThrows(EntityNotFoundException.class, () -> accountDetailsController.enableShards(2L, 8));
+    }
+
+    @Test
+    @DisplayName("Выключение частичных остатков, позитивный сценарий")
+    void disableShardsPositiveTest() {
+        Assertions.assertEquals(HttpStatus.OK, accountDetailsController.disableShards(1L).getStatusCode());
+        Mockito.verify(balanceShardService).disable(1L);
+    }
+
+    @Test
+    @DisplayName("Чтение по номеру счёта, позитивный сценарий")
+    void readByNumberPositiveTest() {
+        AccountDetailsDto accountDetailsDto = new AccountDetailsDto();
+        accountDetailsDto.setId(1L);
+        accountDetailsDto.setAccountNumber(100L);
+        Mockito.doReturn(accountDetailsDto).when(accountDetailsService).findByAccountNumber(100L);
+        Assertions.assertEquals(accountDetailsDto, accountDetailsController.readByNumber(100L));
+    }
+
+    @Test
+    @DisplayName("Чтение по несуществующему номеру счёта, негативный сценарий")
+    void readByNumberNegativeTest() {
+        Mockito.doThrow(new EntityNotFoundException()).when(accountDetailsService).findByAccountNumber(100L);
+        Assertions.assertThrows(EntityNotFoundException.class, () -> accountDetailsController.readByNumber(100L));
+    }
+
+    @Test
+    @DisplayName("Разрешение номеров счетов, позитивный сценарий")
+    void resolveNumbersPositiveTest() {
+        List<Long> accountNumbers = List.of(100L, 200L);
+        Mockito.doReturn(Map.of(100L, 1L)).when(accountDetailsService).resolveAccountNumbers(accountNumbers);
+        ResponseEntity<Map<Long, Long>> temp = accountDetailsController.resolveNumbers(accountNumbers);
+
+        Assertions.assertEquals(HttpStatus.OK, temp.getStatusCode());
+        Assertions.assertEquals(Map.of(100L, 1L), temp.getBody());
+    }
+
+    @Test
+    @DisplayName("Выгрузка в NDJSON передает фильтры в сервис при записи ответа")
+    void exportPositiveTest() throws IOException {
+        ResponseEntity<StreamingResponseBody> temp = accountDetailsController.export(1L, null);
+        Assertions.assertEquals(HttpStatus.OK, temp.getStatusCode());
+        Assertions.assertEquals(MediaType.APPLICATION_NDJSON, temp.getHeaders().getContentType());
+        Mockito.verifyNoInteractions(accountExportService);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        temp.getBody().writeTo(out);
+        Mockito.verify(accountExportService).export(ArgumentMatchers.eq(1L), ArgumentMatchers.isNull(),
+                ArgumentMatchers.same(out));
+    }
+
+    @Test
+    @DisplayName("Постраничное чтение по профилю, позитивный сценарий")
+    void readByProfilePositiveTest() {
+        AccountDetailsPageDto page = new AccountDetailsPageDto(List.of(new AccountDetailsDto()), 7L);
+        Mockito.doReturn(page).when(accountDetailsService).findPageByProfile(5L, 3L, 1);
+        ResponseEntity<AccountDetailsPageDto> temp = accountDetailsController.readByProfile(5L, 3L, 1);
+
+        Assertions.assertEquals(HttpStatus.OK, temp.getStatusCode());
+        Assertions.assertEquals(page, temp.getBody());
+    }
 }
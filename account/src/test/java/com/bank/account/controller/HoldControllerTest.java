@@ -0,0 +1,54 @@
+package com.bank.account.controller;
+
+import com.bank.account.dto.HoldDto;
+import com.bank.account.entity.HoldStatus;
+import com.bank.account.service.HoldService;
+import com.bank.common.exception.ValidationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+
+@ExtendWith(MockitoExtension.class)
+public class HoldControllerTest {
+    @InjectMocks
+    private HoldController holdController;
+
+    @Mock
+    private HoldService holdService;
+
+    @Test
+    @DisplayName("создание холда, позитивный сценарий")
+    void createPositiveTest() {
+        HoldDto request = new HoldDto(null, 1L, BigDecimal.TEN, null, "auth", null);
+        HoldDto created = new HoldDto(5L, 1L, BigDecimal.TEN, HoldStatus.ACTIVE, "auth", null);
+        Mockito.doReturn(created).when(holdService).create(request);
+        ResponseEntity<HoldDto> temp = holdController.create(request);
+
+        Assertions.assertEquals(HttpStatus.OK, temp.getStatusCode());
+        Assertions.assertEquals(created, temp.getBody());
+    }
+
+    @Test
+    @DisplayName("списание по холду, негативный сценарий")
+    void captureNegativeTest() {
+        Mockito.doThrow(new ValidationException("")).when(holdService).capture(5L, 2L, null);
+        Assertions.assertThrows(ValidationException.class, () -> holdController.capture(5L, 2L, null));
+    }
+
+    @Test
+    @DisplayName("снятие холда, позитивный сценарий")
+    void releasePositiveTest() {
+        HoldDto released = new HoldDto(5L, 1L, BigDecimal.TEN, HoldStatus.RELEASED, "auth", null);
+        Mockito.doReturn(released).when(holdService).release(5L);
+        Assertions.assertEquals(released, holdController.release(5L).getBody());
+    }
+}
@@ -0,0 +1,62 @@
+package com.bank.account.controller;
+
+import com.bank.account.dto.BalanceDto;
+import com.bank.account.dto.LedgerEntryDto;
+import com.bank.account.service.LedgerService;
+import com.bank.common.exception.ValidationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import javax.persistence.EntityNotFoundException;
+import java.math.BigDecimal;
+
+@ExtendWith(MockitoExtension.class)
+public class LedgerControllerTest {
+    @InjectMocks
+    private LedgerController ledgerController;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Test
+    @DisplayName("проводка, позитивный сценарий")
+    void postPositiveTest() {
+        LedgerEntryDto entry = new LedgerEntryDto("key", 1L, 2L, BigDecimal.TEN);
+        Mockito.doReturn(entry).when(ledgerService).post(entry);
+        ResponseEntity<LedgerEntryDto> temp = ledgerController.post(entry);
+
+        Assertions.assertEquals(temp.getStatusCode(), HttpStatus.OK);
+        Assertions.assertEquals(temp.getBody(), entry);
+    }
+
+    @Test
+    @DisplayName("проводка, негативный сценарий")
+    void postNegativeTest() {
+        LedgerEntryDto entry = new LedgerEntryDto("key", 1L, 2L, BigDecimal.TEN);
+        Mockito.doThrow(new ValidationException("")).when(ledgerService).post(entry);
+        Assertions.assertThrows(ValidationException.class, () -> ledgerController.post(entry));
+    }
+
+    @Test
+    @DisplayName("чтение остатка, позитивный сценарий")
+    void balancePositiveTest() {
+        BalanceDto balance = new BalanceDto(1L, BigDecimal.TEN, BigDecimal.ONE);
+        Mockito.doReturn(balance).when(ledgerService).getBalance(1L);
+        Assertions.assertEquals(balance, ledgerController.balance(1L));
+    }
+
+    @Test
+    @DisplayName("чтение остатка по несуществующему id, негативный сценарий")
+    void balanceNegativeTest() {
+        Mockito.doThrow(new EntityNotFoundException()).when(ledgerService).getBalance(2L);
+        Assertions.assertThrows(EntityNotFoundException.class, () -> ledgerController.balance(2L));
+    }
+}
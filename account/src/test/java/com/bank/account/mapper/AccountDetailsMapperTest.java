@@ -89,14 +89,14 @@ public class AccountDetailsMapperTest {
     }
 
     @Test
-    @DisplayName("Слияние в entity")
+    @DisplayName("Слияние в entity, остаток не переносится")
     void mergeToEntityTest() {
         AccountDetailsDto accountDetailsDto = new AccountDetailsDto(1L, 2L, 3L,
                 4L, BigDecimal.valueOf(10), true, 5L);
         AccountDetailsEntity accountDetailsEntity = new AccountDetailsEntity(2L, 12L, 13L,
                 14L, BigDecimal.valueOf(20), false, 15L);
         AccountDetailsEntity accountDetailsEntityExpected = new AccountDetailsEntity(2L, 2L,
-                3L, 4L, BigDecimal.valueOf(10), true, 5L);
+                3L, 4L, BigDecimal.valueOf(20), true, 5L);
 
         Assertions.assertEquals(accountDetailsMapper.mergeToEntity(accountDetailsEntity, accountDetailsDto),
                 accountDetailsEntityExpected);
@@ -1,9 +1,22 @@
 package com.bank.account.service;
 
+import com.bank.account.cache.AccountDetailsCache;
+import com.bank.account.cache.AccountNumberIndex;
+import com.bank.account.cache.BalanceCache;
+import com.bank.account.cache.LongLongMap;
+import com.bank.account.cache.ShardedAccountRegistry;
 import com.bank.account.dto.AccountDetailsDto;
+import com.bank.account.dto.AccountDetailsPageDto;
+import com.bank.account.dto.BalanceDeltaDto;
 import com.bank.account.entity.AccountDetailsEntity;
 import com.bank.account.mapper.AccountDetailsMapper;
 import com.bank.account.repository.AccountDetailsRepository;
+import com.bank.account.repository.AccountNumberView;
+import com.bank.account.repository.BalanceShardRepository;
+import com.bank.account.service.common.AccountNumberGenerator;
+import com.bank.account.service.common.ExceptionReturner;
+import com.bank.common.exception.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,11 +24,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import javax.persistence.EntityNotFoundException;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 @ExtendWith(MockitoExtension.class)
 public class AccountDetailsServiceImplTest {
@@ -23,6 +41,21 @@ public class AccountDetailsServiceImplTest {
     private AccountDetailsMapper accountDetailsMapper;
     @Mock
     private AccountDetailsRepository accountDetailsRepository;
+    @Mock
+    private BalanceCache balanceCache;
+    @Mock
+    private ShardedAccountRegistry shardedAccounts;
+    @Mock
+    private BalanceShardRepository shardRepository;
+    @Mock
+    private AccountNumberIndex accountNumberIndex;
+    @Mock
+    private AccountNumberGenerator accountNumberGenerator;
+    @Spy
+    private ExceptionReturner exceptionReturner;
+    @Spy
+    private AccountDetailsCache accountDetailsCache = new AccountDetailsCache(new SimpleMeterRegistry(),
+            100, Duration.ofMinutes(1));
     @InjectMocks
     private AccountDetailsServiceImpl accountDetailsService;
 
@@ -59,6 +92,23 @@ public class AccountDetailsServiceImplTest {
 
         AccountDetailsDto accountDetailsDtoSaved = accountDetailsService.save(accountDetailsDto);
         Assertions.assertEquals(accountDetailsDtoSaved, accountDetailsDto);
+        Mockito.verify(balanceCache).adjust(1L, 1000L, true);
+    }
+
+    @Test
+    @DisplayName("сохранение без номера счёта выдает номер из генератора")
+    void saveWithoutAccountNumberTest() {
+        AccountDetailsDto accountDetailsDto = new AccountDetailsDto(null, 2L, null,
+                4L, BigDecimal.valueOf(10), true, 5L);
+        AccountDetailsEntity accountDetailsEntity = new AccountDetailsEntity(1L, 2L, null,
+                4L, BigDecimal.valueOf(10), true, 5L);
+        Mockito.doReturn(accountDetailsEntity).when(accountDetailsMapper).toEntity(accountDetailsDto);
+        Mockito.doReturn(1001L).when(accountNumberGenerator).next();
+        Mockito.doReturn(accountDetailsEntity).when(accountDetailsRepository).save(accountDetailsEntity);
+
+        accountDetailsService.save(accountDetailsDto);
+        Assertions.assertEquals(1001L, accountDetailsEntity.getAccountNumber());
+        Assertions.assertNull(accountDetailsDto.getAccountNumber());
     }
 
     @Test
@@ -95,6 +145,7 @@ public class AccountDetailsServiceImplTest {
 
         Assertions.assertEquals(accountDetailsService
                 .update(accountDetailsDto1.getId(), accountDetailsDto1), accountDetailsDto2);
+        Mockito.verify(balanceCache).adjust(1L, 0L, false);
     }
 
     @Test
@@ -137,4 +188,247 @@ public class AccountDetailsServiceImplTest {
         Mockito.doThrow(new EntityNotFoundException()).when(accountDetailsRepository).findById(1L);
         Assertions.assertThrows(EntityNotFoundException.class, () -> accountDetailsService.findAllById(List.of(1L)));
     }
+
+    @Test
+    @DisplayName("пакет изменений остатков, позитивный сценарий")
+    void applyPostingsPositiveTest() {
+        List<BalanceDeltaDto> deltas = List.of(new BalanceDeltaDto(2L, BigDecimal.valueOf(-5)),
+                new BalanceDeltaDto(1L, BigDecimal.valueOf(10)), new BalanceDeltaDto(2L, BigDecimal.valueOf(3)));
+        TreeMap<Long, BigDecimal> expected = new TreeMap<>();
+        expected.put(1L, BigDecimal.valueOf(10));
+        expected.put(2L, BigDecimal.valueOf(-2));
+        Mockito.doReturn(true).when(balanceCache).tryApply(Mockito.anyLong(), Mockito.anyLong());
+        Mockito.doReturn(List.of()).when(accountDetailsRepository).applyDeltas(expected);
+
+        Assertions.assertEquals(2, accountDetailsService.applyPostings(deltas));
+        Mockito.verify(balanceCache).tryApply(1L, 1000L);
+        Mockito.verify(balanceCache).tryApply(2L, -200L);
+        Mockito.verify(balanceCache, Mockito.never()).add(Mockito.anyLong(), Mockito.anyLong());
+    }
+
+    @Test
+    @DisplayName("пакет изменений остатков, в кэше недостаточно средств")
+    void applyPostingsReserveNegativeTest() {
+        List<BalanceDeltaDto> deltas = List.of(new BalanceDeltaDto(1L, BigDecimal.valueOf(10)),
+                new BalanceDeltaDto(2L, BigDecimal.valueOf(-5)));
+        Mockito.doReturn(true).when(balanceCache).tryApply(1L, 1000L);
+        Mockito.doReturn(false).when(balanceCache).tryApply(2L, -500L);
+
+        Assertions.assertThrows(ValidationException.class, () -> accountDetailsService.applyPostings(deltas));
+        Mockito.verify(balanceCache).add(1L, -1000L);
+        Mockito.verifyNoInteractions(accountDetailsRepository);
+    }
+
+    @Test
+    @DisplayName("пакет изменений остатков с долями копейки, негативный сценарий")
+    void applyPostingsScaleNegativeTest() {
+        List<BalanceDeltaDto> deltas = List.of(new BalanceDeltaDto(1L, BigDecimal.valueOf(10)),
+                new BalanceDeltaDto(2L, new BigDecimal("0.001")));
+
+        Assertions.assertThrows(ValidationException.class, () -> accountDetailsService.applyPostings(deltas));
+        Mockito.verifyNoInteractions(balanceCache, accountDetailsRepository);
+    }
+
+    @Test
+    @DisplayName("переполнение суммы при резерве возвращает уже сделанный резерв")
+    void applyPostingsReserveOverflowNegativeTest() {
+        List<BalanceDeltaDto> deltas = List.of(new BalanceDeltaDto(1L, BigDecimal.valueOf(10)),
+                new BalanceDeltaDto(2L, new BigDecimal("1E20")));
+        Mockito.doReturn(true).when(balanceCache).tryApply(1L, 1000L);
+
+        Assertions.assertThrows(ArithmeticException.class, () -> accountDetailsService.applyPostings(deltas));
+        Mockito.verify(balanceCache).add(1L, -1000L);
+        Mockito.verifyNoInteractions(accountDetailsRepository);
+    }
+
+    @Test
+    @DisplayName("пакет изменений остатков, негативный сценарий")
+    void applyPostingsNegativeTest() {
+        List<BalanceDeltaDto> deltas = List.of(new BalanceDeltaDto(1L, BigDecimal.valueOf(-5)));
+        Mockito.doReturn(true).when(balanceCache).tryApply(1L, -500L);
+        Mockito.doReturn(List.of(1L)).when(accountDetailsRepository).applyDeltas(Mockito.any());
+
+        Assertions.assertThrows(ValidationException.class, () -> accountDetailsService.applyPostings(deltas));
+    }
+
+    @Test
+    @DisplayName("пакет изменений остатков с нагруженным счетом")
+    void applyPostingsShardedTest() {
+        List<BalanceDeltaDto> deltas = List.of(new BalanceDeltaDto(1L, BigDecimal.valueOf(10)),
+                new BalanceDeltaDto(2L, BigDecimal.valueOf(-5)));
+        TreeMap<Long, BigDecimal> direct = new TreeMap<>(Map.of(2L, BigDecimal.valueOf(-5)));
+        TreeMap<Long, BigDecimal> credits = new TreeMap<>(Map.of(1L, BigDecimal.valueOf(10)));
+        Mockito.doReturn(true).when(balanceCache).tryApply(Mockito.anyLong(), Mockito.anyLong());
+        Mockito.doReturn(true).when(shardedAccounts).isSharded(1L);
+        Mockito.doReturn(3).when(shardedAccounts).pickShard(1L);
+        Mockito.doReturn(List.of()).when(accountDetailsRepository).applyDeltas(direct);
+        Mockito.doReturn(List.of()).when(shardRepository).credit(credits, Map.of(1L, 3));
+
+        Assertions.assertEquals(2, accountDetailsService.applyPostings(deltas));
+        Mockito.verify(shardRepository, Mockito.never()).lockAccounts(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("зачисление на счет, исключенный из реестра после проверки, проводится прямо в счет")
+    void applyPostingsUnregisteredTest() {
+        List<BalanceDeltaDto> deltas = List.of(new BalanceDeltaDto(1L, BigDecimal.valueOf(10)));
+        TreeMap<Long, BigDecimal> direct = new TreeMap<>(Map.of(1L, BigDecimal.valueOf(10)));
+        Mockito.doReturn(true).when(balanceCache).tryApply(Mockito.anyLong(), Mockito.anyLong());
+        Mockito.doReturn(true).when(shardedAccounts).isSharded(1L);
+        Mockito.doReturn(null).when(shardedAccounts).pickShard(1L);
+        Mockito.doReturn(List.of()).when(accountDetailsRepository).applyDeltas(direct);
+
+        Assertions.assertEquals(1, accountDetailsService.applyPostings(deltas));
+        Mockito.verify(shardRepository, Mockito.never()).credit(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("зачисление без частичного остатка, удаленного выключением разбиения, проводится прямо в счет")
+    void applyPostingsShardDroppedTest() {
+        List<BalanceDeltaDto> deltas = List.of(new BalanceDeltaDto(1L, BigDecimal.valueOf(10)));
+        TreeMap<Long, BigDecimal> credits = new TreeMap<>(Map.of(1L, BigDecimal.valueOf(10)));
+        Mockito.doReturn(true).when(balanceCache).tryApply(Mockito.anyLong(), Mockito.anyLong());
+        Mockito.doReturn(true).when(shardedAccounts).isSharded(1L);
+        Mockito.doReturn(3).when(shardedAccounts).pickShard(1L);
+        Mockito.doReturn(List.of()).when(accountDetailsRepository).applyDeltas(new TreeMap<>());
+        Mockito.doReturn(List.of(1L)).when(shardRepository).credit(credits, Map.of(1L, 3));
+        Mockito.doReturn(List.of()).when(accountDetailsRepository).applyDeltas(credits);
+
+        Assertions.assertEquals(1, accountDetailsService.applyPostings(deltas));
+        Mockito.verify(accountDetailsRepository).applyDeltas(credits);
+    }
+
+    @Test
+    @DisplayName("поиск по id нагруженного счета, остаток включает частичные остатки")
+    void findByIdShardedTest() {
+        AccountDetailsEntity accountDetailsEntity = new AccountDetailsEntity(1L, 2L, 3L,
+                4L, BigDecimal.valueOf(10), true, 5L);
+        AccountDetailsDto accountDetailsDto = new AccountDetailsDto(1L, 2L, 3L,
+                4L, BigDecimal.valueOf(10), true, 5L);
+        Mockito.doReturn(Optional.of(accountDetailsEntity)).when(accountDetailsRepository).findById(1L);
+        Mockito.doReturn(accountDetailsDto).when(accountDetailsMapper).toDto(accountDetailsEntity);
+        Mockito.doReturn(null).when(balanceCache).getMoney(1L);
+        Mockito.doReturn(true).when(shardedAccounts).isSharded(1L);
+        Mockito.doReturn(BigDecimal.valueOf(7)).when(shardRepository).sum(1L);
+
+        Assertions.assertEquals(BigDecimal.valueOf(17), accountDetailsService.findById(1L).getMoney());
+    }
+
+    @Test
+    @DisplayName("поиск по id берет остаток из кэша остатков с несвернутыми проводками")
+    void findByIdFromBalanceCacheTest() {
+        AccountDetailsEntity accountDetailsEntity = new AccountDetailsEntity(1L, 2L, 3L,
+                4L, BigDecimal.valueOf(10), true, 5L);
+        AccountDetailsDto accountDetailsDto = new AccountDetailsDto(1L, 2L, 3L,
+                4L, BigDecimal.valueOf(10), true, 5L);
+        Mockito.doReturn(Optional.of(accountDetailsEntity)).when(accountDetailsRepository).findById(1L);
+        Mockito.doReturn(accountDetailsDto).when(accountDetailsMapper).toDto(accountDetailsEntity);
+        Mockito.doReturn(1250L).when(balanceCache).getMoney(1L);
+
+        Assertions.assertEquals(new BigDecimal("12.50"), accountDetailsService.findById(1L).getMoney());
+        Mockito.verifyNoInteractions(shardRepository);
+    }
+
+    @Test
+    @DisplayName("поиск по номеру счёта из индекса, позитивный сценарий")
+    void findByAccountNumberPositiveTest() {
+        AccountDetailsEntity accountDetailsEntity = new AccountDetailsEntity(1L, 2L, 3L,
+                4L, BigDecimal.valueOf(10), true, 5L);
+        AccountDetailsDto accountDetailsDto = new AccountDetailsDto(1L, 2L, 3L,
+                4L, BigDecimal.valueOf(10), true, 5L);
+        Mockito.doReturn(1L).when(accountNumberIndex).find(3L);
+        Mockito.doReturn(Optional.of(accountDetailsEntity)).when(accountDetailsRepository).findById(1L);
+        Mockito.doReturn(accountDetailsDto).when(accountDetailsMapper).toDto(accountDetailsEntity);
+
+        Assertions.assertEquals(accountDetailsDto, accountDetailsService.findByAccountNumber(3L));
+        Mockito.verify(accountDetailsRepository, Mockito.never()).findByAccountNumber(3L);
+    }
+
+    @Test
+    @DisplayName("поиск по несуществующему номеру счёта, негативный сценарий")
+    void findByAccountNumberNegativeTest() {
+        Mockito.doReturn(LongLongMap.NO_VALUE).when(accountNumberIndex).find(3L);
+        Mockito.doReturn(Optional.empty()).when(accountDetailsRepository).findByAccountNumber(3L);
+        Assertions.assertThrows(EntityNotFoundException.class, () -> accountDetailsService.findByAccountNumber(3L));
+    }
+
+    @Test
+    @DisplayName("разрешение номеров счетов, промахи индекса добираются одним запросом")
+    void resolveAccountNumbersTest() {
+        AccountNumberView account = Mockito.mock(AccountNumberView.class);
+        Mockito.doReturn(2L).when(account).getId();
+        Mockito.doReturn(20L).when(account).getAccountNumber();
+        Mockito.doReturn(1L).when(accountNumberIndex).find(10L);
+        Mockito.doReturn(LongLongMap.NO_VALUE).when(accountNumberIndex).find(20L);
+        Mockito.doReturn(LongLongMap.NO_VALUE).when(accountNumberIndex).find(30L);
+        Mockito.doReturn(List.of(account)).when(accountDetailsRepository).findAllByAccountNumberIn(List.of(20L, 30L));
+
+        Assertions.assertEquals(Map.of(10L, 1L, 20L, 2L),
+                accountDetailsService.resolveAccountNumbers(List.of(10L, 20L, 30L)));
+        Mockito.verify(accountNumberIndex).put(20L, 2L);
+    }
+
+    @Test
+    @DisplayName("страница по профилю: полная страница возвращает курсор следующей")
+    void findPageByProfileFullPageTest() {
+        List<AccountDetailsEntity> entities = List.of(
+                new AccountDetailsEntity(11L, 2L, 3L, 4L, BigDecimal.ONE, false, 5L),
+                new AccountDetailsEntity(12L, 2L, 6L, 4L, BigDecimal.ONE, false, 5L));
+        List<AccountDetailsDto> dtos = List.of(
+                new AccountDetailsDto(11L, 2L, 3L, 4L, BigDecimal.ONE, false, 5L),
+                new AccountDetailsDto(12L, 2L, 6L, 4L, BigDecimal.ONE, false, 5L));
+        Mockito.doReturn(entities).when(accountDetailsRepository)
+                .findByProfileIdAndIdGreaterThanOrderByIdAsc(5L, 10L, PageRequest.of(0, 2));
+        Mockito.doReturn(dtos).when(accountDetailsMapper).toDtoList(entities);
+
+        AccountDetailsPageDto page = accountDetailsService.findPageByProfile(5L, 10L, 2);
+        Assertions.assertEquals(dtos, page.getItems());
+        Assertions.assertEquals(12L, page.getNextAfterId());
+    }
+
+    @Test
+    @DisplayName("страница по банку: неполная страница последняя, первая страница начинается с начала")
+    void findPageByBankLastPageTest() {
+        List<AccountDetailsEntity> entities = List.of(
+                new AccountDetailsEntity(1L, 2L, 3L, 4L, BigDecimal.ONE, false, 5L));
+        Mockito.doReturn(entities).when(accountDetailsRepository)
+                .findByBankDetailsIdAndIdGreaterThanOrderByIdAsc(4L, 0L, PageRequest.of(0, 100));
+        Mockito.doReturn(List.of(new AccountDetailsDto(1L, 2L, 3L, 4L, BigDecimal.ONE, false, 5L)))
+                .when(accountDetailsMapper).toDtoList(entities);
+
+        AccountDetailsPageDto page = accountDetailsService.findPageByBank(4L, null, 100);
+        Assertions.assertEquals(1, page.getItems().size());
+        Assertions.assertNull(page.getNextAfterId());
+    }
+
+    @Test
+    @DisplayName("страница недопустимого размера, негативный сценарий")
+    void findPageInvalidLimitNegativeTest() {
+        Assertions.assertThrows(ValidationException.class, () -> accountDetailsService.findPageByProfile(5L, null, 0));
+        Assertions.assertThrows(ValidationException.class,
+                () -> accountDetailsService.findPageByBank(4L, null, 1001));
+        Mockito.verifyNoInteractions(accountDetailsRepository);
+    }
+
+    @Test
+    @DisplayName("повторное чтение по id обслуживается кэшем до изменения счета")
+    void findByIdCachedUntilUpdateTest() {
+        AccountDetailsEntity accountDetailsEntity = new AccountDetailsEntity(1L, 2L, 3L,
+                4L, BigDecimal.valueOf(10), true, 5L);
+        AccountDetailsDto accountDetailsDto = new AccountDetailsDto(1L, 2L, 3L,
+                4L, BigDecimal.valueOf(10), true, 5L);
+        Mockito.doReturn(Optional.of(accountDetailsEntity)).when(accountDetailsRepository).findById(1L);
+        Mockito.doReturn(accountDetailsDto).when(accountDetailsMapper).toDto(accountDetailsEntity);
+        Mockito.doReturn(accountDetailsEntity).when(accountDetailsMapper)
+                .mergeToEntity(accountDetailsEntity, accountDetailsDto);
+        Mockito.doReturn(accountDetailsEntity).when(accountDetailsRepository).save(accountDetailsEntity);
+
+        accountDetailsService.findById(1L);
+        accountDetailsService.findById(1L);
+        Mockito.verify(accountDetailsRepository, Mockito.times(1)).findById(1L);
+
+        accountDetailsService.update(1L, accountDetailsDto);
+        accountDetailsService.findById(1L);
+        Mockito.verify(accountDetailsRepository, Mockito.times(3)).findById(1L);
+    }
 }
@@ -0,0 +1,94 @@
+package com.bank.account.service;
+
+import com.bank.account.cache.BalanceCache;
+import com.bank.account.cache.ShardedAccountRegistry;
+import com.bank.account.dto.AccountDetailsDto;
+import com.bank.account.entity.AccountDetailsEntity;
+import com.bank.account.mapper.AccountDetailsMapper;
+import com.bank.account.repository.AccountDetailsRepository;
+import com.bank.account.repository.BalanceShardRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+@ExtendWith(MockitoExtension.class)
+public class AccountExportServiceImplTest {
+    @Mock
+    private AccountDetailsMapper mapper;
+    @Mock
+    private AccountDetailsRepository repository;
+    @Spy
+    private ObjectMapper objectMapper;
+    @Spy
+    private ShardedAccountRegistry shardedAccounts;
+    @Mock
+    private BalanceShardRepository shardRepository;
+    @Spy
+    private BalanceCache balanceCache;
+    @InjectMocks
+    private AccountExportServiceImpl accountExportService;
+
+    @Test
+    @DisplayName("выгрузка пишет одну строку на счет с учетом частичных остатков")
+    void exportPositiveTest() {
+        AccountDetailsEntity first = new AccountDetailsEntity(1L, 10L, 100L, 5L, new BigDecimal("10.00"), false, 7L);
+        AccountDetailsEntity second = new AccountDetailsEntity(2L, 20L, 200L, 5L, new BigDecimal("20.00"), false, 7L);
+        Mockito.doReturn(dto(1L, "10.00")).when(mapper).toDto(first);
+        Mockito.doReturn(dto(2L, "20.00")).when(mapper).toDto(second);
+        Mockito.doAnswer(invocation -> {
+            Consumer<AccountDetailsEntity> consumer = invocation.getArgument(2);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(repository).streamAll(ArgumentMatchers.eq(5L), ArgumentMatchers.isNull(), ArgumentMatchers.any());
+        shardedAccounts.register(2L, 4);
+        Mockito.doReturn(new BigDecimal("5.00")).when(shardRepository).sum(2L);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        accountExportService.export(5L, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\\n");
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertTrue(lines[0].contains("\"id\":1") && lines[0].contains("\"money\":10.00"));
+        Assertions.assertTrue(lines[1].contains("\"id\":2") && lines[1].contains("\"money\":25.00"));
+    }
+
+    @Test
+    @DisplayName("выгрузка берет остаток из кэша остатков с несвернутыми проводками")
+    void exportFromBalanceCacheTest() {
+        AccountDetailsEntity first = new AccountDetailsEntity(1L, 10L, 100L, 5L, new BigDecimal("10.00"), false, 7L);
+        Mockito.doReturn(dto(1L, "10.00")).when(mapper).toDto(first);
+        Mockito.doAnswer(invocation -> {
+            Consumer<AccountDetailsEntity> consumer = invocation.getArgument(2);
+            consumer.accept(first);
+            return null;
+        }).when(repository).streamAll(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(), ArgumentMatchers.any());
+        balanceCache.put(1L, 1250L, false);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        accountExportService.export(null, null, out);
+
+        Assertions.assertTrue(out.toString(StandardCharsets.UTF_8).contains("\"money\":12.50"));
+        Mockito.verifyNoInteractions(shardRepository);
+    }
+
+    private AccountDetailsDto dto(Long id, String money) {
+        AccountDetailsDto accountDetailsDto = new AccountDetailsDto();
+        accountDetailsDto.setId(id);
+        accountDetailsDto.setMoney(new BigDecimal(money));
+        return accountDetailsDto;
+    }
+}
@@ -0,0 +1,122 @@
+package com.bank.account.service;
+
+import com.bank.account.cache.BalanceCache;
+import com.bank.account.entity.PostingEntity;
+import com.bank.account.repository.AccountDetailsRepository;
+import com.bank.account.repository.AccrualPartition;
+import com.bank.account.repository.AccrualRepository;
+import com.bank.account.repository.PostingRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.TreeMap;
+
+@ExtendWith(MockitoExtension.class)
+public class AccrualServiceImplTest {
+
+    private static final LocalDate DATE = LocalDate.of(2023, 1, 10);
+
+    @Mock
+    private AccrualRepository accrualRepository;
+    @Mock
+    private PostingRepository postingRepository;
+    @Mock
+    private AccountDetailsRepository accountDetailsRepository;
+    @Spy
+    private BalanceCache balanceCache;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @InjectMocks
+    private AccrualServiceImpl accrualService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(accrualService, "contraAccountId", 100L);
+        ReflectionTestUtils.setField(accrualService, "interestRate", new BigDecimal("0.365"));
+        ReflectionTestUtils.setField(accrualService, "overdraftRate", new BigDecimal("0.73"));
+        ReflectionTestUtils.setField(accrualService, "partitionSize", 1000L);
+        ReflectionTestUtils.setField(accrualService, "chunkSize", 2);
+        ReflectionTestUtils.setField(accrualService, "parallelism", 2);
+    }
+
+    private void runTransactionsInline() {
+        Mockito.doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("начисление идет порциями от контрольной точки и проводит сумму на контрсчет")
+    void accruePositiveTest() {
+        runTransactionsInline();
+        balanceCache.put(1L, 100_000L, false);
+        balanceCache.put(2L, -100_000L, true);
+        balanceCache.put(100L, 0L, true);
+        Mockito.doReturn(true).when(accountDetailsRepository).existsById(100L);
+        Mockito.doReturn(true).when(accrualRepository).createRun(DATE, 1000L);
+        Mockito.doReturn(List.of(0)).when(accrualRepository).findPendingPartitions(DATE);
+        Mockito.doReturn(new AccrualPartition(0L, 1000L, false), new AccrualPartition(2L, 1000L, false))
+                .when(accrualRepository).lockPartition(DATE, 0);
+        TreeMap<Long, BigDecimal> first = new TreeMap<>();
+        first.put(1L, new BigDecimal("1000.00"));
+        first.put(2L, new BigDecimal("-1000.00"));
+        Mockito.doReturn(first).when(accrualRepository).readBalances(0L, 1000L, 2);
+        TreeMap<Long, BigDecimal> last = new TreeMap<>();
+        last.put(100L, BigDecimal.ZERO);
+        Mockito.doReturn(last).when(accrualRepository).readBalances(2L, 1000L, 2);
+        Mockito.doReturn(true).when(accrualRepository).finishRun(DATE);
+
+        accrualService.accrue(DATE);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PostingEntity>> postings = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(postingRepository).saveAll(postings.capture());
+        Assertions.assertEquals(List.of(new BigDecimal("1.00"), new BigDecimal("-2.00"), new BigDecimal("1.00")),
+                postings.getValue().stream().map(PostingEntity::getAmount).toList());
+        Assertions.assertEquals(100L, postings.getValue().get(2).getAccountDetailsId());
+        Mockito.verify(accrualRepository).advancePartition(DATE, 0, 2L, 2, new BigDecimal("-1.00"), false);
+        Mockito.verify(accrualRepository).advancePartition(DATE, 0, 100L, 0, BigDecimal.ZERO, true);
+        Assertions.assertEquals(100_100L, balanceCache.getMoney(1L));
+        Assertions.assertEquals(-100_200L, balanceCache.getMoney(2L));
+        Assertions.assertEquals(100L, balanceCache.getMoney(100L));
+    }
+
+    @Test
+    @DisplayName("завершенный диапазон при возобновлении пропускается")
+    void accrueFinishedPartitionTest() {
+        runTransactionsInline();
+        Mockito.doReturn(true).when(accountDetailsRepository).existsById(100L);
+        Mockito.doReturn(false).when(accrualRepository).createRun(DATE, 1000L);
+        Mockito.doReturn(List.of(3)).when(accrualRepository).findPendingPartitions(DATE);
+        Mockito.doReturn(new AccrualPartition(3000L, 3000L, true)).when(accrualRepository).lockPartition(DATE, 3);
+
+        accrualService.accrue(DATE);
+
+        Mockito.verify(accrualRepository, Mockito.never()).readBalances(
+                ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt());
+        Mockito.verify(accrualRepository).finishRun(DATE);
+    }
+
+    @Test
+    @DisplayName("без контрсчета начисление не запускается")
+    void accrueWithoutContraAccountTest() {
+        Mockito.doReturn(false).when(accountDetailsRepository).existsById(100L);
+        accrualService.accrue(DATE);
+        Mockito.verifyNoInteractions(accrualRepository, postingRepository);
+    }
+}
@@ -0,0 +1,133 @@
+package com.bank.account.service;
+
+import com.bank.account.cache.AccountDetailsCache;
+import com.bank.account.cache.BalanceCache;
+import com.bank.account.cache.ShardedAccountRegistry;
+import com.bank.account.dto.BalanceDeltaDto;
+import com.bank.account.repository.AccountDetailsRepository;
+import com.bank.account.repository.BalanceShardRepository;
+import com.bank.account.service.common.ExceptionReturner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Модель конкуренции за блокировки, а не измерение базы: зачисления в секунду на один нагруженный счет
+ * при 1, 2, 4 и 8 частичных остатках, когда блокировка строки в базе заменена {@link ReentrantLock}
+ * на строку, удерживаемым rowLockMicros до commit. При одном частичном остатке все потоки ждут строку
+ * account_details, при N - делят N строк balance_shard.
+ * SQL, WAL, сеть и обнаружение взаимоблокировок не моделируются, поэтому результат показывает только
+ * масштабирование по числу строк; пропускную способность на Postgres нужно мерить нагрузочным тестом.
+ * Запуск: main из тестового classpath модуля.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class BalanceShardServiceBenchmark {
+
+    private static final long ACCOUNT_ID = 1L;
+
+    @Param({"1", "2", "4", "8"})
+    private int shards;
+
+    @Param({"50"})
+    private long rowLockMicros;
+
+    private AccountDetailsServiceImpl accountDetailsService;
+    private List<BalanceDeltaDto> credit;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final ReentrantLock accountRow = new ReentrantLock();
+        final ReentrantLock[] shardRows = new ReentrantLock[shards];
+        for (int i = 0; i < shards; i++) {
+            shardRows[i] = new ReentrantLock();
+        }
+
+        final AccountDetailsRepository accountDetailsRepository = Mockito.mock(AccountDetailsRepository.class,
+                Mockito.withSettings().stubOnly());
+        Mockito.doReturn(true).when(accountDetailsRepository).existsById(ACCOUNT_ID);
+        Mockito.doAnswer(invocation -> {
+            final Map<Long, BigDecimal> deltas = invocation.getArgument(0);
+            if (!deltas.isEmpty()) {
+                updateRow(accountRow);
+            }
+            return List.of();
+        }).when(accountDetailsRepository).applyDeltas(Mockito.any());
+
+        final BalanceShardRepository shardRepository = new BalanceShardRepository(null) {
+            @Override
+            public void createShards(Long accountId, int count) {
+            }
+
+            @Override
+            public List<Long> credit(SortedMap<Long, BigDecimal> credits, Map<Long, Integer> picked) {
+                updateRow(shardRows[picked.get(ACCOUNT_ID)]);
+                return List.of();
+            }
+        };
+
+        final ShardedAccountRegistry registry = new ShardedAccountRegistry();
+        final ExceptionReturner exceptionReturner = new ExceptionReturner();
+        final AccountDetailsCache accountDetailsCache = new AccountDetailsCache(new SimpleMeterRegistry(),
+                100, Duration.ofMinutes(1));
+        final BalanceCache balanceCache = new BalanceCache();
+        balanceCache.put(ACCOUNT_ID, 0L, false);
+
+        if (shards > 1) {
+            new BalanceShardServiceImpl(shardRepository, accountDetailsRepository, registry, exceptionReturner,
+                    accountDetailsCache).enable(ACCOUNT_ID, shards);
+        }
+        accountDetailsService = new AccountDetailsServiceImpl(null, accountDetailsRepository, exceptionReturner,
+                balanceCache, registry, shardRepository, null, accountDetailsCache, null);
+        credit = List.of(new BalanceDeltaDto(ACCOUNT_ID, BigDecimal.ONE));
+    }
+
+    @Benchmark
+    public int credit() {
+        return accountDetailsService.applyPostings(credit);
+    }
+
+    private void updateRow(ReentrantLock row) {
+        row.lock();
+        try {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(rowLockMicros));
+        } finally {
+            row.unlock();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BalanceShardServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
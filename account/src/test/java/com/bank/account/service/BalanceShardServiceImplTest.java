@@ -0,0 +1,107 @@
+package com.bank.account.service;
+
+import com.bank.account.cache.AccountDetailsCache;
+import com.bank.account.cache.ShardedAccountRegistry;
+import com.bank.account.repository.AccountDetailsRepository;
+import com.bank.account.repository.BalanceShardRepository;
+import com.bank.account.service.common.ExceptionReturner;
+import com.bank.common.exception.ValidationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.List;
+import java.util.Set;
+
+@ExtendWith(MockitoExtension.class)
+public class BalanceShardServiceImplTest {
+    @Mock
+    private BalanceShardRepository shardRepository;
+    @Mock
+    private AccountDetailsRepository accountDetailsRepository;
+    @Spy
+    private ShardedAccountRegistry registry;
+    @Spy
+    private ExceptionReturner exceptionReturner;
+    @Mock
+    private AccountDetailsCache accountDetailsCache;
+    @InjectMocks
+    private BalanceShardServiceImpl balanceShardService;
+
+    @Test
+    @DisplayName("включение частичных остатков, позитивный сценарий")
+    void enablePositiveTest() {
+        Mockito.doReturn(true).when(accountDetailsRepository).existsById(1L);
+        balanceShardService.enable(1L, 8);
+
+        Mockito.verify(shardRepository).createShards(1L, 8);
+        Assertions.assertTrue(registry.isSharded(1L));
+    }
+
+    @Test
+    @DisplayName("включение частичных остатков для несуществующего счета, негативный сценарий")
+    void enableNonExistNegativeTest() {
+        Mockito.doReturn(false).when(accountDetailsRepository).existsById(1L);
+        Assertions.assertThrows(EntityNotFoundException.class, () -> balanceShardService.enable(1L, 8));
+    }
+
+    @Test
+    @DisplayName("включение с недопустимым количеством частей, негативный сценарий")
+    void enableInvalidCountNegativeTest() {
+        Assertions.assertThrows(ValidationException.class, () -> balanceShardService.enable(1L, 1));
+        Mockito.verifyNoInteractions(shardRepository);
+    }
+
+    @Test
+    @DisplayName("выключение частичных остатков переносит их на счет")
+    void disablePositiveTest() {
+        registry.register(1L, 4);
+        balanceShardService.disable(1L);
+
+        Mockito.verify(shardRepository).compact(List.of(1L));
+        Mockito.verify(shardRepository).drop(1L);
+        Assertions.assertFalse(registry.isSharded(1L));
+    }
+
+    @Test
+    @DisplayName("счет остается в реестре до фиксации выключения частичных остатков")
+    void disableUnregistersAfterCommitTest() {
+        registry.register(1L, 4);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            balanceShardService.disable(1L);
+            Assertions.assertTrue(registry.isSharded(1L));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Assertions.assertFalse(registry.isSharded(1L));
+    }
+
+    @Test
+    @DisplayName("перенос частичных остатков всех нагруженных счетов")
+    void compactTest() {
+        registry.register(2L, 4);
+        registry.register(1L, 4);
+        balanceShardService.compact();
+
+        Mockito.verify(shardRepository).lockAccounts(Set.of(1L, 2L));
+        Mockito.verify(shardRepository).compact(Set.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("перенос без нагруженных счетов не обращается к базе")
+    void compactEmptyTest() {
+        balanceShardService.compact();
+        Mockito.verifyNoInteractions(shardRepository);
+    }
+}
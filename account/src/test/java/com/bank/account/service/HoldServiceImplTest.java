@@ -0,0 +1,168 @@
+package com.bank.account.service;
+
+import com.bank.account.cache.BalanceCache;
+import com.bank.account.cache.HoldExpiryWheel;
+import com.bank.account.dto.HoldDto;
+import com.bank.account.dto.LedgerEntryDto;
+import com.bank.account.entity.HoldEntity;
+import com.bank.account.entity.HoldStatus;
+import com.bank.account.mapper.HoldMapper;
+import com.bank.account.repository.HoldRepository;
+import com.bank.account.service.common.ExceptionReturner;
+import com.bank.common.exception.ValidationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityNotFoundException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+public class HoldServiceImplTest {
+    @Mock
+    private HoldRepository repository;
+    @Mock
+    private HoldMapper mapper;
+    @Spy
+    private BalanceCache balanceCache;
+    @Mock
+    private HoldExpiryWheel expiryWheel;
+    @Mock
+    private LedgerService ledgerService;
+    @Spy
+    private ExceptionReturner exceptionReturner;
+    @InjectMocks
+    private HoldServiceImpl holdService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(holdService, "defaultTtl", Duration.ofDays(7));
+        ReflectionTestUtils.setField(holdService, "maxTtl", Duration.ofDays(30));
+        balanceCache.put(1L, 10000L, false);
+    }
+
+    private HoldEntity hold(Long id, String amount, HoldStatus status) {
+        return new HoldEntity(id, 1L, new BigDecimal(amount), status, "auth",
+                new Timestamp(System.currentTimeMillis() + 60_000L));
+    }
+
+    @Test
+    @DisplayName("создание холда уменьшает доступный остаток и ставит срок в колесо")
+    void createPositiveTest() {
+        HoldDto holdDto = new HoldDto(null, 1L, new BigDecimal("60.00"), null, "auth", null);
+        HoldEntity entity = hold(null, "60.00", null);
+        HoldEntity saved = hold(5L, "60.00", HoldStatus.ACTIVE);
+        Mockito.doReturn(entity).when(mapper).toEntity(holdDto);
+        Mockito.doReturn(saved).when(repository).save(entity);
+
+        holdService.create(holdDto);
+
+        Assertions.assertEquals(HoldStatus.ACTIVE, entity.getStatus());
+        Assertions.assertEquals(4000L, balanceCache.getAvailable(1L));
+        Assertions.assertEquals(10000L, balanceCache.getMoney(1L));
+        Mockito.verify(expiryWheel).schedule(5L, saved.getExpiresAt().getTime());
+    }
+
+    @Test
+    @DisplayName("холд сверх доступного остатка, негативный сценарий")
+    void createInsufficientFundsNegativeTest() {
+        HoldDto holdDto = new HoldDto(null, 1L, new BigDecimal("60.00"), null, null, null);
+        Mockito.doReturn(hold(null, "60.00", null)).when(mapper).toEntity(ArgumentMatchers.any());
+        balanceCache.tryHold(1L, 5000L);
+
+        Assertions.assertThrows(ValidationException.class, () -> holdService.create(holdDto));
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("холд по несуществующему счету, негативный сценарий")
+    void createNonExistAccountNegativeTest() {
+        HoldDto holdDto = new HoldDto(null, 2L, BigDecimal.ONE, null, null, null);
+        Mockito.doReturn(hold(null, "1.00", null)).when(mapper).toEntity(holdDto);
+        Assertions.assertThrows(EntityNotFoundException.class, () -> holdService.create(holdDto));
+    }
+
+    @Test
+    @DisplayName("снятие холда возвращает средства в доступный остаток")
+    void releasePositiveTest() {
+        balanceCache.tryHold(1L, 6000L);
+        Mockito.doReturn(Optional.of(hold(5L, "60.00", HoldStatus.ACTIVE))).when(repository).findById(5L);
+        Mockito.doReturn(1).when(repository).finish(5L, HoldStatus.RELEASED);
+
+        holdService.release(5L);
+        Assertions.assertEquals(10000L, balanceCache.getAvailable(1L));
+    }
+
+    @Test
+    @DisplayName("снятие уже списанного холда, негативный сценарий")
+    void releaseCapturedNegativeTest() {
+        Mockito.doReturn(Optional.of(hold(5L, "60.00", HoldStatus.CAPTURED))).when(repository).findById(5L);
+        Assertions.assertThrows(ValidationException.class, () -> holdService.release(5L));
+        Mockito.verify(repository, Mockito.never()).finish(5L, HoldStatus.RELEASED);
+    }
+
+    @Test
+    @DisplayName("частичное списание проводит сумму и снимает весь холд")
+    void capturePositiveTest() {
+        HoldEntity hold = hold(5L, "60.00", HoldStatus.ACTIVE);
+        Mockito.doReturn(Optional.of(hold)).when(repository).findForUpdate(5L);
+
+        holdService.capture(5L, 2L, new BigDecimal("40.00"));
+
+        Assertions.assertEquals(HoldStatus.CAPTURED, hold.getStatus());
+        Mockito.verify(ledgerService).capture(new LedgerEntryDto("hold-5", 1L, 2L, new BigDecimal("40.00")),
+                new BigDecimal("60.00"));
+    }
+
+    @Test
+    @DisplayName("списание больше суммы холда, негативный сценарий")
+    void captureTooMuchNegativeTest() {
+        Mockito.doReturn(Optional.of(hold(5L, "60.00", HoldStatus.ACTIVE))).when(repository).findForUpdate(5L);
+        Assertions.assertThrows(ValidationException.class,
+                () -> holdService.capture(5L, 2L, new BigDecimal("60.01")));
+        Mockito.verifyNoInteractions(ledgerService);
+    }
+
+    @Test
+    @DisplayName("истекший холд снимается один раз, списанный не меняется")
+    void expireDueTest() {
+        balanceCache.tryHold(1L, 6000L);
+        Mockito.doReturn(List.of(5L, 6L)).when(expiryWheel).advance();
+        Mockito.doReturn(Optional.of(hold(5L, "60.00", HoldStatus.ACTIVE))).when(repository).findById(5L);
+        Mockito.doReturn(Optional.of(hold(6L, "10.00", HoldStatus.CAPTURED))).when(repository).findById(6L);
+        Mockito.doReturn(1).when(repository).expire(5L);
+
+        holdService.expireDue();
+
+        Assertions.assertEquals(10000L, balanceCache.getAvailable(1L));
+        Mockito.verify(repository, Mockito.never()).expire(6L);
+    }
+
+    @Test
+    @DisplayName("колесо сработало раньше срока по часам базы, холд ставится в колесо снова")
+    void expireEarlyTest() {
+        balanceCache.tryHold(1L, 6000L);
+        HoldEntity hold = hold(5L, "60.00", HoldStatus.ACTIVE);
+        Mockito.doReturn(List.of(5L)).when(expiryWheel).advance();
+        Mockito.doReturn(Optional.of(hold)).when(repository).findById(5L);
+        Mockito.doReturn(0).when(repository).expire(5L);
+
+        holdService.expireDue();
+
+        Assertions.assertEquals(4000L, balanceCache.getAvailable(1L));
+        Mockito.verify(expiryWheel).schedule(5L, hold.getExpiresAt().getTime());
+    }
+}
@@ -0,0 +1,137 @@
+package com.bank.account.service;
+
+import com.bank.account.cache.AccountDetailsCache;
+import com.bank.account.cache.BalanceCache;
+import com.bank.account.dto.BalanceDto;
+import com.bank.account.dto.LedgerEntryDto;
+import com.bank.account.entity.LedgerSnapshotEntity;
+import com.bank.account.entity.PostingEntity;
+import com.bank.account.repository.LedgerSnapshotRepository;
+import com.bank.account.repository.PostingRepository;
+import com.bank.account.service.common.ExceptionReturner;
+import com.bank.common.exception.ValidationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityNotFoundException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class LedgerServiceImplTest {
+    @Mock
+    private PostingRepository postingRepository;
+    @Spy
+    private BalanceCache balanceCache;
+    @Spy
+    private ExceptionReturner exceptionReturner;
+    @Mock
+    private AccountDetailsCache accountDetailsCache;
+    @Mock
+    private LedgerSnapshotRepository snapshotRepository;
+    @InjectMocks
+    private LedgerServiceImpl ledgerService;
+
+    @Test
+    @DisplayName("проводка, позитивный сценарий")
+    void postPositiveTest() {
+        balanceCache.put(1L, 10000L, false);
+        balanceCache.put(2L, 0L, false);
+        LedgerEntryDto entry = new LedgerEntryDto("key", 1L, 2L, BigDecimal.valueOf(30));
+
+        Assertions.assertEquals(entry, ledgerService.post(entry));
+        Assertions.assertEquals(new BalanceDto(1L, new BigDecimal("70.00"), new BigDecimal("70.00")),
+                ledgerService.getBalance(1L));
+        Assertions.assertEquals(new BalanceDto(2L, new BigDecimal("30.00"), new BigDecimal("30.00")),
+                ledgerService.getBalance(2L));
+        Mockito.verify(postingRepository).saveAll(Mockito.anyList());
+    }
+
+    @Test
+    @DisplayName("проводка при недостатке средств, негативный сценарий")
+    void postInsufficientFundsNegativeTest() {
+        balanceCache.put(1L, 1000L, false);
+        balanceCache.put(2L, 0L, false);
+        LedgerEntryDto entry = new LedgerEntryDto("key", 1L, 2L, BigDecimal.valueOf(30));
+
+        Assertions.assertThrows(ValidationException.class, () -> ledgerService.post(entry));
+        Assertions.assertEquals(new BalanceDto(1L, new BigDecimal("10.00"), new BigDecimal("10.00")),
+                ledgerService.getBalance(1L));
+        Mockito.verifyNoInteractions(postingRepository);
+    }
+
+    @Test
+    @DisplayName("проводка по несуществующему счету, негативный сценарий")
+    void postNonExistAccountNegativeTest() {
+        balanceCache.put(1L, 1000L, false);
+        LedgerEntryDto entry = new LedgerEntryDto("key", 1L, 2L, BigDecimal.ONE);
+
+        Assertions.assertThrows(EntityNotFoundException.class, () -> ledgerService.post(entry));
+    }
+
+    @Test
+    @DisplayName("повтор проводки с тем же ключом, остатки не меняются")
+    void postDuplicateKeyTest() {
+        balanceCache.put(1L, 10000L, false);
+        balanceCache.put(2L, 0L, false);
+        LedgerEntryDto entry = new LedgerEntryDto("key", 1L, 2L, BigDecimal.valueOf(30));
+        Mockito.doThrow(new DataIntegrityViolationException("duplicate")).when(postingRepository)
+                .saveAll(Mockito.anyList());
+        Mockito.doReturn(List.of(new PostingEntity(1L, "key", 1L, BigDecimal.valueOf(-30), null),
+                new PostingEntity(2L, "key", 2L, BigDecimal.valueOf(30), null)))
+                .when(postingRepository).findAllByEntryKey("key");
+
+        Assertions.assertEquals(entry, ledgerService.post(entry));
+        Assertions.assertEquals(new BalanceDto(1L, new BigDecimal("100.00"), new BigDecimal("100.00")),
+                ledgerService.getBalance(1L));
+        Assertions.assertEquals(new BalanceDto(2L, new BigDecimal("0.00"), new BigDecimal("0.00")),
+                ledgerService.getBalance(2L));
+    }
+
+    @Test
+    @DisplayName("остаток по несуществующему счету, негативный сценарий")
+    void getBalanceNegativeTest() {
+        Assertions.assertThrows(EntityNotFoundException.class, () -> ledgerService.getBalance(1L));
+    }
+
+    @Test
+    @DisplayName("списание по холду снимает холд и не конкурирует с ним за средства")
+    void capturePositiveTest() {
+        balanceCache.put(1L, 10000L, false);
+        balanceCache.put(2L, 0L, false);
+        Assertions.assertTrue(balanceCache.tryHold(1L, 10000L));
+        LedgerEntryDto entry = new LedgerEntryDto("hold-1", 1L, 2L, BigDecimal.valueOf(60));
+
+        Assertions.assertThrows(ValidationException.class, () -> ledgerService.post(entry));
+        Assertions.assertEquals(entry, ledgerService.capture(entry, new BigDecimal("100.00")));
+        Assertions.assertEquals(new BalanceDto(1L, new BigDecimal("40.00"), new BigDecimal("40.00")),
+                ledgerService.getBalance(1L));
+    }
+
+    @Test
+    @DisplayName("снимок сворачивает несвернутые проводки старше отставания")
+    void snapshotTest() {
+        ReflectionTestUtils.setField(ledgerService, "snapshotLag", Duration.ofSeconds(30));
+        LedgerSnapshotEntity snapshot = new LedgerSnapshotEntity(LedgerSnapshotEntity.SNAPSHOT_ID,
+                new Timestamp(1_000_000L), new Timestamp(1_000_000L));
+        Mockito.doReturn(snapshot).when(snapshotRepository).findForUpdate(LedgerSnapshotEntity.SNAPSHOT_ID);
+        Mockito.doReturn(new Timestamp(1_060_000L)).when(snapshotRepository).currentTime();
+        Mockito.doReturn(2).when(postingRepository).foldIntoAccounts(new Timestamp(1_030_000L));
+
+        ledgerService.snapshot();
+
+        Assertions.assertEquals(new Timestamp(1_030_000L), snapshot.getFoldedUntil());
+        Mockito.verify(accountDetailsCache).invalidateAll();
+    }
+}
@@ -0,0 +1,58 @@
+package com.bank.account.service.common;
+
+import com.bank.account.repository.AccountDetailsRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+public class AccountNumberGeneratorTest {
+    @Mock
+    private AccountDetailsRepository repository;
+    @InjectMocks
+    private AccountNumberGenerator generator;
+
+    @Test
+    @DisplayName("номера выдаются из блока подряд, следующий блок запрашивается по исчерпании")
+    void nextSequentialTest() {
+        Mockito.doReturn(1L, 5001L).when(repository).nextAccountNumberBlock();
+        Assertions.assertEquals(1L, generator.next());
+        Assertions.assertEquals(2L, generator.next());
+        for (int i = 2; i < AccountDetailsRepository.ACCOUNT_NUMBER_BLOCK_SIZE; i++) {
+            generator.next();
+        }
+        Assertions.assertEquals(5001L, generator.next());
+        Mockito.verify(repository, Mockito.times(2)).nextAccountNumberBlock();
+    }
+
+    @Test
+    @DisplayName("параллельная выдача не дает повторов")
+    void nextConcurrentTest() throws InterruptedException {
+        Mockito.doReturn(1L, 1001L, 2001L, 3001L, 4001L).when(repository).nextAccountNumberBlock();
+        final Set<Long> numbers = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 500; j++) {
+                    numbers.add(generator.next());
+                }
+            });
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(4000, numbers.size());
+        Mockito.verify(repository, Mockito.times(4)).nextAccountNumberBlock();
+    }
+}
@@ -0,0 +1,25 @@
+package com.bank.common.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception при превышении лимита запросов.
+ * Бросается на каждый отклоненный запрос, поэтому стек вызовов не заполняется.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message, null, false, false);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return через сколько секунд повторить запрос, не меньше одной
+     */
+    public long getRetryAfterSeconds() {
+        final long seconds = retryAfter.getSeconds() + (retryAfter.getNano() > 0 ? 1 : 0);
+        return Math.max(1L, seconds);
+    }
+}
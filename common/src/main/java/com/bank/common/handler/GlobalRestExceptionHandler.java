@@ -1,9 +1,11 @@
 package com.bank.common.handler;
 
+import com.bank.common.exception.TooManyRequestsException;
 import com.bank.common.exception.ValidationException;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.TypeMismatchException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -172,6 +174,20 @@ public class GlobalRestExceptionHandler {
         return new ResponseEntity<>(message, HttpStatus.UNPROCESSABLE_ENTITY);
     }
 
+    /**
+     * Отклонение по лимиту - штатная ситуация, стек не логируется.
+     *
+     * @param ex {@link TooManyRequestsException}.
+     * @return {@link ResponseEntity} с текстом ошибки, заголовком Retry-After и HttpStatus.TOO_MANY_REQUESTS.
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<String> handleTooManyRequests(TooManyRequestsException ex) {
+        log.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
     /**
      * @param ex {@link SQLException}.
      * @return {@link ResponseEntity} с текстом ошибки и HttpStatus.INTERNAL_SERVER_ERROR.
@@ -0,0 +1,152 @@
+package com.bank.common.scheduling;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Иерархическое колесо таймеров.
+ * Добавление и отмена выполняются за O(1), продвижение времени обходит только наступившие ячейки,
+ * поэтому большое количество отложенных задач не требует периодического просмотра их всех.
+ * Задачи со сроком дальше оборота колеса попадают в колесо следующего уровня с шагом, равным обороту,
+ * и спускаются на нижний уровень по мере приближения срока.
+ * Колесо не запускает собственных потоков: время продвигает вызывающий код через {@link #advance}.
+ *
+ * @param <T> тип задачи
+ */
+public class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long intervalMs;
+    private final List<ArrayDeque<Timeout<T>>> buckets;
+    private long currentTime;
+    private TimingWheel<T> overflow;
+
+    /**
+     * @param tickMs    шаг колеса в миллисекундах
+     * @param wheelSize количество ячеек колеса
+     * @param startMs   начальный момент времени в миллисекундах
+     */
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs < 1 || wheelSize < 2) {
+            throw new IllegalArgumentException("Шаг колеса должен быть положительным, ячеек - не меньше двух");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.intervalMs = Math.multiplyExact(tickMs, wheelSize);
+        this.currentTime = startMs - startMs % tickMs;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Задача со сроком в пределах текущего шага не ставится в колесо и возвращается уже сработавшей,
+     * вызывающий код выполняет ее сам.
+     *
+     * @param deadlineMs момент срабатывания в миллисекундах
+     * @param task       задача
+     * @return {@link Timeout} для отмены
+     */
+    public synchronized Timeout<T> schedule(long deadlineMs, T task) {
+        final Timeout<T> timeout = new Timeout<>(deadlineMs, task);
+        if (!add(timeout)) {
+            timeout.expired = true;
+        }
+        return timeout;
+    }
+
+    /**
+     * Продвигает время и передает задачи, срок которых наступил, в порядке ячеек.
+     *
+     * @param nowMs   текущий момент времени в миллисекундах
+     * @param expired обработчик сработавших задач, вызывается под монитором колеса и не должен блокироваться
+     */
+    public synchronized void advance(long nowMs, Consumer<T> expired) {
+        while (currentTime + tickMs <= nowMs) {
+            tick(this, expired);
+        }
+    }
+
+    /**
+     * Сдвигает колесо на один шаг: сначала спускает задачи с верхнего уровня, затем разбирает текущую ячейку.
+     */
+    private void tick(TimingWheel<T> root, Consumer<T> expired) {
+        currentTime += tickMs;
+        if (overflow != null && currentTime % overflow.tickMs == 0) {
+            overflow.tick(root, expired);
+        }
+
+        final ArrayDeque<Timeout<T>> bucket = buckets.get(index(currentTime));
+        Timeout<T> timeout;
+        while ((timeout = bucket.poll()) != null) {
+            if (!timeout.cancelled && !root.add(timeout)) {
+                timeout.expired = true;
+                expired.accept(timeout.task);
+            }
+        }
+    }
+
+    /**
+     * @return false, если срок задачи уже наступил
+     */
+    private boolean add(Timeout<T> timeout) {
+        if (timeout.deadlineMs < currentTime + tickMs) {
+            return false;
+        }
+        if (timeout.deadlineMs < currentTime + intervalMs) {
+            buckets.get(index(timeout.deadlineMs)).add(timeout);
+            return true;
+        }
+        if (overflow == null) {
+            overflow = new TimingWheel<>(intervalMs, wheelSize, currentTime);
+        }
+        return overflow.add(timeout);
+    }
+
+    private int index(long timeMs) {
+        return (int) ((timeMs / tickMs) % wheelSize);
+    }
+
+    /**
+     * Отложенная задача в колесе
+     *
+     * @param <T> тип задачи
+     */
+    public static final class Timeout<T> {
+
+        private final long deadlineMs;
+        private final T task;
+        private volatile boolean cancelled;
+        private volatile boolean expired;
+
+        private Timeout(long deadlineMs, T task) {
+            this.deadlineMs = deadlineMs;
+            this.task = task;
+        }
+
+        /**
+         * Отмененная задача остается в ячейке и отбрасывается, когда ячейка наступит.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * @return срок задачи уже наступил
+         */
+        public boolean isExpired() {
+            return expired;
+        }
+
+        /**
+         * @return задача
+         */
+        public T getTask() {
+            return task;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.bank.profile.controller;
 
 import com.bank.profile.dto.AccountDetailsIdDto;
+import com.bank.profile.dto.PhoneAccountDto;
 import com.bank.profile.entity.AccountDetailsIdEntity;
 import com.bank.profile.service.AccountDetailsIdService;
 import lombok.RequiredArgsConstructor;
@@ -63,4 +64,13 @@ public class AccountDetailsIdController {
     public ResponseEntity<List<AccountDetailsIdDto>> readAllById(@RequestParam List<Long> ids) {
         return ResponseEntity.ok(service.findAllById(ids));
     }
+
+    /**
+     * @param phoneNumbers лист номеров телефонов, без +7
+     * @return {@link ResponseEntity} с листом {@link List<PhoneAccountDto>}
+     */
+    @PostMapping("/by-phones")
+    public ResponseEntity<List<PhoneAccountDto>> readByPhones(@RequestBody List<Long> phoneNumbers) {
+        return ResponseEntity.ok(service.findFirstAccountByPhoneNumbers(phoneNumbers));
+    }
 }
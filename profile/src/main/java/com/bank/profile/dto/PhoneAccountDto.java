@@ -0,0 +1,22 @@
+package com.bank.profile.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * ДТО счета зачисления для перевода по номеру телефона
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhoneAccountDto implements Serializable {
+    private Long phoneNumber;
+    private Long accountId;
+}
@@ -1,10 +1,25 @@
 package com.bank.profile.repository;
 
+import com.bank.profile.dto.PhoneAccountDto;
 import com.bank.profile.entity.AccountDetailsIdEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Репозиторий для {@link AccountDetailsIdEntity}
  */
 public interface AccountDetailsIdRepository extends JpaRepository<AccountDetailsIdEntity, Long> {
+
+    /**
+     * @param phoneNumbers номера телефонов, без +7
+     * @return счета профилей с этими номерами, по номеру телефона, затем по порядку создания профиля и счета
+     */
+    @Query("SELECT new com.bank.profile.dto.PhoneAccountDto(p.phoneNumber, a.accountId) " +
+            "FROM AccountDetailsIdEntity a JOIN a.profile p WHERE p.phoneNumber IN :phoneNumbers " +
+            "ORDER BY p.phoneNumber, p.id, a.id")
+    List<PhoneAccountDto> findByPhoneNumbers(@Param("phoneNumbers") Collection<Long> phoneNumbers);
 }
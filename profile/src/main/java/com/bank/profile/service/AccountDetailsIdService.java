@@ -1,6 +1,7 @@
 package com.bank.profile.service;
 
 import com.bank.profile.dto.AccountDetailsIdDto;
+import com.bank.profile.dto.PhoneAccountDto;
 import com.bank.profile.entity.AccountDetailsIdEntity;
 
 import java.util.List;
@@ -34,4 +35,12 @@ public interface AccountDetailsIdService {
      * @return {@link AccountDetailsIdDto}
      */
     AccountDetailsIdDto update(Long id, AccountDetailsIdDto accountDetailsId);
+
+    /**
+     * Номер телефона не уникален, поэтому берется первый счет самого раннего профиля со счетами.
+     *
+     * @param phoneNumbers лист номеров телефонов, без +7
+     * @return {@link List<PhoneAccountDto>} только для номеров, у которых есть счет
+     */
+    List<PhoneAccountDto> findFirstAccountByPhoneNumbers(List<Long> phoneNumbers);
 }
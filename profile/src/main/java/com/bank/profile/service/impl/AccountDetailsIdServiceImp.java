@@ -1,6 +1,7 @@
 package com.bank.profile.service.impl;
 
 import com.bank.profile.dto.AccountDetailsIdDto;
+import com.bank.profile.dto.PhoneAccountDto;
 import com.bank.profile.entity.AccountDetailsIdEntity;
 import com.bank.profile.mapper.AccountDetailsIdMapper;
 import com.bank.profile.repository.AccountDetailsIdRepository;
@@ -12,7 +13,9 @@ import org.springframework.stereotype.Service;
 
 import javax.persistence.EntityNotFoundException;
 import javax.transaction.Transactional;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Реализация для {@link AccountDetailsIdService}
@@ -76,4 +79,17 @@ public class AccountDetailsIdServiceImp implements AccountDetailsIdService {
 
         return mapper.toDtoList(accountDetailsIdEntities);
     }
+
+    /**
+     * @param phoneNumbers лист номеров телефонов, без +7.
+     * @return {@link List<PhoneAccountDto>}.
+     */
+    @Override
+    public List<PhoneAccountDto> findFirstAccountByPhoneNumbers(List<Long> phoneNumbers) {
+        final Map<Long, PhoneAccountDto> first = new LinkedHashMap<>();
+        for (PhoneAccountDto account : repository.findByPhoneNumbers(phoneNumbers)) {
+            first.putIfAbsent(account.getPhoneNumber(), account);
+        }
+        return List.copyOf(first.values());
+    }
 }
@@ -3,8 +3,12 @@ package com.bank.transfer;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling
 @EnableEurekaClient
+@EnableFeignClients
 @SpringBootApplication(scanBasePackages = {"com.bank.common", "com.bank.transfer"})
 public class TransferApplication {
     public static void main(String[] args) {
@@ -0,0 +1,32 @@
+package com.bank.transfer.client;
+
+import com.bank.transfer.dto.AccountDetailsDto;
+import com.bank.transfer.dto.LedgerEntryDto;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+/**
+ * Клиент account-app. Без transfer.clients.account-url адрес берется из Eureka.
+ */
+@FeignClient(name = "account-app", url = "${transfer.clients.account-url:}", path = "/api/account")
+public interface AccountClient {
+
+    /**
+     * @param accountNumber номер счёта
+     * @return {@link AccountDetailsDto}
+     */
+    @GetMapping("/details/by-number/{accountNumber}")
+    AccountDetailsDto findByAccountNumber(@PathVariable("accountNumber") Long accountNumber);
+
+    /**
+     * Повтор записи с тем же ключом возвращает уже проведенную запись.
+     *
+     * @param entry {@link LedgerEntryDto}
+     * @return {@link LedgerEntryDto}
+     */
+    @PostMapping("/ledger/post")
+    LedgerEntryDto post(@RequestBody LedgerEntryDto entry);
+}
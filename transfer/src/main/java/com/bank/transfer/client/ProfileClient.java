@@ -0,0 +1,22 @@
+package com.bank.transfer.client;
+
+import com.bank.transfer.dto.PhoneAccountDto;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+
+/**
+ * Клиент profile-app. Без transfer.clients.profile-url адрес берется из Eureka.
+ */
+@FeignClient(name = "profile-app", url = "${transfer.clients.profile-url:}", path = "/api/profile")
+public interface ProfileClient {
+
+    /**
+     * @param phoneNumbers номера телефонов, без +7
+     * @return {@link PhoneAccountDto} только для номеров, у которых есть счет
+     */
+    @PostMapping("/account/details/by-phones")
+    List<PhoneAccountDto> findAccountsByPhoneNumbers(@RequestBody List<Long> phoneNumbers);
+}
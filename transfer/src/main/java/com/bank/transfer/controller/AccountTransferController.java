@@ -1,8 +1,14 @@
 package com.bank.transfer.controller;
 
 import com.bank.transfer.dto.AccountTransferDto;
+import com.bank.transfer.dto.TransferSubmissionDto;
 import com.bank.transfer.entity.AccountTransferEntity;
+import com.bank.transfer.entity.TransferType;
 import com.bank.transfer.service.AccountTransferService;
+import com.bank.transfer.service.IdempotencyService;
+import com.bank.transfer.service.RateLimitService;
+import com.bank.transfer.service.TransferBatchWriter;
+import com.bank.transfer.service.common.RequestFingerprint;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,11 +16,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Контроллер для {@link AccountTransferDto}
@@ -25,6 +33,9 @@ import java.util.List;
 public class AccountTransferController {
 
     private final AccountTransferService service;
+    private final IdempotencyService idempotencyService;
+    private final TransferBatchWriter batchWriter;
+    private final RateLimitService rateLimitService;
 
     /**
      * @param ids список технических идентификаторов {@link AccountTransferEntity}
@@ -45,12 +56,47 @@ public class AccountTransferController {
     }
 
     /**
+     * Повтор с тем же {@value IdempotencyService#HEADER} возвращает первый ответ и не создает перевод.
+     * Запросы без ключа при включенной групповой записи идут через {@link TransferBatchWriter}.
+     * Частота создания ограничена {@link RateLimitService}, сверх лимита - 429 с Retry-After.
+     * Лимит проверяется только перед созданием перевода, поэтому повтор не расходует его и не получает 429.
+     *
+     * @param idempotencyKey ключ идемпотентности
      * @param accountTransfer {@link AccountTransferDto}
-     * @return {@link ResponseEntity } {@link AccountTransferDto}
+     * @return {@link ResponseEntity} {@link AccountTransferDto}
      */
     @PostMapping("/create")
-    public ResponseEntity<AccountTransferDto> create(@RequestBody AccountTransferDto accountTransfer) {
-        return ResponseEntity.ok(service.save(accountTransfer));
+    public CompletableFuture<ResponseEntity<AccountTransferDto>> create(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody AccountTransferDto accountTransfer) {
+        if (idempotencyKey == null && batchWriter.isEnabled()) {
+            rateLimitService.checkAccount(accountTransfer.getAccountDetailsId());
+            return service.submit(accountTransfer).thenApply(ResponseEntity::ok);
+        }
+        final String fingerprint = RequestFingerprint.of(accountTransfer.getAccountNumber(),
+                accountTransfer.getAmount(), accountTransfer.getPurpose(), accountTransfer.getAccountDetailsId());
+        final AccountTransferDto transfer = idempotencyService.execute(idempotencyKey, TransferType.ACCOUNT,
+                accountTransfer.getAccountDetailsId(), fingerprint, AccountTransferDto.class,
+                () -> {
+                    rateLimitService.checkAccount(accountTransfer.getAccountDetailsId());
+                    return service.save(accountTransfer);
+                });
+        return CompletableFuture.completedFuture(ResponseEntity.ok(transfer));
+    }
+
+    /**
+     * Перевод записывается в фоне, статус - по ссылке из Location, в том числе потоком событий.
+     *
+     * @param accountTransfer {@link AccountTransferDto}
+     * @return {@link ResponseEntity} 202 с {@link TransferSubmissionDto}
+     */
+    @PostMapping("/submit")
+    public ResponseEntity<TransferSubmissionDto> submit(@RequestBody AccountTransferDto accountTransfer) {
+        rateLimitService.checkAccount(accountTransfer.getAccountDetailsId());
+        final TransferSubmissionDto submission = service.submitAsync(accountTransfer);
+        return ResponseEntity.accepted()
+                .location(TransferStatusController.location(submission))
+                .body(submission);
     }
 
     /**
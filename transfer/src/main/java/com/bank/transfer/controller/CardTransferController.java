@@ -1,8 +1,14 @@
 package com.bank.transfer.controller;
 
 import com.bank.transfer.dto.CardTransferDto;
+import com.bank.transfer.dto.TransferSubmissionDto;
 import com.bank.transfer.entity.CardTransferEntity;
+import com.bank.transfer.entity.TransferType;
 import com.bank.transfer.service.CardTransferService;
+import com.bank.transfer.service.IdempotencyService;
+import com.bank.transfer.service.RateLimitService;
+import com.bank.transfer.service.TransferBatchWriter;
+import com.bank.transfer.service.common.RequestFingerprint;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,11 +16,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Контроллер для {@link CardTransferDto}
@@ -25,6 +33,9 @@ import java.util.List;
 public class CardTransferController {
 
     private final CardTransferService service;
+    private final IdempotencyService idempotencyService;
+    private final TransferBatchWriter batchWriter;
+    private final RateLimitService rateLimitService;
 
     /**
      * @param ids список технических идентификаторов {@link CardTransferEntity}
@@ -45,12 +56,48 @@ public class CardTransferController {
     }
 
     /**
-     * @param cardTransfer {@link CardTransferDto}
-     * @return {@link ResponseEntity } {@link CardTransferDto}
+     * Повтор с тем же {@value IdempotencyService#HEADER} возвращает первый ответ и не создает перевод.
+     * Запросы без ключа при включенной групповой записи идут через {@link TransferBatchWriter}.
+     * Частота создания ограничена {@link RateLimitService}, сверх лимита - 429 с Retry-After.
+     * Лимит проверяется только перед созданием перевода, поэтому повтор не расходует его и не получает 429.
+     *
+     * @param idempotencyKey ключ идемпотентности
+     * @param cardTransfer   {@link CardTransferDto}
+     * @return {@link ResponseEntity} {@link CardTransferDto}
      */
     @PostMapping("/create")
-    public ResponseEntity<CardTransferDto> create(@RequestBody CardTransferDto cardTransfer) {
-        return ResponseEntity.ok(service.save(cardTransfer));
+    public CompletableFuture<ResponseEntity<CardTransferDto>> create(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody CardTransferDto cardTransfer) {
+        if (idempotencyKey == null && batchWriter.isEnabled()) {
+            rateLimitService.checkCardTransfer(cardTransfer.getAccountDetailsId(), cardTransfer.getCardNumber());
+            return service.submit(cardTransfer).thenApply(ResponseEntity::ok);
+        }
+        final String fingerprint = RequestFingerprint.of(cardTransfer.getCardNumber(), cardTransfer.getAmount(),
+                cardTransfer.getPurpose(), cardTransfer.getAccountDetailsId());
+        final CardTransferDto transfer = idempotencyService.execute(idempotencyKey, TransferType.CARD,
+                cardTransfer.getAccountDetailsId(), fingerprint, CardTransferDto.class,
+                () -> {
+                    rateLimitService.checkCardTransfer(cardTransfer.getAccountDetailsId(),
+                            cardTransfer.getCardNumber());
+                    return service.save(cardTransfer);
+                });
+        return CompletableFuture.completedFuture(ResponseEntity.ok(transfer));
+    }
+
+    /**
+     * Перевод записывается в фоне, статус - по ссылке из Location, в том числе потоком событий.
+     *
+     * @param cardTransfer {@link CardTransferDto}
+     * @return {@link ResponseEntity} 202 с {@link TransferSubmissionDto}
+     */
+    @PostMapping("/submit")
+    public ResponseEntity<TransferSubmissionDto> submit(@RequestBody CardTransferDto cardTransfer) {
+        rateLimitService.checkCardTransfer(cardTransfer.getAccountDetailsId(), cardTransfer.getCardNumber());
+        final TransferSubmissionDto submission = service.submitAsync(cardTransfer);
+        return ResponseEntity.accepted()
+                .location(TransferStatusController.location(submission))
+                .body(submission);
     }
 
     /**
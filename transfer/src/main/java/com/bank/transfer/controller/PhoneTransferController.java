@@ -1,8 +1,14 @@
 package com.bank.transfer.controller;
 
 import com.bank.transfer.dto.PhoneTransferDto;
+import com.bank.transfer.dto.TransferSubmissionDto;
 import com.bank.transfer.entity.PhoneTransferEntity;
+import com.bank.transfer.entity.TransferType;
 import com.bank.transfer.service.PhoneTransferService;
+import com.bank.transfer.service.IdempotencyService;
+import com.bank.transfer.service.RateLimitService;
+import com.bank.transfer.service.TransferBatchWriter;
+import com.bank.transfer.service.common.RequestFingerprint;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,11 +16,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Контроллер для {@link PhoneTransferDto}
@@ -25,6 +33,9 @@ import java.util.List;
 public class PhoneTransferController {
 
     private final PhoneTransferService service;
+    private final IdempotencyService idempotencyService;
+    private final TransferBatchWriter batchWriter;
+    private final RateLimitService rateLimitService;
 
     /**
      * @param ids список технических идентификаторов {@link PhoneTransferEntity}
@@ -45,12 +56,47 @@ public class PhoneTransferController {
     }
 
     /**
-     * @param phoneTransfer {@link PhoneTransferDto}
-     * @return {@link ResponseEntity } {@link PhoneTransferDto}
+     * Повтор с тем же {@value IdempotencyService#HEADER} возвращает первый ответ и не создает перевод.
+     * Запросы без ключа при включенной групповой записи идут через {@link TransferBatchWriter}.
+     * Частота создания ограничена {@link RateLimitService}, сверх лимита - 429 с Retry-After.
+     * Лимит проверяется только перед созданием перевода, поэтому повтор не расходует его и не получает 429.
+     *
+     * @param idempotencyKey ключ идемпотентности
+     * @param phoneTransfer  {@link PhoneTransferDto}
+     * @return {@link ResponseEntity} {@link PhoneTransferDto}
      */
     @PostMapping("/create")
-    public ResponseEntity<PhoneTransferDto> create(@RequestBody PhoneTransferDto phoneTransfer) {
-        return ResponseEntity.ok(service.save(phoneTransfer));
+    public CompletableFuture<ResponseEntity<PhoneTransferDto>> create(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody PhoneTransferDto phoneTransfer) {
+        if (idempotencyKey == null && batchWriter.isEnabled()) {
+            rateLimitService.checkAccount(phoneTransfer.getAccountDetailsId());
+            return service.submit(phoneTransfer).thenApply(ResponseEntity::ok);
+        }
+        final String fingerprint = RequestFingerprint.of(phoneTransfer.getPhoneNumber(), phoneTransfer.getAmount(),
+                phoneTransfer.getPurpose(), phoneTransfer.getAccountDetailsId());
+        final PhoneTransferDto transfer = idempotencyService.execute(idempotencyKey, TransferType.PHONE,
+                phoneTransfer.getAccountDetailsId(), fingerprint, PhoneTransferDto.class,
+                () -> {
+                    rateLimitService.checkAccount(phoneTransfer.getAccountDetailsId());
+                    return service.save(phoneTransfer);
+                });
+        return CompletableFuture.completedFuture(ResponseEntity.ok(transfer));
+    }
+
+    /**
+     * Перевод записывается в фоне, статус - по ссылке из Location, в том числе потоком событий.
+     *
+     * @param phoneTransfer {@link PhoneTransferDto}
+     * @return {@link ResponseEntity} 202 с {@link TransferSubmissionDto}
+     */
+    @PostMapping("/submit")
+    public ResponseEntity<TransferSubmissionDto> submit(@RequestBody PhoneTransferDto phoneTransfer) {
+        rateLimitService.checkAccount(phoneTransfer.getAccountDetailsId());
+        final TransferSubmissionDto submission = service.submitAsync(phoneTransfer);
+        return ResponseEntity.accepted()
+                .location(TransferStatusController.location(submission))
+                .body(submission);
     }
 
     /**
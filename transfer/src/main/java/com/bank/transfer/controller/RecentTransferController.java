@@ -0,0 +1,31 @@
+package com.bank.transfer.controller;
+
+import com.bank.transfer.repository.StatementLine;
+import com.bank.transfer.service.RecentTransferService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Контроллер последних переводов со счета
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/recent")
+public class RecentTransferController {
+
+    private final RecentTransferService service;
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @return лист {@link StatementLine}, новые первыми
+     */
+    @GetMapping("/{accountDetailsId}")
+    public List<StatementLine> read(@PathVariable("accountDetailsId") Long accountDetailsId) {
+        return service.findLast(accountDetailsId);
+    }
+}
@@ -0,0 +1,52 @@
+package com.bank.transfer.controller;
+
+import com.bank.transfer.dto.ScheduledTransferDto;
+import com.bank.transfer.entity.ScheduledTransferEntity;
+import com.bank.transfer.service.ScheduledTransferService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Контроллер для {@link ScheduledTransferDto}
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/scheduled")
+public class ScheduledTransferController {
+
+    private final ScheduledTransferService service;
+
+    /**
+     * @param id технический идентификатор {@link ScheduledTransferEntity}
+     * @return {@link ScheduledTransferDto}
+     */
+    @GetMapping("/read/{id}")
+    public ScheduledTransferDto read(@PathVariable("id") Long id) {
+        return service.findById(id);
+    }
+
+    /**
+     * @param scheduledTransfer {@link ScheduledTransferDto}
+     * @return {@link ResponseEntity} {@link ScheduledTransferDto}
+     */
+    @PostMapping("/create")
+    public ResponseEntity<ScheduledTransferDto> create(@RequestBody ScheduledTransferDto scheduledTransfer) {
+        return ResponseEntity.ok(service.save(scheduledTransfer));
+    }
+
+    /**
+     * @param id технический идентификатор {@link ScheduledTransferEntity}
+     * @return {@link ResponseEntity} {@link ScheduledTransferDto}
+     */
+    @PutMapping("/cancel/{id}")
+    public ResponseEntity<ScheduledTransferDto> cancel(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(service.cancel(id));
+    }
+}
@@ -0,0 +1,52 @@
+package com.bank.transfer.controller;
+
+import com.bank.transfer.service.StatementService;
+import com.bank.transfer.service.common.StatementFormat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+/**
+ * Контроллер выписок по банковскому счету
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/statement")
+public class StatementController {
+
+    private final StatementService service;
+
+    /**
+     * Выписка пишется в ответ по мере чтения, поэтому ее размер не ограничен памятью.
+     *
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @param from             первый день периода
+     * @param to               последний день периода
+     * @param format           {@link StatementFormat}
+     * @return {@link ResponseEntity} с потоком выписки
+     */
+    @GetMapping("/{accountDetailsId}")
+    public ResponseEntity<StreamingResponseBody> read(
+            @PathVariable("accountDetailsId") Long accountDetailsId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "CSV") StatementFormat format) {
+        service.validate(from, to);
+        final String fileName = String.format("statement-%d-%s-%s.%s", accountDetailsId, from, to,
+                format.name().toLowerCase());
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(out -> service.write(accountDetailsId, from, to, format, out));
+    }
+}
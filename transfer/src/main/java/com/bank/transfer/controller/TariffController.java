@@ -0,0 +1,58 @@
+package com.bank.transfer.controller;
+
+import com.bank.transfer.dto.TariffDto;
+import com.bank.transfer.entity.TransferChannel;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.service.TariffService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Контроллер для {@link TariffDto}
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/tariff")
+public class TariffController {
+
+    private final TariffService service;
+
+    /**
+     * @return лист {@link TariffDto}
+     */
+    @GetMapping("/read")
+    public List<TariffDto> read() {
+        return service.findAll();
+    }
+
+    /**
+     * @param tariffs лист {@link TariffDto}, заменяет все тарифы
+     * @return {@link ResponseEntity} лист {@link TariffDto}
+     */
+    @PutMapping("/replace")
+    public ResponseEntity<List<TariffDto>> replace(@RequestBody List<TariffDto> tariffs) {
+        return ResponseEntity.ok(service.replaceAll(tariffs));
+    }
+
+    /**
+     * @param type    вид перевода
+     * @param channel канал
+     * @param amount  сумма перевода
+     * @return комиссия по текущим тарифам
+     */
+    @GetMapping("/fee")
+    public BigDecimal fee(@RequestParam("type") TransferType type,
+                          @RequestParam(value = "channel", defaultValue = "API") TransferChannel channel,
+                          @RequestParam("amount") BigDecimal amount) {
+        return service.calculate(type, channel, amount);
+    }
+}
@@ -0,0 +1,80 @@
+package com.bank.transfer.controller;
+
+import com.bank.transfer.dto.TransferBatchDto;
+import com.bank.transfer.service.IdempotencyService;
+import com.bank.transfer.service.RateLimitService;
+import com.bank.transfer.service.TransferBatchService;
+import com.bank.transfer.service.common.StatementFormat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+
+/**
+ * Контроллер для {@link TransferBatchDto}: пакеты переводов по номеру счёта вместо запроса на каждый перевод
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/account/batch")
+public class TransferBatchController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType(StatementFormat.NDJSON.getMediaType());
+
+    private final TransferBatchService service;
+    private final RateLimitService rateLimitService;
+
+    /**
+     * Тело читается потоком, поэтому размер пакета не ограничен памятью.
+     * Повтор с тем же {@value IdempotencyService#HEADER} возвращает завершенный пакет или продолжает прерванный.
+     *
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @param idempotencyKey   ключ идемпотентности пакета
+     * @param contentType      text/csv или application/x-ndjson
+     * @param body             поток тела запроса
+     * @return {@link ResponseEntity} {@link TransferBatchDto} с итогами загрузки
+     */
+    @PostMapping(value = "/upload", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<TransferBatchDto> upload(
+            @RequestParam("accountDetailsId") Long accountDetailsId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        rateLimitService.checkAccount(accountDetailsId);
+        final StatementFormat format = NDJSON.isCompatibleWith(MediaType.parseMediaType(contentType)) ?
+                StatementFormat.NDJSON : StatementFormat.CSV;
+        return ResponseEntity.ok(service.upload(accountDetailsId, idempotencyKey, format, body));
+    }
+
+    /**
+     * @param id технический идентификатор пакета
+     * @return {@link TransferBatchDto}
+     */
+    @GetMapping("/{id}")
+    public TransferBatchDto read(@PathVariable("id") Long id) {
+        return service.findById(id);
+    }
+
+    /**
+     * @param id     технический идентификатор пакета
+     * @param format {@link StatementFormat} отчета
+     * @return {@link ResponseEntity} с потоком результатов строк
+     */
+    @GetMapping("/{id}/rows")
+    public ResponseEntity<StreamingResponseBody> rows(@PathVariable("id") Long id,
+                                                      @RequestParam(defaultValue = "CSV") StatementFormat format) {
+        service.findById(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .body(out -> service.writeRows(id, format, out));
+    }
+}
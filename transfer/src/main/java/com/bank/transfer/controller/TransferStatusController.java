@@ -0,0 +1,57 @@
+package com.bank.transfer.controller;
+
+import com.bank.transfer.dto.TransferSubmissionDto;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.service.AsyncTransferService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+
+/**
+ * Контроллер статусов переводов, принятых асинхронно
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/status")
+public class TransferStatusController {
+
+    private final AsyncTransferService service;
+
+    /**
+     * @param submission {@link TransferSubmissionDto}
+     * @return адрес статуса перевода
+     */
+    static URI location(TransferSubmissionDto submission) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/status/{type}/{id}")
+                .buildAndExpand(submission.getType(), submission.getId())
+                .toUri();
+    }
+
+    /**
+     * @param type вид перевода
+     * @param id   технический идентификатор перевода
+     * @return {@link TransferSubmissionDto}
+     */
+    @GetMapping("/{type}/{id}")
+    public TransferSubmissionDto read(@PathVariable("type") TransferType type, @PathVariable("id") Long id) {
+        return service.findStatus(type, id);
+    }
+
+    /**
+     * @param type вид перевода
+     * @param id   технический идентификатор перевода
+     * @return {@link SseEmitter} с событиями status до итогового статуса
+     */
+    @GetMapping(path = "/{type}/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable("type") TransferType type, @PathVariable("id") Long id) {
+        return service.subscribe(type, id);
+    }
+}
@@ -0,0 +1,29 @@
+package com.bank.transfer.controller;
+
+import com.bank.transfer.dto.TransferTotalsDto;
+import com.bank.transfer.service.TransferTotalsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Контроллер для {@link TransferTotalsDto}
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/totals")
+public class TransferTotalsController {
+
+    private final TransferTotalsService service;
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @return {@link TransferTotalsDto}
+     */
+    @GetMapping("/{accountDetailsId}")
+    public TransferTotalsDto read(@PathVariable("accountDetailsId") Long accountDetailsId) {
+        return service.findByAccount(accountDetailsId);
+    }
+}
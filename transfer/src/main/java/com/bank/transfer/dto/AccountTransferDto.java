@@ -1,6 +1,8 @@
 package com.bank.transfer.dto;
 
 import com.bank.transfer.entity.AccountTransferEntity;
+import com.bank.transfer.entity.TransferChannel;
+import com.bank.transfer.entity.TransferStatus;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
@@ -31,4 +33,10 @@ public class AccountTransferDto implements Serializable {
 
     String purpose;
     Long accountDetailsId;
+
+    TransferStatus status;
+
+    TransferChannel channel;
+
+    BigDecimal fee;
 }
@@ -1,6 +1,8 @@
 package com.bank.transfer.dto;
 
 import com.bank.transfer.entity.CardTransferEntity;
+import com.bank.transfer.entity.TransferChannel;
+import com.bank.transfer.entity.TransferStatus;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
@@ -31,4 +33,10 @@ public class CardTransferDto implements Serializable {
 
     String purpose;
     Long accountDetailsId;
+
+    TransferStatus status;
+
+    TransferChannel channel;
+
+    BigDecimal fee;
 }
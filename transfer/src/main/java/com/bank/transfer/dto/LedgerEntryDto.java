@@ -0,0 +1,32 @@
+package com.bank.transfer.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * ДТО бухгалтерской записи account-app: списание и зачисление одной суммы
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class LedgerEntryDto implements Serializable {
+
+    String entryKey;
+
+    Long debitAccountId;
+
+    Long creditAccountId;
+
+    BigDecimal amount;
+}
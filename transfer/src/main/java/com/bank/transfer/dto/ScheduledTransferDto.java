@@ -0,0 +1,50 @@
+package com.bank.transfer.dto;
+
+import com.bank.transfer.entity.ScheduledTransferEntity;
+import com.bank.transfer.entity.TransferType;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * ДТО {@link ScheduledTransferEntity}
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ScheduledTransferDto implements Serializable {
+
+    Long id;
+
+    TransferType transferType;
+
+    Long payee;
+
+    BigDecimal amount;
+
+    String purpose;
+    Long accountDetailsId;
+
+    String period;
+
+    OffsetDateTime startAt;
+
+    OffsetDateTime endAt;
+
+    OffsetDateTime nextRunAt;
+
+    Integer runCount;
+
+    Boolean active;
+}
@@ -0,0 +1,43 @@
+package com.bank.transfer.dto;
+
+import com.bank.transfer.entity.TariffEntity;
+import com.bank.transfer.entity.TransferChannel;
+import com.bank.transfer.entity.TransferType;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * ДТО {@link TariffEntity}
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TariffDto implements Serializable {
+
+    Long id;
+
+    TransferType transferType;
+
+    TransferChannel channel;
+
+    BigDecimal minAmount;
+
+    BigDecimal fixedFee;
+
+    Integer rateBp;
+
+    BigDecimal minFee;
+
+    BigDecimal maxFee;
+}
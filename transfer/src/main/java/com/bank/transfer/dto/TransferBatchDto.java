@@ -0,0 +1,44 @@
+package com.bank.transfer.dto;
+
+import com.bank.transfer.entity.TransferBatchEntity;
+import com.bank.transfer.entity.TransferBatchStatus;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+/**
+ * ДТО {@link TransferBatchEntity}
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TransferBatchDto implements Serializable {
+
+    Long id;
+
+    Long accountDetailsId;
+
+    String idempotencyKey;
+
+    TransferBatchStatus status;
+
+    Integer totalRows;
+
+    Integer acceptedRows;
+
+    Integer rejectedRows;
+
+    OffsetDateTime createdAt;
+
+    OffsetDateTime finishedAt;
+}
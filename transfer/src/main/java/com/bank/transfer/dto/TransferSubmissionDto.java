@@ -0,0 +1,33 @@
+package com.bank.transfer.dto;
+
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.service.common.SubmissionStatus;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+
+/**
+ * ДТО статуса перевода, принятого асинхронно
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TransferSubmissionDto implements Serializable {
+
+    TransferType type;
+
+    Long id;
+
+    SubmissionStatus status;
+
+    String message;
+}
@@ -0,0 +1,37 @@
+package com.bank.transfer.dto;
+
+import com.bank.transfer.entity.TransferType;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Суммы переводов со счета за текущие день и месяц
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TransferTotalsDto implements Serializable {
+
+    Long accountDetailsId;
+
+    LocalDate day;
+    BigDecimal dayAmount;
+    Long dayCount;
+    Map<TransferType, BigDecimal> dayAmountByType;
+
+    LocalDate month;
+    BigDecimal monthAmount;
+    Long monthCount;
+    Map<TransferType, BigDecimal> monthAmountByType;
+}
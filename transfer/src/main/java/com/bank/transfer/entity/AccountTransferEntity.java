@@ -9,9 +9,12 @@ import lombok.experimental.FieldDefaults;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import java.math.BigDecimal;
 import java.util.Objects;
@@ -26,10 +29,12 @@ import java.util.Objects;
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Table(name = "account_transfer", schema = "transfer")
-public class AccountTransferEntity {
+public class AccountTransferEntity implements Transfer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_transfer_id")
+    @SequenceGenerator(name = "account_transfer_id", sequenceName = "transfer.account_transfer_pooled_id_seq",
+            allocationSize = 50)
     @Column(name = "id")
     Long id;
 
@@ -45,6 +50,27 @@ public class AccountTransferEntity {
     @Column(name = "account_details_id")
     Long accountDetailsId;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", updatable = false)
+    TransferStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel")
+    TransferChannel channel;
+
+    @Column(name = "fee")
+    BigDecimal fee;
+
+    @Override
+    public TransferType getType() {
+        return TransferType.ACCOUNT;
+    }
+
+    @Override
+    public Long getPayee() {
+        return accountNumber;
+    }
+
     @Override
     public boolean equals(Object o) {
 
@@ -60,12 +86,13 @@ public class AccountTransferEntity {
                 accountTransfer.getAccountNumber()) && Objects.equals(getAmount(),
                 accountTransfer.getAmount()) && Objects.equals(getPurpose(),
                 accountTransfer.getPurpose()) && Objects.equals(getAccountDetailsId(),
-                accountTransfer.getAccountDetailsId()
-        );
+                accountTransfer.getAccountDetailsId()) && getStatus() == accountTransfer.getStatus() &&
+                getChannel() == accountTransfer.getChannel() && Objects.equals(getFee(), accountTransfer.getFee());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getId(), getAccountNumber(), getAmount(), getPurpose(), getAccountDetailsId());
+        return Objects.hash(getId(), getAccountNumber(), getAmount(), getPurpose(), getAccountDetailsId(),
+                getStatus(), getChannel(), getFee());
     }
 }
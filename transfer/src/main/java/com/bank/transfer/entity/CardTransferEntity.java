@@ -9,9 +9,12 @@ import lombok.experimental.FieldDefaults;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import java.math.BigDecimal;
 import java.util.Objects;
@@ -26,10 +29,12 @@ import java.util.Objects;
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Table(name = "card_transfer", schema = "transfer")
-public class CardTransferEntity {
+public class CardTransferEntity implements Transfer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_transfer_id")
+    @SequenceGenerator(name = "card_transfer_id", sequenceName = "transfer.card_transfer_pooled_id_seq",
+            allocationSize = 50)
     @Column(name = "id")
     Long id;
 
@@ -45,6 +50,27 @@ public class CardTransferEntity {
     @Column(name = "account_details_id")
     Long accountDetailsId;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", updatable = false)
+    TransferStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel")
+    TransferChannel channel;
+
+    @Column(name = "fee")
+    BigDecimal fee;
+
+    @Override
+    public TransferType getType() {
+        return TransferType.CARD;
+    }
+
+    @Override
+    public Long getPayee() {
+        return cardNumber;
+    }
+
     @Override
     public boolean equals(Object o) {
 
@@ -60,12 +86,13 @@ public class CardTransferEntity {
                 cardTransfer.getCardNumber()) && Objects.equals(getAmount(),
                 cardTransfer.getAmount()) && Objects.equals(getPurpose(),
                 cardTransfer.getPurpose()) && Objects.equals(getAccountDetailsId(),
-                cardTransfer.getAccountDetailsId()
-        );
+                cardTransfer.getAccountDetailsId()) && getStatus() == cardTransfer.getStatus() &&
+                getChannel() == cardTransfer.getChannel() && Objects.equals(getFee(), cardTransfer.getFee());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getId(), getCardNumber(), getAmount(), getPurpose(), getAccountDetailsId());
+        return Objects.hash(getId(), getCardNumber(), getAmount(), getPurpose(), getAccountDetailsId(),
+                getStatus(), getChannel(), getFee());
     }
 }
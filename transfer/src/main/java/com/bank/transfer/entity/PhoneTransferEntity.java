@@ -8,9 +8,12 @@ import lombok.Setter;
 import lombok.experimental.FieldDefaults;
 
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import java.math.BigDecimal;
@@ -26,10 +29,12 @@ import java.util.Objects;
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Table(name = "phone_transfer", schema = "transfer")
-public class PhoneTransferEntity {
+public class PhoneTransferEntity implements Transfer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "phone_transfer_id")
+    @SequenceGenerator(name = "phone_transfer_id", sequenceName = "transfer.phone_transfer_pooled_id_seq",
+            allocationSize = 50)
     @Column(name = "id")
     Long id;
 
@@ -45,6 +50,27 @@ public class PhoneTransferEntity {
     @Column(name = "account_details_id")
     Long accountDetailsId;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", updatable = false)
+    TransferStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel")
+    TransferChannel channel;
+
+    @Column(name = "fee")
+    BigDecimal fee;
+
+    @Override
+    public TransferType getType() {
+        return TransferType.PHONE;
+    }
+
+    @Override
+    public Long getPayee() {
+        return phoneNumber;
+    }
+
     @Override
     public boolean equals(Object o) {
 
@@ -60,12 +86,13 @@ public class PhoneTransferEntity {
                 phoneTransfer.getPhoneNumber()) && Objects.equals(getAmount(),
                 phoneTransfer.getAmount()) && Objects.equals(getPurpose(),
                 phoneTransfer.getPurpose()) && Objects.equals(getAccountDetailsId(),
-                phoneTransfer.getAccountDetailsId()
-        );
+                phoneTransfer.getAccountDetailsId()) && getStatus() == phoneTransfer.getStatus() &&
+                getChannel() == phoneTransfer.getChannel() && Objects.equals(getFee(), phoneTransfer.getFee());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getId(), getPhoneNumber(), getAmount(), getPurpose(), getAccountDetailsId());
+        return Objects.hash(getId(), getPhoneNumber(), getAmount(), getPurpose(), getAccountDetailsId(),
+                getStatus(), getChannel(), getFee());
     }
 }
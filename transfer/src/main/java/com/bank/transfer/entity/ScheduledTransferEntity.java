@@ -0,0 +1,73 @@
+package com.bank.transfer.entity;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Entity для таблицы scheduled_transfer
+ */
+@Entity
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Table(name = "scheduled_transfer", schema = "transfer")
+public class ScheduledTransferEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transfer_type")
+    TransferType transferType;
+
+    @Column(name = "payee")
+    Long payee;
+
+    @Column(name = "amount")
+    BigDecimal amount;
+
+    @Column(name = "purpose")
+    String purpose;
+
+    @Column(name = "account_details_id")
+    Long accountDetailsId;
+
+    @Column(name = "period")
+    String period;
+
+    @Column(name = "start_at")
+    OffsetDateTime startAt;
+
+    @Column(name = "end_at")
+    OffsetDateTime endAt;
+
+    @Column(name = "next_run_at")
+    OffsetDateTime nextRunAt;
+
+    @Column(name = "run_count")
+    Integer runCount;
+
+    @Column(name = "active")
+    Boolean active;
+}
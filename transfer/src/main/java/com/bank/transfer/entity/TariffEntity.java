@@ -0,0 +1,61 @@
+package com.bank.transfer.entity;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+
+/**
+ * Entity для таблицы tariff
+ */
+@Entity
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Table(name = "tariff", schema = "transfer")
+public class TariffEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transfer_type")
+    TransferType transferType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel")
+    TransferChannel channel;
+
+    @Column(name = "min_amount")
+    BigDecimal minAmount;
+
+    @Column(name = "fixed_fee")
+    BigDecimal fixedFee;
+
+    @Column(name = "rate_bp")
+    Integer rateBp;
+
+    @Column(name = "min_fee")
+    BigDecimal minFee;
+
+    @Column(name = "max_fee")
+    BigDecimal maxFee;
+}
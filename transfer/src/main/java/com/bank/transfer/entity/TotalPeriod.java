@@ -0,0 +1,20 @@
+package com.bank.transfer.entity;
+
+import java.time.LocalDate;
+
+/**
+ * Период, за который считаются суммы переводов со счета
+ */
+public enum TotalPeriod {
+
+    DAY,
+    MONTH;
+
+    /**
+     * @param date день внутри периода
+     * @return первый день периода
+     */
+    public LocalDate start(LocalDate date) {
+        return this == DAY ? date : date.withDayOfMonth(1);
+    }
+}
@@ -0,0 +1,69 @@
+package com.bank.transfer.entity;
+
+import java.math.BigDecimal;
+
+/**
+ * Общие поля переводов по номеру счета, карты и телефона
+ */
+public interface Transfer {
+
+    /**
+     * @return вид перевода
+     */
+    TransferType getType();
+
+    /**
+     * @return технический идентификатор
+     */
+    Long getId();
+
+    /**
+     * @param id технический идентификатор
+     */
+    void setId(Long id);
+
+    /**
+     * @return номер счета, карты или телефона получателя
+     */
+    Long getPayee();
+
+    /**
+     * @return цель перевода
+     */
+    String getPurpose();
+
+    /**
+     * @return технический идентификатор счета списания
+     */
+    Long getAccountDetailsId();
+
+    /**
+     * @return сумма перевода
+     */
+    BigDecimal getAmount();
+
+    /**
+     * @param status статус исполнения
+     */
+    void setStatus(TransferStatus status);
+
+    /**
+     * @return канал, через который создан перевод
+     */
+    TransferChannel getChannel();
+
+    /**
+     * @param channel канал, через который создан перевод
+     */
+    void setChannel(TransferChannel channel);
+
+    /**
+     * @return комиссия по тарифу
+     */
+    BigDecimal getFee();
+
+    /**
+     * @param fee комиссия по тарифу
+     */
+    void setFee(BigDecimal fee);
+}
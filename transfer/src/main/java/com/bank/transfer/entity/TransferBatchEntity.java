@@ -0,0 +1,63 @@
+package com.bank.transfer.entity;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.OffsetDateTime;
+
+/**
+ * Entity для таблицы transfer_batch
+ */
+@Entity
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Table(name = "transfer_batch", schema = "transfer")
+public class TransferBatchEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    Long id;
+
+    @Column(name = "account_details_id")
+    Long accountDetailsId;
+
+    @Column(name = "idempotency_key")
+    String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    TransferBatchStatus status;
+
+    @Column(name = "total_rows")
+    Integer totalRows;
+
+    @Column(name = "accepted_rows")
+    Integer acceptedRows;
+
+    @Column(name = "rejected_rows")
+    Integer rejectedRows;
+
+    @Column(name = "created_at")
+    OffsetDateTime createdAt;
+
+    @Column(name = "finished_at")
+    OffsetDateTime finishedAt;
+}
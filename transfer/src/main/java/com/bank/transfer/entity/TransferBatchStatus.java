@@ -0,0 +1,22 @@
+package com.bank.transfer.entity;
+
+/**
+ * Статус загрузки пакета переводов
+ */
+public enum TransferBatchStatus {
+
+    /**
+     * Строки читаются, готовые части уже записаны
+     */
+    RECEIVING,
+
+    /**
+     * Все строки прочитаны, по каждой есть результат
+     */
+    COMPLETED,
+
+    /**
+     * Загрузка прервана, записанные части остаются в силе
+     */
+    FAILED
+}
@@ -0,0 +1,32 @@
+package com.bank.transfer.entity;
+
+/**
+ * Канал, через который создан перевод, от него зависит тариф комиссии
+ */
+public enum TransferChannel {
+
+    /**
+     * Запрос к API, канал по умолчанию
+     */
+    API,
+
+    /**
+     * Мобильное приложение
+     */
+    MOBILE,
+
+    /**
+     * Отделение банка
+     */
+    BRANCH,
+
+    /**
+     * Исполнение перевода по расписанию
+     */
+    SCHEDULED,
+
+    /**
+     * Строка пакета переводов, например, зарплатного
+     */
+    BATCH
+}
@@ -0,0 +1,27 @@
+package com.bank.transfer.entity;
+
+/**
+ * Статус исполнения перевода
+ */
+public enum TransferStatus {
+
+    /**
+     * Сохранен, ожидает исполнения
+     */
+    NEW,
+
+    /**
+     * Взят в исполнение, проводка отправлена или будет повторена
+     */
+    PROCESSING,
+
+    /**
+     * Деньги списаны и зачислены
+     */
+    COMPLETED,
+
+    /**
+     * Отклонен: получатель не найден или недостаточно средств
+     */
+    FAILED
+}
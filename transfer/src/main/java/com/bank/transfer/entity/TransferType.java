@@ -0,0 +1,76 @@
+package com.bank.transfer.entity;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Вид перевода: таблица, колонка получателя и префикс ключа бухгалтерской записи
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TransferType {
+
+    ACCOUNT("account_transfer", "account_number", "account-transfer-"),
+    CARD("card_transfer", "card_number", "card-transfer-"),
+    PHONE("phone_transfer", "phone_number", "phone-transfer-");
+
+    private static final long CARD_MIN = 1_000_000_000_000_000L;
+    private static final long CARD_MAX = 9_999_999_999_999_999L;
+    private static final long PHONE_MIN = 1_000_000_000L;
+    private static final long PHONE_MAX = 9_999_999_999L;
+
+    private final String table;
+    private final String payeeColumn;
+    private final String entryKeyPrefix;
+
+    /**
+     * @return таблица архива завершенных переводов этого вида
+     */
+    public String getArchiveTable() {
+        return table + "_archive";
+    }
+
+    /**
+     * Ключ одинаков при повторном исполнении, поэтому повторная проводка не списывает деньги дважды.
+     *
+     * @param id технический идентификатор перевода
+     * @return ключ бухгалтерской записи
+     */
+    public String entryKey(Long id) {
+        return entryKeyPrefix + id;
+    }
+
+    /**
+     * @param payee            номер счета, карты или телефона получателя
+     * @param amount           сумма перевода
+     * @param purpose          цель перевода
+     * @param accountDetailsId технический идентификатор счета списания
+     * @return новый {@link Transfer} этого вида без id
+     */
+    public Transfer newTransfer(Long payee, BigDecimal amount, String purpose, Long accountDetailsId) {
+        return switch (this) {
+            case ACCOUNT -> new AccountTransferEntity(null, payee, amount, purpose, accountDetailsId, null, null, null);
+            case CARD -> new CardTransferEntity(null, payee, amount, purpose, accountDetailsId, null, null, null);
+            case PHONE -> new PhoneTransferEntity(null, payee, amount, purpose, accountDetailsId, null, null, null);
+        };
+    }
+
+    /**
+     * Номер счета - положительное число, номер карты - 16 цифр, номер телефона - 10 цифр без +7.
+     *
+     * @param payee номер счета, карты или телефона получателя
+     * @return номер подходит для этого вида перевода
+     */
+    public boolean isPayeeValid(Long payee) {
+        if (payee == null) {
+            return false;
+        }
+        return switch (this) {
+            case ACCOUNT -> payee > 0L;
+            case CARD -> payee >= CARD_MIN && payee <= CARD_MAX;
+            case PHONE -> payee >= PHONE_MIN && payee <= PHONE_MAX;
+        };
+    }
+}
@@ -19,6 +19,8 @@ public interface AccountTransferMapper {
      * @return {@link AccountTransferEntity}
     */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "fee", ignore = true)
     AccountTransferEntity toEntity(AccountTransferDto transfer);
 
     /**
@@ -33,6 +35,8 @@ public interface AccountTransferMapper {
      * @return {@link AccountTransferEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "fee", ignore = true)
     AccountTransferEntity mergeToEntity (AccountTransferDto transferDto,
                                          @MappingTarget AccountTransferEntity transfer);
 
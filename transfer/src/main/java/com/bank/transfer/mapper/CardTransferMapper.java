@@ -21,6 +21,8 @@ public interface CardTransferMapper {
      * @return {@link CardTransferEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "fee", ignore = true)
     CardTransferEntity toEntity(CardTransferDto transfer);
 
     /**
@@ -35,6 +37,8 @@ public interface CardTransferMapper {
      * @return {@link AccountTransferEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "fee", ignore = true)
     CardTransferEntity mergeToEntity (CardTransferDto transferDto,
                                          @MappingTarget CardTransferEntity transfer);
 
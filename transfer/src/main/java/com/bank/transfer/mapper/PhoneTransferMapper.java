@@ -19,6 +19,8 @@ public interface PhoneTransferMapper {
      * @return {@link PhoneTransferEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "fee", ignore = true)
     PhoneTransferEntity toEntity(PhoneTransferDto dto);
 
     /**
@@ -33,6 +35,8 @@ public interface PhoneTransferMapper {
      * @return {@link PhoneTransferEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "fee", ignore = true)
     PhoneTransferEntity mergeToEntity (PhoneTransferDto transferDto,
                                       @MappingTarget PhoneTransferEntity transfer);
 
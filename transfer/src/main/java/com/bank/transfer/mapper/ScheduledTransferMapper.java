@@ -0,0 +1,29 @@
+package com.bank.transfer.mapper;
+
+import com.bank.transfer.dto.ScheduledTransferDto;
+import com.bank.transfer.entity.ScheduledTransferEntity;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper для {@link ScheduledTransferEntity}
+ */
+@Mapper(componentModel = "spring")
+public interface ScheduledTransferMapper {
+
+    /**
+     * @param transfer {@link ScheduledTransferDto}
+     * @return {@link ScheduledTransferEntity}
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "nextRunAt", ignore = true)
+    @Mapping(target = "runCount", ignore = true)
+    @Mapping(target = "active", ignore = true)
+    ScheduledTransferEntity toEntity(ScheduledTransferDto transfer);
+
+    /**
+     * @param transfer {@link ScheduledTransferEntity}
+     * @return {@link ScheduledTransferDto}
+     */
+    ScheduledTransferDto toDto(ScheduledTransferEntity transfer);
+}
@@ -0,0 +1,34 @@
+package com.bank.transfer.mapper;
+
+import com.bank.transfer.dto.TariffDto;
+import com.bank.transfer.entity.TariffEntity;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+/**
+ * Mapper для {@link TariffEntity}
+ */
+@Mapper(componentModel = "spring")
+public interface TariffMapper {
+
+    /**
+     * @param tariff {@link TariffDto}
+     * @return {@link TariffEntity}
+     */
+    @Mapping(target = "id", ignore = true)
+    TariffEntity toEntity(TariffDto tariff);
+
+    /**
+     * @param tariffs {@link List<TariffDto>}
+     * @return {@link List<TariffEntity>}
+     */
+    List<TariffEntity> toEntityList(List<TariffDto> tariffs);
+
+    /**
+     * @param tariffs {@link List<TariffEntity>}
+     * @return {@link List<TariffDto>}
+     */
+    List<TariffDto> toDtoList(List<TariffEntity> tariffs);
+}
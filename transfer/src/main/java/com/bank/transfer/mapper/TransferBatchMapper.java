@@ -0,0 +1,18 @@
+package com.bank.transfer.mapper;
+
+import com.bank.transfer.dto.TransferBatchDto;
+import com.bank.transfer.entity.TransferBatchEntity;
+import org.mapstruct.Mapper;
+
+/**
+ * Mapper для {@link TransferBatchEntity}
+ */
+@Mapper(componentModel = "spring")
+public interface TransferBatchMapper {
+
+    /**
+     * @param batch {@link TransferBatchEntity}
+     * @return {@link TransferBatchDto}
+     */
+    TransferBatchDto toDto(TransferBatchEntity batch);
+}
@@ -2,9 +2,25 @@ package com.bank.transfer.repository;
 
 import com.bank.transfer.entity.AccountTransferEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
 
 /**
  * Репозиторий для {@link AccountTransferEntity}
  */
 public interface AccountTransferRepository extends JpaRepository<AccountTransferEntity, Long> {
+
+    /**
+     * Блокирует строку до конца транзакции, исполнение перевода ждет изменения и берет новые значения.
+     *
+     * @param id технический идентификатор {@link AccountTransferEntity}
+     * @return {@link AccountTransferEntity}
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from AccountTransferEntity t where t.id = :id")
+    Optional<AccountTransferEntity> findForUpdate(@Param("id") Long id);
 }
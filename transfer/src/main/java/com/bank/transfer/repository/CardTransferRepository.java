@@ -2,9 +2,25 @@ package com.bank.transfer.repository;
 
 import com.bank.transfer.entity.CardTransferEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
 
 /**
  * Репозиторий для {@link CardTransferEntity}
  */
 public interface CardTransferRepository extends JpaRepository<CardTransferEntity, Long> {
+
+    /**
+     * Блокирует строку до конца транзакции, исполнение перевода ждет изменения и берет новые значения.
+     *
+     * @param id технический идентификатор {@link CardTransferEntity}
+     * @return {@link CardTransferEntity}
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from CardTransferEntity t where t.id = :id")
+    Optional<CardTransferEntity> findForUpdate(@Param("id") Long id);
 }
@@ -0,0 +1,74 @@
+package com.bank.transfer.repository;
+
+import com.bank.transfer.entity.TransferType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Репозиторий ключей идемпотентности (таблица idempotency_key)
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepository {
+
+    private static final String CLAIM = "INSERT INTO transfer.idempotency_key " +
+            "(account_details_id, idempotency_key, transfer_type, fingerprint) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT DO NOTHING";
+
+    private static final String BY_KEY = " WHERE account_details_id = ? AND idempotency_key = ?";
+
+    private static final String FIND = "SELECT transfer_type, fingerprint, response " +
+            "FROM transfer.idempotency_key" + BY_KEY;
+
+    private static final String SAVE_RESPONSE = "UPDATE transfer.idempotency_key SET response = ?" + BY_KEY;
+
+    private static final String PURGE = "DELETE FROM transfer.idempotency_key " +
+            "WHERE created_at < now() - ? * INTERVAL '1 millisecond'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Вставка ждет завершения транзакции, которая вставила тот же ключ, и только потом сообщает о конфликте,
+     * поэтому после false строка ключа уже зафиксирована вместе с ответом.
+     *
+     * @param accountDetailsId технический идентификатор счета списания
+     * @param key              ключ идемпотентности
+     * @param type             вид перевода
+     * @param fingerprint      SHA-256 полей запроса
+     * @return false, если ключ уже использован для этого счета
+     */
+    public boolean claim(Long accountDetailsId, String key, TransferType type, String fingerprint) {
+        return jdbcTemplate.update(CLAIM, accountDetailsId, key, type.name(), fingerprint) > 0;
+    }
+
+    /**
+     * @param accountDetailsId технический идентификатор счета списания
+     * @param key              ключ идемпотентности
+     * @return {@link IdempotentRequest}
+     */
+    public Optional<IdempotentRequest> find(Long accountDetailsId, String key) {
+        return jdbcTemplate.query(FIND, (rs, rowNum) -> new IdempotentRequest(TransferType.valueOf(rs.getString(1)),
+                rs.getString(2), rs.getString(3)), accountDetailsId, key).stream().findFirst();
+    }
+
+    /**
+     * @param accountDetailsId технический идентификатор счета списания
+     * @param key              ключ идемпотентности
+     * @param response         json ответа
+     */
+    public void saveResponse(Long accountDetailsId, String key, String response) {
+        jdbcTemplate.update(SAVE_RESPONSE, response, accountDetailsId, key);
+    }
+
+    /**
+     * @param ttl сколько хранится ключ
+     * @return количество удаленных ключей
+     */
+    public int purge(Duration ttl) {
+        return jdbcTemplate.update(PURGE, ttl.toMillis());
+    }
+}
@@ -0,0 +1,13 @@
+package com.bank.transfer.repository;
+
+import com.bank.transfer.entity.TransferType;
+
+/**
+ * Запрос на создание перевода, уже выполненный с ключом идемпотентности
+ *
+ * @param type        вид перевода
+ * @param fingerprint SHA-256 полей запроса
+ * @param response    json ответа на первый запрос
+ */
+public record IdempotentRequest(TransferType type, String fingerprint, String response) {
+}
@@ -0,0 +1,12 @@
+package com.bank.transfer.repository;
+
+import java.time.Duration;
+
+/**
+ * Неопубликованные события outbox
+ *
+ * @param pending количество событий
+ * @param lag     возраст самого старого события, ноль при пустом outbox
+ */
+public record OutboxBacklog(long pending, Duration lag) {
+}
@@ -2,9 +2,25 @@ package com.bank.transfer.repository;
 
 import com.bank.transfer.entity.PhoneTransferEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
 
 /**
  * Репозиторий для {@link PhoneTransferEntity}
  */
 public interface PhoneTransferRepository extends JpaRepository<PhoneTransferEntity, Long> {
+
+    /**
+     * Блокирует строку до конца транзакции, исполнение перевода ждет изменения и берет новые значения.
+     *
+     * @param id технический идентификатор {@link PhoneTransferEntity}
+     * @return {@link PhoneTransferEntity}
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from PhoneTransferEntity t where t.id = :id")
+    Optional<PhoneTransferEntity> findForUpdate(@Param("id") Long id);
 }
@@ -0,0 +1,12 @@
+package com.bank.transfer.repository;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Предстоящее исполнение перевода по расписанию
+ *
+ * @param id        технический идентификатор перевода по расписанию
+ * @param nextRunAt момент исполнения, по нему исполнение захватывается ровно один раз
+ */
+public record ScheduledRun(long id, OffsetDateTime nextRunAt) {
+}
@@ -0,0 +1,81 @@
+package com.bank.transfer.repository;
+
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Репозиторий исполнений переводов по расписанию.
+ * Чтение идет по частичному индексу (next_run_at) WHERE active только в пределах окна,
+ * поэтому количество переводов по расписанию не влияет на стоимость загрузки.
+ */
+@Repository
+public class ScheduledRunRepository {
+
+    private static final String SELECT = "SELECT id, next_run_at FROM transfer.scheduled_transfer " +
+            "WHERE active AND next_run_at < ?";
+
+    private static final String FIND_BETWEEN = SELECT + " AND next_run_at >= ?";
+
+    private static final String NEXT_RUN = "s.start_at + (s.run_count + 1) * s.period::interval";
+
+    private static final String CLAIM = "UPDATE transfer.scheduled_transfer s SET run_count = s.run_count + 1, " +
+            "next_run_at = CASE WHEN s.period IS NULL THEN s.next_run_at ELSE " + NEXT_RUN + " END, " +
+            "active = s.period IS NOT NULL AND (s.end_at IS NULL OR " + NEXT_RUN + " <= s.end_at), " +
+            "updated_at = now() FROM unnest(?::bigint[], ?::timestamptz[]) AS d(id, next_run_at) " +
+            "WHERE s.id = d.id AND s.next_run_at = d.next_run_at AND s.active " +
+            "RETURNING s.transfer_type, s.payee, s.amount, s.purpose, s.account_details_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ScheduledRunRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param until    конец окна не включительно
+     * @param consumer получатель исполнений, в том числе просроченных
+     */
+    public void findBefore(OffsetDateTime until, Consumer<ScheduledRun> consumer) {
+        jdbcTemplate.query(SELECT, handler(consumer), until);
+    }
+
+    /**
+     * @param from     начало окна включительно
+     * @param until    конец окна не включительно
+     * @param consumer получатель исполнений
+     */
+    public void findBetween(OffsetDateTime from, OffsetDateTime until, Consumer<ScheduledRun> consumer) {
+        jdbcTemplate.query(FIND_BETWEEN, handler(consumer), until, from);
+    }
+
+    /**
+     * Исполнение захватывается, только если момент исполнения не сдвинулся и перевод активен,
+     * поэтому одно исполнение не создаст два перевода, даже если оно загружено несколькими экземплярами.
+     * Следующий момент считается от первого исполнения, а не от предыдущего, и не уползает
+     * у переводов на последние дни месяца.
+     *
+     * @param runs исполнения, срок которых наступил
+     * @return новые переводы без id для захваченных исполнений
+     */
+    public List<Transfer> claim(List<ScheduledRun> runs) {
+        return jdbcTemplate.query(con -> {
+            final PreparedStatement ps = con.prepareStatement(CLAIM);
+            ps.setArray(1, con.createArrayOf("bigint", runs.stream().map(ScheduledRun::id).toArray()));
+            ps.setArray(2, con.createArrayOf("text", runs.stream().map(run -> run.nextRunAt().toString()).toArray()));
+            return ps;
+        }, (rs, rowNum) -> TransferType.valueOf(rs.getString(1)).newTransfer(rs.getLong(2), rs.getBigDecimal(3),
+                rs.getString(4), rs.getLong(5)));
+    }
+
+    private static RowCallbackHandler handler(Consumer<ScheduledRun> consumer) {
+        return rs -> consumer.accept(new ScheduledRun(rs.getLong(1), rs.getObject(2, OffsetDateTime.class)));
+    }
+}
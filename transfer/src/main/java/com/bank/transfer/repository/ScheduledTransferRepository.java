@@ -0,0 +1,10 @@
+package com.bank.transfer.repository;
+
+import com.bank.transfer.entity.ScheduledTransferEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Репозиторий для {@link ScheduledTransferEntity}
+ */
+public interface ScheduledTransferRepository extends JpaRepository<ScheduledTransferEntity, Long> {
+}
@@ -0,0 +1,22 @@
+package com.bank.transfer.repository;
+
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Строка выписки по банковскому счету
+ *
+ * @param type      вид перевода
+ * @param id        технический идентификатор перевода
+ * @param payee     номер счета, карты или телефона получателя
+ * @param amount    сумма перевода
+ * @param purpose   цель перевода
+ * @param status    статус исполнения, пустой у переводов, созданных до исполнения
+ * @param createdAt когда создан
+ */
+public record StatementLine(TransferType type, Long id, Long payee, BigDecimal amount, String purpose,
+                            TransferStatus status, OffsetDateTime createdAt) {
+}
@@ -0,0 +1,135 @@
+package com.bank.transfer.repository;
+
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Репозиторий выписок: переводы всех видов по счету списания одним потоком в порядке (created_at, id, вид).
+ * Каждая ветка UNION ALL читает индекс (account_details_id, created_at, id) уже в нужном порядке,
+ * поэтому Postgres сливает ветки через Merge Append без сортировки. Страницы читаются по ключу
+ * последней строки, а не через OFFSET, и каждая страница - отдельный короткий запрос.
+ * Архивные таблицы читаются такими же ветками: перевод лежит ровно в одной из таблиц своего вида.
+ */
+@Repository
+public class StatementRepository {
+
+    private static final String BRANCH = "(SELECT '%1$s' AS transfer_type, id, %2$s AS payee, amount, purpose, " +
+            "status, created_at FROM transfer.%3$s WHERE account_details_id = ? AND created_at < ? " +
+            "AND %4$s ORDER BY created_at, id LIMIT ?)";
+
+    private static final String FIRST = "created_at >= ?";
+
+    private static final String AFTER = "(created_at, id) > (?, ?)";
+
+    private static final String AFTER_OR_EQUAL = "(created_at, id) >= (?, ?)";
+
+    private static final String ORDER = " ORDER BY created_at, id, transfer_type LIMIT ?";
+
+    private static final String LAST_BRANCH = "(SELECT '%1$s' AS transfer_type, id, %2$s AS payee, amount, " +
+            "purpose, status, created_at FROM transfer.%3$s WHERE account_details_id = ? " +
+            "ORDER BY created_at DESC, id DESC LIMIT ?)";
+
+    private static final String LAST_ORDER = " ORDER BY created_at DESC, id DESC, transfer_type DESC LIMIT ?";
+
+    private static final int BRANCHES = TransferType.values().length * 2;
+
+    private static final RowMapper<StatementLine> MAPPER = (rs, rowNum) -> {
+        final String status = rs.getString("status");
+        return new StatementLine(TransferType.valueOf(rs.getString("transfer_type")), rs.getLong("id"),
+                rs.getLong("payee"), rs.getBigDecimal("amount"), rs.getString("purpose"),
+                status == null ? null : TransferStatus.valueOf(status),
+                rs.getObject("created_at", OffsetDateTime.class));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String firstSql;
+    private final String lastSql;
+    private final Map<TransferType, String> afterSql = new EnumMap<>(TransferType.class);
+
+    public StatementRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.firstSql = union(BRANCH, type -> FIRST) + ORDER;
+        this.lastSql = union(LAST_BRANCH, type -> null) + LAST_ORDER;
+        for (TransferType last : TransferType.values()) {
+            afterSql.put(last, union(BRANCH,
+                    type -> type.name().compareTo(last.name()) > 0 ? AFTER_OR_EQUAL : AFTER) + ORDER);
+        }
+    }
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @param from             начало периода включительно
+     * @param to               конец периода не включительно
+     * @param limit            размер страницы
+     * @return первая страница выписки
+     */
+    public List<StatementLine> findFirst(long accountDetailsId, OffsetDateTime from, OffsetDateTime to, int limit) {
+        final List<Object> args = new ArrayList<>();
+        for (int i = 0; i < BRANCHES; i++) {
+            args.add(accountDetailsId);
+            args.add(to);
+            args.add(from);
+            args.add(limit);
+        }
+        args.add(limit);
+        return jdbcTemplate.query(firstSql, MAPPER, args.toArray());
+    }
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @param last             последняя строка предыдущей страницы
+     * @param to               конец периода не включительно
+     * @param limit            размер страницы
+     * @return следующая страница выписки
+     */
+    public List<StatementLine> findAfter(long accountDetailsId, StatementLine last, OffsetDateTime to, int limit) {
+        final List<Object> args = new ArrayList<>();
+        for (int i = 0; i < BRANCHES; i++) {
+            args.add(accountDetailsId);
+            args.add(to);
+            args.add(last.createdAt());
+            args.add(last.id());
+            args.add(limit);
+        }
+        args.add(limit);
+        return jdbcTemplate.query(afterSql.get(last.type()), MAPPER, args.toArray());
+    }
+
+    /**
+     * Каждая ветка читает индекс (account_details_id, created_at, id) в обратном порядке и берет не больше limit строк.
+     *
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @param limit            количество переводов
+     * @return последние переводы со счета, новые первыми
+     */
+    public List<StatementLine> findLast(long accountDetailsId, int limit) {
+        final List<Object> args = new ArrayList<>();
+        for (int i = 0; i < BRANCHES; i++) {
+            args.add(accountDetailsId);
+            args.add(limit);
+        }
+        args.add(limit);
+        return jdbcTemplate.query(lastSql, MAPPER, args.toArray());
+    }
+
+    private static String union(String branch, Function<TransferType, String> predicate) {
+        return Arrays.stream(TransferType.values())
+                .flatMap(type -> Stream.of(type.getTable(), type.getArchiveTable())
+                        .map(table -> String.format(branch, type.name(), type.getPayeeColumn(), table,
+                                predicate.apply(type))))
+                .collect(Collectors.joining(" UNION ALL "));
+    }
+}
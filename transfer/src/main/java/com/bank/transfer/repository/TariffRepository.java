@@ -0,0 +1,10 @@
+package com.bank.transfer.repository;
+
+import com.bank.transfer.entity.TariffEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Репозиторий для {@link TariffEntity}
+ */
+public interface TariffRepository extends JpaRepository<TariffEntity, Long> {
+}
@@ -0,0 +1,86 @@
+package com.bank.transfer.repository;
+
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferChannel;
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Репозиторий архива завершенных переводов.
+ * Перенос - один запрос DELETE ... RETURNING с INSERT в архив, поэтому перевод всегда лежит ровно в одной
+ * из таблиц. Строки, которые сейчас меняет исполнение, пропускаются через SKIP LOCKED.
+ */
+@Repository
+public class TransferArchiveRepository {
+
+    private static final String COLUMNS = "id, %2$s, amount, purpose, account_details_id, status, channel, fee";
+
+    private static final String MOVED_COLUMNS = COLUMNS + ", updated_at, created_at";
+
+    private static final String MOVE = "WITH moved AS (DELETE FROM transfer.%1$s WHERE id IN " +
+            "(SELECT id FROM transfer.%1$s WHERE created_at < ? " +
+            "AND (status IS NULL OR status IN ('COMPLETED', 'FAILED')) LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING " + MOVED_COLUMNS + ") INSERT INTO transfer.%3$s (" + MOVED_COLUMNS + ") " +
+            "SELECT * FROM moved";
+
+    private static final String FIND = "SELECT " + COLUMNS + " FROM transfer.%3$s WHERE id = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<TransferType, String> moveSql = new EnumMap<>(TransferType.class);
+    private final Map<TransferType, String> findSql = new EnumMap<>(TransferType.class);
+
+    public TransferArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (TransferType type : TransferType.values()) {
+            moveSql.put(type, String.format(MOVE, type.getTable(), type.getPayeeColumn(), type.getArchiveTable()));
+            findSql.put(type, String.format(FIND, type.getTable(), type.getPayeeColumn(), type.getArchiveTable()));
+        }
+    }
+
+    /**
+     * Переносит в архив завершенные переводы и переводы, созданные до исполнения.
+     *
+     * @param type      вид перевода
+     * @param before    переводы, созданные раньше, переносятся
+     * @param batchSize максимальное количество переводов
+     * @return количество перенесенных переводов
+     */
+    public int move(TransferType type, OffsetDateTime before, int batchSize) {
+        return jdbcTemplate.update(moveSql.get(type), before, batchSize);
+    }
+
+    /**
+     * @param type вид перевода
+     * @param ids  технические идентификаторы переводов
+     * @return найденные в архиве переводы в произвольном порядке
+     */
+    public List<Transfer> findAllById(TransferType type, Collection<Long> ids) {
+        final List<Transfer> transfers = new ArrayList<>(ids.size());
+        jdbcTemplate.query(con -> {
+            final PreparedStatement ps = con.prepareStatement(findSql.get(type));
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, rs -> {
+            final Transfer transfer = type.newTransfer(rs.getLong(2), rs.getBigDecimal(3), rs.getString(4),
+                    rs.getLong(5));
+            final String status = rs.getString(6);
+            final String channel = rs.getString(7);
+            transfer.setId(rs.getLong(1));
+            transfer.setStatus(status == null ? null : TransferStatus.valueOf(status));
+            transfer.setChannel(channel == null ? null : TransferChannel.valueOf(channel));
+            transfer.setFee(rs.getBigDecimal(8));
+            transfers.add(transfer);
+        });
+        return transfers;
+    }
+}
@@ -0,0 +1,11 @@
+package com.bank.transfer.repository;
+
+/**
+ * Записанная часть пакета переводов, по ней повтор загрузки продолжает пакет
+ *
+ * @param lastLineNo   номер последней записанной строки, 0 если строк нет
+ * @param acceptedRows число принятых строк
+ * @param rejectedRows число отклоненных строк
+ */
+public record TransferBatchProgress(int lastLineNo, int acceptedRows, int rejectedRows) {
+}
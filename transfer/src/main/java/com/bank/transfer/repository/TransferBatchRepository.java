@@ -0,0 +1,20 @@
+package com.bank.transfer.repository;
+
+import com.bank.transfer.entity.TransferBatchEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+/**
+ * Репозиторий для {@link TransferBatchEntity}
+ */
+public interface TransferBatchRepository extends JpaRepository<TransferBatchEntity, Long> {
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @param idempotencyKey   ключ идемпотентности пакета
+     * @return пакет, загруженный с этим ключом
+     */
+    Optional<TransferBatchEntity> findByAccountDetailsIdAndIdempotencyKey(Long accountDetailsId,
+                                                                         String idempotencyKey);
+}
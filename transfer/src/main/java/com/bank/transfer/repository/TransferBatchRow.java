@@ -0,0 +1,11 @@
+package com.bank.transfer.repository;
+
+/**
+ * Результат строки пакета переводов
+ *
+ * @param lineNo     номер строки в файле, с единицы
+ * @param transferId созданный перевод по номеру счета, пустой у отклоненной строки
+ * @param error      причина отклонения, пустая у принятой строки
+ */
+public record TransferBatchRow(int lineNo, Long transferId, String error) {
+}
@@ -0,0 +1,70 @@
+package com.bank.transfer.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Репозиторий результатов строк пакета переводов.
+ * Результаты пишутся пачкой в той же транзакции, что и переводы своей части, и читаются страницами по номеру строки.
+ */
+@Repository
+public class TransferBatchRowRepository {
+
+    private static final String INSERT = "INSERT INTO transfer.transfer_batch_row " +
+            "(batch_id, line_no, transfer_id, error) VALUES (?, ?, ?, ?)";
+
+    private static final String FIND_AFTER = "SELECT line_no, transfer_id, error FROM transfer.transfer_batch_row " +
+            "WHERE batch_id = ? AND line_no > ? ORDER BY line_no LIMIT ?";
+
+    private static final String FIND_PROGRESS = "SELECT COALESCE(MAX(line_no), 0), COUNT(transfer_id), " +
+            "COUNT(*) - COUNT(transfer_id) FROM transfer.transfer_batch_row WHERE batch_id = ?";
+
+    private static final RowMapper<TransferBatchRow> MAPPER = (rs, rowNum) -> new TransferBatchRow(rs.getInt(1),
+            rs.getObject(2, Long.class), rs.getString(3));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransferBatchRowRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param batchId технический идентификатор пакета
+     * @param rows    результаты строк
+     */
+    public void insertAll(long batchId, List<TransferBatchRow> rows) {
+        jdbcTemplate.batchUpdate(INSERT, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, batchId);
+            ps.setInt(2, row.lineNo());
+            if (row.transferId() == null) {
+                ps.setNull(3, Types.BIGINT);
+            } else {
+                ps.setLong(3, row.transferId());
+            }
+            ps.setString(4, row.error());
+        });
+    }
+
+    /**
+     * @param batchId технический идентификатор пакета
+     * @param after   номер последней строки предыдущей страницы, 0 для первой
+     * @param limit   размер страницы
+     * @return результаты строк в порядке номеров
+     */
+    public List<TransferBatchRow> findAfter(long batchId, int after, int limit) {
+        return jdbcTemplate.query(FIND_AFTER, MAPPER, batchId, after, limit);
+    }
+
+    /**
+     * @param batchId технический идентификатор пакета
+     * @return записанная часть пакета
+     */
+    public TransferBatchProgress findProgress(long batchId) {
+        return jdbcTemplate.queryForObject(FIND_PROGRESS, (rs, rowNum) -> new TransferBatchProgress(rs.getInt(1),
+                rs.getInt(2), rs.getInt(3)), batchId);
+    }
+}
@@ -0,0 +1,89 @@
+package com.bank.transfer.repository;
+
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запись переводов с заранее выданным id, минуя JPA: генератор id сущности не принимает готовый id.
+ * Блоки id берутся из той же последовательности, что и у сущностей, и трактуются так же,
+ * как в оптимизаторе pooled Hibernate, поэтому id двух способов записи не пересекаются.
+ */
+@Repository
+public class TransferInsertRepository {
+
+    /**
+     * Шаг последовательностей transfer.*_pooled_id_seq, совпадает с allocationSize сущностей
+     */
+    public static final int ALLOCATION_SIZE = 50;
+
+    private static final String NEXT_BLOCK = "SELECT nextval('transfer.%1$s_pooled_id_seq')";
+
+    private static final String INSERT = "INSERT INTO transfer.%1$s " +
+            "(id, %2$s, amount, purpose, account_details_id, channel, fee, status) VALUES (?, ?, ?, ?, ?, ?, ?, 'NEW')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<TransferType, String> nextBlockSql = new EnumMap<>(TransferType.class);
+    private final Map<TransferType, String> insertSql = new EnumMap<>(TransferType.class);
+
+    public TransferInsertRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (TransferType type : TransferType.values()) {
+            nextBlockSql.put(type, String.format(NEXT_BLOCK, type.getTable()));
+            insertSql.put(type, String.format(INSERT, type.getTable(), type.getPayeeColumn()));
+        }
+    }
+
+    /**
+     * @param type вид перевода
+     * @return последний id блока из {@link #ALLOCATION_SIZE} id
+     */
+    public long nextBlock(TransferType type) {
+        final Long hi = jdbcTemplate.queryForObject(nextBlockSql.get(type), Long.class);
+        if (hi == null) {
+            throw new IllegalStateException("Последовательность не вернула значение");
+        }
+        return hi;
+    }
+
+    /**
+     * Перевод записывается в статусе NEW.
+     *
+     * @param transfer {@link Transfer} с выданным id
+     */
+    public void insert(Transfer transfer) {
+        jdbcTemplate.update(insertSql.get(transfer.getType()), transfer.getId(), transfer.getPayee(),
+                transfer.getAmount(), transfer.getPurpose(), transfer.getAccountDetailsId(),
+                channel(transfer), transfer.getFee());
+    }
+
+    /**
+     * Переводы записываются пачкой на каждый вид.
+     *
+     * @param transfers {@link Transfer} с выданными id
+     */
+    public void insertAll(List<? extends Transfer> transfers) {
+        final Map<TransferType, List<Transfer>> byType = new EnumMap<>(TransferType.class);
+        transfers.forEach(transfer -> byType.computeIfAbsent(transfer.getType(), t -> new ArrayList<>()).add(transfer));
+        byType.forEach((type, batch) -> jdbcTemplate.batchUpdate(insertSql.get(type), batch, batch.size(),
+                (ps, transfer) -> {
+                    ps.setLong(1, transfer.getId());
+                    ps.setLong(2, transfer.getPayee());
+                    ps.setBigDecimal(3, transfer.getAmount());
+                    ps.setString(4, transfer.getPurpose());
+                    ps.setLong(5, transfer.getAccountDetailsId());
+                    ps.setString(6, channel(transfer));
+                    ps.setBigDecimal(7, transfer.getFee());
+                }));
+    }
+
+    private static String channel(Transfer transfer) {
+        return transfer.getChannel() == null ? null : transfer.getChannel().name();
+    }
+}
@@ -0,0 +1,28 @@
+package com.bank.transfer.repository;
+
+import com.bank.transfer.entity.TransferType;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+
+/**
+ * Перевод, взятый в исполнение
+ *
+ * @param type           вид перевода
+ * @param id             технический идентификатор перевода
+ * @param debitAccountId технический идентификатор счета списания
+ * @param payee          номер счета, карты или телефона получателя
+ * @param amount         сумма перевода
+ * @param createdAt      когда создан
+ */
+public record TransferOrder(TransferType type, Long id, Long debitAccountId, Long payee, BigDecimal amount,
+                            OffsetDateTime createdAt) {
+
+    /**
+     * Порядок создания переводов счета всех видов; у переводов одной транзакции created_at совпадает
+     */
+    public static final Comparator<TransferOrder> CREATION_ORDER = Comparator.comparing(TransferOrder::createdAt)
+            .thenComparing(TransferOrder::type)
+            .thenComparing(TransferOrder::id);
+}
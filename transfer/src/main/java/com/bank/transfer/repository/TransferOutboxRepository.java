@@ -0,0 +1,160 @@
+package com.bank.transfer.repository;
+
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.service.common.TransferEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Репозиторий outbox событий переводов (таблица transfer_outbox).
+ * События разбиты на разделы по счету списания; раздел в каждый момент разбирает один экземпляр,
+ * поэтому события одного счета публикуются в порядке id.
+ * id выдается при вставке, а не при commit, поэтому запись событий одного счета сериализуется
+ * pg_advisory_xact_lock(account_details_id) до конца транзакции: следующее событие счета получит id
+ * только после фиксации предыдущего, и порядок id внутри счета совпадает с порядком commit.
+ */
+@Repository
+public class TransferOutboxRepository {
+
+    /**
+     * Первая половина ключа advisory lock, отделяет блокировки outbox от остальных
+     */
+    private static final int LOCK_NAMESPACE = 0x7F0B0C5;
+
+    private static final String COLUMNS = "(partition_no, transfer_type, transfer_id, account_details_id, amount, " +
+            "status)";
+
+    private static final String APPEND = "INSERT INTO transfer.transfer_outbox " + COLUMNS +
+            " VALUES (mod(?, ?), ?, ?, ?, ?, ?)";
+
+    private static final String TRY_LOCK = "SELECT pg_try_advisory_xact_lock(?, ?)";
+
+    /**
+     * Ключ из одного bigint не пересекается с ключами разделов из двух int
+     */
+    private static final String LOCK_ACCOUNTS = "SELECT pg_advisory_xact_lock(a) FROM unnest(?) AS a";
+
+    private static final String LOCK_BATCH = "SELECT id, transfer_type, transfer_id, account_details_id, amount, " +
+            "status, created_at FROM transfer.transfer_outbox WHERE partition_no = ? ORDER BY id LIMIT ? " +
+            "FOR UPDATE SKIP LOCKED";
+
+    private static final String DELETE = "DELETE FROM transfer.transfer_outbox WHERE id = ANY (?)";
+
+    private static final String BACKLOG = "SELECT COUNT(*), " +
+            "COALESCE(EXTRACT(EPOCH FROM now() - MIN(created_at)) * 1000, 0) FROM transfer.transfer_outbox";
+
+    private static final String BIGINT = "bigint";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int partitions;
+
+    public TransferOutboxRepository(JdbcTemplate jdbcTemplate,
+                                    @Value("${transfer.outbox.partitions:16}") int partitions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitions = partitions;
+    }
+
+    /**
+     * Количество разделов меняется только при пустом outbox, иначе события одного счета
+     * окажутся в разных разделах.
+     *
+     * @return количество разделов
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * Пишется в текущей транзакции, событие появится только вместе с переводом.
+     *
+     * @param transfer {@link Transfer}
+     * @param status   статус перевода
+     */
+    public void append(Transfer transfer, TransferStatus status) {
+        appendAll(List.of(transfer), status);
+    }
+
+    /**
+     * @param transfers {@link Transfer}
+     * @param status    статус переводов
+     */
+    public void appendAll(List<? extends Transfer> transfers, TransferStatus status) {
+        lockAccounts(transfers.stream()
+                .map(Transfer::getAccountDetailsId)
+                .collect(Collectors.toCollection(TreeSet::new)));
+        jdbcTemplate.batchUpdate(APPEND, transfers, transfers.size(), (ps, transfer) -> {
+            ps.setLong(1, transfer.getAccountDetailsId());
+            ps.setInt(2, partitions);
+            ps.setString(3, transfer.getType().name());
+            ps.setLong(4, transfer.getId());
+            ps.setLong(5, transfer.getAccountDetailsId());
+            ps.setBigDecimal(6, transfer.getAmount());
+            ps.setString(7, status.name());
+        });
+    }
+
+    /**
+     * Блокировки берутся по возрастанию id, поэтому пакеты с общими счетами не взаимоблокируются,
+     * и снимаются при завершении транзакции.
+     *
+     * @param accountIds технические идентификаторы счетов списания по возрастанию
+     */
+    public void lockAccounts(SortedSet<Long> accountIds) {
+        jdbcTemplate.query(con -> {
+            final PreparedStatement ps = con.prepareStatement(LOCK_ACCOUNTS);
+            ps.setArray(1, con.createArrayOf(BIGINT, accountIds.toArray()));
+            return ps;
+        }, rs -> {
+        });
+    }
+
+    /**
+     * Блокировка снимается при завершении транзакции.
+     *
+     * @param partition номер раздела
+     * @return false, если раздел разбирает другая транзакция
+     */
+    public boolean tryLockPartition(int partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK, Boolean.class, LOCK_NAMESPACE, partition));
+    }
+
+    /**
+     * @param partition номер раздела
+     * @param batchSize максимальное количество событий
+     * @return самые ранние события раздела
+     */
+    public List<TransferEvent> lockBatch(int partition, int batchSize) {
+        return jdbcTemplate.query(LOCK_BATCH, (rs, rowNum) -> new TransferEvent(rs.getLong(1),
+                TransferType.valueOf(rs.getString(2)), rs.getLong(3), rs.getLong(4), rs.getBigDecimal(5),
+                TransferStatus.valueOf(rs.getString(6)), rs.getTimestamp(7).toInstant()), partition, batchSize);
+    }
+
+    /**
+     * @param ids технические идентификаторы опубликованных событий
+     */
+    public void delete(List<Long> ids) {
+        jdbcTemplate.update(con -> {
+            final PreparedStatement ps = con.prepareStatement(DELETE);
+            ps.setArray(1, con.createArrayOf(BIGINT, ids.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * @return {@link OutboxBacklog}
+     */
+    public OutboxBacklog backlog() {
+        return jdbcTemplate.queryForObject(BACKLOG, (rs, rowNum) -> new OutboxBacklog(rs.getLong(1),
+                Duration.ofMillis(rs.getLong(2))));
+    }
+}
@@ -0,0 +1,145 @@
+package com.bank.transfer.repository;
+
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Репозиторий статусов исполнения переводов.
+ * Каждый переход - один условный UPDATE без чтения сущности, поэтому два исполнителя не возьмут один перевод,
+ * а статус не затирается сохранением устаревшей сущности.
+ */
+@Repository
+public class TransferStatusRepository {
+
+    private static final String TO_PROCESSING = "UPDATE transfer.%1$s SET status = 'PROCESSING', updated_at = now() ";
+
+    private static final String RETURNING = " RETURNING id, account_details_id, %2$s, amount, created_at";
+
+    private static final String CLAIM = TO_PROCESSING + "WHERE id = ? AND status = 'NEW'" + RETURNING;
+
+    private static final String CLAIM_STALE = TO_PROCESSING +
+            "WHERE id IN (SELECT id FROM transfer.%1$s WHERE status IN ('NEW', 'PROCESSING') " +
+            "AND updated_at < now() - ? * INTERVAL '1 millisecond' ORDER BY created_at, id LIMIT ? " +
+            "FOR UPDATE SKIP LOCKED)" + RETURNING;
+
+    private static final String CLAIM_ACCOUNT = TO_PROCESSING +
+            "WHERE id IN (SELECT id FROM transfer.%1$s WHERE account_details_id = ? " +
+            "AND status IN ('NEW', 'PROCESSING') ORDER BY created_at, id LIMIT ? FOR UPDATE SKIP LOCKED)" + RETURNING;
+
+    /**
+     * Событие пишется под блокировкой счета, как в {@link TransferOutboxRepository#lockAccounts}:
+     * id события выдается уже после нее
+     */
+    private static final String FINISH = "WITH t AS (UPDATE transfer.%1$s SET status = ?, updated_at = now() " +
+            "WHERE id = ? AND status = 'PROCESSING' RETURNING id, account_details_id, amount, status), " +
+            "l AS (SELECT pg_advisory_xact_lock(t.account_details_id) FROM t) " +
+            "INSERT INTO transfer.transfer_outbox " +
+            "(partition_no, transfer_type, transfer_id, account_details_id, amount, status) " +
+            "SELECT mod(t.account_details_id, ?), '%2$s', t.id, t.account_details_id, t.amount, t.status " +
+            "FROM t CROSS JOIN l";
+
+    private static final String FIND_STATUSES = "SELECT id, status FROM transfer.%1$s WHERE id = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransferOutboxRepository outboxRepository;
+    private final Map<TransferType, String> claimSql = new EnumMap<>(TransferType.class);
+    private final Map<TransferType, String> claimStaleSql = new EnumMap<>(TransferType.class);
+    private final Map<TransferType, String> claimAccountSql = new EnumMap<>(TransferType.class);
+    private final Map<TransferType, String> finishSql = new EnumMap<>(TransferType.class);
+    private final Map<TransferType, String> findStatusesSql = new EnumMap<>(TransferType.class);
+
+    public TransferStatusRepository(JdbcTemplate jdbcTemplate, TransferOutboxRepository outboxRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.outboxRepository = outboxRepository;
+        for (TransferType type : TransferType.values()) {
+            claimSql.put(type, String.format(CLAIM, type.getTable(), type.getPayeeColumn()));
+            claimStaleSql.put(type, String.format(CLAIM_STALE, type.getTable(), type.getPayeeColumn()));
+            claimAccountSql.put(type, String.format(CLAIM_ACCOUNT, type.getTable(), type.getPayeeColumn()));
+            finishSql.put(type, String.format(FINISH, type.getTable(), type.name()));
+            findStatusesSql.put(type, String.format(FIND_STATUSES, type.getTable()));
+        }
+    }
+
+    /**
+     * @param type вид перевода
+     * @param id   технический идентификатор перевода
+     * @return перевод, если он был в статусе NEW и переведен в PROCESSING этим вызовом
+     */
+    public Optional<TransferOrder> claim(TransferType type, Long id) {
+        return jdbcTemplate.query(claimSql.get(type), orderMapper(type), id).stream().findFirst();
+    }
+
+    /**
+     * Забирает переводы, исполнение которых не завершилось: исполнитель упал или счета были недоступны.
+     * Повторная проводка безопасна, ключ записи у перевода постоянный.
+     *
+     * @param type      вид перевода
+     * @param staleFor  сколько перевод должен пробыть без изменения статуса
+     * @param batchSize максимальное количество переводов
+     * @return переводы, снова переведенные в PROCESSING
+     */
+    public List<TransferOrder> claimStale(TransferType type, Duration staleFor, int batchSize) {
+        return jdbcTemplate.query(claimStaleSql.get(type), orderMapper(type), staleFor.toMillis(), batchSize);
+    }
+
+    /**
+     * Забирает все незавершенные переводы счета независимо от давности, например, когда исполнение
+     * переводов счета приостановлено после сбоя и их нужно повторить по порядку.
+     *
+     * @param type             вид перевода
+     * @param accountDetailsId технический идентификатор счета списания
+     * @param batchSize        максимальное количество переводов
+     * @return самые ранние переводы, снова переведенные в PROCESSING, в произвольном порядке
+     */
+    public List<TransferOrder> claimAccount(TransferType type, Long accountDetailsId, int batchSize) {
+        return jdbcTemplate.query(claimAccountSql.get(type), orderMapper(type), accountDetailsId, batchSize);
+    }
+
+    /**
+     * Событие об итоговом статусе пишется в outbox тем же запросом.
+     *
+     * @param type   вид перевода
+     * @param id     технический идентификатор перевода
+     * @param status итоговый статус
+     * @return false, если перевод не в статусе PROCESSING
+     */
+    public boolean finish(TransferType type, Long id, TransferStatus status) {
+        return jdbcTemplate.update(finishSql.get(type), status.name(), id, outboxRepository.getPartitions()) > 0;
+    }
+
+    /**
+     * @param type вид перевода
+     * @param ids  технические идентификаторы переводов
+     * @return статусы найденных переводов, null у переводов, созданных до исполнения
+     */
+    public Map<Long, TransferStatus> findStatuses(TransferType type, Collection<Long> ids) {
+        final Map<Long, TransferStatus> statuses = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            final PreparedStatement ps = con.prepareStatement(findStatusesSql.get(type));
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, rs -> {
+            final String status = rs.getString(2);
+            statuses.put(rs.getLong(1), status == null ? null : TransferStatus.valueOf(status));
+        });
+        return statuses;
+    }
+
+    private static RowMapper<TransferOrder> orderMapper(TransferType type) {
+        return (rs, rowNum) -> new TransferOrder(type, rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                rs.getBigDecimal(4), rs.getObject(5, OffsetDateTime.class));
+    }
+}
@@ -0,0 +1,18 @@
+package com.bank.transfer.repository;
+
+import com.bank.transfer.entity.TotalPeriod;
+import com.bank.transfer.entity.TransferType;
+
+/**
+ * Сумма или приращение суммы переводов со счета за период
+ *
+ * @param accountDetailsId технический идентификатор банковского счета списания
+ * @param period           период
+ * @param periodStart      первый день периода в днях от эпохи
+ * @param type             вид перевода
+ * @param amountCents      сумма в копейках
+ * @param count            количество переводов
+ */
+public record TransferTotal(long accountDetailsId, TotalPeriod period, long periodStart, TransferType type,
+                            long amountCents, long count) {
+}
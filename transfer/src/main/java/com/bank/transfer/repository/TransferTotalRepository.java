@@ -0,0 +1,91 @@
+package com.bank.transfer.repository;
+
+import com.bank.transfer.entity.TotalPeriod;
+import com.bank.transfer.entity.TransferType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Репозиторий сумм переводов по счетам (таблица transfer_total).
+ * Экземпляры пишут приращения, а не итоги, поэтому несколько экземпляров не затирают суммы друг друга.
+ */
+@Repository
+public class TransferTotalRepository {
+
+    private static final String CURRENT = "AND ((period = 'DAY' AND period_start = ?) " +
+            "OR (period = 'MONTH' AND period_start = ?))";
+
+    private static final String FIND = "SELECT account_details_id, period, period_start, transfer_type, " +
+            "amount_cents, transfer_count FROM transfer.transfer_total WHERE ";
+
+    private static final String FIND_CURRENT = FIND + "account_details_id = ? " + CURRENT;
+
+    private static final String FIND_UPDATED = FIND + "updated_at > ? " + CURRENT;
+
+    private static final String NOW = "SELECT now()";
+
+    private static final String ADD = "INSERT INTO transfer.transfer_total " +
+            "(account_details_id, period, period_start, transfer_type, amount_cents, transfer_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (account_details_id, period, period_start, transfer_type) " +
+            "DO UPDATE SET amount_cents = transfer_total.amount_cents + EXCLUDED.amount_cents, " +
+            "transfer_count = transfer_total.transfer_count + EXCLUDED.transfer_count, updated_at = now()";
+
+    private static final RowMapper<TransferTotal> TOTAL_MAPPER = (rs, rowNum) -> new TransferTotal(
+            rs.getLong("account_details_id"),
+            TotalPeriod.valueOf(rs.getString("period")),
+            rs.getObject("period_start", LocalDate.class).toEpochDay(),
+            TransferType.valueOf(rs.getString("transfer_type")),
+            rs.getLong("amount_cents"), rs.getLong("transfer_count"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransferTotalRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @param day              текущий день
+     * @param month            первый день текущего месяца
+     * @return суммы за текущие день и месяц по видам переводов
+     */
+    public List<TransferTotal> findCurrent(long accountDetailsId, LocalDate day, LocalDate month) {
+        return jdbcTemplate.query(FIND_CURRENT, TOTAL_MAPPER, accountDetailsId, day, month);
+    }
+
+    /**
+     * @param since время БД, после которого изменены суммы
+     * @param day   текущий день
+     * @param month первый день текущего месяца
+     * @return суммы за текущие день и месяц всех счетов, измененные после since любым экземпляром
+     */
+    public List<TransferTotal> findUpdatedSince(OffsetDateTime since, LocalDate day, LocalDate month) {
+        return jdbcTemplate.query(FIND_UPDATED, TOTAL_MAPPER, since, day, month);
+    }
+
+    /**
+     * @return текущее время БД, от него отсчитываются updated_at
+     */
+    public OffsetDateTime now() {
+        return jdbcTemplate.queryForObject(NOW, OffsetDateTime.class);
+    }
+
+    /**
+     * @param deltas приращения сумм
+     */
+    public void addAll(List<TransferTotal> deltas) {
+        jdbcTemplate.batchUpdate(ADD, deltas, deltas.size(), (ps, delta) -> {
+            ps.setLong(1, delta.accountDetailsId());
+            ps.setString(2, delta.period().name());
+            ps.setObject(3, LocalDate.ofEpochDay(delta.periodStart()));
+            ps.setString(4, delta.type().name());
+            ps.setLong(5, delta.amountCents());
+            ps.setLong(6, delta.count());
+        });
+    }
+}
@@ -1,9 +1,11 @@
 package com.bank.transfer.service;
 
 import com.bank.transfer.dto.AccountTransferDto;
+import com.bank.transfer.dto.TransferSubmissionDto;
 import com.bank.transfer.entity.AccountTransferEntity;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Сервис для {@link AccountTransferEntity} и {@link AccountTransferDto}
@@ -28,6 +30,22 @@ public interface AccountTransferService {
      */
     AccountTransferDto save(AccountTransferDto accountTransfer);
 
+    /**
+     * Запись через {@link TransferBatchWriter} вместе с одновременными запросами.
+     *
+     * @param accountTransfer {@link AccountTransferDto}
+     * @return {@link AccountTransferDto} после фиксации пачки
+     */
+    CompletableFuture<AccountTransferDto> submit(AccountTransferDto accountTransfer);
+
+    /**
+     * Асинхронный прием через {@link AsyncTransferService}: id выдается сразу, запись идет позже.
+     *
+     * @param accountTransfer {@link AccountTransferDto}
+     * @return {@link TransferSubmissionDto} в статусе ACCEPTED
+     */
+    TransferSubmissionDto submitAsync(AccountTransferDto accountTransfer);
+
     /**
      * @param accountTransfer {@link AccountTransferDto}
      * @param id              технический идентификатор {@link AccountTransferEntity}
@@ -0,0 +1,49 @@
+package com.bank.transfer.service;
+
+import com.bank.common.exception.TooManyRequestsException;
+import com.bank.transfer.dto.TransferSubmissionDto;
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.service.common.TransferEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Асинхронный прием переводов: id выдается сразу, запись идет в отдельном пуле потоков,
+ * статус можно опрашивать или получать потоком Server-Sent Events.
+ */
+public interface AsyncTransferService {
+
+    /**
+     * @param transfer {@link Transfer} без id
+     * @return {@link TransferSubmissionDto} в статусе ACCEPTED
+     * @throws TooManyRequestsException если очередь приема заполнена
+     */
+    TransferSubmissionDto submit(Transfer transfer);
+
+    /**
+     * @param type вид перевода
+     * @param id   технический идентификатор перевода
+     * @return {@link TransferSubmissionDto}
+     */
+    TransferSubmissionDto findStatus(TransferType type, Long id);
+
+    /**
+     * Первое событие - текущий статус, поток закрывается после итогового статуса.
+     *
+     * @param type вид перевода
+     * @param id   технический идентификатор перевода
+     * @return {@link SseEmitter} событий status с {@link TransferSubmissionDto}
+     */
+    SseEmitter subscribe(TransferType type, Long id);
+
+    /**
+     * @param event {@link TransferEvent} из outbox
+     */
+    void onTransferEvent(TransferEvent event);
+
+    /**
+     * Перечитывает статусы переводов, на которые есть подписки: события outbox
+     * могут быть опубликованы другим экземпляром.
+     */
+    void refreshWatched();
+}
@@ -1,9 +1,11 @@
 package com.bank.transfer.service;
 
 import com.bank.transfer.dto.CardTransferDto;
+import com.bank.transfer.dto.TransferSubmissionDto;
 import com.bank.transfer.entity.CardTransferEntity;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Сервис для {@link CardTransferEntity} и {@link CardTransferDto}
@@ -28,6 +30,22 @@ public interface CardTransferService {
      */
     CardTransferDto save(CardTransferDto cardTransfer);
 
+    /**
+     * Запись через {@link TransferBatchWriter} вместе с одновременными запросами.
+     *
+     * @param cardTransfer {@link CardTransferDto}
+     * @return {@link CardTransferDto} после фиксации пачки
+     */
+    CompletableFuture<CardTransferDto> submit(CardTransferDto cardTransfer);
+
+    /**
+     * Асинхронный прием через {@link AsyncTransferService}: id выдается сразу, запись идет позже.
+     *
+     * @param cardTransfer {@link CardTransferDto}
+     * @return {@link TransferSubmissionDto} в статусе ACCEPTED
+     */
+    TransferSubmissionDto submitAsync(CardTransferDto cardTransfer);
+
     /**
      * @param cardTransfer {@link CardTransferDto}
      * @param id           технический идентификатор {@link CardTransferEntity}
@@ -0,0 +1,34 @@
+package com.bank.transfer.service;
+
+import com.bank.transfer.entity.TransferType;
+
+import java.util.function.Supplier;
+
+/**
+ * Повтор запроса на создание перевода с тем же заголовком {@value #HEADER} возвращает первый ответ,
+ * не создавая перевод заново. Ключ уникален в пределах счета списания: одинаковые ключи разных клиентов
+ * не пересекаются.
+ */
+public interface IdempotencyService {
+
+    String HEADER = "Idempotency-Key";
+
+    /**
+     * @param key              ключ идемпотентности, без ключа перевод просто создается
+     * @param type             вид перевода
+     * @param accountDetailsId технический идентификатор счета списания
+     * @param fingerprint      SHA-256 полей запроса, см. RequestFingerprint; повтор с другими полями отклоняется
+     * @param responseType     тип ответа
+     * @param create           создание перевода, выполняется только для нового ключа в транзакции вместе
+     *                         с его записью; исключение отменяет запись ключа
+     * @param <T>              тип ответа
+     * @return ответ на первый запрос с этим ключом
+     */
+    <T> T execute(String key, TransferType type, Long accountDetailsId, String fingerprint, Class<T> responseType,
+                  Supplier<T> create);
+
+    /**
+     * Удаляет ключи старше срока хранения.
+     */
+    void purge();
+}
@@ -1,21 +1,39 @@
 package com.bank.transfer.service.Impl;
 
+import com.bank.common.exception.ValidationException;
 import com.bank.transfer.dto.AccountTransferDto;
+import com.bank.transfer.dto.TransferSubmissionDto;
 import com.bank.transfer.entity.AccountTransferEntity;
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
 import com.bank.transfer.mapper.AccountTransferMapper;
 import com.bank.transfer.repository.AccountTransferRepository;
+import com.bank.transfer.repository.TransferOutboxRepository;
 import com.bank.transfer.service.common.EntityNotFoundReturner;
+import com.bank.transfer.service.common.TieredTransferReader;
+import com.bank.transfer.service.common.TransferCreatedEvent;
 import com.bank.transfer.service.AccountTransferService;
+import com.bank.transfer.service.AsyncTransferService;
+import com.bank.transfer.service.TransferBatchWriter;
+import com.bank.transfer.service.TariffService;
+import com.bank.transfer.service.RecentTransferService;
+import com.bank.transfer.service.TransferTotalsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Реализация {@link AccountTransferService}
+ * Реализация {@link AccountTransferService}.
+ * Сохраненный перевод исполняется после фиксации транзакции, см. {@link TransferCreatedEvent};
+ * событие о нем пишется в outbox в той же транзакции.
+ * Чтение по id при промахе в рабочей таблице переходит в архив, см. {@link TieredTransferReader}.
  */
 @Slf4j
 @Service
@@ -27,6 +45,14 @@ public class AccountTransferServiceImpl implements AccountTransferService {
     private final AccountTransferRepository repository;
     private final AccountTransferMapper mapper;
     private final EntityNotFoundReturner notFoundReturner;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransferOutboxRepository outboxRepository;
+    private final TransferBatchWriter batchWriter;
+    private final TransferTotalsService totalsService;
+    private final RecentTransferService recentTransferService;
+    private final AsyncTransferService asyncTransferService;
+    private final TieredTransferReader reader;
+    private final TariffService tariffService;
 
     /**
      * @param ids список технических идентификаторов {@link AccountTransferEntity}
@@ -34,10 +60,15 @@ public class AccountTransferServiceImpl implements AccountTransferService {
      */
     @Override
     public List<AccountTransferDto> findAllById(List<Long> ids) {
+        final Map<Long, AccountTransferEntity> transfers = reader.findAllById(repository, TransferType.ACCOUNT, ids);
         final List<AccountTransferDto> accountTransferDtoList = new ArrayList<>();
 
         for (Long id : ids) {
-            accountTransferDtoList.add(findById(id));
+            final AccountTransferEntity accountTransfer = transfers.get(id);
+            if (accountTransfer == null) {
+                throw notFoundReturner.getEntityNotFoundException(id, MESSAGE);
+            }
+            accountTransferDtoList.add(mapper.toDto(accountTransfer));
         }
 
         return accountTransferDtoList;
@@ -49,7 +80,7 @@ public class AccountTransferServiceImpl implements AccountTransferService {
      */
     @Override
     public AccountTransferDto findById(Long id) {
-        final AccountTransferEntity accountTransfer = repository.findById(id)
+        final AccountTransferEntity accountTransfer = reader.findById(repository, TransferType.ACCOUNT, id)
                 .orElseThrow(() -> notFoundReturner.getEntityNotFoundException(id, MESSAGE));
 
         return mapper.toDto(accountTransfer);
@@ -62,12 +93,43 @@ public class AccountTransferServiceImpl implements AccountTransferService {
     @Override
     @Transactional
     public AccountTransferDto save(AccountTransferDto accountTransfer) {
-        final AccountTransferEntity transfer = repository.save(
-                mapper.toEntity(accountTransfer));
+        final AccountTransferEntity entity = mapper.toEntity(accountTransfer);
+        entity.setStatus(TransferStatus.NEW);
+        tariffService.apply(entity);
+
+        final AccountTransferEntity transfer = repository.save(entity);
+        outboxRepository.append(transfer, TransferStatus.NEW);
+        totalsService.record(transfer);
+        recentTransferService.record(transfer);
+        eventPublisher.publishEvent(TransferCreatedEvent.of(transfer));
 
         return mapper.toDto(transfer);
     }
 
+    /**
+     * @param accountTransfer {@link AccountTransferDto}
+     * @return {@link AccountTransferDto} после фиксации пачки
+     */
+    @Override
+    public CompletableFuture<AccountTransferDto> submit(AccountTransferDto accountTransfer) {
+        final AccountTransferEntity entity = mapper.toEntity(accountTransfer);
+        tariffService.apply(entity);
+
+        return batchWriter.submit(entity).thenApply(mapper::toDto);
+    }
+
+    /**
+     * @param accountTransfer {@link AccountTransferDto}
+     * @return {@link TransferSubmissionDto} в статусе ACCEPTED
+     */
+    @Override
+    public TransferSubmissionDto submitAsync(AccountTransferDto accountTransfer) {
+        final AccountTransferEntity entity = mapper.toEntity(accountTransfer);
+        tariffService.apply(entity);
+
+        return asyncTransferService.submit(entity);
+    }
+
     /**
      * @param accountTransfer {@link AccountTransferDto}
      * @param id              технический идентификатор {@link AccountTransferEntity}
@@ -76,10 +138,18 @@ public class AccountTransferServiceImpl implements AccountTransferService {
     @Override
     @Transactional
     public AccountTransferDto update(Long id, AccountTransferDto accountTransfer) {
-        final AccountTransferEntity transfer = repository.findById(id)
+        final AccountTransferEntity transfer = repository.findForUpdate(id)
                 .orElseThrow(() -> notFoundReturner.getEntityNotFoundException(id, MESSAGE));
+        if (transfer.getStatus() != null && transfer.getStatus() != TransferStatus.NEW) {
+            throw new ValidationException("Перевод уже исполняется, изменение невозможно, ID " + id);
+        }
 
+        final Long previousAccountDetailsId = transfer.getAccountDetailsId();
+        totalsService.add(transfer.getType(), previousAccountDetailsId, transfer.getAmount().negate(), -1);
         final AccountTransferEntity accountTransferEntity = mapper.mergeToEntity(accountTransfer, transfer);
+        tariffService.apply(accountTransferEntity);
+        totalsService.record(accountTransferEntity);
+        recentTransferService.record(accountTransferEntity, previousAccountDetailsId);
 
         return mapper.toDto(repository.save(accountTransferEntity));
     }
@@ -0,0 +1,262 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.common.exception.TooManyRequestsException;
+import com.bank.transfer.dto.TransferSubmissionDto;
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.TransferInsertRepository;
+import com.bank.transfer.repository.TransferOutboxRepository;
+import com.bank.transfer.repository.TransferStatusRepository;
+import com.bank.transfer.service.AsyncTransferService;
+import com.bank.transfer.service.RecentTransferService;
+import com.bank.transfer.service.TransferTotalsService;
+import com.bank.transfer.service.common.EntityNotFoundReturner;
+import com.bank.transfer.service.common.SubmissionStatus;
+import com.bank.transfer.service.common.TransferCreatedEvent;
+import com.bank.transfer.service.common.TransferEvent;
+import com.bank.transfer.service.common.TransferIdAllocator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Реализация {@link AsyncTransferService}.
+ * Принятый перевод до записи живет только в памяти: при падении экземпляра он теряется,
+ * клиент увидит это по статусу и повторит запрос. Статусы принятых переводов хранятся в памяти
+ * ограниченное время, дальше статус читается из таблицы перевода.
+ */
+@Slf4j
+@Service
+public class AsyncTransferServiceImpl implements AsyncTransferService {
+
+    private static final String NOT_FOUND = "Не найден перевод с ID ";
+
+    private static final String STATUS_EVENT = "status";
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final TransferInsertRepository insertRepository;
+    private final TransferStatusRepository statusRepository;
+    private final TransferOutboxRepository outboxRepository;
+    private final TransferTotalsService totalsService;
+    private final RecentTransferService recentTransferService;
+    private final TransferIdAllocator idAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityNotFoundReturner notFoundReturner;
+    private final Duration emitterTimeout;
+    private final ThreadPoolExecutor executor;
+    private final Cache<Key, TransferSubmissionDto> submissions;
+    private final ConcurrentMap<Key, List<SseEmitter>> watchers = new ConcurrentHashMap<>();
+
+    public AsyncTransferServiceImpl(TransferInsertRepository insertRepository,
+                                    TransferStatusRepository statusRepository,
+                                    TransferOutboxRepository outboxRepository,
+                                    TransferTotalsService totalsService,
+                                    RecentTransferService recentTransferService,
+                                    TransferIdAllocator idAllocator,
+                                    TransactionTemplate transactionTemplate,
+                                    ApplicationEventPublisher eventPublisher,
+                                    EntityNotFoundReturner notFoundReturner,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${transfer.async.pool-size:16}") int poolSize,
+                                    @Value("${transfer.async.queue-capacity:10000}") int queueCapacity,
+                                    @Value("${transfer.async.retention:PT10M}") Duration retention,
+                                    @Value("${transfer.async.emitter-timeout:PT5M}") Duration emitterTimeout) {
+        this.insertRepository = insertRepository;
+        this.statusRepository = statusRepository;
+        this.outboxRepository = outboxRepository;
+        this.totalsService = totalsService;
+        this.recentTransferService = recentTransferService;
+        this.idAllocator = idAllocator;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.notFoundReturner = notFoundReturner;
+        this.emitterTimeout = emitterTimeout;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+        this.submissions = Caffeine.newBuilder().expireAfterWrite(retention).build();
+        meterRegistry.gauge("transfer.async.queued", executor, e -> e.getQueue().size());
+        meterRegistry.gauge("transfer.async.watchers", watchers, Map::size);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            log.warn("Не записано принятых переводов: {}", executor.shutdownNow().size());
+        }
+    }
+
+    /**
+     * @param transfer {@link Transfer} без id
+     * @return {@link TransferSubmissionDto} в статусе ACCEPTED
+     */
+    @Override
+    public TransferSubmissionDto submit(Transfer transfer) {
+        transfer.setId(idAllocator.nextId(transfer.getType()));
+        transfer.setStatus(TransferStatus.NEW);
+        final Key key = new Key(transfer.getType(), transfer.getId());
+        final TransferSubmissionDto accepted = toDto(key, SubmissionStatus.ACCEPTED, null);
+        submissions.put(key, accepted);
+        try {
+            executor.execute(() -> insert(key, transfer));
+        } catch (RejectedExecutionException e) {
+            submissions.invalidate(key);
+            throw new TooManyRequestsException("Очередь приема переводов заполнена", RETRY_AFTER);
+        }
+        return accepted;
+    }
+
+    /**
+     * @param type вид перевода
+     * @param id   технический идентификатор перевода
+     * @return {@link TransferSubmissionDto}
+     */
+    @Override
+    public TransferSubmissionDto findStatus(TransferType type, Long id) {
+        final Key key = new Key(type, id);
+        final TransferSubmissionDto cached = submissions.getIfPresent(key);
+        if (cached != null && (cached.getStatus() == SubmissionStatus.ACCEPTED ||
+                cached.getStatus() == SubmissionStatus.REJECTED)) {
+            return cached;
+        }
+        final Map<Long, TransferStatus> statuses = statusRepository.findStatuses(type, List.of(id));
+        if (statuses.containsKey(id)) {
+            return toDto(key, SubmissionStatus.of(statuses.get(id)), null);
+        }
+        if (cached != null) {
+            return cached;
+        }
+        throw notFoundReturner.getEntityNotFoundException(id, NOT_FOUND);
+    }
+
+    /**
+     * @param type вид перевода
+     * @param id   технический идентификатор перевода
+     * @return {@link SseEmitter} событий status с {@link TransferSubmissionDto}
+     */
+    @Override
+    public SseEmitter subscribe(TransferType type, Long id) {
+        final Key key = new Key(type, id);
+        final SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        emitter.onCompletion(() -> unwatch(key, emitter));
+        emitter.onTimeout(() -> unwatch(key, emitter));
+        emitter.onError(e -> unwatch(key, emitter));
+        watchers.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(emitter);
+
+        final TransferSubmissionDto current;
+        try {
+            current = findStatus(type, id);
+        } catch (RuntimeException e) {
+            unwatch(key, emitter);
+            throw e;
+        }
+        send(key, emitter, current);
+        return emitter;
+    }
+
+    /**
+     * @param event {@link TransferEvent} из outbox
+     */
+    @Override
+    @EventListener
+    public void onTransferEvent(TransferEvent event) {
+        advance(new Key(event.type(), event.transferId()), SubmissionStatus.of(event.status()), null);
+    }
+
+    /**
+     * Перечитывает статусы переводов, на которые есть подписки.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${transfer.async.refresh-interval:PT1S}")
+    public void refreshWatched() {
+        final Map<TransferType, List<Long>> watched = new EnumMap<>(TransferType.class);
+        for (Key key : watchers.keySet()) {
+            watched.computeIfAbsent(key.type(), t -> new ArrayList<>()).add(key.id());
+        }
+        watched.forEach((type, ids) -> statusRepository.findStatuses(type, ids).forEach((id, status) ->
+                advance(new Key(type, id), SubmissionStatus.of(status), null)));
+    }
+
+    private void insert(Key key, Transfer transfer) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                insertRepository.insert(transfer);
+                outboxRepository.append(transfer, TransferStatus.NEW);
+                totalsService.record(transfer);
+                recentTransferService.record(transfer);
+                eventPublisher.publishEvent(TransferCreatedEvent.of(transfer));
+            });
+            advance(key, SubmissionStatus.NEW, null);
+        } catch (RuntimeException e) {
+            log.warn("Принятый перевод {} {} не записан: {}", key.type(), key.id(), e.getMessage());
+            advance(key, SubmissionStatus.REJECTED, e.getMessage());
+        }
+    }
+
+    /**
+     * Статус только продвигается вперед: исполнение может закончиться раньше, чем придет статус записи.
+     */
+    private void advance(Key key, SubmissionStatus status, String message) {
+        final TransferSubmissionDto next = toDto(key, status, message);
+        final TransferSubmissionDto result = submissions.asMap().merge(key, next,
+                (current, candidate) -> candidate.getStatus().compareTo(current.getStatus()) > 0 ? candidate : current);
+        if (result != next) {
+            return;
+        }
+        final List<SseEmitter> emitters = watchers.get(key);
+        if (emitters != null) {
+            emitters.forEach(emitter -> send(key, emitter, next));
+        }
+    }
+
+    private void send(Key key, SseEmitter emitter, TransferSubmissionDto submission) {
+        try {
+            emitter.send(SseEmitter.event().name(STATUS_EVENT).data(submission));
+            if (submission.getStatus().isFinal()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            unwatch(key, emitter);
+        }
+    }
+
+    private void unwatch(Key key, SseEmitter emitter) {
+        watchers.computeIfPresent(key, (k, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private static TransferSubmissionDto toDto(Key key, SubmissionStatus status, String message) {
+        return new TransferSubmissionDto(key.type(), key.id(), status, message);
+    }
+
+    private record Key(TransferType type, Long id) {
+    }
+}
@@ -1,21 +1,39 @@
 package com.bank.transfer.service.Impl;
 
+import com.bank.common.exception.ValidationException;
 import com.bank.transfer.dto.CardTransferDto;
+import com.bank.transfer.dto.TransferSubmissionDto;
 import com.bank.transfer.entity.CardTransferEntity;
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
 import com.bank.transfer.mapper.CardTransferMapper;
 import com.bank.transfer.repository.CardTransferRepository;
+import com.bank.transfer.repository.TransferOutboxRepository;
 import com.bank.transfer.service.common.EntityNotFoundReturner;
+import com.bank.transfer.service.common.TieredTransferReader;
+import com.bank.transfer.service.common.TransferCreatedEvent;
 import com.bank.transfer.service.CardTransferService;
+import com.bank.transfer.service.AsyncTransferService;
+import com.bank.transfer.service.TransferBatchWriter;
+import com.bank.transfer.service.TariffService;
+import com.bank.transfer.service.RecentTransferService;
+import com.bank.transfer.service.TransferTotalsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Реализация {@link CardTransferService}
+ * Реализация {@link CardTransferService}.
+ * Сохраненный перевод исполняется после фиксации транзакции, см. {@link TransferCreatedEvent};
+ * событие о нем пишется в outbox в той же транзакции.
+ * Чтение по id при промахе в рабочей таблице переходит в архив, см. {@link TieredTransferReader}.
  */
 @Slf4j
 @Service
@@ -27,6 +45,14 @@ public class CardTransferServiceImpl implements CardTransferService {
     private final CardTransferRepository repository;
     private final CardTransferMapper mapper;
     private final EntityNotFoundReturner notFoundReturner;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransferOutboxRepository outboxRepository;
+    private final TransferBatchWriter batchWriter;
+    private final TransferTotalsService totalsService;
+    private final RecentTransferService recentTransferService;
+    private final AsyncTransferService asyncTransferService;
+    private final TieredTransferReader reader;
+    private final TariffService tariffService;
 
     /**
      * @param ids список технических идентификаторов {@link CardTransferEntity}
@@ -34,10 +60,15 @@ public class CardTransferServiceImpl implements CardTransferService {
      */
     @Override
     public List<CardTransferDto> findAllById(List<Long> ids) {
+        final Map<Long, CardTransferEntity> transfers = reader.findAllById(repository, TransferType.CARD, ids);
         final List<CardTransferDto> cardTransferDtoList = new ArrayList<>();
 
         for (Long id : ids) {
-            cardTransferDtoList.add(findById(id));
+            final CardTransferEntity cardTransfer = transfers.get(id);
+            if (cardTransfer == null) {
+                throw notFoundReturner.getEntityNotFoundException(id, MESSAGE);
+            }
+            cardTransferDtoList.add(mapper.toDto(cardTransfer));
         }
 
         return cardTransferDtoList;
@@ -49,7 +80,7 @@ public class CardTransferServiceImpl implements CardTransferService {
      */
     @Override
     public CardTransferDto findById(Long id) {
-        final CardTransferEntity cardTransfer = repository.findById(id)
+        final CardTransferEntity cardTransfer = reader.findById(repository, TransferType.CARD, id)
                 .orElseThrow(() -> notFoundReturner.getEntityNotFoundException(id, MESSAGE));
 
         return mapper.toDto(cardTransfer);
@@ -62,12 +93,43 @@ public class CardTransferServiceImpl implements CardTransferService {
     @Override
     @Transactional
     public CardTransferDto save(CardTransferDto cardTransfer) {
-        final CardTransferEntity transfer = repository.save(
-                mapper.toEntity(cardTransfer));
+        final CardTransferEntity entity = mapper.toEntity(cardTransfer);
+        entity.setStatus(TransferStatus.NEW);
+        tariffService.apply(entity);
+
+        final CardTransferEntity transfer = repository.save(entity);
+        outboxRepository.append(transfer, TransferStatus.NEW);
+        totalsService.record(transfer);
+        recentTransferService.record(transfer);
+        eventPublisher.publishEvent(TransferCreatedEvent.of(transfer));
 
         return mapper.toDto(transfer);
     }
 
+    /**
+     * @param cardTransfer {@link CardTransferDto}
+     * @return {@link CardTransferDto} после фиксации пачки
+     */
+    @Override
+    public CompletableFuture<CardTransferDto> submit(CardTransferDto cardTransfer) {
+        final CardTransferEntity entity = mapper.toEntity(cardTransfer);
+        tariffService.apply(entity);
+
+        return batchWriter.submit(entity).thenApply(mapper::toDto);
+    }
+
+    /**
+     * @param cardTransfer {@link CardTransferDto}
+     * @return {@link TransferSubmissionDto} в статусе ACCEPTED
+     */
+    @Override
+    public TransferSubmissionDto submitAsync(CardTransferDto cardTransfer) {
+        final CardTransferEntity entity = mapper.toEntity(cardTransfer);
+        tariffService.apply(entity);
+
+        return asyncTransferService.submit(entity);
+    }
+
     /**
      * @param cardTransfer {@link CardTransferDto}
      * @param id           технический идентификатор {@link CardTransferEntity}
@@ -76,10 +138,18 @@ public class CardTransferServiceImpl implements CardTransferService {
     @Override
     @Transactional
     public CardTransferDto update(Long id, CardTransferDto cardTransfer) {
-        final CardTransferEntity transfer = repository.findById(id)
+        final CardTransferEntity transfer = repository.findForUpdate(id)
                 .orElseThrow(() -> notFoundReturner.getEntityNotFoundException(id, MESSAGE));
+        if (transfer.getStatus() != null && transfer.getStatus() != TransferStatus.NEW) {
+            throw new ValidationException("Перевод уже исполняется, изменение невозможно, ID " + id);
+        }
 
+        final Long previousAccountDetailsId = transfer.getAccountDetailsId();
+        totalsService.add(transfer.getType(), previousAccountDetailsId, transfer.getAmount().negate(), -1);
         final CardTransferEntity cardTransferEntity = mapper.mergeToEntity(cardTransfer, transfer);
+        tariffService.apply(cardTransferEntity);
+        totalsService.record(cardTransferEntity);
+        recentTransferService.record(cardTransferEntity, previousAccountDetailsId);
 
         return mapper.toDto(repository.save(cardTransferEntity));
     }
@@ -0,0 +1,149 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.common.exception.ValidationException;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.IdempotencyKeyRepository;
+import com.bank.transfer.repository.IdempotentRequest;
+import com.bank.transfer.service.IdempotencyService;
+import com.bank.transfer.service.common.AfterCommit;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Реализация {@link IdempotencyService}.
+ * Недавние ключи хранятся в памяти вместе с ответом, поэтому повтор обходится без обращения к БД.
+ * При промахе ключ вставляется в таблицу в одной транзакции с переводом; уникальность пары счет списания и ключ
+ * гарантирует один перевод, даже если повторы пришли на разные экземпляры одновременно.
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    public static final String CACHE_NAME = "idempotency_key";
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final IdempotencyKeyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Cache<Scope, Replay> cache;
+
+    public IdempotencyServiceImpl(IdempotencyKeyRepository repository,
+                                  TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${transfer.idempotency.ttl:P1D}") Duration ttl,
+                                  @Value("${transfer.idempotency.cache.maximum-size:100000}") long maximumSize,
+                                  @Value("${transfer.idempotency.cache.ttl:PT10M}") Duration cacheTtl) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(cacheTtl.compareTo(ttl) < 0 ? cacheTtl : ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * @param key              ключ идемпотентности, без ключа перевод просто создается
+     * @param type             вид перевода
+     * @param accountDetailsId технический идентификатор счета списания
+     * @param fingerprint      SHA-256 полей запроса, повтор с другими полями отклоняется
+     * @param responseType     тип ответа
+     * @param create           создание перевода, выполняется в транзакции вместе с записью ключа
+     * @param <T>              тип ответа
+     * @return ответ на первый запрос с этим ключом
+     */
+    @Override
+    public <T> T execute(String key, TransferType type, Long accountDetailsId, String fingerprint,
+                         Class<T> responseType, Supplier<T> create) {
+        if (key == null) {
+            return create.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException(HEADER + " должен быть непустым и не длиннее " + MAX_KEY_LENGTH);
+        }
+        if (accountDetailsId == null) {
+            throw new ValidationException("Для " + HEADER + " обязателен счет списания");
+        }
+
+        final Scope scope = new Scope(accountDetailsId, key);
+        final Replay cached = cache.getIfPresent(scope);
+        if (cached != null) {
+            return cached.replay(type, fingerprint, responseType);
+        }
+
+        return transactionTemplate.execute(status -> {
+            if (!repository.claim(accountDetailsId, key, type, fingerprint)) {
+                final Replay stored = repository.find(accountDetailsId, key)
+                        .map(request -> toReplay(request, responseType))
+                        .orElseThrow(() -> new ValidationException("Ключ " + key + " удален, повторите запрос"));
+                cache.put(scope, stored);
+                return stored.replay(type, fingerprint, responseType);
+            }
+
+            final T response = create.get();
+            repository.saveResponse(accountDetailsId, key, toJson(response));
+            AfterCommit.run(() -> cache.put(scope, new Replay(type, fingerprint, response)));
+            return response;
+        });
+    }
+
+    /**
+     * Ключи в памяти живут не дольше, чем в таблице.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${transfer.idempotency.purge-interval:PT1H}")
+    public void purge() {
+        final int purged = repository.purge(ttl);
+        if (purged > 0) {
+            log.info("Удалено ключей идемпотентности: {}", purged);
+        }
+    }
+
+    private <T> Replay toReplay(IdempotentRequest request, Class<T> responseType) {
+        try {
+            return new Replay(request.type(), request.fingerprint(),
+                    objectMapper.readValue(request.response(), responseType));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось прочитать сохраненный ответ", e);
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сохранить ответ", e);
+        }
+    }
+
+    private record Scope(Long accountDetailsId, String key) {
+    }
+
+    private record Replay(TransferType type, String fingerprint, Object response) {
+
+        private <T> T replay(TransferType requestType, String requestFingerprint, Class<T> responseType) {
+            if (type != requestType || !fingerprint.equals(requestFingerprint)) {
+                throw new ValidationException("Ключ идемпотентности уже использован для другого запроса");
+            }
+            return responseType.cast(response);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.transfer.repository.OutboxBacklog;
+import com.bank.transfer.repository.TransferOutboxRepository;
+import com.bank.transfer.service.OutboxRelayService;
+import com.bank.transfer.service.common.TransferEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Реализация {@link OutboxRelayService}.
+ * Пачка публикуется до удаления из outbox в той же транзакции: при сбое события будут опубликованы повторно.
+ * Исключение подписчика откатывает пачку, и раздел стоит до его исправления, порядок по счету не нарушается.
+ * Метрики: transfer.outbox.pending и transfer.outbox.lag (возраст самого старого события) по состоянию
+ * на последний проход, transfer.outbox.delay - задержка публикации каждого события.
+ */
+@Slf4j
+@Service
+public class OutboxRelayServiceImpl implements OutboxRelayService {
+
+    private final TransferOutboxRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter published;
+    private final Timer delay;
+
+    public OutboxRelayServiceImpl(TransferOutboxRepository repository,
+                                  TransactionTemplate transactionTemplate,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${transfer.outbox.batch-size:500}") int batchSize) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        Gauge.builder("transfer.outbox.pending", pending, AtomicLong::get)
+                .description("Неопубликованные события outbox")
+                .register(meterRegistry);
+        Gauge.builder("transfer.outbox.lag", lagMillis, value -> value.get() / 1000.0)
+                .description("Возраст самого старого неопубликованного события")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.published = Counter.builder("transfer.outbox.published")
+                .description("Опубликованные события outbox")
+                .register(meterRegistry);
+        this.delay = Timer.builder("transfer.outbox.delay")
+                .description("Время от записи события в outbox до публикации")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${transfer.outbox.relay-interval:PT0.2S}")
+    public void relay() {
+        for (int partition = 0; partition < repository.getPartitions(); partition++) {
+            final int current = partition;
+            Integer drained;
+            do {
+                drained = transactionTemplate.execute(status -> drain(current));
+            } while (drained != null && drained == batchSize);
+        }
+
+        final OutboxBacklog backlog = repository.backlog();
+        pending.set(backlog.pending());
+        lagMillis.set(backlog.lag().toMillis());
+    }
+
+    private int drain(int partition) {
+        if (!repository.tryLockPartition(partition)) {
+            return 0;
+        }
+        final List<TransferEvent> events = repository.lockBatch(partition, batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        final Instant now = Instant.now();
+        for (TransferEvent event : events) {
+            eventPublisher.publishEvent(event);
+            delay.record(Duration.between(event.createdAt(), now));
+        }
+        repository.delete(events.stream().map(TransferEvent::id).toList());
+        published.increment(events.size());
+        return events.size();
+    }
+}
@@ -0,0 +1,52 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.transfer.client.AccountClient;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.service.PayeeResolver;
+import com.bank.transfer.service.PhoneAccountResolver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Реализация {@link PayeeResolver}.
+ * Карты выпускаются вне банка, поэтому переводы на карту зачисляются на счет расчетов с платежной системой.
+ * Счет расчетов обязателен: без него приложение не стартует, а не откладывает каждый перевод на карту.
+ * Перевод по телефону зачисляется на первый счет профиля с этим номером, см. {@link PhoneAccountResolver}.
+ */
+@Service
+@RequiredArgsConstructor
+public class PayeeResolverImpl implements PayeeResolver {
+
+    private final AccountClient accountClient;
+    private final PhoneAccountResolver phoneAccountResolver;
+
+    @Value("${transfer.execution.card-clearing-account-id}")
+    private Long cardClearingAccountId;
+
+    /**
+     * Проверяет счет расчетов при старте.
+     */
+    @PostConstruct
+    public void checkCardClearingAccount() {
+        if (cardClearingAccountId == null || cardClearingAccountId <= 0) {
+            throw new IllegalStateException("transfer.execution.card-clearing-account-id должен быть положительным");
+        }
+    }
+
+    /**
+     * @param type  вид перевода
+     * @param payee номер счета, карты или телефона получателя
+     * @return технический идентификатор счета зачисления
+     */
+    @Override
+    public Long resolve(TransferType type, Long payee) {
+        return switch (type) {
+            case ACCOUNT -> accountClient.findByAccountNumber(payee).getId();
+            case CARD -> cardClearingAccountId;
+            case PHONE -> phoneAccountResolver.resolve(payee);
+        };
+    }
+}
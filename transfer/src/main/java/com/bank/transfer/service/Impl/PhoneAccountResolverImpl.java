@@ -0,0 +1,180 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.transfer.client.ProfileClient;
+import com.bank.transfer.dto.PhoneAccountDto;
+import com.bank.transfer.service.PhoneAccountResolver;
+import com.bank.transfer.service.common.EntityNotFoundReturner;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Реализация {@link PhoneAccountResolver}.
+ * Ответы profile-app кэшируются, отсутствие счета - на меньший срок, чтобы новый счет стал виден быстрее.
+ * Одновременные запросы одного номера ждут одну загрузку, промахи массового поиска
+ * запрашиваются одним вызовом profile-app. Ошибка profile-app не кэшируется.
+ */
+@Service
+public class PhoneAccountResolverImpl implements PhoneAccountResolver {
+
+    public static final String CACHE_NAME = "phone_account";
+
+    private static final String NO_ACCOUNT = "Нет счета у профиля с номером телефона ";
+
+    private final EntityNotFoundReturner notFoundReturner;
+    private final ExecutorService loader;
+    private final AsyncLoadingCache<Long, Optional<Long>> cache;
+
+    public PhoneAccountResolverImpl(ProfileClient profileClient,
+                                    EntityNotFoundReturner notFoundReturner,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${transfer.phone-resolution.ttl:PT5M}") Duration ttl,
+                                    @Value("${transfer.phone-resolution.negative-ttl:PT30S}") Duration negativeTtl,
+                                    @Value("${transfer.phone-resolution.maximum-size:100000}") long maximumSize,
+                                    @Value("${transfer.phone-resolution.batch-size:500}") int batchSize,
+                                    @Value("${transfer.phone-resolution.loader-threads:8}") int loaderThreads) {
+        this.notFoundReturner = notFoundReturner;
+        this.loader = Executors.newFixedThreadPool(loaderThreads);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new PositiveNegativeExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .executor(loader)
+                .recordStats()
+                .buildAsync(new PhoneAccountLoader(profileClient, batchSize));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+    }
+
+    @PreDestroy
+    void stop() {
+        loader.shutdownNow();
+    }
+
+    /**
+     * Кэш убирает неудачную загрузку уже после того, как ее ошибку получил вызывающий,
+     * поэтому она убирается здесь: иначе сразу повторенный запрос получил бы ту же ошибку.
+     *
+     * @param phoneNumber номер телефона, без +7
+     * @return технический идентификатор счета зачисления
+     */
+    @Override
+    public Long resolve(Long phoneNumber) {
+        final CompletableFuture<Optional<Long>> account = cache.get(phoneNumber);
+        try {
+            return join(account)
+                    .orElseThrow(() -> notFoundReturner.getEntityNotFoundException(phoneNumber, NO_ACCOUNT));
+        } catch (RuntimeException e) {
+            if (account.isCompletedExceptionally()) {
+                cache.asMap().remove(phoneNumber, account);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param phoneNumbers номера телефонов, без +7
+     * @return технические идентификаторы счетов зачисления только для номеров, у которых есть счет
+     */
+    @Override
+    public Map<Long, Long> resolveAll(Collection<Long> phoneNumbers) {
+        final Map<Long, Long> accounts = new HashMap<>();
+        join(cache.getAll(phoneNumbers)).forEach((phone, account) -> account.ifPresent(id -> accounts.put(phone, id)));
+        return accounts;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Загрузка из profile-app: отсутствующие в ответе номера кэшируются как номера без счета.
+     */
+    private static final class PhoneAccountLoader implements CacheLoader<Long, Optional<Long>> {
+
+        private final ProfileClient profileClient;
+        private final int batchSize;
+
+        private PhoneAccountLoader(ProfileClient profileClient, int batchSize) {
+            this.profileClient = profileClient;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public Optional<Long> load(@NonNull Long phoneNumber) {
+            return loadAll(List.of(phoneNumber)).get(phoneNumber);
+        }
+
+        @Override
+        public @NonNull Map<Long, Optional<Long>> loadAll(@NonNull Iterable<? extends Long> phoneNumbers) {
+            final Map<Long, Optional<Long>> accounts = new HashMap<>();
+            final List<Long> batch = new ArrayList<>(batchSize);
+            for (Long phoneNumber : phoneNumbers) {
+                accounts.put(phoneNumber, Optional.empty());
+                batch.add(phoneNumber);
+                if (batch.size() == batchSize) {
+                    fetch(batch, accounts);
+                }
+            }
+            if (!batch.isEmpty()) {
+                fetch(batch, accounts);
+            }
+            return accounts;
+        }
+
+        private void fetch(List<Long> batch, Map<Long, Optional<Long>> accounts) {
+            for (PhoneAccountDto account : profileClient.findAccountsByPhoneNumbers(batch)) {
+                accounts.put(account.getPhoneNumber(), Optional.ofNullable(account.getAccountId()));
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Срок хранения зависит от того, найден ли счет.
+     */
+    private record PositiveNegativeExpiry(long ttlNanos, long negativeTtlNanos)
+            implements Expiry<Long, Optional<Long>> {
+
+        @Override
+        public long expireAfterCreate(@NonNull Long key, @NonNull Optional<Long> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(@NonNull Long key, @NonNull Optional<Long> value, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(@NonNull Long key, @NonNull Optional<Long> value, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,21 +1,39 @@
 package com.bank.transfer.service.Impl;
 
+import com.bank.common.exception.ValidationException;
 import com.bank.transfer.dto.PhoneTransferDto;
+import com.bank.transfer.dto.TransferSubmissionDto;
 import com.bank.transfer.mapper.PhoneTransferMapper;
 import com.bank.transfer.repository.PhoneTransferRepository;
+import com.bank.transfer.repository.TransferOutboxRepository;
 import com.bank.transfer.entity.PhoneTransferEntity;
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
 import com.bank.transfer.service.PhoneTransferService;
+import com.bank.transfer.service.AsyncTransferService;
+import com.bank.transfer.service.TransferBatchWriter;
+import com.bank.transfer.service.TariffService;
+import com.bank.transfer.service.RecentTransferService;
+import com.bank.transfer.service.TransferTotalsService;
 import com.bank.transfer.service.common.EntityNotFoundReturner;
+import com.bank.transfer.service.common.TieredTransferReader;
+import com.bank.transfer.service.common.TransferCreatedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Реализация {@link PhoneTransferService}
+ * Реализация {@link PhoneTransferService}.
+ * Сохраненный перевод исполняется после фиксации транзакции, см. {@link TransferCreatedEvent};
+ * событие о нем пишется в outbox в той же транзакции.
+ * Чтение по id при промахе в рабочей таблице переходит в архив, см. {@link TieredTransferReader}.
  */
 @Slf4j
 @Service
@@ -27,6 +45,14 @@ public class PhoneTransferServiceImpl implements PhoneTransferService {
     private final PhoneTransferRepository repository;
     private final PhoneTransferMapper mapper;
     private final EntityNotFoundReturner notFoundReturner;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransferOutboxRepository outboxRepository;
+    private final TransferBatchWriter batchWriter;
+    private final TransferTotalsService totalsService;
+    private final RecentTransferService recentTransferService;
+    private final AsyncTransferService asyncTransferService;
+    private final TieredTransferReader reader;
+    private final TariffService tariffService;
 
     /**
      * @param ids список технических идентификаторов {@link PhoneTransferEntity}
@@ -34,10 +60,15 @@ public class PhoneTransferServiceImpl implements PhoneTransferService {
      */
     @Override
     public List<PhoneTransferDto> findAllById(List<Long> ids) {
+        final Map<Long, PhoneTransferEntity> transfers = reader.findAllById(repository, TransferType.PHONE, ids);
         final List<PhoneTransferDto> phoneTransferDtoList = new ArrayList<>();
 
         for (Long id : ids) {
-            phoneTransferDtoList.add(findById(id));
+            final PhoneTransferEntity phoneTransfer = transfers.get(id);
+            if (phoneTransfer == null) {
+                throw notFoundReturner.getEntityNotFoundException(id, MESSAGE);
+            }
+            phoneTransferDtoList.add(mapper.toDto(phoneTransfer));
         }
 
         return phoneTransferDtoList;
@@ -49,7 +80,7 @@ public class PhoneTransferServiceImpl implements PhoneTransferService {
      */
     @Override
     public PhoneTransferDto findById(Long id) {
-        final PhoneTransferEntity phoneTransfer = repository.findById(id)
+        final PhoneTransferEntity phoneTransfer = reader.findById(repository, TransferType.PHONE, id)
                 .orElseThrow(() -> notFoundReturner.getEntityNotFoundException(id, MESSAGE));
 
         return mapper.toDto(phoneTransfer);
@@ -62,12 +93,43 @@ public class PhoneTransferServiceImpl implements PhoneTransferService {
     @Override
     @Transactional
     public PhoneTransferDto save(PhoneTransferDto phoneTransfer) {
-        final PhoneTransferEntity transfer = repository.save(
-                mapper.toEntity(phoneTransfer));
+        final PhoneTransferEntity entity = mapper.toEntity(phoneTransfer);
+        entity.setStatus(TransferStatus.NEW);
+        tariffService.apply(entity);
+
+        final PhoneTransferEntity transfer = repository.save(entity);
+        outboxRepository.append(transfer, TransferStatus.NEW);
+        totalsService.record(transfer);
+        recentTransferService.record(transfer);
+        eventPublisher.publishEvent(TransferCreatedEvent.of(transfer));
 
         return mapper.toDto(transfer);
     }
 
+    /**
+     * @param phoneTransfer {@link PhoneTransferDto}
+     * @return {@link PhoneTransferDto} после фиксации пачки
+     */
+    @Override
+    public CompletableFuture<PhoneTransferDto> submit(PhoneTransferDto phoneTransfer) {
+        final PhoneTransferEntity entity = mapper.toEntity(phoneTransfer);
+        tariffService.apply(entity);
+
+        return batchWriter.submit(entity).thenApply(mapper::toDto);
+    }
+
+    /**
+     * @param phoneTransfer {@link PhoneTransferDto}
+     * @return {@link TransferSubmissionDto} в статусе ACCEPTED
+     */
+    @Override
+    public TransferSubmissionDto submitAsync(PhoneTransferDto phoneTransfer) {
+        final PhoneTransferEntity entity = mapper.toEntity(phoneTransfer);
+        tariffService.apply(entity);
+
+        return asyncTransferService.submit(entity);
+    }
+
     /**
      * @param phoneTransfer {@link PhoneTransferDto}
      * @param id            технический идентификатор {@link PhoneTransferEntity}
@@ -76,10 +138,18 @@ public class PhoneTransferServiceImpl implements PhoneTransferService {
     @Override
     @Transactional
     public PhoneTransferDto update(Long id, PhoneTransferDto phoneTransfer) {
-        final PhoneTransferEntity transfer = repository.findById(id)
+        final PhoneTransferEntity transfer = repository.findForUpdate(id)
                 .orElseThrow(() -> notFoundReturner.getEntityNotFoundException(id, MESSAGE));
+        if (transfer.getStatus() != null && transfer.getStatus() != TransferStatus.NEW) {
+            throw new ValidationException("Перевод уже исполняется, изменение невозможно, ID " + id);
+        }
 
+        final Long previousAccountDetailsId = transfer.getAccountDetailsId();
+        totalsService.add(transfer.getType(), previousAccountDetailsId, transfer.getAmount().negate(), -1);
         final PhoneTransferEntity phoneTransferEntity = mapper.mergeToEntity(phoneTransfer, transfer);
+        tariffService.apply(phoneTransferEntity);
+        totalsService.record(phoneTransferEntity);
+        recentTransferService.record(phoneTransferEntity, previousAccountDetailsId);
 
         return mapper.toDto(repository.save(phoneTransferEntity));
     }
@@ -0,0 +1,98 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.common.exception.TooManyRequestsException;
+import com.bank.transfer.service.RateLimitService;
+import com.bank.transfer.service.common.TokenBucketLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Реализация {@link RateLimitService}.
+ * Лимиты локальны для экземпляра: при нескольких экземплярах фактический лимит умножается на их число.
+ */
+@Service
+public class RateLimitServiceImpl implements RateLimitService {
+
+    private static final String REJECTED = "transfer.rate_limit.rejected";
+    private static final String KEYS = "transfer.rate_limit.keys";
+    private static final String KEY_TAG = "key";
+    private static final String ACCOUNT = "account";
+    private static final String CARD = "card";
+    private static final String REJECTED_DESCRIPTION = "Отклоненные по лимиту запросы на создание перевода";
+
+    private final TokenBucketLimiter accountLimiter;
+    private final TokenBucketLimiter cardLimiter;
+    private final Counter accountRejected;
+    private final Counter cardRejected;
+    private final AtomicInteger accountKeys = new AtomicInteger();
+    private final AtomicInteger cardKeys = new AtomicInteger();
+
+    public RateLimitServiceImpl(MeterRegistry meterRegistry,
+                                @Value("${transfer.rate-limit.account.rate:0}") double accountRate,
+                                @Value("${transfer.rate-limit.account.burst:1}") int accountBurst,
+                                @Value("${transfer.rate-limit.card.rate:0}") double cardRate,
+                                @Value("${transfer.rate-limit.card.burst:1}") int cardBurst) {
+        this.accountLimiter = new TokenBucketLimiter(accountRate, accountBurst);
+        this.cardLimiter = new TokenBucketLimiter(cardRate, cardBurst);
+        this.accountRejected = Counter.builder(REJECTED).tag(KEY_TAG, ACCOUNT)
+                .description(REJECTED_DESCRIPTION).register(meterRegistry);
+        this.cardRejected = Counter.builder(REJECTED).tag(KEY_TAG, CARD)
+                .description(REJECTED_DESCRIPTION).register(meterRegistry);
+        Gauge.builder(KEYS, accountKeys, AtomicInteger::get).tag(KEY_TAG, ACCOUNT).register(meterRegistry);
+        Gauge.builder(KEYS, cardKeys, AtomicInteger::get).tag(KEY_TAG, CARD).register(meterRegistry);
+    }
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     */
+    @Override
+    public void checkAccount(Long accountDetailsId) {
+        check(accountLimiter, accountDetailsId, accountRejected, "Слишком много переводов со счета id = ");
+    }
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @param cardNumber       номер карты получателя
+     */
+    @Override
+    public void checkCardTransfer(Long accountDetailsId, Long cardNumber) {
+        checkAccount(accountDetailsId);
+        try {
+            check(cardLimiter, cardNumber, cardRejected, "Слишком много переводов на карту ");
+        } catch (TooManyRequestsException e) {
+            if (accountDetailsId != null) {
+                accountLimiter.refund(accountDetailsId);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Удаляет корзины ключей, по которым давно не было запросов.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${transfer.rate-limit.eviction-interval:PT1M}")
+    public void evictIdle() {
+        final long now = System.nanoTime();
+        accountKeys.set(accountLimiter.evictIdle(now));
+        cardKeys.set(cardLimiter.evictIdle(now));
+    }
+
+    private static void check(TokenBucketLimiter limiter, Long key, Counter rejected, String message) {
+        if (key == null || !limiter.isEnabled()) {
+            return;
+        }
+        final long wait = limiter.tryAcquire(key, System.nanoTime());
+        if (wait > 0) {
+            rejected.increment();
+            throw new TooManyRequestsException(message + key, Duration.ofNanos(wait));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.common.exception.ValidationException;
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.repository.StatementLine;
+import com.bank.transfer.repository.StatementRepository;
+import com.bank.transfer.service.RecentTransferService;
+import com.bank.transfer.service.common.AfterCommit;
+import com.bank.transfer.service.common.RecentTransfers;
+import com.bank.transfer.service.common.TransferEvent;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Реализация {@link RecentTransferService}.
+ * Кэш ограничен количеством счетов и вытесняет редко запрашиваемые. Запись в кэш идет через computeIfPresent,
+ * который ждет идущей загрузки счета, поэтому перевод, зафиксированный во время загрузки, не теряется.
+ */
+@Service
+public class RecentTransferServiceImpl implements RecentTransferService {
+
+    public static final String CACHE_NAME = "recent_transfers";
+
+    private final LoadingCache<Long, RecentTransfers> cache;
+
+    public RecentTransferServiceImpl(StatementRepository repository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${transfer.recent.size:20}") int size,
+                                     @Value("${transfer.recent.maximum-size:100000}") long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build(accountDetailsId -> new RecentTransfers(size, repository.findLast(accountDetailsId, size)));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @return последние переводы со счета, новые первыми
+     */
+    @Override
+    public List<StatementLine> findLast(Long accountDetailsId) {
+        if (accountDetailsId == null) {
+            throw new ValidationException("Не указан счет списания");
+        }
+        return cache.get(accountDetailsId).snapshot();
+    }
+
+    /**
+     * Перевод записывается в статусе NEW: создание и изменение возможны только до исполнения.
+     *
+     * @param transfer {@link Transfer} с выданным id
+     */
+    @Override
+    public void record(Transfer transfer) {
+        final StatementLine line = new StatementLine(transfer.getType(), transfer.getId(), transfer.getPayee(),
+                transfer.getAmount(), transfer.getPurpose(), TransferStatus.NEW, OffsetDateTime.now());
+        AfterCommit.run(() -> cache.asMap().computeIfPresent(transfer.getAccountDetailsId(), (id, recent) -> {
+            recent.add(line);
+            return recent;
+        }));
+    }
+
+    /**
+     * Сброс и запись идут после фиксации: загрузка прежнего счета, начатая раньше, не вернет перевод в кэш.
+     *
+     * @param transfer                 {@link Transfer} после изменения
+     * @param previousAccountDetailsId технический идентификатор счета списания до изменения
+     */
+    @Override
+    public void record(Transfer transfer, Long previousAccountDetailsId) {
+        if (previousAccountDetailsId != null && !previousAccountDetailsId.equals(transfer.getAccountDetailsId())) {
+            AfterCommit.run(() -> cache.invalidate(previousAccountDetailsId));
+        }
+        record(transfer);
+    }
+
+    /**
+     * @param event {@link TransferEvent} со статусом перевода
+     */
+    @Override
+    @EventListener
+    public void onTransferEvent(TransferEvent event) {
+        final RecentTransfers recent = cache.getIfPresent(event.accountDetailsId());
+        if (recent != null) {
+            recent.advance(event.type(), event.transferId(), event.status());
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.common.exception.ValidationException;
+import com.bank.transfer.dto.ScheduledTransferDto;
+import com.bank.transfer.entity.ScheduledTransferEntity;
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferChannel;
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.mapper.ScheduledTransferMapper;
+import com.bank.transfer.repository.ScheduledRun;
+import com.bank.transfer.repository.ScheduledRunRepository;
+import com.bank.transfer.repository.ScheduledTransferRepository;
+import com.bank.transfer.repository.TransferInsertRepository;
+import com.bank.transfer.repository.TransferOutboxRepository;
+import com.bank.transfer.service.ScheduledTransferService;
+import com.bank.transfer.service.TariffService;
+import com.bank.transfer.service.RecentTransferService;
+import com.bank.transfer.service.TransferTotalsService;
+import com.bank.transfer.service.common.AfterCommit;
+import com.bank.transfer.service.common.EntityNotFoundReturner;
+import com.bank.transfer.service.common.ScheduledTransferWheel;
+import com.bank.transfer.service.common.TransferCreatedEvent;
+import com.bank.transfer.service.common.TransferIdAllocator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.Period;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Реализация {@link ScheduledTransferService}.
+ * Исполнения загружаются окнами по индексу next_run_at на {@link ScheduledTransferWheel}, полный просмотр
+ * таблицы не нужен. Наступившие исполнения захватываются пачкой и в той же транзакции создают переводы
+ * обычным путем: запись, outbox, суммы по счету и событие на исполнение.
+ * Исполнения, пропущенные из-за падения экземпляра, подбирает догоняющая загрузка просроченных.
+ * Она же - единственный повтор неудачного захвата: исполнение из пачки, транзакция которой упала,
+ * остается в таблице со старым next_run_at и возвращается в колесо не раньше чем через grace,
+ * когда его выберет findBefore(now - grace).
+ */
+@Slf4j
+@Service
+public class ScheduledTransferServiceImpl implements ScheduledTransferService {
+
+    private static final String MESSAGE = "Не найден перевод по расписанию с ID ";
+
+    private final ScheduledTransferRepository repository;
+    private final ScheduledTransferMapper mapper;
+    private final ScheduledRunRepository runRepository;
+    private final TransferInsertRepository insertRepository;
+    private final TransferOutboxRepository outboxRepository;
+    private final TransferTotalsService totalsService;
+    private final RecentTransferService recentTransferService;
+    private final TariffService tariffService;
+    private final TransferIdAllocator idAllocator;
+    private final ScheduledTransferWheel wheel;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityNotFoundReturner notFoundReturner;
+    private final Duration window;
+    private final Duration grace;
+    private final int batchSize;
+    private volatile OffsetDateTime loadedUntil;
+    private OffsetDateTime nextCatchUp;
+
+    public ScheduledTransferServiceImpl(ScheduledTransferRepository repository,
+                                        ScheduledTransferMapper mapper,
+                                        ScheduledRunRepository runRepository,
+                                        TransferInsertRepository insertRepository,
+                                        TransferOutboxRepository outboxRepository,
+                                        TransferTotalsService totalsService,
+                                        RecentTransferService recentTransferService,
+                                        TariffService tariffService,
+                                        TransferIdAllocator idAllocator,
+                                        ScheduledTransferWheel wheel,
+                                        TransactionTemplate transactionTemplate,
+                                        ApplicationEventPublisher eventPublisher,
+                                        EntityNotFoundReturner notFoundReturner,
+                                        @Value("${transfer.scheduled.window:PT10M}") Duration window,
+                                        @Value("${transfer.scheduled.grace:PT5M}") Duration grace,
+                                        @Value("${transfer.scheduled.batch-size:500}") int batchSize) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.runRepository = runRepository;
+        this.insertRepository = insertRepository;
+        this.outboxRepository = outboxRepository;
+        this.totalsService = totalsService;
+        this.recentTransferService = recentTransferService;
+        this.tariffService = tariffService;
+        this.idAllocator = idAllocator;
+        this.wheel = wheel;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.notFoundReturner = notFoundReturner;
+        this.window = window;
+        this.grace = grace;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param id технический идентификатор {@link ScheduledTransferEntity}
+     * @return {@link ScheduledTransferDto}
+     */
+    @Override
+    public ScheduledTransferDto findById(Long id) {
+        return mapper.toDto(repository.findById(id)
+                .orElseThrow(() -> notFoundReturner.getEntityNotFoundException(id, MESSAGE)));
+    }
+
+    /**
+     * Перевод, первое исполнение которого попадает в уже загруженное окно, сразу ставится в колесо.
+     *
+     * @param scheduledTransfer {@link ScheduledTransferDto}
+     * @return {@link ScheduledTransferDto}
+     */
+    @Override
+    @Transactional
+    public ScheduledTransferDto save(ScheduledTransferDto scheduledTransfer) {
+        final ScheduledTransferEntity entity = mapper.toEntity(scheduledTransfer);
+        if (entity.getStartAt() == null) {
+            entity.setStartAt(OffsetDateTime.now());
+        }
+        validate(entity);
+        entity.setNextRunAt(entity.getStartAt());
+        entity.setRunCount(0);
+        entity.setActive(Boolean.TRUE);
+
+        final ScheduledTransferEntity saved = repository.save(entity);
+        final ScheduledRun run = new ScheduledRun(saved.getId(), saved.getNextRunAt());
+        AfterCommit.run(() -> {
+            final OffsetDateTime until = loadedUntil;
+            if (until != null && run.nextRunAt().isBefore(until)) {
+                wheel.schedule(run);
+            }
+        });
+        return mapper.toDto(saved);
+    }
+
+    /**
+     * Исполнение, уже стоящее в колесе, не будет захвачено неактивным переводом.
+     *
+     * @param id технический идентификатор {@link ScheduledTransferEntity}
+     * @return {@link ScheduledTransferDto}
+     */
+    @Override
+    @Transactional
+    public ScheduledTransferDto cancel(Long id) {
+        final ScheduledTransferEntity entity = repository.findById(id)
+                .orElseThrow(() -> notFoundReturner.getEntityNotFoundException(id, MESSAGE));
+        entity.setActive(Boolean.FALSE);
+        return mapper.toDto(repository.save(entity));
+    }
+
+    /**
+     * Догружает окно предстоящих исполнений и создает переводы, срок которых наступил.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${transfer.scheduled.tick:PT1S}")
+    public void runDue() {
+        load(OffsetDateTime.now());
+        final List<ScheduledRun> due = wheel.advance();
+        for (int from = 0; from < due.size(); from += batchSize) {
+            final List<ScheduledRun> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> create(batch));
+            } catch (RuntimeException e) {
+                log.error("Не созданы переводы по расписанию, {} исполнений будут повторены после {}",
+                        batch.size(), grace, e);
+            }
+        }
+    }
+
+    /**
+     * Окно догружается, когда до его конца остается меньше половины; просроченные исполнения
+     * перечитываются раз в grace.
+     */
+    private void load(OffsetDateTime now) {
+        final OffsetDateTime until = now.plus(window);
+        if (loadedUntil == null) {
+            runRepository.findBefore(until, wheel::schedule);
+            loadedUntil = until;
+            nextCatchUp = now.plus(grace);
+            return;
+        }
+        if (!now.plus(window.dividedBy(2)).isBefore(loadedUntil)) {
+            runRepository.findBetween(loadedUntil, until, wheel::schedule);
+            loadedUntil = until;
+        }
+        if (!now.isBefore(nextCatchUp)) {
+            runRepository.findBefore(now.minus(grace), wheel::schedule);
+            nextCatchUp = now.plus(grace);
+        }
+    }
+
+    private void create(List<ScheduledRun> batch) {
+        final List<Transfer> transfers = runRepository.claim(batch);
+        if (transfers.isEmpty()) {
+            return;
+        }
+        for (Transfer transfer : transfers) {
+            transfer.setId(idAllocator.nextId(transfer.getType()));
+            transfer.setStatus(TransferStatus.NEW);
+            transfer.setChannel(TransferChannel.SCHEDULED);
+            tariffService.apply(transfer);
+        }
+        insertRepository.insertAll(transfers);
+        outboxRepository.appendAll(transfers, TransferStatus.NEW);
+        transfers.forEach(totalsService::record);
+        transfers.forEach(recentTransferService::record);
+        transfers.forEach(transfer -> eventPublisher.publishEvent(TransferCreatedEvent.of(transfer)));
+        log.info("Создано переводов по расписанию: {}", transfers.size());
+    }
+
+    private static void validate(ScheduledTransferEntity entity) {
+        if (entity.getTransferType() == null || entity.getPayee() == null || entity.getAccountDetailsId() == null) {
+            throw new ValidationException("Вид перевода, получатель и счет списания обязательны");
+        }
+        if (!entity.getTransferType().isPayeeValid(entity.getPayee())) {
+            throw new ValidationException("Неверный номер получателя для перевода " + entity.getTransferType() +
+                    ": счет - положительное число, карта - 16 цифр, телефон - 10 цифр без +7");
+        }
+        if (entity.getAmount() == null || entity.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new ValidationException("Сумма перевода должна быть положительной");
+        }
+        if (entity.getEndAt() != null && entity.getEndAt().isBefore(entity.getStartAt())) {
+            throw new ValidationException("Окончание расписания раньше первого исполнения");
+        }
+        validatePeriod(entity.getPeriod());
+    }
+
+    private static void validatePeriod(String value) {
+        if (value == null) {
+            return;
+        }
+        try {
+            final Period period = Period.parse(value);
+            if (period.isNegative() || period.isZero()) {
+                throw new ValidationException("Период повтора должен быть положительным");
+            }
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Период повтора задается в ISO 8601, например P1M");
+        }
+    }
+}
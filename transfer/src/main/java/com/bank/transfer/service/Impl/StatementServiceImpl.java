@@ -0,0 +1,116 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.common.exception.ValidationException;
+import com.bank.transfer.repository.StatementLine;
+import com.bank.transfer.repository.StatementRepository;
+import com.bank.transfer.service.StatementService;
+import com.bank.transfer.service.common.StatementFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.Period;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Реализация {@link StatementService}.
+ */
+@Service
+public class StatementServiceImpl implements StatementService {
+
+    private static final String CSV_HEADER = "type,id,payee,amount,purpose,status,created_at\n";
+
+    private final StatementRepository repository;
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+    private final Period maxPeriod;
+    private final ZoneId zone;
+
+    public StatementServiceImpl(StatementRepository repository,
+                                ObjectMapper objectMapper,
+                                @Value("${transfer.statement.page-size:1000}") int pageSize,
+                                @Value("${transfer.statement.max-period:P1Y}") Period maxPeriod,
+                                @Value("${transfer.statement.zone:Europe/Moscow}") ZoneId zone) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.pageSize = pageSize;
+        this.maxPeriod = maxPeriod;
+        this.zone = zone;
+    }
+
+    /**
+     * @param from первый день периода
+     * @param to   последний день периода
+     */
+    @Override
+    public void validate(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new ValidationException("Начало периода позже его конца");
+        }
+        if (from.plus(maxPeriod).isBefore(to)) {
+            throw new ValidationException("Период выписки длиннее " + maxPeriod);
+        }
+    }
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @param from             первый день периода
+     * @param to               последний день периода
+     * @param format           формат выписки
+     * @param out              поток ответа
+     * @throws IOException если клиент оборвал соединение
+     */
+    @Override
+    public void write(Long accountDetailsId, LocalDate from, LocalDate to, StatementFormat format, OutputStream out)
+            throws IOException {
+        validate(from, to);
+        final OffsetDateTime start = from.atStartOfDay(zone).toOffsetDateTime();
+        final OffsetDateTime end = to.plusDays(1).atStartOfDay(zone).toOffsetDateTime();
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == StatementFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+        List<StatementLine> page = repository.findFirst(accountDetailsId, start, end, pageSize);
+        while (!page.isEmpty()) {
+            for (StatementLine line : page) {
+                writer.write(format == StatementFormat.CSV ? toCsv(line) : objectMapper.writeValueAsString(line));
+                writer.write('\n');
+            }
+            writer.flush();
+            if (page.size() < pageSize) {
+                break;
+            }
+            page = repository.findAfter(accountDetailsId, page.get(page.size() - 1), end, pageSize);
+        }
+        writer.flush();
+    }
+
+    private static String toCsv(StatementLine line) {
+        return String.join(",", line.type().name(), line.id().toString(), line.payee().toString(),
+                line.amount().toPlainString(), escape(line.purpose()),
+                line.status() == null ? "" : line.status().name(), line.createdAt().toString());
+    }
+
+    /**
+     * Экранирование по RFC 4180: поле с разделителем, кавычкой или переводом строки берется в кавычки.
+     */
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 &&
+                value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
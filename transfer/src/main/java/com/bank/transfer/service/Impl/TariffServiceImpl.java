@@ -0,0 +1,114 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.common.exception.ValidationException;
+import com.bank.transfer.dto.TariffDto;
+import com.bank.transfer.entity.TariffEntity;
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferChannel;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.mapper.TariffMapper;
+import com.bank.transfer.repository.TariffRepository;
+import com.bank.transfer.service.TariffService;
+import com.bank.transfer.service.common.AfterCommit;
+import com.bank.transfer.service.common.TariffTable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Реализация {@link TariffService}.
+ * Текущая {@link TariffTable} лежит в volatile поле и заменяется одной записью ссылки.
+ * Перечитывание и замена после фиксации идут под одним монитором, поэтому перечитывание, начатое
+ * до фиксации замены, не вернет старые тарифы поверх новых.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TariffServiceImpl implements TariffService {
+
+    private final TariffRepository repository;
+    private final TariffMapper mapper;
+    private final Object swapLock = new Object();
+    private volatile TariffTable table = TariffTable.compile(List.of());
+
+    /**
+     * @param transfer {@link Transfer}
+     */
+    @Override
+    public void apply(Transfer transfer) {
+        if (transfer.getChannel() == null) {
+            transfer.setChannel(TransferChannel.API);
+        }
+        if (transfer.getAmount() != null) {
+            transfer.setFee(table.fee(transfer.getType(), transfer.getChannel(), transfer.getAmount()));
+        }
+    }
+
+    /**
+     * @param type    вид перевода
+     * @param channel канал
+     * @param amount  сумма перевода
+     * @return комиссия по текущим тарифам
+     */
+    @Override
+    public BigDecimal calculate(TransferType type, TransferChannel channel, BigDecimal amount) {
+        return table.fee(type, channel, amount);
+    }
+
+    /**
+     * @return лист {@link TariffDto}
+     */
+    @Override
+    public List<TariffDto> findAll() {
+        return mapper.toDtoList(repository.findAll());
+    }
+
+    /**
+     * Тарифы компилируются до записи, поэтому ошибочный набор не попадает ни в базу, ни в память.
+     *
+     * @param tariffs лист {@link TariffDto}
+     * @return лист {@link TariffDto}
+     */
+    @Override
+    @Transactional
+    public List<TariffDto> replaceAll(List<TariffDto> tariffs) {
+        final List<TariffEntity> entities = mapper.toEntityList(tariffs);
+        final TariffTable compiled = TariffTable.compile(entities);
+
+        repository.deleteAllInBatch();
+        final List<TariffEntity> saved = repository.saveAll(entities);
+        AfterCommit.run(() -> swap(compiled));
+
+        return mapper.toDtoList(saved);
+    }
+
+    /**
+     * Перечитывает тарифы из базы при старте и периодически. Если набор в базе не компилируется,
+     * остаются прежние тарифы.
+     */
+    @Override
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${transfer.tariff.refresh-interval:PT1M}")
+    public void reload() {
+        synchronized (swapLock) {
+            try {
+                table = TariffTable.compile(repository.findAll());
+            } catch (ValidationException e) {
+                log.error("Тарифы в базе не загружены, действуют прежние: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void swap(TariffTable compiled) {
+        synchronized (swapLock) {
+            table = compiled;
+        }
+        log.info("Загружено тарифов: {}", compiled.size());
+    }
+}
@@ -0,0 +1,65 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.TransferArchiveRepository;
+import com.bank.transfer.service.TransferArchiveService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Реализация {@link TransferArchiveService}.
+ * Каждая пачка - отдельный запрос и отдельная транзакция, поэтому перенос не держит долгих блокировок,
+ * а несколько экземпляров делят работу через SKIP LOCKED.
+ */
+@Slf4j
+@Service
+public class TransferArchiveServiceImpl implements TransferArchiveService {
+
+    private final TransferArchiveRepository repository;
+    private final Duration age;
+    private final int batchSize;
+    private final Map<TransferType, Counter> moved = new EnumMap<>(TransferType.class);
+
+    public TransferArchiveServiceImpl(TransferArchiveRepository repository,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${transfer.archive.age:P365D}") Duration age,
+                                      @Value("${transfer.archive.batch-size:1000}") int batchSize) {
+        this.repository = repository;
+        this.age = age;
+        this.batchSize = batchSize;
+        for (TransferType type : TransferType.values()) {
+            moved.put(type, Counter.builder("transfer.archive.moved").tag("type", type.name())
+                    .description("Переводы, перенесенные в архив").register(meterRegistry));
+        }
+    }
+
+    /**
+     * Переводы в статусах NEW и PROCESSING не переносятся, их заберет исполнение или восстановление.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${transfer.archive.interval:PT1M}")
+    public void archive() {
+        final OffsetDateTime before = OffsetDateTime.now().minus(age);
+        for (TransferType type : TransferType.values()) {
+            long total = 0;
+            int count;
+            do {
+                count = repository.move(type, before, batchSize);
+                total += count;
+            } while (count == batchSize);
+            if (total > 0) {
+                moved.get(type).increment(total);
+                log.info("Перенесено в архив {} переводов вида {}", total, type);
+            }
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.common.exception.ValidationException;
+import com.bank.transfer.dto.AccountTransferDto;
+import com.bank.transfer.dto.TransferBatchDto;
+import com.bank.transfer.entity.TransferBatchEntity;
+import com.bank.transfer.entity.TransferBatchStatus;
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferChannel;
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.mapper.TransferBatchMapper;
+import com.bank.transfer.repository.TransferBatchProgress;
+import com.bank.transfer.repository.TransferBatchRepository;
+import com.bank.transfer.repository.TransferBatchRow;
+import com.bank.transfer.repository.TransferBatchRowRepository;
+import com.bank.transfer.repository.TransferInsertRepository;
+import com.bank.transfer.repository.TransferOutboxRepository;
+import com.bank.transfer.service.IdempotencyService;
+import com.bank.transfer.service.RecentTransferService;
+import com.bank.transfer.service.TariffService;
+import com.bank.transfer.service.TransferBatchService;
+import com.bank.transfer.service.TransferExecutionService;
+import com.bank.transfer.service.TransferTotalsService;
+import com.bank.transfer.service.common.AfterCommit;
+import com.bank.transfer.service.common.EntityNotFoundReturner;
+import com.bank.transfer.service.common.StatementFormat;
+import com.bank.transfer.service.common.TransferCreatedEvent;
+import com.bank.transfer.service.common.TransferIdAllocator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Реализация {@link TransferBatchService}.
+ * Строки проверяются по мере чтения, принятые копятся до размера части и записываются одной транзакцией:
+ * переводы, outbox и результаты строк - пакетными INSERT через JDBC, id - из заранее выделенных блоков.
+ * После фиксации части переводы ставятся в очередь исполнения без ожидания, остальные исполнит восстановление.
+ * Записанные части остаются в силе при обрыве загрузки, отчет по строкам показывает, что именно создано.
+ * Повтор загрузки с тем же ключом продолжает пакет после последней записанной строки. Одновременные повторы
+ * не создают перевод дважды: часть с уже записанным номером строки нарушает первичный ключ
+ * transfer_batch_row и откатывается целиком.
+ */
+@Slf4j
+@Service
+public class TransferBatchServiceImpl implements TransferBatchService {
+
+    private static final String MESSAGE = "Не найден пакет переводов с ID ";
+    private static final String CSV_HEADER = "line_no,transfer_id,error\n";
+    private static final int CENTS_SCALE = 2;
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final String BOM = "\uFEFF";
+    private static final Set<String> HEADER_COLUMNS = Set.of("account_number", "accountnumber", "amount",
+            "purpose");
+
+    private final TransferBatchRepository batchRepository;
+    private final TransferBatchRowRepository rowRepository;
+    private final TransferBatchMapper mapper;
+    private final TransferInsertRepository insertRepository;
+    private final TransferOutboxRepository outboxRepository;
+    private final TransferTotalsService totalsService;
+    private final RecentTransferService recentTransferService;
+    private final TariffService tariffService;
+    private final TransferExecutionService executionService;
+    private final TransferIdAllocator idAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final EntityNotFoundReturner notFoundReturner;
+    private final int chunkSize;
+    private final int pageSize;
+
+    public TransferBatchServiceImpl(TransferBatchRepository batchRepository,
+                                    TransferBatchRowRepository rowRepository,
+                                    TransferBatchMapper mapper,
+                                    TransferInsertRepository insertRepository,
+                                    TransferOutboxRepository outboxRepository,
+                                    TransferTotalsService totalsService,
+                                    RecentTransferService recentTransferService,
+                                    TariffService tariffService,
+                                    TransferExecutionService executionService,
+                                    TransferIdAllocator idAllocator,
+                                    TransactionTemplate transactionTemplate,
+                                    ObjectMapper objectMapper,
+                                    EntityNotFoundReturner notFoundReturner,
+                                    @Value("${transfer.batch.chunk-size:1000}") int chunkSize,
+                                    @Value("${transfer.batch.page-size:1000}") int pageSize) {
+        this.batchRepository = batchRepository;
+        this.rowRepository = rowRepository;
+        this.mapper = mapper;
+        this.insertRepository = insertRepository;
+        this.outboxRepository = outboxRepository;
+        this.totalsService = totalsService;
+        this.recentTransferService = recentTransferService;
+        this.tariffService = tariffService;
+        this.executionService = executionService;
+        this.idAllocator = idAllocator;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.notFoundReturner = notFoundReturner;
+        this.chunkSize = chunkSize;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @param idempotencyKey   ключ идемпотентности пакета, может отсутствовать
+     * @param format           формат пакета
+     * @param body             поток тела запроса
+     * @return {@link TransferBatchDto} после чтения всех строк или обрыва загрузки
+     */
+    @Override
+    public TransferBatchDto upload(Long accountDetailsId, String idempotencyKey, StatementFormat format,
+                                   InputStream body) {
+        if (accountDetailsId == null) {
+            throw new ValidationException("Не указан счет списания");
+        }
+        final Optional<TransferBatchEntity> existing = idempotencyKey == null ? Optional.empty() :
+                batchRepository.findByAccountDetailsIdAndIdempotencyKey(accountDetailsId, checkKey(idempotencyKey));
+        if (existing.isPresent() && existing.get().getStatus() == TransferBatchStatus.COMPLETED) {
+            return mapper.toDto(existing.get());
+        }
+        final TransferBatchEntity batch = existing.orElseGet(() -> batchRepository.save(new TransferBatchEntity(null,
+                accountDetailsId, idempotencyKey, TransferBatchStatus.RECEIVING, 0, 0, 0, OffsetDateTime.now(),
+                null)));
+        final int after = existing.isPresent() ? resume(batch) : 0;
+        try {
+            read(batch, format, body, after);
+            batch.setStatus(TransferBatchStatus.COMPLETED);
+        } catch (IOException e) {
+            log.warn("Загрузка пакета {} прервана: {}", batch.getId(), e.getMessage());
+            batch.setStatus(TransferBatchStatus.FAILED);
+        } catch (RuntimeException e) {
+            batch.setStatus(TransferBatchStatus.FAILED);
+            finish(batch);
+            throw e;
+        }
+        return mapper.toDto(finish(batch));
+    }
+
+    /**
+     * @param id технический идентификатор {@link TransferBatchEntity}
+     * @return {@link TransferBatchDto}
+     */
+    @Override
+    public TransferBatchDto findById(Long id) {
+        return mapper.toDto(batchRepository.findById(id)
+                .orElseThrow(() -> notFoundReturner.getEntityNotFoundException(id, MESSAGE)));
+    }
+
+    /**
+     * @param id     технический идентификатор {@link TransferBatchEntity}
+     * @param format формат отчета
+     * @param out    поток ответа
+     * @throws IOException если клиент оборвал соединение
+     */
+    @Override
+    public void writeRows(Long id, StatementFormat format, OutputStream out) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == StatementFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+        List<TransferBatchRow> page = rowRepository.findAfter(id, 0, pageSize);
+        while (!page.isEmpty()) {
+            for (TransferBatchRow row : page) {
+                writer.write(format == StatementFormat.CSV ? toCsv(row) : objectMapper.writeValueAsString(row));
+                writer.write('\n');
+            }
+            writer.flush();
+            if (page.size() < pageSize) {
+                break;
+            }
+            page = rowRepository.findAfter(id, page.get(page.size() - 1).lineNo(), pageSize);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Счетчики пакета пересчитываются по записанным строкам: прерванная загрузка могла не сохранить последние.
+     *
+     * @return номер последней записанной строки, с которой продолжается чтение
+     */
+    private int resume(TransferBatchEntity batch) {
+        final TransferBatchProgress progress = rowRepository.findProgress(batch.getId());
+        batch.setStatus(TransferBatchStatus.RECEIVING);
+        batch.setAcceptedRows(progress.acceptedRows());
+        batch.setRejectedRows(progress.rejectedRows());
+        batch.setTotalRows(progress.acceptedRows() + progress.rejectedRows());
+        batch.setFinishedAt(null);
+        batchRepository.save(batch);
+        log.info("Пакет {} продолжается после строки {}", batch.getId(), progress.lastLineNo());
+        return progress.lastLineNo();
+    }
+
+    /**
+     * Строки до after включительно уже записаны прежней загрузкой с тем же ключом и пропускаются.
+     */
+    private void read(TransferBatchEntity batch, StatementFormat format, InputStream body, int after)
+            throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        final Chunk chunk = new Chunk();
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (lineNo == 1 && line.startsWith(BOM)) {
+                line = line.substring(1);
+            }
+            if (lineNo <= after || line.isBlank() || lineNo == 1 && format == StatementFormat.CSV && isHeader(line)) {
+                continue;
+            }
+            try {
+                chunk.accept(lineNo, parse(line, format, batch.getAccountDetailsId()));
+            } catch (ValidationException e) {
+                chunk.reject(lineNo, e.getMessage());
+            }
+            if (chunk.size() >= chunkSize) {
+                flush(batch, chunk);
+            }
+        }
+        flush(batch, chunk);
+    }
+
+    /**
+     * Часть записывается одной транзакцией вместе со счетчиками пакета.
+     */
+    private void flush(TransferBatchEntity batch, Chunk chunk) {
+        if (chunk.size() == 0) {
+            return;
+        }
+        final int accepted = batch.getAcceptedRows();
+        final int rejected = batch.getRejectedRows();
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch, chunk));
+        } catch (RuntimeException e) {
+            batch.setAcceptedRows(accepted);
+            batch.setRejectedRows(rejected);
+            batch.setTotalRows(accepted + rejected);
+            throw e;
+        }
+        chunk.clear();
+    }
+
+    private void write(TransferBatchEntity batch, Chunk chunk) {
+        final List<TransferBatchRow> rows = new ArrayList<>(chunk.rejected);
+        for (int i = 0; i < chunk.transfers.size(); i++) {
+            final Transfer transfer = chunk.transfers.get(i);
+            transfer.setId(idAllocator.nextId(TransferType.ACCOUNT));
+            transfer.setStatus(TransferStatus.NEW);
+            transfer.setChannel(TransferChannel.BATCH);
+            tariffService.apply(transfer);
+            rows.add(new TransferBatchRow(chunk.lines.get(i), transfer.getId(), null));
+        }
+        insertRepository.insertAll(chunk.transfers);
+        outboxRepository.appendAll(chunk.transfers, TransferStatus.NEW);
+        chunk.transfers.forEach(totalsService::record);
+        chunk.transfers.forEach(recentTransferService::record);
+        rowRepository.insertAll(batch.getId(), rows);
+
+        batch.setAcceptedRows(batch.getAcceptedRows() + chunk.transfers.size());
+        batch.setRejectedRows(batch.getRejectedRows() + chunk.rejected.size());
+        batch.setTotalRows(batch.getAcceptedRows() + batch.getRejectedRows());
+        batchRepository.save(batch);
+
+        final List<TransferCreatedEvent> events = chunk.transfers.stream().map(TransferCreatedEvent::of).toList();
+        AfterCommit.run(() -> executionService.offer(events));
+    }
+
+    private TransferBatchEntity finish(TransferBatchEntity batch) {
+        batch.setFinishedAt(OffsetDateTime.now());
+        return batchRepository.save(batch);
+    }
+
+    private Transfer parse(String line, StatementFormat format, Long accountDetailsId) {
+        final Long accountNumber;
+        final BigDecimal amount;
+        final String purpose;
+        if (format == StatementFormat.CSV) {
+            final List<String> fields = splitCsv(line);
+            if (fields.size() < 2 || fields.size() > 3) {
+                throw new ValidationException("Ожидается номер счета, сумма и цель перевода");
+            }
+            try {
+                accountNumber = Long.valueOf(fields.get(0).trim());
+                amount = new BigDecimal(fields.get(1).trim());
+            } catch (NumberFormatException e) {
+                throw new ValidationException("Номер счета или сумма не являются числом");
+            }
+            purpose = fields.size() == 3 ? fields.get(2) : null;
+        } else {
+            final AccountTransferDto row = readJson(line);
+            accountNumber = row.getAccountNumber();
+            amount = row.getAmount();
+            purpose = row.getPurpose();
+        }
+        validate(accountNumber, amount);
+        return TransferType.ACCOUNT.newTransfer(accountNumber, amount, purpose, accountDetailsId);
+    }
+
+    private AccountTransferDto readJson(String line) {
+        try {
+            return objectMapper.readValue(line, AccountTransferDto.class);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Строка не является объектом JSON перевода");
+        }
+    }
+
+    private static void validate(Long accountNumber, BigDecimal amount) {
+        if (accountNumber == null) {
+            throw new ValidationException("Не указан номер счета получателя");
+        }
+        if (amount == null || amount.signum() <= 0) {
+            throw new ValidationException("Сумма перевода должна быть положительной");
+        }
+        if (amount.stripTrailingZeros().scale() > CENTS_SCALE) {
+            throw new ValidationException("У суммы перевода больше двух знаков после запятой");
+        }
+    }
+
+    /**
+     * Заголовок - строка только из известных имен колонок, любая другая первая строка разбирается как данные
+     * и при ошибке попадает в отчет отклоненной.
+     */
+    private static boolean isHeader(String line) {
+        for (String field : splitCsv(line)) {
+            if (!HEADER_COLUMNS.contains(field.strip().toLowerCase(Locale.ROOT))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String checkKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException(IdempotencyService.HEADER + " должен быть непустым и не длиннее " +
+                    MAX_KEY_LENGTH);
+        }
+        return idempotencyKey;
+    }
+
+    /**
+     * Разбор строки по RFC 4180: поле в кавычках может содержать разделитель, кавычка в нем удваивается.
+     */
+    private static List<String> splitCsv(String line) {
+        final List<String> fields = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (quoted && c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                field.append('"');
+                i++;
+            } else if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String toCsv(TransferBatchRow row) {
+        final String error = row.error() == null ? "" : '"' + row.error().replace("\"", "\"\"") + '"';
+        return String.join(",", Integer.toString(row.lineNo()),
+                row.transferId() == null ? "" : row.transferId().toString(), error);
+    }
+
+    /**
+     * Строки текущей части: принятые переводы с номерами строк и отклоненные строки
+     */
+    private static final class Chunk {
+
+        private final List<Transfer> transfers = new ArrayList<>();
+        private final List<Integer> lines = new ArrayList<>();
+        private final List<TransferBatchRow> rejected = new ArrayList<>();
+
+        private void accept(int lineNo, Transfer transfer) {
+            transfers.add(transfer);
+            lines.add(lineNo);
+        }
+
+        private void reject(int lineNo, String error) {
+            rejected.add(new TransferBatchRow(lineNo, null, error));
+        }
+
+        private int size() {
+            return transfers.size() + rejected.size();
+        }
+
+        private void clear() {
+            transfers.clear();
+            lines.clear();
+            rejected.clear();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.repository.TransferOutboxRepository;
+import com.bank.transfer.service.TransferBatchWriter;
+import com.bank.transfer.service.RecentTransferService;
+import com.bank.transfer.service.TransferTotalsService;
+import com.bank.transfer.service.common.TransferCreatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Реализация {@link TransferBatchWriter}.
+ * Идентификаторы берутся из последовательности блоками, поэтому Hibernate отправляет вставки пачкой JDBC,
+ * а драйвер с reWriteBatchedInserts склеивает их в многострочный INSERT. Пачку собирает первый запрос:
+ * она закрывается через transfer.group-commit.linger или при достижении max-batch-size.
+ * Ошибка пачки не должна проваливать чужие запросы, поэтому после нее переводы записываются по одному.
+ */
+@Slf4j
+@Service
+public class TransferBatchWriterImpl implements TransferBatchWriter {
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransferOutboxRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransferTotalsService totalsService;
+    private final RecentTransferService recentTransferService;
+    private final boolean enabled;
+    private final Duration linger;
+    private final int maxBatchSize;
+    private final int flushers;
+    private final BlockingQueue<Pending<?>> queue;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TransferBatchWriterImpl(TransactionTemplate transactionTemplate,
+                                   TransferOutboxRepository outboxRepository,
+                                   ApplicationEventPublisher eventPublisher,
+                                   TransferTotalsService totalsService,
+                                   RecentTransferService recentTransferService,
+                                   @Value("${transfer.group-commit.enabled:false}") boolean enabled,
+                                   @Value("${transfer.group-commit.linger:PT0.002S}") Duration linger,
+                                   @Value("${transfer.group-commit.max-batch-size:200}") int maxBatchSize,
+                                   @Value("${transfer.group-commit.flushers:2}") int flushers,
+                                   @Value("${transfer.group-commit.queue-capacity:10000}") int queueCapacity) {
+        this.transactionTemplate = transactionTemplate;
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.totalsService = totalsService;
+        this.recentTransferService = recentTransferService;
+        this.enabled = enabled;
+        this.linger = linger;
+        this.maxBatchSize = maxBatchSize;
+        this.flushers = flushers;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < flushers; i++) {
+            final Thread thread = new Thread(this::flushLoop, "transfer-group-commit-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread thread : threads) {
+            thread.join(linger.toMillis() + TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param transfer новый перевод
+     * @param <T>      тип перевода
+     * @return тот же перевод с идентификатором после фиксации пачки
+     */
+    @Override
+    public <T extends Transfer> CompletableFuture<T> submit(T transfer) {
+        final Pending<T> pending = new Pending<>(transfer, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            pending.future().completeExceptionally(
+                    new RejectedExecutionException("Очередь групповой записи переводов переполнена"));
+        }
+        return pending.future();
+    }
+
+    private void flushLoop() {
+        final List<Pending<?>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                final Pending<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch, System.nanoTime() + linger.toNanos());
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.forEach(pending -> pending.future().completeExceptionally(
+                        new IllegalStateException("Перевод не записан")));
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<Pending<?>> batch, long deadline) throws InterruptedException {
+        while (batch.size() < maxBatchSize) {
+            final long remaining = deadline - System.nanoTime();
+            final Pending<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<Pending<?>> batch) {
+        try {
+            insert(batch);
+            batch.forEach(Pending::complete);
+        } catch (RuntimeException e) {
+            log.warn("Пачка из {} переводов не записана, записываем по одному", batch.size(), e);
+            for (Pending<?> pending : batch) {
+                try {
+                    insert(List.of(pending));
+                    pending.complete();
+                } catch (RuntimeException single) {
+                    pending.future().completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    private void insert(List<Pending<?>> batch) {
+        final List<Transfer> transfers = batch.stream().<Transfer>map(Pending::transfer).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Transfer transfer : transfers) {
+                    transfer.setStatus(TransferStatus.NEW);
+                    entityManager.persist(transfer);
+                }
+                entityManager.flush();
+                outboxRepository.appendAll(transfers, TransferStatus.NEW);
+                transfers.forEach(totalsService::record);
+                transfers.forEach(recentTransferService::record);
+                transfers.forEach(transfer -> eventPublisher.publishEvent(TransferCreatedEvent.of(transfer)));
+            });
+        } catch (RuntimeException e) {
+            transfers.forEach(transfer -> transfer.setId(null));
+            throw e;
+        }
+    }
+
+    private record Pending<T extends Transfer>(T transfer, CompletableFuture<T> future) {
+
+        private void complete() {
+            future.complete(transfer);
+        }
+    }
+}
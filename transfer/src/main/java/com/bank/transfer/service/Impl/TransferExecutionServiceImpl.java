@@ -0,0 +1,355 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.transfer.client.AccountClient;
+import com.bank.transfer.dto.LedgerEntryDto;
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.TransferOrder;
+import com.bank.transfer.repository.TransferStatusRepository;
+import com.bank.transfer.service.PayeeResolver;
+import com.bank.transfer.service.PhoneAccountResolver;
+import com.bank.transfer.service.TransferExecutionService;
+import com.bank.transfer.service.common.KeyedLaneExecutor;
+import com.bank.transfer.service.common.TransferCreatedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityNotFoundException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Реализация {@link TransferExecutionService}.
+ * Перевод исполняется после фиксации транзакции сохранения в полосе счета списания {@link KeyedLaneExecutor}:
+ * переводы одного счета исполняются по очереди, разных счетов - параллельно.
+ * Если перевод не поместился в полосу или account-app ответил сбоем, счет приостанавливается:
+ * его следующие переводы не исполняются и остаются в NEW или PROCESSING, чтобы не обогнать неисполненный.
+ * {@link #recover()} забирает все незавершенные переводы приостановленного счета, ставит их в полосу
+ * в порядке создания и последней задачей возобновляет счет, если за это время ничего не сорвалось
+ * и ни один перевод счета не был пропущен. Падение приложения оставляет перевод в PROCESSING,
+ * его подбирает то же восстановление по давности.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransferExecutionServiceImpl implements TransferExecutionService {
+
+    private static final String STILL_PARKED = "Счет {} остается приостановленным до следующего восстановления: {}";
+
+    private final TransferStatusRepository statusRepository;
+    private final PayeeResolver payeeResolver;
+    private final PhoneAccountResolver phoneAccountResolver;
+    private final AccountClient accountClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transfer.execution.pool-size:64}")
+    private int poolSize;
+
+    @Value("${transfer.execution.lane-capacity:1000}")
+    private int laneCapacity;
+
+    @Value("${transfer.execution.offer-timeout:PT1S}")
+    private Duration offerTimeout;
+
+    @Value("${transfer.execution.stale-after:PT1M}")
+    private Duration staleAfter;
+
+    @Value("${transfer.execution.recovery-batch-size:500}")
+    private int recoveryBatchSize;
+
+    private final ConcurrentMap<Long, Parking> parked = new ConcurrentHashMap<>();
+
+    private KeyedLaneExecutor executor;
+
+    private ExecutorService drainer;
+
+    @PostConstruct
+    void start() {
+        executor = new KeyedLaneExecutor("transfer-lane-", poolSize, laneCapacity, offerTimeout);
+        drainer = Executors.newSingleThreadExecutor();
+        for (int lane = 0; lane < executor.getLanes(); lane++) {
+            final int current = lane;
+            Gauge.builder("transfer.execution.lane.depth", executor, e -> e.getDepth(current))
+                    .tag("lane", Integer.toString(lane))
+                    .description("Переводы в очереди полосы исполнения")
+                    .register(meterRegistry);
+        }
+        Gauge.builder("transfer.execution.parked", parked, Map::size)
+                .description("Счета с приостановленным исполнением переводов")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        drainer.shutdownNow();
+        if (!executor.shutdown(staleAfter)) {
+            log.warn("Не дождались исполнения переводов, их повторит восстановление после запуска");
+        }
+    }
+
+    /**
+     * @param event {@link TransferCreatedEvent}
+     */
+    @Override
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCreated(TransferCreatedEvent event) {
+        if (skipParked(event.accountDetailsId())) {
+            return;
+        }
+        try {
+            executor.execute(event.accountDetailsId(), () -> executeLive(event));
+        } catch (RejectedExecutionException e) {
+            park(event.accountDetailsId());
+            log.warn("Перевод {} {} остается NEW, его исполнит восстановление: {}", event.type(), event.id(),
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Счет, перевод которого не поместился, приостанавливается, поэтому его более поздние переводы
+     * не обгонят не поместившийся; переводы других счетов продолжают ставиться.
+     *
+     * @param events {@link TransferCreatedEvent} уже зафиксированных переводов
+     * @return количество поставленных в очередь переводов
+     */
+    @Override
+    public int offer(List<TransferCreatedEvent> events) {
+        int offered = 0;
+        for (TransferCreatedEvent event : events) {
+            if (skipParked(event.accountDetailsId())) {
+                continue;
+            }
+            if (executor.tryExecute(event.accountDetailsId(), () -> executeLive(event))) {
+                offered++;
+            } else {
+                park(event.accountDetailsId());
+            }
+        }
+        return offered;
+    }
+
+    /**
+     * @param type вид перевода
+     * @param id   технический идентификатор перевода
+     */
+    @Override
+    public void execute(TransferType type, Long id) {
+        statusRepository.claim(type, id).ifPresent(this::run);
+    }
+
+    /**
+     * Сначала возобновляются приостановленные счета, затем берутся давние переводы остальных.
+     * Статус меняется при захвате, поэтому следующая пачка не содержит уже взятых переводов.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${transfer.execution.recovery-interval:PT30S}")
+    public void recover() {
+        for (Long accountDetailsId : parked.keySet()) {
+            recoverParked(accountDetailsId);
+        }
+        boolean full;
+        do {
+            final List<TransferOrder> orders = new ArrayList<>();
+            full = false;
+            for (TransferType type : TransferType.values()) {
+                final List<TransferOrder> claimed = statusRepository.claimStale(type, staleAfter,
+                        recoveryBatchSize);
+                full |= claimed.size() == recoveryBatchSize;
+                orders.addAll(claimed);
+            }
+            prefetchPhoneAccounts(orders.stream().filter(order -> order.type() == TransferType.PHONE).toList());
+            orders.sort(TransferOrder.CREATION_ORDER);
+            orders.forEach(this::dispatch);
+            if (!orders.isEmpty()) {
+                log.info("Повторно исполняется переводов: {}", orders.size());
+            }
+        } while (full);
+    }
+
+    /**
+     * Новая отметка приостановки отменяет задачи прошлого восстановления, еще стоящие в полосе.
+     * Переводы всех видов исполняются в порядке создания. Если какого-то вида взята полная пачка,
+     * исполняются только переводы не позже последнего из нее: более поздние могли бы обогнать еще не взятые.
+     * Остальные остаются PROCESSING, следующая пачка берется сразу после исполнения этой.
+     */
+    private void recoverParked(Long accountDetailsId) {
+        final Parking parking = park(accountDetailsId);
+        final List<TransferOrder> orders = new ArrayList<>();
+        TransferOrder cutoff = null;
+        for (TransferType type : TransferType.values()) {
+            final List<TransferOrder> claimed = statusRepository.claimAccount(type, accountDetailsId,
+                    recoveryBatchSize);
+            if (claimed.size() == recoveryBatchSize) {
+                final TransferOrder last = Collections.max(claimed, TransferOrder.CREATION_ORDER);
+                cutoff = cutoff == null || TransferOrder.CREATION_ORDER.compare(last, cutoff) < 0 ? last : cutoff;
+            }
+            orders.addAll(claimed);
+        }
+        final boolean complete = cutoff == null;
+        if (!complete) {
+            final TransferOrder last = cutoff;
+            orders.removeIf(order -> TransferOrder.CREATION_ORDER.compare(order, last) > 0);
+        }
+        prefetchPhoneAccounts(orders.stream().filter(order -> order.type() == TransferType.PHONE).toList());
+        orders.sort(TransferOrder.CREATION_ORDER);
+        try {
+            for (TransferOrder order : orders) {
+                executor.execute(accountDetailsId, () -> {
+                    if (parked.get(accountDetailsId) == parking) {
+                        run(order);
+                    }
+                });
+            }
+            executor.execute(accountDetailsId, complete ? () -> resume(accountDetailsId, parking) :
+                    () -> drainNext(accountDetailsId, parking));
+            log.info("Повторно исполняется переводов приостановленного счета {}: {}", accountDetailsId,
+                    orders.size());
+        } catch (RejectedExecutionException e) {
+            log.warn(STILL_PARKED, accountDetailsId, e.getMessage());
+        }
+    }
+
+    /**
+     * Пачка ставится из отдельного потока: поток полосы не может ждать места в собственной очереди.
+     * Если за время пачки счет снова приостановлен, следующую возьмет плановое восстановление.
+     */
+    private void drainNext(Long accountDetailsId, Parking parking) {
+        if (parked.get(accountDetailsId) != parking) {
+            return;
+        }
+        try {
+            drainer.execute(() -> recoverParked(accountDetailsId));
+        } catch (RejectedExecutionException e) {
+            log.warn(STILL_PARKED, accountDetailsId, e.getMessage());
+        }
+    }
+
+    private void resume(Long accountDetailsId, Parking parking) {
+        parked.computeIfPresent(accountDetailsId, (id, current) -> current == parking && !current.skipped ?
+                null : current);
+    }
+
+    private Parking park(Long accountDetailsId) {
+        final Parking parking = new Parking();
+        parked.put(accountDetailsId, parking);
+        return parking;
+    }
+
+    /**
+     * @return счет приостановлен; пропуск отмечается, чтобы восстановление не возобновило счет раньше времени
+     */
+    private boolean skipParked(Long accountDetailsId) {
+        return parked.computeIfPresent(accountDetailsId, (id, parking) -> {
+            parking.skipped = true;
+            return parking;
+        }) != null;
+    }
+
+    /**
+     * Перевод приостановленного счета остается NEW, его заберет восстановление счета.
+     */
+    private void executeLive(TransferCreatedEvent event) {
+        if (!skipParked(event.accountDetailsId())) {
+            execute(event.type(), event.id());
+        }
+    }
+
+    /**
+     * Один запрос в profile-app на пачку вместо запроса на каждый перевод; при сбое
+     * номера загрузятся по одному при исполнении.
+     */
+    private void prefetchPhoneAccounts(List<TransferOrder> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        try {
+            phoneAccountResolver.resolveAll(orders.stream().map(TransferOrder::payee).distinct().toList());
+        } catch (RuntimeException e) {
+            log.warn("Не удалось загрузить счета по номерам телефонов: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Отклоненный перевод остается в PROCESSING и будет взят следующим восстановлением,
+     * как и перевод счета, приостановленного до исполнения.
+     */
+    private void dispatch(TransferOrder order) {
+        try {
+            executor.execute(order.debitAccountId(), () -> {
+                if (!skipParked(order.debitAccountId())) {
+                    run(order);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            park(order.debitAccountId());
+            log.warn("Перевод {} {} отложен до следующего восстановления: {}", order.type(), order.id(),
+                    e.getMessage());
+        }
+    }
+
+    private void run(TransferOrder order) {
+        final TransferStatus status = post(order);
+        if (status != null) {
+            statusRepository.finish(order.type(), order.id(), status);
+        } else {
+            park(order.debitAccountId());
+        }
+    }
+
+    /**
+     * @return итоговый статус или null, если перевод нужно повторить
+     */
+    private TransferStatus post(TransferOrder order) {
+        try {
+            final Long creditAccountId = payeeResolver.resolve(order.type(), order.payee());
+            accountClient.post(new LedgerEntryDto(order.type().entryKey(order.id()), order.debitAccountId(),
+                    creditAccountId, order.amount()));
+            return TransferStatus.COMPLETED;
+        } catch (EntityNotFoundException e) {
+            log.warn("Перевод {} {} отклонен: {}", order.type(), order.id(), e.getMessage());
+            return TransferStatus.FAILED;
+        } catch (FeignException e) {
+            if (!isRejected(e.status())) {
+                log.warn("Перевод {} {} будет повторен: {}", order.type(), order.id(), e.getMessage());
+                return null;
+            }
+            log.warn("Перевод {} {} отклонен account-app: {}", order.type(), order.id(), e.contentUTF8());
+            return TransferStatus.FAILED;
+        } catch (RuntimeException e) {
+            log.error("Перевод {} {} будет повторен", order.type(), order.id(), e);
+            return null;
+        }
+    }
+
+    /**
+     * @return ответ окончательный: получатель не найден или проводка не прошла проверку
+     */
+    private static boolean isRejected(int status) {
+        return status == 400 || status == 404 || status == 422;
+    }
+
+    /**
+     * Отметка приостановки счета; skipped меняется только внутри вычислений карты parked.
+     */
+    private static final class Parking {
+        private boolean skipped;
+    }
+}
@@ -0,0 +1,298 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.transfer.dto.TransferTotalsDto;
+import com.bank.transfer.entity.TotalPeriod;
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.TransferTotal;
+import com.bank.transfer.repository.TransferTotalRepository;
+import com.bank.transfer.service.TransferTotalsService;
+import com.bank.transfer.service.common.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Реализация {@link TransferTotalsService}.
+ * На счет хранятся копейки и количество переводов за текущие день и месяц по видам переводов,
+ * суммы сбрасываются при смене периода, поэтому чтение и учет перевода - O(1) без обращения к БД.
+ * Суммы счета загружаются из таблицы при первом обращении, приращения копятся отдельно
+ * и периодически дописываются в таблицу. После записи из таблицы читаются строки, измененные
+ * с прошлого чтения любым экземпляром (с запасом refresh-overlap на транзакции, зафиксированные позже
+ * своего updated_at), и значение счета в памяти заменяется на сумму из таблицы плюс еще не записанное
+ * приращение этого экземпляра. Так переводы других экземпляров учитываются в лимитах
+ * не позже чем через checkpoint-interval после их записи.
+ */
+@Slf4j
+@Service
+public class TransferTotalsServiceImpl implements TransferTotalsService {
+
+    private static final int CENTS_SCALE = 2;
+
+    private static final TransferType[] TYPES = TransferType.values();
+
+    private static final long[] NO_DELTA = {0L, 0L};
+
+    private static final OffsetDateTime EPOCH = OffsetDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC);
+
+    private final TransferTotalRepository repository;
+    private final ZoneId zone;
+    private final Duration refreshOverlap;
+    private final ConcurrentMap<Long, AccountTotals> totals = new ConcurrentHashMap<>();
+    private final ConcurrentMap<DeltaKey, long[]> deltas = new ConcurrentHashMap<>();
+    private OffsetDateTime refreshedAt;
+
+    public TransferTotalsServiceImpl(TransferTotalRepository repository,
+                                     @Value("${transfer.totals.zone:Europe/Moscow}") ZoneId zone,
+                                     @Value("${transfer.totals.refresh-overlap:PT1M}") Duration refreshOverlap) {
+        this.repository = repository;
+        this.zone = zone;
+        this.refreshOverlap = refreshOverlap;
+    }
+
+    /**
+     * @param transfer {@link Transfer}
+     */
+    @Override
+    public void record(Transfer transfer) {
+        add(transfer.getType(), transfer.getAccountDetailsId(), transfer.getAmount(), 1);
+    }
+
+    /**
+     * @param type             вид перевода
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @param amount           приращение суммы
+     * @param count            приращение количества переводов
+     */
+    @Override
+    public void add(TransferType type, Long accountDetailsId, BigDecimal amount, int count) {
+        if (accountDetailsId == null || amount == null) {
+            return;
+        }
+        final long cents = amount.setScale(CENTS_SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+        AfterCommit.run(() -> apply(type, accountDetailsId, cents, count));
+    }
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @param period           {@link TotalPeriod}
+     * @return сумма переводов всех видов за текущий период в копейках
+     */
+    @Override
+    public long getTotalCents(Long accountDetailsId, TotalPeriod period) {
+        final LocalDate today = LocalDate.now(zone);
+        final long[] snapshot = account(accountDetailsId, today).snapshot(today.toEpochDay(),
+                TotalPeriod.MONTH.start(today).toEpochDay());
+        return sum(snapshot, period == TotalPeriod.DAY ? 0 : AccountTotals.MONTH);
+    }
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @return {@link TransferTotalsDto}
+     */
+    @Override
+    public TransferTotalsDto findByAccount(Long accountDetailsId) {
+        final LocalDate today = LocalDate.now(zone);
+        final LocalDate month = TotalPeriod.MONTH.start(today);
+        final long[] snapshot = account(accountDetailsId, today).snapshot(today.toEpochDay(), month.toEpochDay());
+        final Map<TransferType, BigDecimal> dayByType = new EnumMap<>(TransferType.class);
+        final Map<TransferType, BigDecimal> monthByType = new EnumMap<>(TransferType.class);
+        for (TransferType type : TYPES) {
+            final int i = type.ordinal();
+            dayByType.put(type, BigDecimal.valueOf(snapshot[i], CENTS_SCALE));
+            monthByType.put(type, BigDecimal.valueOf(snapshot[AccountTotals.MONTH + i], CENTS_SCALE));
+        }
+        return new TransferTotalsDto(accountDetailsId,
+                today, BigDecimal.valueOf(sum(snapshot, 0), CENTS_SCALE),
+                sum(snapshot, AccountTotals.DAY_COUNT), dayByType,
+                month, BigDecimal.valueOf(sum(snapshot, AccountTotals.MONTH), CENTS_SCALE),
+                sum(snapshot, AccountTotals.MONTH_COUNT), monthByType);
+    }
+
+    /**
+     * Записывает накопленные приращения в таблицу, подтягивает суммы, измененные другими экземплярами,
+     * и забывает счета без переводов в текущем месяце.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${transfer.totals.checkpoint-interval:PT5S}")
+    public void checkpoint() {
+        final List<TransferTotal> batch = new ArrayList<>();
+        for (DeltaKey key : deltas.keySet()) {
+            final long[] delta = deltas.remove(key);
+            if (delta != null) {
+                batch.add(new TransferTotal(key.accountDetailsId(), key.period(), key.periodStart(), key.type(),
+                        delta[0], delta[1]));
+            }
+        }
+        if (!batch.isEmpty()) {
+            try {
+                repository.addAll(batch);
+            } catch (RuntimeException e) {
+                log.warn("Не удалось записать суммы переводов, повтор при следующей записи", e);
+                batch.forEach(total -> addDelta(new DeltaKey(total.accountDetailsId(), total.period(),
+                        total.periodStart(), total.type()), total.amountCents(), total.count()));
+            }
+        }
+        final LocalDate today = LocalDate.now(zone);
+        refresh(today);
+        final long month = TotalPeriod.MONTH.start(today).toEpochDay();
+        totals.values().removeIf(account -> account.isBefore(month));
+    }
+
+    /**
+     * Первое чтение берет все строки текущих дня и месяца, так как счета могли загрузиться раньше.
+     * Ошибка чтения не сдвигает отметку, строки прочитаются при следующей записи.
+     */
+    private void refresh(LocalDate today) {
+        if (totals.isEmpty()) {
+            return;
+        }
+        try {
+            final OffsetDateTime now = repository.now();
+            final OffsetDateTime since = refreshedAt == null ? EPOCH : refreshedAt.minus(refreshOverlap);
+            final long day = today.toEpochDay();
+            final long month = TotalPeriod.MONTH.start(today).toEpochDay();
+            for (TransferTotal total : repository.findUpdatedSince(since, today, TotalPeriod.MONTH.start(today))) {
+                final AccountTotals account = totals.get(total.accountDetailsId());
+                if (account != null) {
+                    final long[] pending = deltas.getOrDefault(new DeltaKey(total.accountDetailsId(),
+                            total.period(), total.periodStart(), total.type()), NO_DELTA);
+                    account.set(day, month, total, pending[0], pending[1]);
+                }
+            }
+            refreshedAt = now;
+        } catch (RuntimeException e) {
+            log.warn("Не удалось прочитать суммы переводов других экземпляров", e);
+        }
+    }
+
+    private static long sum(long[] snapshot, int offset) {
+        long sum = 0L;
+        for (int i = 0; i < TYPES.length; i++) {
+            sum += snapshot[offset + i];
+        }
+        return sum;
+    }
+
+    private void apply(TransferType type, Long accountDetailsId, long cents, int count) {
+        final LocalDate today = LocalDate.now(zone);
+        final long day = today.toEpochDay();
+        final long month = TotalPeriod.MONTH.start(today).toEpochDay();
+        account(accountDetailsId, today).add(day, month, type.ordinal(), cents, count);
+        addDelta(new DeltaKey(accountDetailsId, TotalPeriod.DAY, day, type), cents, count);
+        addDelta(new DeltaKey(accountDetailsId, TotalPeriod.MONTH, month, type), cents, count);
+    }
+
+    private void addDelta(DeltaKey key, long cents, long count) {
+        deltas.merge(key, new long[]{cents, count}, (a, b) -> new long[]{a[0] + b[0], a[1] + b[1]});
+    }
+
+    /**
+     * Загрузка идет вне {@link ConcurrentHashMap#computeIfAbsent}, чтобы запрос в БД не блокировал ячейку карты.
+     */
+    private AccountTotals account(Long accountDetailsId, LocalDate today) {
+        final AccountTotals cached = totals.get(accountDetailsId);
+        if (cached != null) {
+            return cached;
+        }
+        final AccountTotals loaded = new AccountTotals();
+        for (TransferTotal total : repository.findCurrent(accountDetailsId, today, TotalPeriod.MONTH.start(today))) {
+            loaded.load(total);
+        }
+        final AccountTotals raced = totals.putIfAbsent(accountDetailsId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private record DeltaKey(long accountDetailsId, TotalPeriod period, long periodStart, TransferType type) {
+    }
+
+    /**
+     * Суммы счета в одном массиве по видам переводов: копейки за день, копейки за месяц,
+     * количество за день и количество за месяц.
+     */
+    private static final class AccountTotals {
+
+        private static final int MONTH = TYPES.length;
+        private static final int DAY_COUNT = 2 * TYPES.length;
+        private static final int MONTH_COUNT = 3 * TYPES.length;
+
+        private final long[] values = new long[MONTH_COUNT + TYPES.length];
+        private long day = Long.MIN_VALUE;
+        private long month = Long.MIN_VALUE;
+
+        synchronized void add(long today, long currentMonth, int type, long cents, long count) {
+            roll(today, currentMonth);
+            values[type] += cents;
+            values[MONTH + type] += cents;
+            values[DAY_COUNT + type] += count;
+            values[MONTH_COUNT + type] += count;
+        }
+
+        synchronized void load(TransferTotal total) {
+            final int type = total.type().ordinal();
+            if (total.period() == TotalPeriod.DAY) {
+                day = total.periodStart();
+                values[type] += total.amountCents();
+                values[DAY_COUNT + type] += total.count();
+            } else {
+                month = total.periodStart();
+                values[MONTH + type] += total.amountCents();
+                values[MONTH_COUNT + type] += total.count();
+            }
+        }
+
+        /**
+         * Заменяет сумму вида перевода за период на итог из таблицы плюс незаписанное приращение.
+         */
+        synchronized void set(long today, long currentMonth, TransferTotal total, long pendingCents,
+                              long pendingCount) {
+            roll(today, currentMonth);
+            final boolean isDay = total.period() == TotalPeriod.DAY;
+            if (total.periodStart() != (isDay ? day : month)) {
+                return;
+            }
+            final int type = total.type().ordinal();
+            values[(isDay ? 0 : MONTH) + type] = total.amountCents() + pendingCents;
+            values[(isDay ? DAY_COUNT : MONTH_COUNT) + type] = total.count() + pendingCount;
+        }
+
+        synchronized long[] snapshot(long today, long currentMonth) {
+            roll(today, currentMonth);
+            return values.clone();
+        }
+
+        synchronized boolean isBefore(long currentMonth) {
+            return month < currentMonth;
+        }
+
+        private void roll(long today, long currentMonth) {
+            if (day != today) {
+                day = today;
+                Arrays.fill(values, 0, MONTH, 0L);
+                Arrays.fill(values, DAY_COUNT, MONTH_COUNT, 0L);
+            }
+            if (month != currentMonth) {
+                month = currentMonth;
+                Arrays.fill(values, MONTH, DAY_COUNT, 0L);
+                Arrays.fill(values, MONTH_COUNT, values.length, 0L);
+            }
+        }
+    }
+}
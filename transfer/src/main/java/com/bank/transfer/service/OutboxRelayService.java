@@ -0,0 +1,15 @@
+package com.bank.transfer.service;
+
+import com.bank.transfer.service.common.TransferEvent;
+
+/**
+ * Публикация событий из outbox в канал событий приложения.
+ * Потребители подписываются на {@link TransferEvent}.
+ */
+public interface OutboxRelayService {
+
+    /**
+     * Разбирает все разделы outbox, которые не разбирает другой экземпляр.
+     */
+    void relay();
+}
@@ -0,0 +1,16 @@
+package com.bank.transfer.service;
+
+import com.bank.transfer.entity.TransferType;
+
+/**
+ * Поиск счета зачисления по реквизитам получателя
+ */
+public interface PayeeResolver {
+
+    /**
+     * @param type  вид перевода
+     * @param payee номер счета, карты или телефона получателя
+     * @return технический идентификатор счета зачисления
+     */
+    Long resolve(TransferType type, Long payee);
+}
@@ -0,0 +1,24 @@
+package com.bank.transfer.service;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Поиск счета зачисления по номеру телефона получателя через profile-app.
+ */
+public interface PhoneAccountResolver {
+
+    /**
+     * @param phoneNumber номер телефона, без +7
+     * @return технический идентификатор счета зачисления
+     * @throws EntityNotFoundException если у номера нет счета
+     */
+    Long resolve(Long phoneNumber);
+
+    /**
+     * @param phoneNumbers номера телефонов, без +7
+     * @return технические идентификаторы счетов зачисления только для номеров, у которых есть счет
+     */
+    Map<Long, Long> resolveAll(Collection<Long> phoneNumbers);
+}
@@ -1,9 +1,11 @@
 package com.bank.transfer.service;
 
 import com.bank.transfer.dto.PhoneTransferDto;
+import com.bank.transfer.dto.TransferSubmissionDto;
 import com.bank.transfer.entity.PhoneTransferEntity;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Сервис для {@link PhoneTransferEntity} и {@link PhoneTransferDto}
@@ -28,6 +30,22 @@ public interface PhoneTransferService {
      */
     PhoneTransferDto save(PhoneTransferDto phoneTransfer);
 
+    /**
+     * Запись через {@link TransferBatchWriter} вместе с одновременными запросами.
+     *
+     * @param phoneTransfer {@link PhoneTransferDto}
+     * @return {@link PhoneTransferDto} после фиксации пачки
+     */
+    CompletableFuture<PhoneTransferDto> submit(PhoneTransferDto phoneTransfer);
+
+    /**
+     * Асинхронный прием через {@link AsyncTransferService}: id выдается сразу, запись идет позже.
+     *
+     * @param phoneTransfer {@link PhoneTransferDto}
+     * @return {@link TransferSubmissionDto} в статусе ACCEPTED
+     */
+    TransferSubmissionDto submitAsync(PhoneTransferDto phoneTransfer);
+
     /**
      * @param phoneTransfer {@link PhoneTransferDto}
      * @param id            технический идентификатор {@link PhoneTransferEntity}
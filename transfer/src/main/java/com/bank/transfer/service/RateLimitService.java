@@ -0,0 +1,29 @@
+package com.bank.transfer.service;
+
+import com.bank.common.exception.TooManyRequestsException;
+
+/**
+ * Ограничение частоты создания переводов по банковскому счету списания и по карте получателя.
+ */
+public interface RateLimitService {
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @throws TooManyRequestsException если лимит по счету исчерпан
+     */
+    void checkAccount(Long accountDetailsId);
+
+    /**
+     * Токен счета возвращается, если отказано по карте: отклоненный запрос не расходует лимит счета.
+     *
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @param cardNumber       номер карты получателя
+     * @throws TooManyRequestsException если исчерпан лимит по счету или по карте
+     */
+    void checkCardTransfer(Long accountDetailsId, Long cardNumber);
+
+    /**
+     * Удаляет корзины ключей, по которым давно не было запросов.
+     */
+    void evictIdle();
+}
@@ -0,0 +1,41 @@
+package com.bank.transfer.service;
+
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.repository.StatementLine;
+import com.bank.transfer.service.common.TransferEvent;
+
+import java.util.List;
+
+/**
+ * Последние переводы со счета всех видов для главного экрана.
+ * Обычный запрос отдается из памяти, таблицы переводов читаются только при промахе кэша.
+ */
+public interface RecentTransferService {
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @return последние переводы со счета, новые первыми
+     */
+    List<StatementLine> findLast(Long accountDetailsId);
+
+    /**
+     * Добавляет созданный или измененный перевод после фиксации транзакции, если счет уже в кэше.
+     *
+     * @param transfer {@link Transfer} с выданным id
+     */
+    void record(Transfer transfer);
+
+    /**
+     * Записывает измененный перевод. Если перевод перенесен на другой счет, кэш прежнего счета сбрасывается
+     * и при следующем запросе загрузится из таблиц уже без этого перевода.
+     *
+     * @param transfer                 {@link Transfer} после изменения
+     * @param previousAccountDetailsId технический идентификатор счета списания до изменения
+     */
+    void record(Transfer transfer, Long previousAccountDetailsId);
+
+    /**
+     * @param event {@link TransferEvent} со статусом перевода
+     */
+    void onTransferEvent(TransferEvent event);
+}
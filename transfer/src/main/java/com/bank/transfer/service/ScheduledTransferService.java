@@ -0,0 +1,33 @@
+package com.bank.transfer.service;
+
+import com.bank.transfer.dto.ScheduledTransferDto;
+import com.bank.transfer.entity.ScheduledTransferEntity;
+
+/**
+ * Сервис {@link ScheduledTransferEntity} {@link ScheduledTransferDto}: разовые и регулярные переводы.
+ */
+public interface ScheduledTransferService {
+
+    /**
+     * @param id технический идентификатор {@link ScheduledTransferEntity}
+     * @return {@link ScheduledTransferDto}
+     */
+    ScheduledTransferDto findById(Long id);
+
+    /**
+     * @param scheduledTransfer {@link ScheduledTransferDto}, period в ISO 8601, без period - разовый перевод
+     * @return {@link ScheduledTransferDto}
+     */
+    ScheduledTransferDto save(ScheduledTransferDto scheduledTransfer);
+
+    /**
+     * @param id технический идентификатор {@link ScheduledTransferEntity}
+     * @return {@link ScheduledTransferDto}, который больше не исполняется
+     */
+    ScheduledTransferDto cancel(Long id);
+
+    /**
+     * Догружает окно предстоящих исполнений и создает переводы, срок которых наступил.
+     */
+    void runDue();
+}
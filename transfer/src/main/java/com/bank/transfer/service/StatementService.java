@@ -0,0 +1,34 @@
+package com.bank.transfer.service;
+
+import com.bank.transfer.service.common.StatementFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Выписка по банковскому счету: переводы со счета всех видов за период.
+ */
+public interface StatementService {
+
+    /**
+     * Проверяет период до начала записи, чтобы ошибка вернулась статусом, а не оборванным ответом.
+     *
+     * @param from первый день периода
+     * @param to   последний день периода
+     */
+    void validate(LocalDate from, LocalDate to);
+
+    /**
+     * Пишет выписку постранично, в памяти держится не больше одной страницы.
+     *
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @param from             первый день периода
+     * @param to               последний день периода
+     * @param format           формат выписки
+     * @param out              поток ответа
+     * @throws IOException если клиент оборвал соединение
+     */
+    void write(Long accountDetailsId, LocalDate from, LocalDate to, StatementFormat format, OutputStream out)
+            throws IOException;
+}
@@ -0,0 +1,50 @@
+package com.bank.transfer.service;
+
+import com.bank.transfer.dto.TariffDto;
+import com.bank.transfer.entity.TariffEntity;
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferChannel;
+import com.bank.transfer.entity.TransferType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Сервис {@link TariffEntity} {@link TariffDto}: комиссии по виду перевода, каналу и диапазону суммы.
+ * Комиссия считается в памяти по скомпилированной таблице, без обращения к базе на каждый перевод.
+ */
+public interface TariffService {
+
+    /**
+     * Проставляет переводу канал по умолчанию, если он не задан, и комиссию по текущим тарифам.
+     *
+     * @param transfer {@link Transfer}
+     */
+    void apply(Transfer transfer);
+
+    /**
+     * @param type    вид перевода
+     * @param channel канал
+     * @param amount  сумма перевода
+     * @return комиссия по текущим тарифам
+     */
+    BigDecimal calculate(TransferType type, TransferChannel channel, BigDecimal amount);
+
+    /**
+     * @return лист {@link TariffDto}
+     */
+    List<TariffDto> findAll();
+
+    /**
+     * Заменяет все тарифы одним набором, переводы видят либо старые, либо новые тарифы целиком.
+     *
+     * @param tariffs лист {@link TariffDto}
+     * @return лист {@link TariffDto}
+     */
+    List<TariffDto> replaceAll(List<TariffDto> tariffs);
+
+    /**
+     * Перечитывает тарифы из базы, например, после замены на другом экземпляре.
+     */
+    void reload();
+}
@@ -0,0 +1,13 @@
+package com.bank.transfer.service;
+
+/**
+ * Перенос старых завершенных переводов в архивные таблицы.
+ * Рабочие таблицы и их индексы остаются небольшими, чтение по id при промахе переходит в архив.
+ */
+public interface TransferArchiveService {
+
+    /**
+     * Переносит переводы старше заданного возраста пачками, пока они не закончатся.
+     */
+    void archive();
+}
@@ -0,0 +1,48 @@
+package com.bank.transfer.service;
+
+import com.bank.transfer.dto.TransferBatchDto;
+import com.bank.transfer.entity.TransferBatchEntity;
+import com.bank.transfer.service.common.StatementFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Сервис {@link TransferBatchEntity} {@link TransferBatchDto}: пакеты переводов по номеру счёта с одного счета,
+ * например, зарплатные. Строки читаются из потока запроса и записываются частями, по каждой строке
+ * сохраняется результат: созданный перевод или причина отклонения.
+ */
+public interface TransferBatchService {
+
+    /**
+     * Строка CSV - номер счета получателя, сумма и необязательная цель перевода, первая строка может быть
+     * заголовком из имен account_number, amount и purpose. Строка NDJSON - объект с полями accountNumber,
+     * amount и purpose. BOM в начале файла пропускается.
+     * Ключ идемпотентности уникален в пределах счета списания: повтор с ключом завершенного пакета возвращает
+     * его без чтения тела, повтор с ключом прерванного - продолжает пакет после последней записанной строки.
+     *
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @param idempotencyKey   ключ идемпотентности пакета, может отсутствовать
+     * @param format           формат пакета
+     * @param body             поток тела запроса
+     * @return {@link TransferBatchDto} после чтения всех строк или обрыва загрузки
+     */
+    TransferBatchDto upload(Long accountDetailsId, String idempotencyKey, StatementFormat format, InputStream body);
+
+    /**
+     * @param id технический идентификатор {@link TransferBatchEntity}
+     * @return {@link TransferBatchDto}, во время загрузки - с числом уже записанных строк
+     */
+    TransferBatchDto findById(Long id);
+
+    /**
+     * Пишет результаты строк постранично, в памяти держится не больше одной страницы.
+     *
+     * @param id     технический идентификатор {@link TransferBatchEntity}
+     * @param format формат отчета
+     * @param out    поток ответа
+     * @throws IOException если клиент оборвал соединение
+     */
+    void writeRows(Long id, StatementFormat format, OutputStream out) throws IOException;
+}
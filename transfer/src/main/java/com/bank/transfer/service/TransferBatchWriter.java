@@ -0,0 +1,24 @@
+package com.bank.transfer.service;
+
+import com.bank.transfer.entity.Transfer;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Групповая запись переводов: одновременные запросы на создание копятся несколько миллисекунд
+ * и вставляются одной пачкой в одной транзакции. Включается transfer.group-commit.enabled.
+ */
+public interface TransferBatchWriter {
+
+    /**
+     * @return включена ли групповая запись
+     */
+    boolean isEnabled();
+
+    /**
+     * @param transfer новый перевод
+     * @param <T>      тип перевода
+     * @return тот же перевод с идентификатором после фиксации пачки
+     */
+    <T extends Transfer> CompletableFuture<T> submit(T transfer);
+}
@@ -0,0 +1,43 @@
+package com.bank.transfer.service;
+
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.service.common.TransferCreatedEvent;
+
+import java.util.List;
+
+/**
+ * Исполнение переводов: поиск получателя и одна бухгалтерская запись в account-app.
+ * Статус перевода проходит NEW - PROCESSING - COMPLETED или FAILED, см. {@link TransferStatus}.
+ */
+public interface TransferExecutionService {
+
+    /**
+     * Ставит сохраненный перевод в очередь исполнения, не задерживая ответ клиенту.
+     *
+     * @param event {@link TransferCreatedEvent}
+     */
+    void onCreated(TransferCreatedEvent event);
+
+    /**
+     * Ставит переводы в очередь исполнения без ожидания места, например, после записи части пакета.
+     * Не поместившиеся переводы остаются в NEW, их исполнит восстановление.
+     *
+     * @param events {@link TransferCreatedEvent} уже зафиксированных переводов
+     * @return количество поставленных в очередь переводов
+     */
+    int offer(List<TransferCreatedEvent> events);
+
+    /**
+     * Исполняет перевод в вызывающем потоке, если он еще в статусе NEW.
+     *
+     * @param type вид перевода
+     * @param id   технический идентификатор перевода
+     */
+    void execute(TransferType type, Long id);
+
+    /**
+     * Повторно исполняет переводы, застрявшие в NEW или PROCESSING.
+     */
+    void recover();
+}
@@ -0,0 +1,50 @@
+package com.bank.transfer.service;
+
+import com.bank.transfer.dto.TransferTotalsDto;
+import com.bank.transfer.entity.TotalPeriod;
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferType;
+
+import java.math.BigDecimal;
+
+/**
+ * Суммы переводов со счета за текущие день и месяц, которые ведутся по мере создания переводов.
+ */
+public interface TransferTotalsService {
+
+    /**
+     * Учитывает созданный перевод после фиксации текущей транзакции.
+     *
+     * @param transfer {@link Transfer}
+     */
+    void record(Transfer transfer);
+
+    /**
+     * Изменяет суммы после фиксации текущей транзакции, например, при изменении перевода.
+     *
+     * @param type             вид перевода
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @param amount           приращение суммы
+     * @param count            приращение количества переводов
+     */
+    void add(TransferType type, Long accountDetailsId, BigDecimal amount, int count);
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @param period           {@link TotalPeriod}
+     * @return сумма переводов всех видов за текущий период в копейках
+     */
+    long getTotalCents(Long accountDetailsId, TotalPeriod period);
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета списания
+     * @return {@link TransferTotalsDto}
+     */
+    TransferTotalsDto findByAccount(Long accountDetailsId);
+
+    /**
+     * Записывает накопленные приращения в таблицу, подтягивает суммы, измененные другими экземплярами,
+     * и забывает счета без переводов в текущем месяце.
+     */
+    void checkpoint();
+}
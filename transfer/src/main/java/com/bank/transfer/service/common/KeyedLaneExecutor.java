@@ -0,0 +1,154 @@
+package com.bank.transfer.service.common;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Исполнитель с полосами по ключу: задачи одного ключа выполняются строго по очереди в одном потоке,
+ * задачи разных ключей - параллельно в разных полосах. У каждой полосы своя ограниченная очередь
+ * и свой поток, поэтому полосы не делят замков, а медленный ключ задерживает только свою полосу.
+ * При заполненной очереди вызывающий поток ждет, затем задача отклоняется.
+ */
+@Slf4j
+public class KeyedLaneExecutor {
+
+    private static final long POLL_MILLIS = 100L;
+
+    private final Lane[] lanes;
+    private final long offerTimeoutNanos;
+
+    /**
+     * @param name         префикс имен потоков
+     * @param lanes        количество полос
+     * @param laneCapacity емкость очереди полосы
+     * @param offerTimeout сколько ждать места в очереди
+     */
+    public KeyedLaneExecutor(String name, int lanes, int laneCapacity, Duration offerTimeout) {
+        if (lanes < 1 || laneCapacity < 1) {
+            throw new IllegalArgumentException("Количество полос и емкость очереди должны быть положительными");
+        }
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.lanes = new Lane[lanes];
+        for (int i = 0; i < lanes; i++) {
+            this.lanes[i] = new Lane(new ArrayBlockingQueue<>(laneCapacity));
+            final Thread thread = new Thread(this.lanes[i], name + i);
+            thread.setDaemon(true);
+            this.lanes[i].thread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * @param key  ключ порядка, например, счет списания
+     * @param task задача
+     * @throws RejectedExecutionException если очередь полосы не освободилась вовремя или исполнитель остановлен
+     */
+    public void execute(long key, Runnable task) {
+        final Lane lane = lanes[lane(key)];
+        if (!lane.running) {
+            throw new RejectedExecutionException("Исполнитель остановлен");
+        }
+        try {
+            if (!lane.queue.offer(task, offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new RejectedExecutionException("Очередь полосы " + lane(key) + " заполнена");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(e);
+        }
+    }
+
+    /**
+     * Ставит задачу, только если в очереди полосы есть место, не дожидаясь его.
+     *
+     * @param key  ключ порядка, например, счет списания
+     * @param task задача
+     * @return false, если очередь полосы заполнена или исполнитель остановлен
+     */
+    public boolean tryExecute(long key, Runnable task) {
+        final Lane lane = lanes[lane(key)];
+        return lane.running && lane.queue.offer(task);
+    }
+
+    /**
+     * @return количество полос
+     */
+    public int getLanes() {
+        return lanes.length;
+    }
+
+    /**
+     * @param lane номер полосы
+     * @return количество задач в очереди полосы
+     */
+    public int getDepth(int lane) {
+        return lanes[lane].queue.size();
+    }
+
+    /**
+     * Новые задачи отклоняются, уже поставленные выполняются.
+     *
+     * @param timeout сколько ждать выполнения поставленных задач
+     * @return все полосы завершились
+     * @throws InterruptedException если ожидание прервано
+     */
+    public boolean shutdown(Duration timeout) throws InterruptedException {
+        for (Lane lane : lanes) {
+            lane.running = false;
+        }
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        for (Lane lane : lanes) {
+            TimeUnit.NANOSECONDS.timedJoin(lane.thread, Math.max(1L, deadline - System.nanoTime()));
+        }
+        for (Lane lane : lanes) {
+            if (lane.thread.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Перемешивание бит, чтобы последовательные id счетов ложились в разные полосы равномерно.
+     */
+    private int lane(long key) {
+        final long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) Long.remainderUnsigned(mixed ^ (mixed >>> 32), lanes.length);
+    }
+
+    private static final class Lane implements Runnable {
+
+        private final BlockingQueue<Runnable> queue;
+        private volatile boolean running = true;
+        private Thread thread;
+
+        private Lane(BlockingQueue<Runnable> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            while (running || !queue.isEmpty()) {
+                final Runnable task;
+                try {
+                    task = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (task == null) {
+                    continue;
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.error("Задача полосы завершилась ошибкой", e);
+                }
+            }
+        }
+    }
+}
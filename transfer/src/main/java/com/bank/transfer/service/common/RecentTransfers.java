@@ -0,0 +1,92 @@
+package com.bank.transfer.service.common;
+
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.StatementLine;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Последние переводы одного счета в кольцевом буфере фиксированного размера.
+ * Новый перевод затирает самый старый, перевод с тем же видом и id заменяется на месте,
+ * поэтому повторная запись после загрузки из базы не дублирует строку.
+ */
+public final class RecentTransfers {
+
+    private static final Comparator<StatementLine> NEWEST_FIRST = Comparator
+            .comparing(StatementLine::createdAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(StatementLine::id)
+            .thenComparing(StatementLine::type)
+            .reversed();
+
+    private final StatementLine[] ring;
+    private int head;
+    private int size;
+
+    /**
+     * @param capacity размер буфера
+     * @param lines    переводы, загруженные из базы, новые первыми
+     */
+    public RecentTransfers(int capacity, List<StatementLine> lines) {
+        this.ring = new StatementLine[capacity];
+        for (int i = Math.min(lines.size(), capacity) - 1; i >= 0; i--) {
+            add(lines.get(i));
+        }
+    }
+
+    /**
+     * Время создания заменяемой строки сохраняется: у нового перевода оно известно лишь приблизительно.
+     *
+     * @param line перевод
+     */
+    public synchronized void add(StatementLine line) {
+        final int i = indexOf(line.type(), line.id());
+        if (i >= 0) {
+            ring[i] = new StatementLine(line.type(), line.id(), line.payee(), line.amount(), line.purpose(),
+                    line.status(), ring[i].createdAt());
+            return;
+        }
+        ring[head] = line;
+        head = (head + 1) % ring.length;
+        size = Math.min(size + 1, ring.length);
+    }
+
+    /**
+     * Статус меняется только вперед, повторно доставленное старое событие его не откатит.
+     *
+     * @param type   вид перевода
+     * @param id     технический идентификатор перевода
+     * @param status новый статус
+     */
+    public synchronized void advance(TransferType type, Long id, TransferStatus status) {
+        final int i = indexOf(type, id);
+        if (i < 0 || ring[i].status() != null && ring[i].status().compareTo(status) >= 0) {
+            return;
+        }
+        final StatementLine line = ring[i];
+        ring[i] = new StatementLine(type, id, line.payee(), line.amount(), line.purpose(), status, line.createdAt());
+    }
+
+    /**
+     * @return переводы, новые первыми
+     */
+    public synchronized List<StatementLine> snapshot() {
+        final List<StatementLine> lines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            lines.add(ring[i]);
+        }
+        lines.sort(NEWEST_FIRST);
+        return lines;
+    }
+
+    private int indexOf(TransferType type, Long id) {
+        for (int i = 0; i < size; i++) {
+            if (ring[i].type() == type && ring[i].id().equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
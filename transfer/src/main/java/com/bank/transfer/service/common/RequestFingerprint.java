@@ -0,0 +1,45 @@
+package com.bank.transfer.service.common;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 канонической записи полей запроса.
+ * Каждое поле пишется с длиной, поэтому разные наборы полей не склеиваются в одну строку,
+ * а сумма записывается без незначащих нулей: 10 и 10.00 - один и тот же запрос.
+ */
+public final class RequestFingerprint {
+
+    private RequestFingerprint() {
+    }
+
+    /**
+     * @param fields поля запроса в постоянном порядке
+     * @return 64 шестнадцатеричных символа
+     */
+    public static String of(Object... fields) {
+        final StringBuilder canonical = new StringBuilder();
+        for (Object field : fields) {
+            if (field == null) {
+                canonical.append("-1:;");
+                continue;
+            }
+            final String value = field instanceof BigDecimal decimal ?
+                    decimal.stripTrailingZeros().toPlainString() :
+                    field.toString();
+            canonical.append(value.length()).append(':').append(value).append(';');
+        }
+        return HexFormat.of().formatHex(sha256().digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
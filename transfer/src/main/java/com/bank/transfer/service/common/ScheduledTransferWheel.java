@@ -0,0 +1,49 @@
+package com.bank.transfer.service.common;
+
+import com.bank.common.scheduling.TimingWheel;
+import com.bank.transfer.repository.ScheduledRun;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Предстоящие исполнения переводов по расписанию на {@link TimingWheel}.
+ * В колесе лежат только исполнения загруженного окна, остальные остаются в таблице.
+ */
+@Component
+public class ScheduledTransferWheel {
+
+    private static final int WHEEL_SIZE = 64;
+
+    private final Clock clock;
+    private final long tickMs;
+    private final TimingWheel<ScheduledRun> wheel;
+
+    public ScheduledTransferWheel(@Value("${transfer.scheduled.tick:PT1S}") Duration tick) {
+        this.clock = Clock.systemUTC();
+        this.tickMs = tick.toMillis();
+        this.wheel = new TimingWheel<>(tickMs, WHEEL_SIZE, clock.millis());
+    }
+
+    /**
+     * Просроченное исполнение наступает на следующем шаге.
+     *
+     * @param run {@link ScheduledRun}
+     */
+    public void schedule(ScheduledRun run) {
+        wheel.schedule(Math.max(run.nextRunAt().toInstant().toEpochMilli(), clock.millis() + tickMs), run);
+    }
+
+    /**
+     * @return исполнения, срок которых наступил
+     */
+    public List<ScheduledRun> advance() {
+        final List<ScheduledRun> due = new ArrayList<>();
+        wheel.advance(clock.millis(), due::add);
+        return due;
+    }
+}
@@ -0,0 +1,17 @@
+package com.bank.transfer.service.common;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Формат выписки или пакета переводов и его тип содержимого
+ */
+@Getter
+@RequiredArgsConstructor
+public enum StatementFormat {
+
+    CSV("text/csv;charset=UTF-8"),
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+}
@@ -0,0 +1,60 @@
+package com.bank.transfer.service.common;
+
+import com.bank.transfer.entity.TransferStatus;
+
+/**
+ * Статус перевода, принятого асинхронно. Порядок значений - порядок переходов,
+ * статус никогда не возвращается к предыдущему.
+ */
+public enum SubmissionStatus {
+
+    /**
+     * Принят в очередь, еще не записан
+     */
+    ACCEPTED,
+
+    /**
+     * Сохранен, ожидает исполнения
+     */
+    NEW,
+
+    /**
+     * Взят в исполнение
+     */
+    PROCESSING,
+
+    /**
+     * Не записан, причина в сообщении
+     */
+    REJECTED,
+
+    /**
+     * Деньги списаны и зачислены
+     */
+    COMPLETED,
+
+    /**
+     * Отклонен при исполнении
+     */
+    FAILED,
+
+    /**
+     * Перевод создан до исполнения переводов, статус не ведется
+     */
+    UNKNOWN;
+
+    /**
+     * @param status статус исполнения, null у переводов, созданных до исполнения
+     * @return {@link SubmissionStatus}
+     */
+    public static SubmissionStatus of(TransferStatus status) {
+        return status == null ? UNKNOWN : valueOf(status.name());
+    }
+
+    /**
+     * @return статус больше не изменится
+     */
+    public boolean isFinal() {
+        return ordinal() >= REJECTED.ordinal();
+    }
+}
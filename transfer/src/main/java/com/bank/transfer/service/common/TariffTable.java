@@ -0,0 +1,150 @@
+package com.bank.transfer.service.common;
+
+import com.bank.common.exception.ValidationException;
+import com.bank.transfer.entity.TariffEntity;
+import com.bank.transfer.entity.TransferChannel;
+import com.bank.transfer.entity.TransferType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Скомпилированные тарифы комиссий.
+ * На каждую пару вида перевода и канала - отсортированные массивы диапазонов в копейках, диапазон суммы
+ * ищется двоичным поиском. Таблица неизменяема: ее читают без синхронизации и заменяют целиком.
+ */
+public final class TariffTable {
+
+    private static final int CENTS_SCALE = 2;
+    private static final long BASIS_POINTS = 10_000L;
+    private static final int CHANNELS = TransferChannel.values().length;
+
+    private final Bands[] bands;
+    private final int size;
+
+    private TariffTable(Bands[] bands, int size) {
+        this.bands = bands;
+        this.size = size;
+    }
+
+    /**
+     * @param tariffs определения тарифов, нижние границы диапазонов в паре вида и канала не повторяются
+     * @return {@link TariffTable}
+     */
+    public static TariffTable compile(List<TariffEntity> tariffs) {
+        final List<List<TariffEntity>> grouped = new ArrayList<>();
+        for (int i = 0; i < TransferType.values().length * CHANNELS; i++) {
+            grouped.add(new ArrayList<>());
+        }
+        for (TariffEntity tariff : tariffs) {
+            validate(tariff);
+            grouped.get(index(tariff.getTransferType(), tariff.getChannel())).add(tariff);
+        }
+
+        final Bands[] bands = new Bands[grouped.size()];
+        for (int i = 0; i < bands.length; i++) {
+            bands[i] = Bands.of(grouped.get(i));
+        }
+        return new TariffTable(bands, tariffs.size());
+    }
+
+    /**
+     * Комиссия - фиксированная часть плюс процент от суммы, ограниченные минимумом и максимумом диапазона.
+     * Сумма ниже первого диапазона или вид и канал без тарифа - без комиссии.
+     *
+     * @param type        вид перевода
+     * @param channel     канал
+     * @param amountCents сумма перевода в копейках
+     * @return комиссия в копейках
+     */
+    public long feeCents(TransferType type, TransferChannel channel, long amountCents) {
+        return bands[index(type, channel)].feeCents(amountCents);
+    }
+
+    /**
+     * @param type    вид перевода
+     * @param channel канал
+     * @param amount  сумма перевода
+     * @return комиссия
+     */
+    public BigDecimal fee(TransferType type, TransferChannel channel, BigDecimal amount) {
+        return BigDecimal.valueOf(feeCents(type, channel, toCents(amount)), CENTS_SCALE);
+    }
+
+    /**
+     * @return количество тарифов
+     */
+    public int size() {
+        return size;
+    }
+
+    private static int index(TransferType type, TransferChannel channel) {
+        return type.ordinal() * CHANNELS + channel.ordinal();
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(CENTS_SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    private static long toCents(BigDecimal amount, long absent) {
+        return amount == null ? absent : toCents(amount);
+    }
+
+    private static void validate(TariffEntity tariff) {
+        if (tariff.getTransferType() == null || tariff.getChannel() == null || tariff.getMinAmount() == null ||
+                tariff.getFixedFee() == null || tariff.getRateBp() == null) {
+            throw new ValidationException("Вид перевода, канал, нижняя граница, фиксированная часть и процент " +
+                    "тарифа обязательны");
+        }
+        if (tariff.getMinAmount().signum() < 0 || tariff.getFixedFee().signum() < 0 || tariff.getRateBp() < 0) {
+            throw new ValidationException("Граница, фиксированная часть и процент тарифа не могут быть отрицательными");
+        }
+        if (tariff.getMinFee() != null && tariff.getMaxFee() != null &&
+                tariff.getMinFee().compareTo(tariff.getMaxFee()) > 0) {
+            throw new ValidationException("Минимальная комиссия тарифа больше максимальной");
+        }
+    }
+
+    /**
+     * Диапазоны одной пары вида и канала, массивы упорядочены по нижней границе
+     */
+    private record Bands(long[] from, long[] fixed, int[] rateBp, long[] min, long[] max) {
+
+        private static Bands of(List<TariffEntity> tariffs) {
+            final List<TariffEntity> sorted = new ArrayList<>(tariffs);
+            sorted.sort(Comparator.comparing(TariffEntity::getMinAmount));
+            final int n = sorted.size();
+            final Bands bands = new Bands(new long[n], new long[n], new int[n], new long[n], new long[n]);
+            for (int i = 0; i < n; i++) {
+                final TariffEntity tariff = sorted.get(i);
+                bands.from[i] = toCents(tariff.getMinAmount());
+                if (i > 0 && bands.from[i] == bands.from[i - 1]) {
+                    throw new ValidationException("Повторяется нижняя граница тарифа " + tariff.getMinAmount() +
+                            " для " + tariff.getTransferType() + " " + tariff.getChannel());
+                }
+                bands.fixed[i] = toCents(tariff.getFixedFee());
+                bands.rateBp[i] = tariff.getRateBp();
+                bands.min[i] = toCents(tariff.getMinFee(), 0L);
+                bands.max[i] = toCents(tariff.getMaxFee(), Long.MAX_VALUE);
+            }
+            return bands;
+        }
+
+        private long feeCents(long amountCents) {
+            int i = Arrays.binarySearch(from, amountCents);
+            if (i < 0) {
+                i = -i - 2;
+            }
+            if (i < 0) {
+                return 0L;
+            }
+            final long percent = (Math.multiplyExact(amountCents, rateBp[i]) + BASIS_POINTS / 2) / BASIS_POINTS;
+            final long fee = Math.addExact(fixed[i], percent);
+            return Math.min(Math.max(fee, min[i]), max[i]);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.bank.transfer.service.common;
+
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.TransferArchiveRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Чтение переводов из рабочей таблицы с переходом в архив при промахе.
+ * Рабочая таблица и ее индексы содержат только свежие переводы, архив читается лишь для старых id.
+ */
+@Component
+@RequiredArgsConstructor
+public class TieredTransferReader {
+
+    private final TransferArchiveRepository archiveRepository;
+
+    /**
+     * @param repository  репозиторий рабочей таблицы
+     * @param type        вид перевода, соответствующий репозиторию
+     * @param id          технический идентификатор перевода
+     * @param <T>         тип сущности перевода
+     * @return перевод из рабочей таблицы или архива
+     */
+    public <T extends Transfer> Optional<T> findById(JpaRepository<T, Long> repository, TransferType type,
+                                                     Long id) {
+        return repository.findById(id).or(() -> archiveRepository.findAllById(type, List.of(id))
+                .stream().findFirst().map(TieredTransferReader::cast));
+    }
+
+    /**
+     * Рабочая таблица и архив читаются каждый одним запросом.
+     *
+     * @param repository  репозиторий рабочей таблицы
+     * @param type        вид перевода, соответствующий репозиторию
+     * @param ids         технические идентификаторы переводов
+     * @param <T>         тип сущности перевода
+     * @return найденные переводы по id, ненайденных id в ней нет
+     */
+    public <T extends Transfer> Map<Long, T> findAllById(JpaRepository<T, Long> repository, TransferType type,
+                                                         List<Long> ids) {
+        final Map<Long, T> found = new HashMap<>();
+        repository.findAllById(ids).forEach(transfer -> found.put(transfer.getId(), transfer));
+        final List<Long> missing = ids.stream().filter(id -> !found.containsKey(id)).distinct().toList();
+        if (!missing.isEmpty()) {
+            archiveRepository.findAllById(type, missing)
+                    .forEach(transfer -> found.put(transfer.getId(), cast(transfer)));
+        }
+        return found;
+    }
+
+    /**
+     * Архив создает перевод через {@link TransferType#newTransfer}, класс совпадает с сущностью репозитория.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Transfer> T cast(Transfer transfer) {
+        return (T) transfer;
+    }
+}
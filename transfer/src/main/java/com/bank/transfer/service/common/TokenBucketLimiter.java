@@ -0,0 +1,93 @@
+package com.bank.transfer.service.common;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket по ключу в виде GCRA: на ключ хранится одно число - теоретическое время прихода
+ * следующего запроса в наносекундах, проверка сводится к чтению и одному CAS.
+ * Корзины лежат в {@link ConcurrentHashMap}, который сам разбит на независимые ячейки,
+ * поэтому разные ключи не конкурируют, а существующий ключ читается без блокировок.
+ * Корзина, время которой уже прошло, полна и ничем не отличается от новой, поэтому ее можно удалить.
+ */
+public class TokenBucketLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long emissionInterval;
+    private final long tolerance;
+    private final ConcurrentMap<Long, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param rate  пополнение корзины в запросах в секунду, 0 или меньше - без ограничения
+     * @param burst емкость корзины
+     */
+    public TokenBucketLimiter(double rate, int burst) {
+        if (rate > 0 && burst < 1) {
+            throw new IllegalArgumentException("Емкость корзины должна быть положительной");
+        }
+        this.emissionInterval = rate > 0 ? Math.max(1L, (long) (NANOS_PER_SECOND / rate)) : 0L;
+        this.tolerance = emissionInterval * (burst - 1L);
+    }
+
+    /**
+     * @return включено ли ограничение
+     */
+    public boolean isEnabled() {
+        return emissionInterval > 0;
+    }
+
+    /**
+     * @param key     ключ корзины
+     * @param nowNano текущее время {@link System#nanoTime()}
+     * @return 0, если запрос пропущен, иначе через сколько наносекунд появится токен
+     */
+    public long tryAcquire(long key, long nowNano) {
+        if (!isEnabled()) {
+            return 0L;
+        }
+        final AtomicLong bucket = bucket(key, nowNano);
+        while (true) {
+            final long tat = bucket.get();
+            final long base = tat - nowNano > 0 ? tat : nowNano;
+            final long wait = base - nowNano - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(tat, base + emissionInterval)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * Возвращает токен, взятый {@link #tryAcquire(long, long)}, если запрос отклонил другой лимит.
+     *
+     * @param key ключ корзины
+     */
+    public void refund(long key) {
+        final AtomicLong bucket = buckets.get(key);
+        if (!isEnabled() || bucket == null) {
+            return;
+        }
+        bucket.addAndGet(-emissionInterval);
+    }
+
+    /**
+     * Удаляет полные корзины. Запрос, успевший взять удаляемую корзину, будет учтен в ней,
+     * а не в новой, - это допустимая неточность на границе простоя.
+     *
+     * @param nowNano текущее время {@link System#nanoTime()}
+     * @return количество оставшихся корзин
+     */
+    public int evictIdle(long nowNano) {
+        buckets.values().removeIf(bucket -> bucket.get() - nowNano <= 0);
+        return buckets.size();
+    }
+
+    private AtomicLong bucket(long key, long nowNano) {
+        final AtomicLong bucket = buckets.get(key);
+        return bucket != null ? bucket : buckets.computeIfAbsent(key, k -> new AtomicLong(nowNano));
+    }
+}
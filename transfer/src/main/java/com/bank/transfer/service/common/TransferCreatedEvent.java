@@ -0,0 +1,22 @@
+package com.bank.transfer.service.common;
+
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferType;
+
+/**
+ * Событие о сохранении перевода, исполняется после фиксации транзакции
+ *
+ * @param type             вид перевода
+ * @param id               технический идентификатор перевода
+ * @param accountDetailsId технический идентификатор счета списания
+ */
+public record TransferCreatedEvent(TransferType type, Long id, Long accountDetailsId) {
+
+    /**
+     * @param transfer сохраненный {@link Transfer}
+     * @return {@link TransferCreatedEvent}
+     */
+    public static TransferCreatedEvent of(Transfer transfer) {
+        return new TransferCreatedEvent(transfer.getType(), transfer.getId(), transfer.getAccountDetailsId());
+    }
+}
@@ -0,0 +1,24 @@
+package com.bank.transfer.service.common;
+
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Событие перевода для внешних потребителей (антифрод, история).
+ * Доставляется не менее одного раза, по одному счету списания - в порядке возникновения;
+ * повтор распознается по id.
+ *
+ * @param id               технический идентификатор события
+ * @param type             вид перевода
+ * @param transferId       технический идентификатор перевода
+ * @param accountDetailsId технический идентификатор счета списания
+ * @param amount           сумма перевода
+ * @param status           статус перевода после события
+ * @param createdAt        когда событие возникло
+ */
+public record TransferEvent(Long id, TransferType type, Long transferId, Long accountDetailsId, BigDecimal amount,
+                            TransferStatus status, Instant createdAt) {
+}
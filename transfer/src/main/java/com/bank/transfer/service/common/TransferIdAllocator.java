@@ -0,0 +1,46 @@
+package com.bank.transfer.service.common;
+
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.TransferInsertRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Выдает id переводов до записи в БД: одно обращение к последовательности на
+ * {@link TransferInsertRepository#ALLOCATION_SIZE} id.
+ */
+@Component
+public class TransferIdAllocator {
+
+    private final TransferInsertRepository repository;
+    private final Map<TransferType, Block> blocks = new EnumMap<>(TransferType.class);
+
+    public TransferIdAllocator(TransferInsertRepository repository) {
+        this.repository = repository;
+        for (TransferType type : TransferType.values()) {
+            blocks.put(type, new Block());
+        }
+    }
+
+    /**
+     * @param type вид перевода
+     * @return технический идентификатор, не выданный ни одному переводу этого вида
+     */
+    public long nextId(TransferType type) {
+        final Block block = blocks.get(type);
+        synchronized (block) {
+            if (block.next > block.hi) {
+                block.hi = repository.nextBlock(type);
+                block.next = block.hi - TransferInsertRepository.ALLOCATION_SIZE + 1;
+            }
+            return block.next++;
+        }
+    }
+
+    private static final class Block {
+        private long next = 1L;
+        private long hi;
+    }
+}
@@ -0,0 +1,161 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.common.exception.TooManyRequestsException;
+import com.bank.transfer.dto.TransferSubmissionDto;
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.TransferInsertRepository;
+import com.bank.transfer.repository.TransferOutboxRepository;
+import com.bank.transfer.repository.TransferStatusRepository;
+import com.bank.transfer.service.RecentTransferService;
+import com.bank.transfer.service.TransferTotalsService;
+import com.bank.transfer.service.common.EntityNotFoundReturner;
+import com.bank.transfer.service.common.SubmissionStatus;
+import com.bank.transfer.service.common.TransferEvent;
+import com.bank.transfer.service.common.TransferIdAllocator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityNotFoundException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@ExtendWith(MockitoExtension.class)
+public class AsyncTransferServiceImplTest {
+    @Mock
+    private TransferInsertRepository insertRepository;
+    @Mock
+    private TransferStatusRepository statusRepository;
+    @Mock
+    private TransferOutboxRepository outboxRepository;
+    @Mock
+    private TransferTotalsService totalsService;
+    @Mock
+    private RecentTransferService recentTransferService;
+    @Mock
+    private TransferIdAllocator idAllocator;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    private AsyncTransferServiceImpl asyncTransferService;
+
+    @BeforeEach
+    void setUp() {
+        asyncTransferService = new AsyncTransferServiceImpl(insertRepository, statusRepository, outboxRepository,
+                totalsService, recentTransferService, idAllocator, transactionTemplate, eventPublisher,
+                new EntityNotFoundReturner(), new SimpleMeterRegistry(), 1, 1, Duration.ofMinutes(10),
+                Duration.ofMinutes(5));
+        Mockito.lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(ArgumentMatchers.any());
+        Mockito.lenient().doReturn(Map.of()).when(statusRepository)
+                .findStatuses(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    private Transfer transfer(long id) {
+        Mockito.doReturn(id).when(idAllocator).nextId(TransferType.ACCOUNT);
+        return TransferType.ACCOUNT.newTransfer(2L, BigDecimal.TEN, "rent", 1L);
+    }
+
+    @Test
+    @DisplayName("принятый перевод записывается в фоне и переходит в NEW, позитивный сценарий")
+    void submitPositiveTest() throws InterruptedException {
+        Transfer transfer = transfer(7L);
+
+        TransferSubmissionDto accepted = asyncTransferService.submit(transfer);
+        asyncTransferService.stop();
+
+        Assertions.assertEquals(SubmissionStatus.ACCEPTED, accepted.getStatus());
+        Assertions.assertEquals(7L, transfer.getId());
+        Mockito.verify(insertRepository).insert(transfer);
+        Mockito.verify(outboxRepository).append(transfer, TransferStatus.NEW);
+        Assertions.assertEquals(SubmissionStatus.NEW,
+                asyncTransferService.findStatus(TransferType.ACCOUNT, 7L).getStatus());
+    }
+
+    @Test
+    @DisplayName("ошибка записи переводит перевод в REJECTED с причиной, негативный сценарий")
+    void submitInsertNegativeTest() throws InterruptedException {
+        Transfer transfer = transfer(7L);
+        Mockito.doThrow(new IllegalStateException("duplicate")).when(insertRepository).insert(transfer);
+
+        asyncTransferService.submit(transfer);
+        asyncTransferService.stop();
+
+        TransferSubmissionDto status = asyncTransferService.findStatus(TransferType.ACCOUNT, 7L);
+        Assertions.assertEquals(SubmissionStatus.REJECTED, status.getStatus());
+        Assertions.assertEquals("duplicate", status.getMessage());
+        Mockito.verifyNoInteractions(statusRepository);
+    }
+
+    @Test
+    @DisplayName("заполненная очередь отвечает 429 и забывает перевод, негативный сценарий")
+    void submitQueueFullNegativeTest() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).when(insertRepository).insert(ArgumentMatchers.any());
+        Mockito.doReturn(1L, 2L, 3L).when(idAllocator).nextId(TransferType.ACCOUNT);
+
+        asyncTransferService.submit(TransferType.ACCOUNT.newTransfer(1L, BigDecimal.TEN, null, 1L));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        asyncTransferService.submit(TransferType.ACCOUNT.newTransfer(2L, BigDecimal.TEN, null, 1L));
+        Assertions.assertThrows(TooManyRequestsException.class,
+                () -> asyncTransferService.submit(TransferType.ACCOUNT.newTransfer(3L, BigDecimal.TEN, null, 1L)));
+        release.countDown();
+        asyncTransferService.stop();
+
+        Assertions.assertThrows(EntityNotFoundException.class,
+                () -> asyncTransferService.findStatus(TransferType.ACCOUNT, 3L));
+    }
+
+    @Test
+    @DisplayName("статус из outbox продвигается только вперед")
+    void onTransferEventTest() throws InterruptedException {
+        asyncTransferService.submit(transfer(7L));
+        asyncTransferService.stop();
+
+        asyncTransferService.onTransferEvent(new TransferEvent(1L, TransferType.ACCOUNT, 7L, 1L, BigDecimal.TEN,
+                TransferStatus.COMPLETED, Instant.now()));
+        asyncTransferService.onTransferEvent(new TransferEvent(2L, TransferType.ACCOUNT, 7L, 1L, BigDecimal.TEN,
+                TransferStatus.PROCESSING, Instant.now()));
+
+        Assertions.assertEquals(SubmissionStatus.COMPLETED,
+                asyncTransferService.findStatus(TransferType.ACCOUNT, 7L).getStatus());
+    }
+
+    @Test
+    @DisplayName("статус забытого перевода читается из таблицы")
+    void findStatusFromTableTest() {
+        Mockito.doReturn(Map.of(9L, TransferStatus.FAILED)).when(statusRepository)
+                .findStatuses(TransferType.CARD, List.of(9L));
+
+        Assertions.assertEquals(SubmissionStatus.FAILED,
+                asyncTransferService.findStatus(TransferType.CARD, 9L).getStatus());
+        Assertions.assertThrows(EntityNotFoundException.class,
+                () -> asyncTransferService.findStatus(TransferType.CARD, 10L));
+    }
+}
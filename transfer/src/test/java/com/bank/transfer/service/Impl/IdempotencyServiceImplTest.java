@@ -0,0 +1,158 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.common.exception.TooManyRequestsException;
+import com.bank.common.exception.ValidationException;
+import com.bank.transfer.dto.AccountTransferDto;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.IdempotencyKeyRepository;
+import com.bank.transfer.repository.IdempotentRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyServiceImplTest {
+    private static final String KEY = "key-1";
+    private static final String FINGERPRINT = "a".repeat(64);
+
+    @Mock
+    private IdempotencyKeyRepository repository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger created = new AtomicInteger();
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyServiceImpl(repository, transactionTemplate, objectMapper,
+                new SimpleMeterRegistry(), Duration.ofDays(1), 100, Duration.ofMinutes(10));
+    }
+
+    private Supplier<AccountTransferDto> create(Long id) {
+        return () -> {
+            created.incrementAndGet();
+            AccountTransferDto accountTransfer = new AccountTransferDto();
+            accountTransfer.setId(id);
+            accountTransfer.setAccountDetailsId(1L);
+            return accountTransfer;
+        };
+    }
+
+    private void inTransaction() {
+        Mockito.doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("без ключа перевод создается без записи ключа")
+    void executeWithoutKeyTest() {
+        AccountTransferDto transfer = idempotencyService.execute(null, TransferType.ACCOUNT, 1L, FINGERPRINT,
+                AccountTransferDto.class, create(5L));
+
+        Assertions.assertEquals(5L, transfer.getId());
+        Mockito.verifyNoInteractions(repository, transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("повтор с тем же ключом отвечается из памяти, перевод создается один раз")
+    void executeReplayFromCacheTest() {
+        inTransaction();
+        Mockito.doReturn(true).when(repository).claim(1L, KEY, TransferType.ACCOUNT, FINGERPRINT);
+
+        AccountTransferDto first = idempotencyService.execute(KEY, TransferType.ACCOUNT, 1L, FINGERPRINT,
+                AccountTransferDto.class, create(5L));
+        AccountTransferDto replay = idempotencyService.execute(KEY, TransferType.ACCOUNT, 1L, FINGERPRINT,
+                AccountTransferDto.class, create(6L));
+
+        Assertions.assertSame(first, replay);
+        Assertions.assertEquals(1, created.get());
+        Mockito.verify(repository).saveResponse(ArgumentMatchers.eq(1L), ArgumentMatchers.eq(KEY),
+                ArgumentMatchers.contains("\"id\":5"));
+    }
+
+    @Test
+    @DisplayName("ключ занят другим экземпляром, ответ читается из таблицы")
+    void executeReplayFromTableTest() {
+        inTransaction();
+        Mockito.doReturn(false).when(repository).claim(1L, KEY, TransferType.ACCOUNT, FINGERPRINT);
+        Mockito.doReturn(Optional.of(new IdempotentRequest(TransferType.ACCOUNT, FINGERPRINT, "{\"id\":5}")))
+                .when(repository).find(1L, KEY);
+
+        AccountTransferDto replay = idempotencyService.execute(KEY, TransferType.ACCOUNT, 1L, FINGERPRINT,
+                AccountTransferDto.class, create(6L));
+
+        Assertions.assertEquals(5L, replay.getId());
+        Assertions.assertEquals(0, created.get());
+    }
+
+    @Test
+    @DisplayName("отказ по лимиту при создании не запоминает ключ, повтор создает перевод")
+    void executeRateLimitedTest() {
+        inTransaction();
+        Mockito.doReturn(true).when(repository).claim(1L, KEY, TransferType.ACCOUNT, FINGERPRINT);
+
+        Assertions.assertThrows(TooManyRequestsException.class, () -> idempotencyService.execute(KEY,
+                TransferType.ACCOUNT, 1L, FINGERPRINT, AccountTransferDto.class, () -> {
+                    throw new TooManyRequestsException("limit", Duration.ofSeconds(1));
+                }));
+        AccountTransferDto transfer = idempotencyService.execute(KEY, TransferType.ACCOUNT, 1L, FINGERPRINT,
+                AccountTransferDto.class, create(5L));
+
+        Assertions.assertEquals(5L, transfer.getId());
+        Mockito.verify(repository, Mockito.times(1)).saveResponse(ArgumentMatchers.eq(1L), ArgumentMatchers.eq(KEY),
+                ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("тот же ключ другого счета списания - отдельный запрос")
+    void executeScopedByAccountTest() {
+        inTransaction();
+        Mockito.doReturn(true).when(repository).claim(ArgumentMatchers.anyLong(), ArgumentMatchers.eq(KEY),
+                ArgumentMatchers.eq(TransferType.ACCOUNT), ArgumentMatchers.eq(FINGERPRINT));
+
+        idempotencyService.execute(KEY, TransferType.ACCOUNT, 1L, FINGERPRINT, AccountTransferDto.class, create(5L));
+        AccountTransferDto other = idempotencyService.execute(KEY, TransferType.ACCOUNT, 2L, FINGERPRINT,
+                AccountTransferDto.class, create(6L));
+
+        Assertions.assertEquals(6L, other.getId());
+        Assertions.assertEquals(2, created.get());
+    }
+
+    @Test
+    @DisplayName("повтор ключа с другими полями, негативный сценарий")
+    void executeOtherFingerprintNegativeTest() {
+        inTransaction();
+        Mockito.doReturn(true).when(repository).claim(1L, KEY, TransferType.ACCOUNT, FINGERPRINT);
+        idempotencyService.execute(KEY, TransferType.ACCOUNT, 1L, FINGERPRINT, AccountTransferDto.class, create(5L));
+
+        Assertions.assertThrows(ValidationException.class, () -> idempotencyService.execute(KEY,
+                TransferType.ACCOUNT, 1L, "b".repeat(64), AccountTransferDto.class, create(6L)));
+    }
+
+    @Test
+    @DisplayName("ключ без счета списания или слишком длинный, негативный сценарий")
+    void executeInvalidKeyNegativeTest() {
+        Assertions.assertThrows(ValidationException.class, () -> idempotencyService.execute(KEY,
+                TransferType.ACCOUNT, null, FINGERPRINT, AccountTransferDto.class, create(5L)));
+        Assertions.assertThrows(ValidationException.class, () -> idempotencyService.execute("k".repeat(65),
+                TransferType.ACCOUNT, 1L, FINGERPRINT, AccountTransferDto.class, create(5L)));
+        Assertions.assertEquals(0, created.get());
+    }
+}
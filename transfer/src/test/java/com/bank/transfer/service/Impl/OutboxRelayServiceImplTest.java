@@ -0,0 +1,94 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.OutboxBacklog;
+import com.bank.transfer.repository.TransferOutboxRepository;
+import com.bank.transfer.service.common.TransferEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayServiceImplTest {
+    private static final Instant CREATED_AT = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Mock
+    private TransferOutboxRepository repository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private OutboxRelayServiceImpl relayService;
+
+    @BeforeEach
+    void setUp() {
+        relayService = new OutboxRelayServiceImpl(repository, transactionTemplate, eventPublisher,
+                new SimpleMeterRegistry(), 2);
+        Mockito.doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(ArgumentMatchers.any());
+        Mockito.doReturn(1).when(repository).getPartitions();
+        Mockito.lenient().doReturn(new OutboxBacklog(0, Duration.ZERO)).when(repository).backlog();
+    }
+
+    private static TransferEvent event(long id) {
+        return new TransferEvent(id, TransferType.ACCOUNT, 100 + id, 1L, BigDecimal.TEN, TransferStatus.NEW,
+                CREATED_AT);
+    }
+
+    @Test
+    @DisplayName("события раздела публикуются по порядку и удаляются пачками до пустого раздела")
+    void relayPositiveTest() {
+        Mockito.doReturn(true).when(repository).tryLockPartition(0);
+        Mockito.doReturn(List.of(event(1), event(2)), List.of(event(3))).when(repository).lockBatch(0, 2);
+
+        relayService.relay();
+
+        InOrder inOrder = Mockito.inOrder(eventPublisher, repository);
+        inOrder.verify(eventPublisher).publishEvent(event(1));
+        inOrder.verify(eventPublisher).publishEvent(event(2));
+        inOrder.verify(repository).delete(List.of(1L, 2L));
+        inOrder.verify(eventPublisher).publishEvent(event(3));
+        inOrder.verify(repository).delete(List.of(3L));
+    }
+
+    @Test
+    @DisplayName("раздел разбирает другой экземпляр")
+    void relayLockedPartitionTest() {
+        Mockito.doReturn(false).when(repository).tryLockPartition(0);
+
+        relayService.relay();
+
+        Mockito.verify(repository, Mockito.never()).lockBatch(ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt());
+        Mockito.verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("ошибка подписчика оставляет пачку в outbox")
+    void relaySubscriberFailureTest() {
+        Mockito.doReturn(true).when(repository).tryLockPartition(0);
+        Mockito.doReturn(List.of(event(1), event(2))).when(repository).lockBatch(0, 2);
+        Mockito.doNothing().doThrow(new IllegalStateException("подписчик")).when(eventPublisher)
+                .publishEvent(ArgumentMatchers.any(Object.class));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> relayService.relay());
+        Mockito.verify(repository, Mockito.never()).delete(ArgumentMatchers.any());
+    }
+}
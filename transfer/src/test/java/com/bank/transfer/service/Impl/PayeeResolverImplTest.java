@@ -0,0 +1,61 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.transfer.client.AccountClient;
+import com.bank.transfer.dto.AccountDetailsDto;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.service.PhoneAccountResolver;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class PayeeResolverImplTest {
+    @Mock
+    private AccountClient accountClient;
+    @Mock
+    private PhoneAccountResolver phoneAccountResolver;
+    @InjectMocks
+    private PayeeResolverImpl payeeResolver;
+
+    @Test
+    @DisplayName("перевод по номеру счета зачисляется на найденный счет")
+    void resolveAccountTest() {
+        AccountDetailsDto accountDetails = new AccountDetailsDto();
+        accountDetails.setId(7L);
+        Mockito.doReturn(accountDetails).when(accountClient).findByAccountNumber(100L);
+
+        Assertions.assertEquals(7L, payeeResolver.resolve(TransferType.ACCOUNT, 100L));
+    }
+
+    @Test
+    @DisplayName("перевод по телефону зачисляется на счет профиля")
+    void resolvePhoneTest() {
+        Mockito.doReturn(8L).when(phoneAccountResolver).resolve(79990001122L);
+
+        Assertions.assertEquals(8L, payeeResolver.resolve(TransferType.PHONE, 79990001122L));
+        Mockito.verifyNoInteractions(accountClient);
+    }
+
+    @Test
+    @DisplayName("перевод на карту зачисляется на счет расчетов с платежной системой")
+    void resolveCardTest() {
+        ReflectionTestUtils.setField(payeeResolver, "cardClearingAccountId", 9L);
+
+        Assertions.assertEquals(9L, payeeResolver.resolve(TransferType.CARD, 4000123412341234L));
+    }
+
+    @Test
+    @DisplayName("счет расчетов не задан, проверка при старте, негативный сценарий")
+    void checkCardClearingAccountNegativeTest() {
+        Assertions.assertThrows(IllegalStateException.class, payeeResolver::checkCardClearingAccount);
+
+        ReflectionTestUtils.setField(payeeResolver, "cardClearingAccountId", 0L);
+        Assertions.assertThrows(IllegalStateException.class, payeeResolver::checkCardClearingAccount);
+    }
+}
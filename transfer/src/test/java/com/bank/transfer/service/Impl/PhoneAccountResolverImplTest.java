@@ -0,0 +1,90 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.transfer.client.ProfileClient;
+import com.bank.transfer.dto.PhoneAccountDto;
+import com.bank.transfer.service.common.EntityNotFoundReturner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityNotFoundException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@ExtendWith(MockitoExtension.class)
+public class PhoneAccountResolverImplTest {
+    @Mock
+    private ProfileClient profileClient;
+    private PhoneAccountResolverImpl phoneAccountResolver;
+
+    @BeforeEach
+    void setUp() {
+        phoneAccountResolver = new PhoneAccountResolverImpl(profileClient, new EntityNotFoundReturner(),
+                new SimpleMeterRegistry(), Duration.ofMinutes(5), Duration.ofSeconds(30), 100, 2, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        phoneAccountResolver.stop();
+    }
+
+    @Test
+    @DisplayName("номер загружается из profile-app один раз, позитивный сценарий")
+    void resolvePositiveTest() {
+        Mockito.doReturn(List.of(new PhoneAccountDto(9001112233L, 7L)))
+                .when(profileClient).findAccountsByPhoneNumbers(List.of(9001112233L));
+
+        Assertions.assertEquals(7L, phoneAccountResolver.resolve(9001112233L));
+        Assertions.assertEquals(7L, phoneAccountResolver.resolve(9001112233L));
+        Mockito.verify(profileClient, Mockito.times(1)).findAccountsByPhoneNumbers(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("номер без счета кэшируется как отсутствующий, негативный сценарий")
+    void resolveNegativeTest() {
+        Mockito.doReturn(List.of()).when(profileClient).findAccountsByPhoneNumbers(List.of(9001112233L));
+
+        Assertions.assertThrows(EntityNotFoundException.class, () -> phoneAccountResolver.resolve(9001112233L));
+        Assertions.assertThrows(EntityNotFoundException.class, () -> phoneAccountResolver.resolve(9001112233L));
+        Mockito.verify(profileClient, Mockito.times(1)).findAccountsByPhoneNumbers(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("ошибка profile-app не кэшируется")
+    void resolveErrorNotCachedTest() {
+        Mockito.doThrow(new IllegalStateException("profile-app"))
+                .doReturn(List.of(new PhoneAccountDto(9001112233L, 7L)))
+                .when(profileClient).findAccountsByPhoneNumbers(List.of(9001112233L));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> phoneAccountResolver.resolve(9001112233L));
+        Assertions.assertEquals(7L, phoneAccountResolver.resolve(9001112233L));
+    }
+
+    @Test
+    @DisplayName("промахи массового поиска запрашиваются пачками, кэшированные номера не запрашиваются")
+    void resolveAllPositiveTest() {
+        Mockito.doReturn(List.of(new PhoneAccountDto(1L, 11L)))
+                .when(profileClient).findAccountsByPhoneNumbers(List.of(1L));
+        phoneAccountResolver.resolve(1L);
+        Mockito.doAnswer(invocation -> {
+            final List<Long> batch = invocation.getArgument(0);
+            Assertions.assertTrue(batch.size() <= 2);
+            return batch.contains(3L) ? List.of(new PhoneAccountDto(3L, 33L)) : List.of();
+        }).when(profileClient).findAccountsByPhoneNumbers(ArgumentMatchers.argThat(batch -> !batch.contains(1L)));
+
+        Map<Long, Long> accounts = phoneAccountResolver.resolveAll(Set.of(1L, 2L, 3L, 4L));
+
+        Assertions.assertEquals(Map.of(1L, 11L, 3L, 33L), accounts);
+        Mockito.verify(profileClient, Mockito.times(3)).findAccountsByPhoneNumbers(ArgumentMatchers.any());
+    }
+}
@@ -0,0 +1,48 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.common.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class RateLimitServiceImplTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitServiceImpl rateLimitService = new RateLimitServiceImpl(meterRegistry, 1, 2, 0, 1);
+
+    @Test
+    @DisplayName("сверх лимита счета - 429 с временем ожидания и счетчиком отказов")
+    void checkAccountNegativeTest() {
+        rateLimitService.checkAccount(1L);
+        rateLimitService.checkAccount(1L);
+
+        TooManyRequestsException e = Assertions.assertThrows(TooManyRequestsException.class,
+                () -> rateLimitService.checkAccount(1L));
+        Assertions.assertEquals(1L, e.getRetryAfterSeconds());
+        Assertions.assertEquals(1.0, meterRegistry.get("transfer.rate_limit.rejected").tag("key", "account")
+                .counter().count());
+        rateLimitService.checkAccount(2L);
+    }
+
+    @Test
+    @DisplayName("отказ по карте не расходует лимит счета")
+    void checkCardTransferNegativeTest() {
+        RateLimitServiceImpl limited = new RateLimitServiceImpl(meterRegistry, 1, 1, 1, 1);
+        limited.checkCardTransfer(1L, 4000123412341234L);
+
+        Assertions.assertThrows(TooManyRequestsException.class,
+                () -> limited.checkCardTransfer(2L, 4000123412341234L));
+        limited.checkCardTransfer(2L, 4000567856785678L);
+    }
+
+    @Test
+    @DisplayName("лимит на карту выключен, запрос без ключа не проверяется")
+    void checkDisabledTest() {
+        for (int i = 0; i < 10; i++) {
+            rateLimitService.checkCardTransfer(null, 4000123412341234L);
+        }
+        Assertions.assertEquals(0.0, meterRegistry.get("transfer.rate_limit.rejected").tag("key", "card")
+                .counter().count());
+    }
+}
@@ -0,0 +1,112 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.common.exception.ValidationException;
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.StatementLine;
+import com.bank.transfer.repository.StatementRepository;
+import com.bank.transfer.service.common.TransferEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class RecentTransferServiceImplTest {
+    @Mock
+    private StatementRepository repository;
+    private RecentTransferServiceImpl recentTransferService;
+
+    @BeforeEach
+    void setUp() {
+        recentTransferService = new RecentTransferServiceImpl(repository, new SimpleMeterRegistry(), 5, 100);
+    }
+
+    private static Transfer transfer(Long id, Long accountDetailsId) {
+        final Transfer transfer = TransferType.CARD.newTransfer(4000123412341234L, BigDecimal.TEN, "gift",
+                accountDetailsId);
+        transfer.setId(id);
+        return transfer;
+    }
+
+    @Test
+    @DisplayName("счет загружается из таблиц один раз, новый перевод добавляется в кэш")
+    void findLastPositiveTest() {
+        Mockito.doReturn(List.of(new StatementLine(TransferType.ACCOUNT, 1L, 2L, BigDecimal.ONE, null,
+                TransferStatus.COMPLETED, OffsetDateTime.now().minusDays(1)))).when(repository).findLast(1L, 5);
+
+        recentTransferService.findLast(1L);
+        recentTransferService.record(transfer(7L, 1L));
+
+        List<StatementLine> lines = recentTransferService.findLast(1L);
+        Assertions.assertEquals(List.of(7L, 1L), lines.stream().map(StatementLine::id).toList());
+        Mockito.verify(repository, Mockito.times(1)).findLast(1L, 5);
+    }
+
+    @Test
+    @DisplayName("запрос без счета, негативный сценарий")
+    void findLastNegativeTest() {
+        Assertions.assertThrows(ValidationException.class, () -> recentTransferService.findLast(null));
+    }
+
+    @Test
+    @DisplayName("перевод счета не из кэша не загружает счет")
+    void recordNotCachedTest() {
+        recentTransferService.record(transfer(7L, 1L));
+
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("перевод, перенесенный на другой счет, пропадает из кэша прежнего счета")
+    void recordMovedTest() {
+        Mockito.doReturn(List.of()).when(repository).findLast(2L, 5);
+        Mockito.doReturn(List.of()).when(repository).findLast(1L, 5);
+        recentTransferService.findLast(1L);
+        recentTransferService.record(transfer(7L, 1L));
+        recentTransferService.findLast(2L);
+
+        recentTransferService.record(transfer(7L, 2L), 1L);
+
+        Assertions.assertEquals(List.of(), recentTransferService.findLast(1L));
+        Assertions.assertEquals(List.of(7L), recentTransferService.findLast(2L).stream()
+                .map(StatementLine::id).toList());
+        Mockito.verify(repository, Mockito.times(2)).findLast(1L, 5);
+    }
+
+    @Test
+    @DisplayName("изменение без смены счета не сбрасывает кэш")
+    void recordSameAccountTest() {
+        Mockito.doReturn(List.of()).when(repository).findLast(1L, 5);
+        recentTransferService.findLast(1L);
+
+        recentTransferService.record(transfer(7L, 1L), 1L);
+
+        Assertions.assertEquals(1, recentTransferService.findLast(1L).size());
+        Mockito.verify(repository, Mockito.times(1)).findLast(1L, 5);
+    }
+
+    @Test
+    @DisplayName("статус из outbox продвигает перевод в кэше")
+    void onTransferEventTest() {
+        Mockito.doReturn(List.of()).when(repository).findLast(1L, 5);
+        recentTransferService.findLast(1L);
+        recentTransferService.record(transfer(7L, 1L));
+
+        recentTransferService.onTransferEvent(new TransferEvent(1L, TransferType.CARD, 7L, 1L, BigDecimal.TEN,
+                TransferStatus.COMPLETED, Instant.now()));
+
+        Assertions.assertEquals(TransferStatus.COMPLETED, recentTransferService.findLast(1L).get(0).status());
+    }
+}
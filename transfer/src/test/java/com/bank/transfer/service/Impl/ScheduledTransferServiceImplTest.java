@@ -0,0 +1,163 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.common.exception.ValidationException;
+import com.bank.transfer.dto.ScheduledTransferDto;
+import com.bank.transfer.entity.ScheduledTransferEntity;
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferChannel;
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.mapper.ScheduledTransferMapper;
+import com.bank.transfer.repository.ScheduledRun;
+import com.bank.transfer.repository.ScheduledRunRepository;
+import com.bank.transfer.repository.ScheduledTransferRepository;
+import com.bank.transfer.repository.TransferInsertRepository;
+import com.bank.transfer.repository.TransferOutboxRepository;
+import com.bank.transfer.service.RecentTransferService;
+import com.bank.transfer.service.TariffService;
+import com.bank.transfer.service.TransferTotalsService;
+import com.bank.transfer.service.common.EntityNotFoundReturner;
+import com.bank.transfer.service.common.ScheduledTransferWheel;
+import com.bank.transfer.service.common.TransferCreatedEvent;
+import com.bank.transfer.service.common.TransferIdAllocator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+@ExtendWith(MockitoExtension.class)
+public class ScheduledTransferServiceImplTest {
+    @Mock
+    private ScheduledTransferRepository repository;
+    @Mock
+    private ScheduledTransferMapper mapper;
+    @Mock
+    private ScheduledRunRepository runRepository;
+    @Mock
+    private TransferInsertRepository insertRepository;
+    @Mock
+    private TransferOutboxRepository outboxRepository;
+    @Mock
+    private TransferTotalsService totalsService;
+    @Mock
+    private RecentTransferService recentTransferService;
+    @Mock
+    private TariffService tariffService;
+    @Mock
+    private TransferIdAllocator idAllocator;
+    @Mock
+    private ScheduledTransferWheel wheel;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    private ScheduledTransferServiceImpl scheduledTransferService;
+
+    @BeforeEach
+    void setUp() {
+        scheduledTransferService = new ScheduledTransferServiceImpl(repository, mapper, runRepository,
+                insertRepository, outboxRepository, totalsService, recentTransferService, tariffService,
+                idAllocator, wheel, transactionTemplate, eventPublisher, new EntityNotFoundReturner(),
+                Duration.ofMinutes(10), Duration.ofMinutes(5), 500);
+    }
+
+    private ScheduledTransferEntity entity(TransferType type, Long payee) {
+        return new ScheduledTransferEntity(null, type, payee, BigDecimal.TEN, "rent", 1L, "P1M",
+                OffsetDateTime.now().plusDays(1), null, null, null, null);
+    }
+
+    @Test
+    @DisplayName("сохранение перевода по расписанию, позитивный сценарий")
+    void savePositiveTest() {
+        ScheduledTransferDto dto = new ScheduledTransferDto();
+        ScheduledTransferEntity entity = entity(TransferType.CARD, 4000123412341234L);
+        Mockito.doReturn(entity).when(mapper).toEntity(dto);
+        Mockito.doAnswer(invocation -> {
+            entity.setId(3L);
+            return entity;
+        }).when(repository).save(entity);
+
+        scheduledTransferService.save(dto);
+
+        Assertions.assertEquals(entity.getStartAt(), entity.getNextRunAt());
+        Assertions.assertEquals(0, entity.getRunCount());
+        Assertions.assertEquals(Boolean.TRUE, entity.getActive());
+        Mockito.verifyNoInteractions(wheel);
+    }
+
+    @Test
+    @DisplayName("номер телефона не из 10 цифр, негативный сценарий")
+    void savePhonePayeeNegativeTest() {
+        ScheduledTransferDto dto = new ScheduledTransferDto();
+        Mockito.doReturn(entity(TransferType.PHONE, 79001112233L)).when(mapper).toEntity(dto);
+
+        Assertions.assertThrows(ValidationException.class, () -> scheduledTransferService.save(dto));
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("номер карты не из 16 цифр и неположительный номер счета, негативный сценарий")
+    void savePayeeNegativeTest() {
+        ScheduledTransferDto card = new ScheduledTransferDto();
+        card.setTransferType(TransferType.CARD);
+        ScheduledTransferDto account = new ScheduledTransferDto();
+        account.setTransferType(TransferType.ACCOUNT);
+        Mockito.doReturn(entity(TransferType.CARD, 9001112233L)).when(mapper).toEntity(card);
+        Mockito.doReturn(entity(TransferType.ACCOUNT, 0L)).when(mapper).toEntity(account);
+
+        Assertions.assertThrows(ValidationException.class, () -> scheduledTransferService.save(card));
+        Assertions.assertThrows(ValidationException.class, () -> scheduledTransferService.save(account));
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("наступившие исполнения создают переводы обычным путем")
+    void runDuePositiveTest() {
+        ScheduledRun run = new ScheduledRun(3L, OffsetDateTime.now());
+        Transfer transfer = TransferType.ACCOUNT.newTransfer(2L, BigDecimal.TEN, "rent", 1L);
+        Mockito.doReturn(List.of(run)).when(wheel).advance();
+        Mockito.doReturn(List.of(transfer)).when(runRepository).claim(List.of(run));
+        Mockito.doReturn(7L).when(idAllocator).nextId(TransferType.ACCOUNT);
+        Mockito.doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(ArgumentMatchers.any());
+
+        scheduledTransferService.runDue();
+
+        Assertions.assertEquals(7L, transfer.getId());
+        Assertions.assertEquals(TransferChannel.SCHEDULED, transfer.getChannel());
+        Mockito.verify(runRepository).findBefore(ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.verify(insertRepository).insertAll(List.of(transfer));
+        Mockito.verify(outboxRepository).appendAll(List.of(transfer), TransferStatus.NEW);
+        Mockito.verify(eventPublisher).publishEvent(TransferCreatedEvent.of(transfer));
+    }
+
+    @Test
+    @DisplayName("неудачный захват не возвращает исполнения в колесо, их повторит догоняющая загрузка")
+    void runDueClaimNegativeTest() {
+        ScheduledRun run = new ScheduledRun(3L, OffsetDateTime.now());
+        Mockito.doReturn(List.of(run)).when(wheel).advance();
+        Mockito.doThrow(new IllegalStateException("db")).when(transactionTemplate)
+                .executeWithoutResult(ArgumentMatchers.any());
+
+        scheduledTransferService.runDue();
+
+        Mockito.verify(wheel, Mockito.never()).schedule(run);
+        Mockito.verifyNoInteractions(insertRepository, eventPublisher);
+    }
+}
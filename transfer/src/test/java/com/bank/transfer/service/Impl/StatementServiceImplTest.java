@@ -0,0 +1,89 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.common.exception.ValidationException;
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.StatementLine;
+import com.bank.transfer.repository.StatementRepository;
+import com.bank.transfer.service.common.StatementFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.Period;
+import java.time.ZoneId;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class StatementServiceImplTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 10);
+
+    @Mock
+    private StatementRepository repository;
+
+    private StatementServiceImpl statementService;
+
+    @BeforeEach
+    void setUp() {
+        statementService = new StatementServiceImpl(repository, new ObjectMapper().registerModule(new JavaTimeModule()),
+                2, Period.ofMonths(1), ZoneId.of("UTC"));
+    }
+
+    private static StatementLine line(long id, String purpose) {
+        return new StatementLine(TransferType.ACCOUNT, id, 100L, new BigDecimal("10.50"), purpose,
+                TransferStatus.COMPLETED, OffsetDateTime.parse("2026-01-10T10:00:00Z"));
+    }
+
+    @Test
+    @DisplayName("выписка в CSV читается страницами по курсору последней строки")
+    void writeCsvPagesTest() throws Exception {
+        StatementLine second = line(2L, "за \"обед\", чай");
+        Mockito.doReturn(List.of(line(1L, "зарплата"), second)).when(repository)
+                .findFirst(ArgumentMatchers.eq(7L), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                        ArgumentMatchers.eq(2));
+        Mockito.doReturn(List.of(line(3L, null))).when(repository)
+                .findAfter(ArgumentMatchers.eq(7L), ArgumentMatchers.eq(second), ArgumentMatchers.any(),
+                        ArgumentMatchers.eq(2));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        statementService.write(7L, DAY, DAY, StatementFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(4, lines.length);
+        Assertions.assertEquals("type,id,payee,amount,purpose,status,created_at", lines[0]);
+        Assertions.assertEquals("ACCOUNT,2,100,10.50,\"за \"\"обед\"\", чай\",COMPLETED,2026-01-10T10:00Z", lines[2]);
+        Assertions.assertTrue(lines[3].startsWith("ACCOUNT,3,100,10.50,,COMPLETED"));
+    }
+
+    @Test
+    @DisplayName("период задается днями в часовом поясе выписки")
+    void writePeriodBoundsTest() throws Exception {
+        Mockito.doReturn(List.of()).when(repository).findFirst(7L, OffsetDateTime.parse("2026-01-10T00:00:00Z"),
+                OffsetDateTime.parse("2026-01-11T00:00:00Z"), 2);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        statementService.write(7L, DAY, DAY, StatementFormat.NDJSON, out);
+
+        Assertions.assertEquals(0, out.size());
+    }
+
+    @Test
+    @DisplayName("период в обратном порядке или длиннее допустимого, негативный сценарий")
+    void validateNegativeTest() {
+        Assertions.assertThrows(ValidationException.class, () -> statementService.validate(DAY, DAY.minusDays(1)));
+        Assertions.assertThrows(ValidationException.class, () -> statementService.validate(DAY, DAY.plusMonths(2)));
+    }
+}
@@ -0,0 +1,47 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.TransferArchiveRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+@ExtendWith(MockitoExtension.class)
+public class TransferArchiveServiceImplTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock
+    private TransferArchiveRepository repository;
+
+    @Test
+    @DisplayName("перенос идет пачками, пока пачка полная, и считается по видам переводов")
+    void archiveTest() {
+        TransferArchiveServiceImpl archiveService = new TransferArchiveServiceImpl(repository, meterRegistry,
+                Duration.ofDays(365), 2);
+        Mockito.doReturn(2, 2, 1).when(repository).move(ArgumentMatchers.eq(TransferType.ACCOUNT),
+                ArgumentMatchers.any(), ArgumentMatchers.eq(2));
+
+        archiveService.archive();
+
+        ArgumentCaptor<OffsetDateTime> before = ArgumentCaptor.forClass(OffsetDateTime.class);
+        Mockito.verify(repository, Mockito.times(3)).move(ArgumentMatchers.eq(TransferType.ACCOUNT),
+                before.capture(), ArgumentMatchers.eq(2));
+        Mockito.verify(repository).move(ArgumentMatchers.eq(TransferType.CARD), ArgumentMatchers.any(),
+                ArgumentMatchers.eq(2));
+        Assertions.assertTrue(before.getValue().isBefore(OffsetDateTime.now().minusDays(364)));
+        Assertions.assertEquals(5.0, meterRegistry.get("transfer.archive.moved").tag("type", "ACCOUNT")
+                .counter().count());
+        Assertions.assertEquals(0.0, meterRegistry.get("transfer.archive.moved").tag("type", "PHONE")
+                .counter().count());
+    }
+}
@@ -0,0 +1,202 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.common.exception.ValidationException;
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferBatchEntity;
+import com.bank.transfer.entity.TransferBatchStatus;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.mapper.TransferBatchMapper;
+import com.bank.transfer.repository.TransferBatchProgress;
+import com.bank.transfer.repository.TransferBatchRepository;
+import com.bank.transfer.repository.TransferBatchRow;
+import com.bank.transfer.repository.TransferBatchRowRepository;
+import com.bank.transfer.repository.TransferInsertRepository;
+import com.bank.transfer.repository.TransferOutboxRepository;
+import com.bank.transfer.service.RecentTransferService;
+import com.bank.transfer.service.TariffService;
+import com.bank.transfer.service.TransferExecutionService;
+import com.bank.transfer.service.TransferTotalsService;
+import com.bank.transfer.service.common.EntityNotFoundReturner;
+import com.bank.transfer.service.common.StatementFormat;
+import com.bank.transfer.service.common.TransferIdAllocator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@ExtendWith(MockitoExtension.class)
+public class TransferBatchServiceImplTest {
+    @Mock
+    private TransferBatchRepository batchRepository;
+    @Mock
+    private TransferBatchRowRepository rowRepository;
+    @Mock
+    private TransferBatchMapper mapper;
+    @Mock
+    private TransferInsertRepository insertRepository;
+    @Mock
+    private TransferOutboxRepository outboxRepository;
+    @Mock
+    private TransferTotalsService totalsService;
+    @Mock
+    private RecentTransferService recentTransferService;
+    @Mock
+    private TariffService tariffService;
+    @Mock
+    private TransferExecutionService executionService;
+    @Mock
+    private TransferIdAllocator idAllocator;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    private TransferBatchServiceImpl batchService;
+    private TransferBatchEntity batch;
+    private final List<TransferBatchRow> rows = new ArrayList<>();
+    private final List<Transfer> transfers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        batchService = new TransferBatchServiceImpl(batchRepository, rowRepository, mapper, insertRepository,
+                outboxRepository, totalsService, recentTransferService, tariffService, executionService,
+                idAllocator, transactionTemplate, new ObjectMapper(), new EntityNotFoundReturner(), 2, 10);
+        final AtomicLong ids = new AtomicLong(100L);
+        Mockito.lenient().doAnswer(invocation -> ids.incrementAndGet()).when(idAllocator)
+                .nextId(TransferType.ACCOUNT);
+        Mockito.lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(ArgumentMatchers.any());
+        Mockito.lenient().doAnswer(invocation -> {
+            batch = invocation.getArgument(0);
+            if (batch.getId() == null) {
+                batch.setId(7L);
+            }
+            return batch;
+        }).when(batchRepository).save(ArgumentMatchers.any());
+        Mockito.lenient().doAnswer(invocation -> rows.addAll(invocation.getArgument(1))).when(rowRepository)
+                .insertAll(ArgumentMatchers.eq(7L), ArgumentMatchers.any());
+        Mockito.lenient().doAnswer(invocation -> transfers.addAll(invocation.getArgument(0))).when(insertRepository)
+                .insertAll(ArgumentMatchers.any());
+    }
+
+    private void upload(String key, StatementFormat format, String body) {
+        batchService.upload(1L, key, format, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private TransferBatchRow row(int lineNo) {
+        return rows.stream().filter(row -> row.lineNo() == lineNo).findFirst().orElseThrow();
+    }
+
+    @Test
+    @DisplayName("CSV с заголовком, пустой строкой и полем в кавычках, позитивный сценарий")
+    void uploadCsvWithHeaderPositiveTest() {
+        upload(null, StatementFormat.CSV, "account_number,amount,purpose\n2,10.00,\"rent, \"\"june\"\"\"\n\n3,5\n");
+
+        Assertions.assertEquals(List.of(2, 4), rows.stream().map(TransferBatchRow::lineNo).sorted().toList());
+        Assertions.assertEquals("rent, \"june\"", transfers.get(0).getPurpose());
+        Assertions.assertEquals(new BigDecimal("10.00"), transfers.get(0).getAmount());
+        Assertions.assertEquals(TransferBatchStatus.COMPLETED, batch.getStatus());
+        Assertions.assertEquals(2, batch.getAcceptedRows());
+        Assertions.assertEquals(0, batch.getRejectedRows());
+    }
+
+    @Test
+    @DisplayName("BOM перед заголовком и перед первой строкой данных, позитивный сценарий")
+    void uploadCsvWithBomPositiveTest() {
+        upload(null, StatementFormat.CSV, "\uFEFFAccountNumber, Amount\n2,10\n");
+        Assertions.assertEquals(2, row(2).lineNo());
+        Assertions.assertEquals(1, rows.size());
+
+        rows.clear();
+        upload(null, StatementFormat.CSV, "\uFEFF2,10\n3,20\n");
+        Assertions.assertNotNull(row(1).transferId());
+        Assertions.assertEquals(2, batch.getAcceptedRows());
+    }
+
+    @Test
+    @DisplayName("первая строка не из имен колонок попадает в отчет, негативный сценарий")
+    void uploadCsvFirstLineNotHeaderNegativeTest() {
+        upload(null, StatementFormat.CSV, "Итого,10\n2,10\n2,-1\n2,1.005\n2\n");
+
+        Assertions.assertEquals("Номер счета или сумма не являются числом", row(1).error());
+        Assertions.assertNotNull(row(2).transferId());
+        Assertions.assertEquals("Сумма перевода должна быть положительной", row(3).error());
+        Assertions.assertEquals("У суммы перевода больше двух знаков после запятой", row(4).error());
+        Assertions.assertEquals("Ожидается номер счета, сумма и цель перевода", row(5).error());
+        Assertions.assertEquals(1, batch.getAcceptedRows());
+        Assertions.assertEquals(4, batch.getRejectedRows());
+        Assertions.assertEquals(5, batch.getTotalRows());
+    }
+
+    @Test
+    @DisplayName("NDJSON: принятая строка, строка без счета и не JSON")
+    void uploadNdjsonTest() {
+        upload(null, StatementFormat.NDJSON,
+                "{\"accountNumber\":2,\"amount\":10.5,\"purpose\":\"rent\"}\n{\"amount\":1}\nnot json\n");
+
+        Assertions.assertNotNull(row(1).transferId());
+        Assertions.assertEquals("rent", transfers.get(0).getPurpose());
+        Assertions.assertEquals("Не указан номер счета получателя", row(2).error());
+        Assertions.assertEquals("Строка не является объектом JSON перевода", row(3).error());
+        Assertions.assertEquals(TransferBatchStatus.COMPLETED, batch.getStatus());
+    }
+
+    @Test
+    @DisplayName("повтор с ключом завершенного пакета возвращает его без чтения тела")
+    void uploadCompletedKeyTest() {
+        final TransferBatchEntity completed = new TransferBatchEntity(7L, 1L, "salary-06",
+                TransferBatchStatus.COMPLETED, 2, 2, 0, OffsetDateTime.now(), OffsetDateTime.now());
+        Mockito.doReturn(Optional.of(completed)).when(batchRepository)
+                .findByAccountDetailsIdAndIdempotencyKey(1L, "salary-06");
+
+        upload("salary-06", StatementFormat.CSV, "2,10\n3,20\n");
+
+        Mockito.verify(mapper).toDto(completed);
+        Mockito.verifyNoInteractions(rowRepository, insertRepository);
+        Mockito.verify(batchRepository, Mockito.never()).save(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("повтор с ключом прерванного пакета продолжает после последней записанной строки")
+    void uploadResumeKeyTest() {
+        final TransferBatchEntity failed = new TransferBatchEntity(7L, 1L, "salary-06",
+                TransferBatchStatus.FAILED, 1, 1, 0, OffsetDateTime.now(), OffsetDateTime.now());
+        Mockito.doReturn(Optional.of(failed)).when(batchRepository)
+                .findByAccountDetailsIdAndIdempotencyKey(1L, "salary-06");
+        Mockito.doReturn(new TransferBatchProgress(2, 1, 1)).when(rowRepository).findProgress(7L);
+
+        upload("salary-06", StatementFormat.CSV, "2,10\nbad\n3,20\n");
+
+        Assertions.assertEquals(List.of(3), rows.stream().map(TransferBatchRow::lineNo).toList());
+        Assertions.assertEquals(1, transfers.size());
+        Assertions.assertEquals(2, failed.getAcceptedRows());
+        Assertions.assertEquals(1, failed.getRejectedRows());
+        Assertions.assertEquals(3, failed.getTotalRows());
+        Assertions.assertEquals(TransferBatchStatus.COMPLETED, failed.getStatus());
+    }
+
+    @Test
+    @DisplayName("слишком длинный ключ идемпотентности, негативный сценарий")
+    void uploadLongKeyNegativeTest() {
+        Assertions.assertThrows(ValidationException.class,
+                () -> upload("k".repeat(65), StatementFormat.CSV, "2,10\n"));
+        Mockito.verifyNoInteractions(batchRepository);
+    }
+}
@@ -0,0 +1,135 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.transfer.entity.AccountTransferEntity;
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.repository.TransferOutboxRepository;
+import com.bank.transfer.service.RecentTransferService;
+import com.bank.transfer.service.TransferTotalsService;
+import com.bank.transfer.service.common.TransferCreatedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@ExtendWith(MockitoExtension.class)
+public class TransferBatchWriterImplTest {
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private TransferOutboxRepository outboxRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private TransferTotalsService totalsService;
+    @Mock
+    private RecentTransferService recentTransferService;
+    @Mock
+    private EntityManager entityManager;
+
+    private final AtomicLong ids = new AtomicLong();
+    private TransferBatchWriterImpl batchWriter;
+
+    private void start(boolean enabled) {
+        batchWriter = new TransferBatchWriterImpl(transactionTemplate, outboxRepository, eventPublisher,
+                totalsService, recentTransferService, enabled, Duration.ofMillis(200), 3, 1, 10);
+        ReflectionTestUtils.setField(batchWriter, "entityManager", entityManager);
+        batchWriter.start();
+    }
+
+    private void inTransaction() {
+        Mockito.doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(ArgumentMatchers.any());
+        Mockito.doAnswer(invocation -> {
+            invocation.<AccountTransferEntity>getArgument(0).setId(ids.incrementAndGet());
+            return null;
+        }).when(entityManager).persist(ArgumentMatchers.any());
+    }
+
+    private static AccountTransferEntity transfer(long accountDetailsId) {
+        AccountTransferEntity transfer = new AccountTransferEntity();
+        transfer.setAccountNumber(100L);
+        transfer.setAmount(BigDecimal.TEN);
+        transfer.setAccountDetailsId(accountDetailsId);
+        return transfer;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        batchWriter.stop();
+    }
+
+    @Test
+    @DisplayName("одновременные переводы записываются одной транзакцией с событиями outbox")
+    void submitBatchTest() throws Exception {
+        start(true);
+        inTransaction();
+
+        List<CompletableFuture<AccountTransferEntity>> futures = List.of(batchWriter.submit(transfer(1L)),
+                batchWriter.submit(transfer(2L)), batchWriter.submit(transfer(3L)));
+
+        for (CompletableFuture<AccountTransferEntity> future : futures) {
+            AccountTransferEntity transfer = future.get(5, TimeUnit.SECONDS);
+            Assertions.assertNotNull(transfer.getId());
+            Assertions.assertEquals(TransferStatus.NEW, transfer.getStatus());
+        }
+        Mockito.verify(transactionTemplate).executeWithoutResult(ArgumentMatchers.any());
+        Mockito.verify(outboxRepository).appendAll(ArgumentMatchers.argThat(transfers -> transfers.size() == 3),
+                ArgumentMatchers.eq(TransferStatus.NEW));
+        Mockito.verify(eventPublisher, Mockito.times(3)).publishEvent(ArgumentMatchers.any(TransferCreatedEvent.class));
+    }
+
+    @Test
+    @DisplayName("ошибка пачки: переводы повторяются по одному, ошибка достается только своему запросу")
+    void submitBatchFailureTest() throws Exception {
+        start(true);
+        inTransaction();
+        AccountTransferEntity broken = transfer(2L);
+        Mockito.doThrow(new PersistenceException("constraint")).when(entityManager).persist(broken);
+
+        CompletableFuture<AccountTransferEntity> first = batchWriter.submit(transfer(1L));
+        CompletableFuture<AccountTransferEntity> failed = batchWriter.submit(broken);
+        CompletableFuture<AccountTransferEntity> third = batchWriter.submit(transfer(3L));
+
+        Assertions.assertNotNull(first.get(5, TimeUnit.SECONDS).getId());
+        Assertions.assertNotNull(third.get(5, TimeUnit.SECONDS).getId());
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                () -> failed.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(PersistenceException.class, e.getCause());
+        Assertions.assertNull(broken.getId());
+    }
+
+    @Test
+    @DisplayName("групповая запись выключена, запрос отклоняется")
+    void submitDisabledTest() {
+        start(false);
+
+        CompletableFuture<AccountTransferEntity> future = batchWriter.submit(transfer(1L));
+
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, future::get);
+        Assertions.assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        Mockito.verifyNoInteractions(transactionTemplate);
+    }
+}
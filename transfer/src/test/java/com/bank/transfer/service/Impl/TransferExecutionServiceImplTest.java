@@ -0,0 +1,237 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.transfer.client.AccountClient;
+import com.bank.transfer.dto.LedgerEntryDto;
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.TransferOrder;
+import com.bank.transfer.repository.TransferStatusRepository;
+import com.bank.transfer.service.PayeeResolver;
+import com.bank.transfer.service.PhoneAccountResolver;
+import com.bank.transfer.service.common.TransferCreatedEvent;
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityNotFoundException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+public class TransferExecutionServiceImplTest {
+    @Mock
+    private TransferStatusRepository statusRepository;
+    @Mock
+    private PayeeResolver payeeResolver;
+    @Mock
+    private PhoneAccountResolver phoneAccountResolver;
+    @Mock
+    private AccountClient accountClient;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @InjectMocks
+    private TransferExecutionServiceImpl executionService;
+
+    private final TransferOrder order = new TransferOrder(TransferType.ACCOUNT, 5L, 1L, 100L, BigDecimal.TEN,
+            OffsetDateTime.parse("2026-01-01T10:00:00Z"));
+
+    @Test
+    @DisplayName("исполнение перевода: захват, проводка с постоянным ключом, COMPLETED")
+    void executePositiveTest() {
+        Mockito.doReturn(Optional.of(order)).when(statusRepository).claim(TransferType.ACCOUNT, 5L);
+        Mockito.doReturn(2L).when(payeeResolver).resolve(TransferType.ACCOUNT, 100L);
+
+        executionService.execute(TransferType.ACCOUNT, 5L);
+
+        Mockito.verify(accountClient).post(new LedgerEntryDto(TransferType.ACCOUNT.entryKey(5L), 1L, 2L,
+                BigDecimal.TEN));
+        Mockito.verify(statusRepository).finish(TransferType.ACCOUNT, 5L, TransferStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("перевод уже взят другим исполнителем, проводки нет")
+    void executeNotClaimedTest() {
+        Mockito.doReturn(Optional.empty()).when(statusRepository).claim(TransferType.ACCOUNT, 5L);
+
+        executionService.execute(TransferType.ACCOUNT, 5L);
+
+        Mockito.verifyNoInteractions(accountClient, payeeResolver);
+        Mockito.verify(statusRepository, Mockito.never()).finish(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("получатель не найден, FAILED")
+    void executePayeeNotFoundTest() {
+        Mockito.doReturn(Optional.of(order)).when(statusRepository).claim(TransferType.ACCOUNT, 5L);
+        Mockito.doThrow(new EntityNotFoundException("нет счета")).when(payeeResolver)
+                .resolve(TransferType.ACCOUNT, 100L);
+
+        executionService.execute(TransferType.ACCOUNT, 5L);
+
+        Mockito.verifyNoInteractions(accountClient);
+        Mockito.verify(statusRepository).finish(TransferType.ACCOUNT, 5L, TransferStatus.FAILED);
+    }
+
+    @Test
+    @DisplayName("account-app отклонил проводку, FAILED")
+    void executeRejectedTest() {
+        Mockito.doReturn(Optional.of(order)).when(statusRepository).claim(TransferType.ACCOUNT, 5L);
+        Mockito.doReturn(2L).when(payeeResolver).resolve(TransferType.ACCOUNT, 100L);
+        Mockito.doThrow(new FeignException.UnprocessableEntity("422", request(), null, Map.of()))
+                .when(accountClient).post(Mockito.any());
+
+        executionService.execute(TransferType.ACCOUNT, 5L);
+
+        Mockito.verify(statusRepository).finish(TransferType.ACCOUNT, 5L, TransferStatus.FAILED);
+    }
+
+    @Test
+    @DisplayName("account-app недоступен, перевод остается PROCESSING до восстановления")
+    void executeRetryableTest() {
+        Mockito.doReturn(Optional.of(order)).when(statusRepository).claim(TransferType.ACCOUNT, 5L);
+        Mockito.doReturn(2L).when(payeeResolver).resolve(TransferType.ACCOUNT, 100L);
+        Mockito.doThrow(new FeignException.ServiceUnavailable("503", request(), null, Map.of()))
+                .when(accountClient).post(Mockito.any());
+
+        executionService.execute(TransferType.ACCOUNT, 5L);
+
+        Mockito.verify(statusRepository, Mockito.never()).finish(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("после сбоя счет приостановлен: следующий перевод не исполняется до восстановления")
+    void parkedAccountSkipsLaterTransfersTest() throws InterruptedException {
+        startLanes();
+        Mockito.doReturn(Optional.of(order)).when(statusRepository).claim(TransferType.ACCOUNT, 5L);
+        Mockito.doReturn(2L).when(payeeResolver).resolve(TransferType.ACCOUNT, 100L);
+        Mockito.doThrow(new FeignException.ServiceUnavailable("503", request(), null, Map.of()))
+                .when(accountClient).post(Mockito.any());
+
+        executionService.onCreated(new TransferCreatedEvent(TransferType.ACCOUNT, 5L, 1L));
+        Mockito.verify(accountClient, Mockito.timeout(5000)).post(Mockito.any());
+        waitParked(1.0);
+        executionService.onCreated(new TransferCreatedEvent(TransferType.ACCOUNT, 6L, 1L));
+        Assertions.assertEquals(1, executionService.offer(List.of(new TransferCreatedEvent(TransferType.ACCOUNT,
+                7L, 1L), new TransferCreatedEvent(TransferType.ACCOUNT, 8L, 3L))));
+        executionService.stop();
+
+        Mockito.verify(statusRepository, Mockito.never()).claim(TransferType.ACCOUNT, 6L);
+        Mockito.verify(statusRepository, Mockito.never()).claim(TransferType.ACCOUNT, 7L);
+        Mockito.verify(statusRepository).claim(TransferType.ACCOUNT, 8L);
+    }
+
+    @Test
+    @DisplayName("восстановление исполняет переводы приостановленного счета по id и возобновляет счет")
+    void recoverParkedAccountTest() throws InterruptedException {
+        startLanes();
+        TransferOrder later = new TransferOrder(TransferType.ACCOUNT, 6L, 1L, 100L, BigDecimal.ONE,
+                OffsetDateTime.parse("2026-01-01T10:00:01Z"));
+        Mockito.doReturn(Optional.of(order)).when(statusRepository).claim(TransferType.ACCOUNT, 5L);
+        Mockito.doReturn(2L).when(payeeResolver).resolve(TransferType.ACCOUNT, 100L);
+        Mockito.doThrow(new FeignException.ServiceUnavailable("503", request(), null, Map.of()))
+                .doReturn(null).when(accountClient).post(Mockito.any());
+        executionService.onCreated(new TransferCreatedEvent(TransferType.ACCOUNT, 5L, 1L));
+        waitParked(1.0);
+        Mockito.doReturn(List.of(later, order)).when(statusRepository).claimAccount(TransferType.ACCOUNT, 1L, 500);
+
+        executionService.recover();
+        Mockito.verify(statusRepository, Mockito.timeout(5000)).finish(TransferType.ACCOUNT, 6L,
+                TransferStatus.COMPLETED);
+        waitParked(0.0);
+
+        InOrder inOrder = Mockito.inOrder(statusRepository);
+        inOrder.verify(statusRepository).finish(TransferType.ACCOUNT, 5L, TransferStatus.COMPLETED);
+        inOrder.verify(statusRepository).finish(TransferType.ACCOUNT, 6L, TransferStatus.COMPLETED);
+        executionService.stop();
+    }
+
+    @Test
+    @DisplayName("восстановление исполняет переводы счета разных видов в порядке создания")
+    void recoverParkedCreationOrderTest() throws InterruptedException {
+        startLanes();
+        TransferOrder earlierCard = new TransferOrder(TransferType.CARD, 9L, 1L, 200L, BigDecimal.ONE,
+                OffsetDateTime.parse("2026-01-01T09:59:59Z"));
+        Mockito.doReturn(Optional.of(order)).when(statusRepository).claim(TransferType.ACCOUNT, 5L);
+        Mockito.doReturn(2L).when(payeeResolver).resolve(TransferType.ACCOUNT, 100L);
+        Mockito.doReturn(3L).when(payeeResolver).resolve(TransferType.CARD, 200L);
+        Mockito.doThrow(new FeignException.ServiceUnavailable("503", request(), null, Map.of()))
+                .doReturn(null).when(accountClient).post(Mockito.any());
+        executionService.onCreated(new TransferCreatedEvent(TransferType.ACCOUNT, 5L, 1L));
+        waitParked(1.0);
+        Mockito.doReturn(List.of(order)).when(statusRepository).claimAccount(TransferType.ACCOUNT, 1L, 500);
+        Mockito.doReturn(List.of(earlierCard)).when(statusRepository).claimAccount(TransferType.CARD, 1L, 500);
+
+        executionService.recover();
+        waitParked(0.0);
+
+        InOrder inOrder = Mockito.inOrder(statusRepository);
+        inOrder.verify(statusRepository).finish(TransferType.CARD, 9L, TransferStatus.COMPLETED);
+        inOrder.verify(statusRepository).finish(TransferType.ACCOUNT, 5L, TransferStatus.COMPLETED);
+        executionService.stop();
+    }
+
+    @Test
+    @DisplayName("следующая пачка приостановленного счета берется сразу после исполнения предыдущей")
+    void recoverParkedNextPageTest() throws InterruptedException {
+        startLanes();
+        ReflectionTestUtils.setField(executionService, "recoveryBatchSize", 1);
+        TransferOrder later = new TransferOrder(TransferType.ACCOUNT, 6L, 1L, 100L, BigDecimal.ONE,
+                OffsetDateTime.parse("2026-01-01T10:00:01Z"));
+        Mockito.doReturn(Optional.of(order)).when(statusRepository).claim(TransferType.ACCOUNT, 5L);
+        Mockito.doReturn(2L).when(payeeResolver).resolve(TransferType.ACCOUNT, 100L);
+        Mockito.doThrow(new FeignException.ServiceUnavailable("503", request(), null, Map.of()))
+                .doReturn(null).when(accountClient).post(Mockito.any());
+        executionService.onCreated(new TransferCreatedEvent(TransferType.ACCOUNT, 5L, 1L));
+        waitParked(1.0);
+        Mockito.doReturn(List.of(order), List.of(later), List.of()).when(statusRepository)
+                .claimAccount(TransferType.ACCOUNT, 1L, 1);
+
+        executionService.recover();
+        waitParked(0.0);
+
+        InOrder inOrder = Mockito.inOrder(statusRepository);
+        inOrder.verify(statusRepository).finish(TransferType.ACCOUNT, 5L, TransferStatus.COMPLETED);
+        inOrder.verify(statusRepository).finish(TransferType.ACCOUNT, 6L, TransferStatus.COMPLETED);
+        Mockito.verify(statusRepository, Mockito.times(3)).claimAccount(TransferType.ACCOUNT, 1L, 1);
+        executionService.stop();
+    }
+
+    private void startLanes() {
+        ReflectionTestUtils.setField(executionService, "poolSize", 1);
+        ReflectionTestUtils.setField(executionService, "laneCapacity", 10);
+        ReflectionTestUtils.setField(executionService, "offerTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(executionService, "staleAfter", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(executionService, "recoveryBatchSize", 500);
+        executionService.start();
+    }
+
+    private void waitParked(double expected) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("transfer.execution.parked").gauge().value() != expected &&
+                System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        Assertions.assertEquals(expected, meterRegistry.get("transfer.execution.parked").gauge().value());
+    }
+
+    private static Request request() {
+        return Request.create(Request.HttpMethod.POST, "/api/account/ledger/post", Map.of(), null, null, null);
+    }
+}
@@ -0,0 +1,110 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.transfer.dto.TransferTotalsDto;
+import com.bank.transfer.entity.TotalPeriod;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.TransferTotal;
+import com.bank.transfer.repository.TransferTotalRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class TransferTotalsServiceImplTest {
+    private static final ZoneId ZONE = ZoneId.of("Europe/Moscow");
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2026, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+    @Mock
+    private TransferTotalRepository repository;
+    private TransferTotalsServiceImpl transferTotalsService;
+    private LocalDate today;
+    private LocalDate month;
+
+    @BeforeEach
+    void setUp() {
+        transferTotalsService = new TransferTotalsServiceImpl(repository, ZONE, Duration.ofMinutes(1));
+        today = LocalDate.now(ZONE);
+        month = TotalPeriod.MONTH.start(today);
+        Mockito.lenient().doReturn(List.of()).when(repository).findCurrent(1L, today, month);
+        Mockito.lenient().doReturn(NOW).when(repository).now();
+    }
+
+    private TransferTotal total(TotalPeriod period, TransferType type, long cents, long count) {
+        final LocalDate start = period == TotalPeriod.DAY ? today : month;
+        return new TransferTotal(1L, period, start.toEpochDay(), type, cents, count);
+    }
+
+    @Test
+    @DisplayName("суммы загружаются из таблицы и растут на переводы этого экземпляра")
+    void addPositiveTest() {
+        Mockito.doReturn(List.of(total(TotalPeriod.MONTH, TransferType.CARD, 5000L, 2L)))
+                .when(repository).findCurrent(1L, today, month);
+
+        transferTotalsService.add(TransferType.ACCOUNT, 1L, new BigDecimal("10.50"), 1);
+
+        TransferTotalsDto totals = transferTotalsService.findByAccount(1L);
+        Assertions.assertEquals(new BigDecimal("10.50"), totals.getDayAmount());
+        Assertions.assertEquals(1L, totals.getDayCount());
+        Assertions.assertEquals(new BigDecimal("60.50"), totals.getMonthAmount());
+        Assertions.assertEquals(3L, totals.getMonthCount());
+        Assertions.assertEquals(new BigDecimal("50.00"), totals.getMonthAmountByType().get(TransferType.CARD));
+    }
+
+    @Test
+    @DisplayName("записанные приращения заменяются итогом таблицы с переводами других экземпляров")
+    void checkpointMergesFlushedTest() {
+        transferTotalsService.add(TransferType.ACCOUNT, 1L, BigDecimal.TEN, 1);
+        Mockito.doReturn(List.of(total(TotalPeriod.DAY, TransferType.ACCOUNT, 3000L, 3L),
+                        total(TotalPeriod.MONTH, TransferType.ACCOUNT, 3000L, 3L)))
+                .when(repository).findUpdatedSince(ArgumentMatchers.any(), ArgumentMatchers.eq(today),
+                        ArgumentMatchers.eq(month));
+
+        transferTotalsService.checkpoint();
+
+        Mockito.verify(repository).addAll(ArgumentMatchers.argThat(batch -> batch.size() == 2));
+        Assertions.assertEquals(3000L, transferTotalsService.getTotalCents(1L, TotalPeriod.DAY));
+        Assertions.assertEquals(3L, transferTotalsService.findByAccount(1L).getMonthCount());
+    }
+
+    @Test
+    @DisplayName("незаписанное приращение прибавляется к итогу таблицы, негативный сценарий записи")
+    void checkpointMergesPendingNegativeTest() {
+        transferTotalsService.add(TransferType.PHONE, 1L, BigDecimal.ONE, 1);
+        Mockito.doThrow(new IllegalStateException("db")).when(repository).addAll(ArgumentMatchers.any());
+        Mockito.doReturn(List.of(total(TotalPeriod.DAY, TransferType.PHONE, 2000L, 1L)))
+                .when(repository).findUpdatedSince(ArgumentMatchers.any(), ArgumentMatchers.eq(today),
+                        ArgumentMatchers.eq(month));
+
+        transferTotalsService.checkpoint();
+
+        Assertions.assertEquals(2100L, transferTotalsService.getTotalCents(1L, TotalPeriod.DAY));
+        Assertions.assertEquals(2L, transferTotalsService.findByAccount(1L).getDayCount());
+    }
+
+    @Test
+    @DisplayName("следующее чтение берет строки, измененные после прошлого с запасом")
+    void checkpointRefreshSinceTest() {
+        transferTotalsService.getTotalCents(1L, TotalPeriod.DAY);
+        Mockito.doReturn(List.of()).when(repository).findUpdatedSince(ArgumentMatchers.any(),
+                ArgumentMatchers.eq(today), ArgumentMatchers.eq(month));
+
+        transferTotalsService.checkpoint();
+        transferTotalsService.checkpoint();
+
+        Mockito.verify(repository).findUpdatedSince(NOW.minusMinutes(1), today, month);
+        Mockito.verify(repository, Mockito.never()).addAll(ArgumentMatchers.any());
+    }
+}
@@ -0,0 +1,84 @@
+package com.bank.transfer.service.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Переводы в секунду через полосы исполнения: одна операция - пачка переводов по accounts счетам,
+ * ожидание исполнения всей пачки. Вызов account-app моделируется ожиданием callMicros без нагрузки на CPU.
+ * При одном счете пачка идет последовательно в одной полосе при любом числе полос,
+ * при многих счетах пропускная способность растет с числом полос.
+ * Запуск: main из тестового classpath модуля.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeyedLaneExecutorBenchmark {
+
+    private static final int BATCH = 256;
+
+    @Param({"1", "4", "16", "64"})
+    private int lanes;
+
+    @Param({"1", "1000"})
+    private int accounts;
+
+    @Param({"100"})
+    private long callMicros;
+
+    private KeyedLaneExecutor executor;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = new KeyedLaneExecutor("bench-lane-", lanes, BATCH, Duration.ofSeconds(10));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.shutdown(Duration.ofSeconds(10));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void execute() throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(BATCH);
+        final long callNanos = TimeUnit.MICROSECONDS.toNanos(callMicros);
+        for (int i = 0; i < BATCH; i++) {
+            executor.execute(next++ % accounts, () -> {
+                LockSupport.parkNanos(callNanos);
+                done.countDown();
+            });
+        }
+        done.await();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(KeyedLaneExecutorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,111 @@
+package com.bank.transfer.service.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class KeyedLaneExecutorTest {
+
+    @Test
+    @DisplayName("задачи одного ключа выполняются по порядку, ошибка задачи не останавливает полосу")
+    void executeOrderTest() throws InterruptedException {
+        KeyedLaneExecutor executor = new KeyedLaneExecutor("test-lane-", 4, 100, Duration.ofSeconds(1));
+        List<Integer> done = new CopyOnWriteArrayList<>();
+
+        for (int i = 0; i < 50; i++) {
+            final int task = i;
+            executor.execute(7L, () -> {
+                if (task == 10) {
+                    throw new IllegalStateException("task");
+                }
+                done.add(task);
+            });
+        }
+
+        Assertions.assertTrue(executor.shutdown(Duration.ofSeconds(5)));
+        Assertions.assertEquals(49, done.size());
+        for (int i = 1; i < done.size(); i++) {
+            Assertions.assertTrue(done.get(i - 1) < done.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("медленный ключ не задерживает ключ другой полосы")
+    void executeParallelTest() throws InterruptedException {
+        KeyedLaneExecutor executor = new KeyedLaneExecutor("test-lane-", 2, 10, Duration.ofSeconds(1));
+        long other = 2L;
+        while (lane(executor, other) == lane(executor, 1L)) {
+            other++;
+        }
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch otherDone = new CountDownLatch(1);
+
+        executor.execute(1L, () -> await(release));
+        executor.execute(other, otherDone::countDown);
+
+        Assertions.assertTrue(otherDone.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        Assertions.assertTrue(executor.shutdown(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    @DisplayName("заполненная полоса отклоняет задачу, негативный сценарий")
+    void executeFullNegativeTest() throws InterruptedException {
+        KeyedLaneExecutor executor = new KeyedLaneExecutor("test-lane-", 1, 1, Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(1L, () -> {
+            started.countDown();
+            await(release);
+        });
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(1L, () -> { });
+
+        Assertions.assertThrows(RejectedExecutionException.class, () -> executor.execute(1L, () -> { }));
+        Assertions.assertFalse(executor.tryExecute(1L, () -> { }));
+        release.countDown();
+        Assertions.assertTrue(executor.shutdown(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    @DisplayName("после остановки задачи отклоняются, поставленные выполняются")
+    void shutdownTest() throws InterruptedException {
+        KeyedLaneExecutor executor = new KeyedLaneExecutor("test-lane-", 1, 10, Duration.ofSeconds(1));
+        CountDownLatch done = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            executor.execute(1L, done::countDown);
+        }
+
+        Assertions.assertTrue(executor.shutdown(Duration.ofSeconds(5)));
+        Assertions.assertEquals(0L, done.getCount());
+        Assertions.assertThrows(RejectedExecutionException.class, () -> executor.execute(1L, () -> { }));
+        Assertions.assertFalse(executor.tryExecute(1L, () -> { }));
+    }
+
+    @Test
+    @DisplayName("неположительное количество полос, негативный сценарий")
+    void constructorNegativeTest() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new KeyedLaneExecutor("test-lane-", 0, 10, Duration.ofSeconds(1)));
+    }
+
+    private static int lane(KeyedLaneExecutor executor, long key) {
+        final long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) Long.remainderUnsigned(mixed ^ (mixed >>> 32), executor.getLanes());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
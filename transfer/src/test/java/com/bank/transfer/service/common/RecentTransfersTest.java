@@ -0,0 +1,68 @@
+package com.bank.transfer.service.common;
+
+import com.bank.transfer.entity.TransferStatus;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.StatementLine;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+public class RecentTransfersTest {
+    private static final OffsetDateTime START = OffsetDateTime.of(2026, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private static StatementLine line(long id, TransferStatus status, int minute) {
+        return new StatementLine(TransferType.ACCOUNT, id, 2L, BigDecimal.TEN, "rent", status,
+                START.plusMinutes(minute));
+    }
+
+    @Test
+    @DisplayName("новый перевод затирает самый старый, снимок - новые первыми")
+    void addOverwritesOldestTest() {
+        RecentTransfers recent = new RecentTransfers(2, List.of(line(2L, TransferStatus.NEW, 2),
+                line(1L, TransferStatus.NEW, 1)));
+
+        recent.add(line(3L, TransferStatus.NEW, 3));
+
+        Assertions.assertEquals(List.of(3L, 2L), recent.snapshot().stream().map(StatementLine::id).toList());
+    }
+
+    @Test
+    @DisplayName("загрузка берет только capacity самых новых переводов")
+    void constructorCapacityTest() {
+        RecentTransfers recent = new RecentTransfers(2, List.of(line(3L, TransferStatus.NEW, 3),
+                line(2L, TransferStatus.NEW, 2), line(1L, TransferStatus.NEW, 1)));
+
+        Assertions.assertEquals(List.of(3L, 2L), recent.snapshot().stream().map(StatementLine::id).toList());
+    }
+
+    @Test
+    @DisplayName("повторная запись перевода заменяет строку на месте и сохраняет время создания")
+    void addReplacesTest() {
+        RecentTransfers recent = new RecentTransfers(3, List.of(line(1L, TransferStatus.NEW, 1)));
+
+        recent.add(new StatementLine(TransferType.ACCOUNT, 1L, 5L, BigDecimal.ONE, "gift", TransferStatus.NEW,
+                START.plusMinutes(9)));
+
+        List<StatementLine> lines = recent.snapshot();
+        Assertions.assertEquals(1, lines.size());
+        Assertions.assertEquals(BigDecimal.ONE, lines.get(0).amount());
+        Assertions.assertEquals(START.plusMinutes(1), lines.get(0).createdAt());
+    }
+
+    @Test
+    @DisplayName("статус меняется только вперед, перевод другого вида с тем же id не затрагивается")
+    void advanceTest() {
+        RecentTransfers recent = new RecentTransfers(3, List.of(line(1L, TransferStatus.NEW, 1)));
+
+        recent.advance(TransferType.ACCOUNT, 1L, TransferStatus.COMPLETED);
+        recent.advance(TransferType.ACCOUNT, 1L, TransferStatus.PROCESSING);
+        recent.advance(TransferType.CARD, 1L, TransferStatus.FAILED);
+
+        Assertions.assertEquals(TransferStatus.COMPLETED, recent.snapshot().get(0).status());
+    }
+}
@@ -0,0 +1,27 @@
+package com.bank.transfer.service.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+public class RequestFingerprintTest {
+
+    @Test
+    @DisplayName("одинаковые поля дают одинаковый отпечаток, сумма без незначащих нулей")
+    void samePositiveTest() {
+        String fingerprint = RequestFingerprint.of(100L, new BigDecimal("10.00"), "зарплата", 1L);
+
+        Assertions.assertEquals(64, fingerprint.length());
+        Assertions.assertEquals(fingerprint, RequestFingerprint.of(100L, BigDecimal.TEN, "зарплата", 1L));
+    }
+
+    @Test
+    @DisplayName("границы полей не склеиваются")
+    void fieldBoundariesTest() {
+        Assertions.assertNotEquals(RequestFingerprint.of("ab", "c"), RequestFingerprint.of("a", "bc"));
+        Assertions.assertNotEquals(RequestFingerprint.of(null, "a"), RequestFingerprint.of("a", null));
+        Assertions.assertNotEquals(RequestFingerprint.of((Object) null), RequestFingerprint.of(""));
+    }
+}
@@ -0,0 +1,40 @@
+package com.bank.transfer.service.common;
+
+import com.bank.transfer.repository.ScheduledRun;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class ScheduledTransferWheelTest {
+    private final ScheduledTransferWheel wheel = new ScheduledTransferWheel(Duration.ofMillis(10));
+
+    @Test
+    @DisplayName("просроченное исполнение наступает на следующем шаге, будущее остается в колесе")
+    void advanceTest() throws InterruptedException {
+        ScheduledRun overdue = new ScheduledRun(1L, OffsetDateTime.now().minusMinutes(5));
+        ScheduledRun future = new ScheduledRun(2L, OffsetDateTime.now().plusHours(1));
+        wheel.schedule(overdue);
+        wheel.schedule(future);
+
+        TimeUnit.MILLISECONDS.sleep(50);
+
+        Assertions.assertEquals(List.of(overdue), wheel.advance());
+        Assertions.assertEquals(List.of(), wheel.advance());
+    }
+
+    @Test
+    @DisplayName("исполнение не наступает раньше своего срока")
+    void advanceNotDueTest() throws InterruptedException {
+        ScheduledRun run = new ScheduledRun(1L, OffsetDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(200)));
+        wheel.schedule(run);
+
+        Assertions.assertEquals(List.of(), wheel.advance());
+        TimeUnit.MILLISECONDS.sleep(300);
+        Assertions.assertEquals(List.of(run), wheel.advance());
+    }
+}
@@ -0,0 +1,97 @@
+package com.bank.transfer.service.common;
+
+import com.bank.transfer.entity.TariffEntity;
+import com.bank.transfer.entity.TransferChannel;
+import com.bank.transfer.entity.TransferType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Расчет комиссии по {@link TariffTable}: bands диапазонов на каждую пару вида перевода и канала,
+ * случайные суммы до миллиона рублей. feeCents - путь в копейках, fee - с переводом BigDecimal туда и обратно,
+ * как при создании перевода.
+ * Запуск: main из тестового classpath модуля.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TariffTableBenchmark {
+
+    private static final int AMOUNTS = 1024;
+
+    private static final long MAX_CENTS = 100_000_000L;
+
+    private static final TransferType[] TYPES = TransferType.values();
+
+    private static final TransferChannel[] CHANNELS = TransferChannel.values();
+
+    @Param({"1", "8", "64"})
+    private int bands;
+
+    private TariffTable table;
+    private long[] cents;
+    private BigDecimal[] amounts;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final List<TariffEntity> tariffs = new ArrayList<>();
+        for (TransferType type : TYPES) {
+            for (TransferChannel channel : CHANNELS) {
+                for (int i = 0; i < bands; i++) {
+                    tariffs.add(new TariffEntity(null, type, channel,
+                            BigDecimal.valueOf(MAX_CENTS / bands * i, 2), BigDecimal.TEN, 10 + i,
+                            BigDecimal.ONE, BigDecimal.valueOf(1000L)));
+                }
+            }
+        }
+        table = TariffTable.compile(tariffs);
+        final SplittableRandom random = new SplittableRandom(42L);
+        cents = new long[AMOUNTS];
+        amounts = new BigDecimal[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            cents[i] = random.nextLong(MAX_CENTS);
+            amounts[i] = BigDecimal.valueOf(cents[i], 2);
+        }
+    }
+
+    @Benchmark
+    public long feeCents() {
+        final int i = next++ & (AMOUNTS - 1);
+        return table.feeCents(TYPES[i % TYPES.length], CHANNELS[i % CHANNELS.length], cents[i]);
+    }
+
+    @Benchmark
+    public BigDecimal fee() {
+        final int i = next++ & (AMOUNTS - 1);
+        return table.fee(TYPES[i % TYPES.length], CHANNELS[i % CHANNELS.length], amounts[i]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TariffTableBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
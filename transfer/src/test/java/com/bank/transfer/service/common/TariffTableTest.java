@@ -0,0 +1,68 @@
+package com.bank.transfer.service.common;
+
+import com.bank.common.exception.ValidationException;
+import com.bank.transfer.entity.TariffEntity;
+import com.bank.transfer.entity.TransferChannel;
+import com.bank.transfer.entity.TransferType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class TariffTableTest {
+
+    private static TariffEntity tariff(String from, String fixed, int rateBp, String min, String max) {
+        return new TariffEntity(null, TransferType.CARD, TransferChannel.API, new BigDecimal(from),
+                new BigDecimal(fixed), rateBp, min == null ? null : new BigDecimal(min),
+                max == null ? null : new BigDecimal(max));
+    }
+
+    private final TariffTable table = TariffTable.compile(List.of(
+            tariff("10000.00", "0", 50, "30.00", "500.00"),
+            tariff("100.00", "10.00", 100, null, null),
+            tariff("1000.00", "0", 150, "25.00", null)));
+
+    @Test
+    @DisplayName("диапазон суммы ищется по нижней границе, комиссия - фиксированная часть плюс процент")
+    void feeCentsTest() {
+        Assertions.assertEquals(0L, table.feeCents(TransferType.CARD, TransferChannel.API, 9999L));
+        Assertions.assertEquals(1100L, table.feeCents(TransferType.CARD, TransferChannel.API, 10000L));
+        Assertions.assertEquals(2000L, table.feeCents(TransferType.CARD, TransferChannel.API, 99999L));
+        Assertions.assertEquals(2500L, table.feeCents(TransferType.CARD, TransferChannel.API, 100000L));
+        Assertions.assertEquals(2500L, table.feeCents(TransferType.CARD, TransferChannel.API, 150000L));
+        Assertions.assertEquals(3000L, table.feeCents(TransferType.CARD, TransferChannel.API, 200000L));
+        Assertions.assertEquals(50000L, table.feeCents(TransferType.CARD, TransferChannel.API, 1000000000L));
+    }
+
+    @Test
+    @DisplayName("вид и канал без тарифа - без комиссии")
+    void feeCentsNoTariffTest() {
+        Assertions.assertEquals(0L, table.feeCents(TransferType.CARD, TransferChannel.MOBILE, 100000L));
+        Assertions.assertEquals(0L, table.feeCents(TransferType.PHONE, TransferChannel.API, 100000L));
+        Assertions.assertEquals(3, table.size());
+    }
+
+    @Test
+    @DisplayName("процент округляется до копейки, сумма - до копейки по банковскому правилу")
+    void feeTest() {
+        Assertions.assertEquals(new BigDecimal("11.23"),
+                table.fee(TransferType.CARD, TransferChannel.API, new BigDecimal("123.4")));
+        Assertions.assertEquals(new BigDecimal("11.01"),
+                table.fee(TransferType.CARD, TransferChannel.API, new BigDecimal("100.505")));
+    }
+
+    @Test
+    @DisplayName("повтор нижней границы, отрицательный процент и минимум больше максимума, негативный сценарий")
+    void compileNegativeTest() {
+        Assertions.assertThrows(ValidationException.class, () -> TariffTable.compile(List.of(
+                tariff("100.00", "0", 10, null, null), tariff("100.0", "1.00", 10, null, null))));
+        Assertions.assertThrows(ValidationException.class, () -> TariffTable.compile(List.of(
+                tariff("100.00", "0", -1, null, null))));
+        Assertions.assertThrows(ValidationException.class, () -> TariffTable.compile(List.of(
+                tariff("100.00", "0", 10, "5.00", "1.00"))));
+        Assertions.assertThrows(ValidationException.class, () -> TariffTable.compile(List.of(
+                new TariffEntity(null, TransferType.CARD, null, BigDecimal.ONE, BigDecimal.ONE, 1, null, null))));
+    }
+}
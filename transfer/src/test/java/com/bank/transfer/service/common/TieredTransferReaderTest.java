@@ -0,0 +1,90 @@
+package com.bank.transfer.service.common;
+
+import com.bank.transfer.entity.AccountTransferEntity;
+import com.bank.transfer.entity.Transfer;
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.AccountTransferRepository;
+import com.bank.transfer.repository.TransferArchiveRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+public class TieredTransferReaderTest {
+    @Mock
+    private TransferArchiveRepository archiveRepository;
+    @Mock
+    private AccountTransferRepository repository;
+    @InjectMocks
+    private TieredTransferReader reader;
+
+    private AccountTransferEntity transfer(Long id) {
+        final Transfer transfer = TransferType.ACCOUNT.newTransfer(2L, BigDecimal.TEN, "rent", 1L);
+        transfer.setId(id);
+        return (AccountTransferEntity) transfer;
+    }
+
+    @Test
+    @DisplayName("перевод из рабочей таблицы, архив не читается")
+    void findByIdPositiveTest() {
+        AccountTransferEntity transfer = transfer(1L);
+        Mockito.doReturn(Optional.of(transfer)).when(repository).findById(1L);
+
+        Assertions.assertEquals(Optional.of(transfer), reader.findById(repository, TransferType.ACCOUNT, 1L));
+        Mockito.verifyNoInteractions(archiveRepository);
+    }
+
+    @Test
+    @DisplayName("промах рабочей таблицы читается из архива")
+    void findByIdArchiveTest() {
+        AccountTransferEntity archived = transfer(1L);
+        Mockito.doReturn(Optional.empty()).when(repository).findById(1L);
+        Mockito.doReturn(List.of(archived)).when(archiveRepository).findAllById(TransferType.ACCOUNT, List.of(1L));
+
+        Assertions.assertEquals(Optional.of(archived), reader.findById(repository, TransferType.ACCOUNT, 1L));
+    }
+
+    @Test
+    @DisplayName("перевода нет ни в таблице, ни в архиве, негативный сценарий")
+    void findByIdNegativeTest() {
+        Mockito.doReturn(Optional.empty()).when(repository).findById(1L);
+
+        Assertions.assertTrue(reader.findById(repository, TransferType.ACCOUNT, 1L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("в архиве ищутся только id, не найденные в рабочей таблице, без повторов")
+    void findAllByIdTest() {
+        AccountTransferEntity fresh = transfer(1L);
+        AccountTransferEntity archived = transfer(2L);
+        Mockito.doReturn(List.of(fresh)).when(repository).findAllById(List.of(1L, 2L, 3L, 2L));
+        Mockito.doReturn(List.of(archived)).when(archiveRepository).findAllById(TransferType.ACCOUNT,
+                List.of(2L, 3L));
+
+        Map<Long, AccountTransferEntity> found = reader.findAllById(repository, TransferType.ACCOUNT,
+                List.of(1L, 2L, 3L, 2L));
+
+        Assertions.assertEquals(Map.of(1L, fresh, 2L, archived), found);
+    }
+
+    @Test
+    @DisplayName("все переводы в рабочей таблице, архив не читается")
+    void findAllByIdNoArchiveTest() {
+        Mockito.doReturn(List.of(transfer(1L))).when(repository).findAllById(List.of(1L));
+
+        Assertions.assertEquals(1, reader.findAllById(repository, TransferType.ACCOUNT, List.of(1L)).size());
+        Mockito.verify(archiveRepository, Mockito.never()).findAllById(ArgumentMatchers.any(),
+                ArgumentMatchers.any());
+    }
+}
@@ -0,0 +1,65 @@
+package com.bank.transfer.service.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketLimiterTest {
+    private static final long MILLIS = 1_000_000L;
+
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(10, 3);
+
+    @Test
+    @DisplayName("всплеск в пределах емкости пропускается, сверх - ожидание до следующего токена")
+    void tryAcquireBurstTest() {
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(0L, limiter.tryAcquire(1L, 0L));
+        }
+        Assertions.assertEquals(100 * MILLIS, limiter.tryAcquire(1L, 0L));
+        Assertions.assertEquals(40 * MILLIS, limiter.tryAcquire(1L, 60 * MILLIS));
+        Assertions.assertEquals(0L, limiter.tryAcquire(1L, 100 * MILLIS));
+    }
+
+    @Test
+    @DisplayName("корзины разных ключей независимы")
+    void tryAcquireKeysTest() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(1L, 0L);
+        }
+        Assertions.assertTrue(limiter.tryAcquire(1L, 0L) > 0);
+        Assertions.assertEquals(0L, limiter.tryAcquire(2L, 0L));
+    }
+
+    @Test
+    @DisplayName("возвращенный токен снова доступен")
+    void refundTest() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(1L, 0L);
+        }
+        limiter.refund(1L);
+        limiter.refund(2L);
+
+        Assertions.assertEquals(0L, limiter.tryAcquire(1L, 0L));
+        Assertions.assertTrue(limiter.tryAcquire(1L, 0L) > 0);
+    }
+
+    @Test
+    @DisplayName("полные корзины удаляются, занятые остаются")
+    void evictIdleTest() {
+        limiter.tryAcquire(1L, 0L);
+        limiter.tryAcquire(2L, 500 * MILLIS);
+
+        Assertions.assertEquals(1, limiter.evictIdle(200 * MILLIS));
+        Assertions.assertEquals(0, limiter.evictIdle(700 * MILLIS));
+    }
+
+    @Test
+    @DisplayName("без лимита запросы не ограничиваются, нулевая емкость недопустима")
+    void disabledTest() {
+        TokenBucketLimiter disabled = new TokenBucketLimiter(0, 0);
+
+        Assertions.assertFalse(disabled.isEnabled());
+        Assertions.assertEquals(0L, disabled.tryAcquire(1L, 0L));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(10, 0));
+    }
+}
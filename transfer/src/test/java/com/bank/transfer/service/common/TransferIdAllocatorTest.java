@@ -0,0 +1,35 @@
+package com.bank.transfer.service.common;
+
+import com.bank.transfer.entity.TransferType;
+import com.bank.transfer.repository.TransferInsertRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class TransferIdAllocatorTest {
+    @Mock
+    private TransferInsertRepository repository;
+    @InjectMocks
+    private TransferIdAllocator idAllocator;
+
+    @Test
+    @DisplayName("id выдаются блоками последовательности, свой блок на вид перевода")
+    void nextIdTest() {
+        Mockito.doReturn(100L, 200L).when(repository).nextBlock(TransferType.ACCOUNT);
+        Mockito.doReturn(50L).when(repository).nextBlock(TransferType.CARD);
+
+        Assertions.assertEquals(51L, idAllocator.nextId(TransferType.ACCOUNT));
+        for (long id = 52L; id <= 100L; id++) {
+            Assertions.assertEquals(id, idAllocator.nextId(TransferType.ACCOUNT));
+        }
+        Assertions.assertEquals(151L, idAllocator.nextId(TransferType.ACCOUNT));
+        Assertions.assertEquals(1L, idAllocator.nextId(TransferType.CARD));
+        Mockito.verify(repository, Mockito.times(2)).nextBlock(TransferType.ACCOUNT);
+    }
+}